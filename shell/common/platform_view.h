@@ -7,6 +7,7 @@
 
 #include <functional>
 #include <memory>
+#include <vector>
 
 #include "flow/embedded_views.h"
 #include "flutter/common/graphics/texture.h"
@@ -229,6 +230,24 @@ class PlatformView {
     virtual void OnPlatformViewMarkTextureFrameAvailable(
         int64_t texture_id) = 0;
 
+    //--------------------------------------------------------------------------
+    /// @brief      Notifies the delegate that the embedder has updated the
+    ///             contents of several textures at once. The default
+    ///             implementation notifies the delegate of each texture
+    ///             separately.
+    ///
+    /// @see        `OnPlatformViewMarkTextureFrameAvailable`
+    ///
+    /// @param[in]  texture_ids  The identifiers of the textures that have
+    ///                          been updated.
+    ///
+    virtual void OnPlatformViewMarkTextureFramesAvailable(
+        const std::vector<int64_t>& texture_ids) {
+      for (int64_t texture_id : texture_ids) {
+        OnPlatformViewMarkTextureFrameAvailable(texture_id);
+      }
+    }
+
     //--------------------------------------------------------------------------
     /// @brief      Loads the dart shared library into the dart VM. When the
     ///             dart library is loaded successfully, the dart future
@@ -663,6 +682,20 @@ class PlatformView {
   ///
   void MarkTextureFrameAvailable(int64_t texture_id);
 
+  //--------------------------------------------------------------------------
+  /// @brief      Used by the embedder to notify the rasterizer that the
+  ///             contents of several previously registered textures have
+  ///             been updated. This is equivalent to calling
+  ///             `MarkTextureFrameAvailable` for each texture, but only
+  ///             schedules one frame.
+  ///
+  /// @see        MarkTextureFrameAvailable
+  ///
+  /// @param[in]  texture_ids  The identifiers of the textures that have been
+  ///                          updated.
+  ///
+  void MarkTextureFramesAvailable(const std::vector<int64_t>& texture_ids);
+
   //--------------------------------------------------------------------------
   /// @brief      Directly invokes platform-specific APIs to compute the
   ///             locale the platform would have natively resolved to.
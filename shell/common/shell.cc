@@ -1089,6 +1089,42 @@ void Shell::OnPlatformViewMarkTextureFrameAvailable(int64_t texture_id) {
   });
 }
 
+// |PlatformView::Delegate|
+void Shell::OnPlatformViewMarkTextureFramesAvailable(
+    const std::vector<int64_t>& texture_ids) {
+  FML_DCHECK(is_setup_);
+  FML_DCHECK(task_runners_.GetPlatformTaskRunner()->RunsTasksOnCurrentThread());
+
+  if (texture_ids.empty()) {
+    return;
+  }
+
+  // Tell the rasterizer that its textures have new frames available, in a
+  // single task.
+  task_runners_.GetRasterTaskRunner()->PostTask(
+      [rasterizer = rasterizer_->GetWeakPtr(), texture_ids]() {
+        auto* registry = rasterizer->GetTextureRegistry();
+
+        if (!registry) {
+          return;
+        }
+
+        for (int64_t texture_id : texture_ids) {
+          auto texture = registry->GetTexture(texture_id);
+          if (texture) {
+            texture->MarkNewFrameAvailable();
+          }
+        }
+      });
+
+  // Schedule a single new frame without having to rebuild the layer tree.
+  task_runners_.GetUITaskRunner()->PostTask([engine = engine_->GetWeakPtr()]() {
+    if (engine) {
+      engine->ScheduleFrame(false);
+    }
+  });
+}
+
 // |PlatformView::Delegate|
 void Shell::OnPlatformViewSetNextFrameCallback(const fml::closure& closure) {
   FML_DCHECK(is_setup_);
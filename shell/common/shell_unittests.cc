@@ -1688,6 +1688,45 @@ TEST_F(ShellTest, TextureFrameMarkedAvailableAndUnregister) {
   DestroyShell(std::move(shell), std::move(task_runners));
 }
 
+TEST_F(ShellTest, TextureFramesMarkedAvailableTogether) {
+  Settings settings = CreateSettingsForFixture();
+  auto configuration = RunConfiguration::InferFromSettings(settings);
+  auto task_runner = CreateNewThread();
+  TaskRunners task_runners("test", task_runner, task_runner, task_runner,
+                           task_runner);
+  std::unique_ptr<Shell> shell =
+      CreateShell(std::move(settings), std::move(task_runners));
+
+  ASSERT_TRUE(ValidateShell(shell.get()));
+  PlatformViewNotifyCreated(shell.get());
+
+  RunEngine(shell.get(), std::move(configuration));
+
+  std::shared_ptr<fml::AutoResetWaitableEvent> first_latch =
+      std::make_shared<fml::AutoResetWaitableEvent>();
+  std::shared_ptr<fml::AutoResetWaitableEvent> second_latch =
+      std::make_shared<fml::AutoResetWaitableEvent>();
+
+  std::shared_ptr<MockTexture> first_texture =
+      std::make_shared<MockTexture>(0, first_latch);
+  std::shared_ptr<MockTexture> second_texture =
+      std::make_shared<MockTexture>(1, second_latch);
+
+  fml::TaskRunner::RunNowOrPostTask(
+      shell->GetTaskRunners().GetRasterTaskRunner(), [&]() {
+        shell->GetPlatformView()->RegisterTexture(first_texture);
+        shell->GetPlatformView()->RegisterTexture(second_texture);
+        // The unknown texture identifier is ignored.
+        shell->GetPlatformView()->MarkTextureFramesAvailable({0, 1, 2});
+      });
+  first_latch->Wait();
+  second_latch->Wait();
+
+  EXPECT_EQ(first_texture->frames_available(), 1);
+  EXPECT_EQ(second_texture->frames_available(), 1);
+  DestroyShell(std::move(shell), std::move(task_runners));
+}
+
 TEST_F(ShellTest, IsolateCanAccessPersistentIsolateData) {
   const std::string message = "dummy isolate launch data.";
 
@@ -0,0 +1,266 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+#include "flutter/shell/platform/android/android_external_image_texture_gl.h"
+
+#include <GLES/glext.h>
+#include <android/hardware_buffer.h>
+#include <dlfcn.h>
+
+#include "flutter/fml/platform/android/jni_util.h"
+#include "third_party/skia/include/gpu/GrBackendSurface.h"
+#include "third_party/skia/include/gpu/GrDirectContext.h"
+
+namespace flutter {
+
+namespace {
+
+// The functions below are only available from API level 26, so they are
+// resolved at runtime rather than linked against.
+using AHardwareBufferFromHardwareBufferProc =
+    AHardwareBuffer* (*)(JNIEnv* env, jobject hardware_buffer);
+
+struct ImageTextureProcs {
+  AHardwareBufferFromHardwareBufferProc from_hardware_buffer = nullptr;
+  PFNEGLGETNATIVECLIENTBUFFERANDROIDPROC get_native_client_buffer = nullptr;
+  PFNEGLCREATEIMAGEKHRPROC create_image = nullptr;
+  PFNEGLDESTROYIMAGEKHRPROC destroy_image = nullptr;
+  PFNGLEGLIMAGETARGETTEXTURE2DOESPROC image_target_texture = nullptr;
+  PFNEGLCREATESYNCKHRPROC create_sync = nullptr;
+  PFNEGLDESTROYSYNCKHRPROC destroy_sync = nullptr;
+  PFNEGLCLIENTWAITSYNCKHRPROC client_wait_sync = nullptr;
+
+  bool IsValid() const {
+    return from_hardware_buffer && get_native_client_buffer && create_image &&
+           destroy_image && image_target_texture && create_sync &&
+           destroy_sync && client_wait_sync;
+  }
+};
+
+const ImageTextureProcs& GetImageTextureProcs() {
+  static const ImageTextureProcs procs = [] {
+    ImageTextureProcs procs;
+    void* libandroid = ::dlopen("libandroid.so", RTLD_NOW);
+    if (libandroid != nullptr) {
+      procs.from_hardware_buffer =
+          reinterpret_cast<AHardwareBufferFromHardwareBufferProc>(
+              ::dlsym(libandroid, "AHardwareBuffer_fromHardwareBuffer"));
+    }
+    procs.get_native_client_buffer =
+        reinterpret_cast<PFNEGLGETNATIVECLIENTBUFFERANDROIDPROC>(
+            eglGetProcAddress("eglGetNativeClientBufferANDROID"));
+    procs.create_image = reinterpret_cast<PFNEGLCREATEIMAGEKHRPROC>(
+        eglGetProcAddress("eglCreateImageKHR"));
+    procs.destroy_image = reinterpret_cast<PFNEGLDESTROYIMAGEKHRPROC>(
+        eglGetProcAddress("eglDestroyImageKHR"));
+    procs.image_target_texture =
+        reinterpret_cast<PFNGLEGLIMAGETARGETTEXTURE2DOESPROC>(
+            eglGetProcAddress("glEGLImageTargetTexture2DOES"));
+    procs.create_sync = reinterpret_cast<PFNEGLCREATESYNCKHRPROC>(
+        eglGetProcAddress("eglCreateSyncKHR"));
+    procs.destroy_sync = reinterpret_cast<PFNEGLDESTROYSYNCKHRPROC>(
+        eglGetProcAddress("eglDestroySyncKHR"));
+    procs.client_wait_sync = reinterpret_cast<PFNEGLCLIENTWAITSYNCKHRPROC>(
+        eglGetProcAddress("eglClientWaitSyncKHR"));
+    if (!procs.IsValid()) {
+      FML_LOG(ERROR) << "Could not resolve the functions needed to draw "
+                        "ImageReader textures";
+    }
+    return procs;
+  }();
+  return procs;
+}
+
+// The number of replaced frames that may wait for the GPU when a new image is
+// acquired. Together with the displayed frame, this leaves the image reader
+// two buffers to skip to the latest image.
+constexpr size_t kMaxRetiredFramesBeforeAcquire = 1;
+
+}  // namespace
+
+AndroidExternalImageTextureGL::AndroidExternalImageTextureGL(
+    int64_t id,
+    const fml::jni::ScopedJavaGlobalRef<jobject>& image_texture,
+    std::shared_ptr<PlatformViewAndroidJNI> jni_facade)
+    : Texture(id), jni_facade_(jni_facade), image_texture_(image_texture) {}
+
+AndroidExternalImageTextureGL::~AndroidExternalImageTextureGL() {
+  if (!is_context_destroyed_) {
+    ReleaseAllFrames();
+    if (texture_name_ != 0) {
+      glDeleteTextures(1, &texture_name_);
+    }
+  }
+}
+
+void AndroidExternalImageTextureGL::OnGrContextCreated() {
+  is_context_destroyed_ = false;
+  texture_name_ = 0;
+  // The image bound to the previous context is gone, so bind the latest image
+  // again.
+  new_frame_ready_ = true;
+}
+
+void AndroidExternalImageTextureGL::OnGrContextDestroyed() {
+  ReleaseAllFrames();
+  if (texture_name_ != 0) {
+    glDeleteTextures(1, &texture_name_);
+    texture_name_ = 0;
+  }
+  is_context_destroyed_ = true;
+}
+
+void AndroidExternalImageTextureGL::MarkNewFrameAvailable() {
+  new_frame_ready_ = true;
+}
+
+void AndroidExternalImageTextureGL::OnTextureUnregistered() {}
+
+void AndroidExternalImageTextureGL::Paint(SkCanvas& canvas,
+                                          const SkRect& bounds,
+                                          bool freeze,
+                                          GrDirectContext* context,
+                                          const SkSamplingOptions& sampling) {
+  if (is_context_destroyed_) {
+    return;
+  }
+  if (texture_name_ == 0) {
+    glGenTextures(1, &texture_name_);
+  }
+  if (!freeze && new_frame_ready_) {
+    UpdateImage();
+    new_frame_ready_ = false;
+  }
+  if (current_frame_.egl_image == EGL_NO_IMAGE_KHR) {
+    // No frame was produced yet.
+    return;
+  }
+  GrGLTextureInfo textureInfo = {GL_TEXTURE_EXTERNAL_OES, texture_name_,
+                                 GL_RGBA8_OES};
+  GrBackendTexture backendTexture(1, 1, GrMipMapped::kNo, textureInfo);
+  sk_sp<SkImage> image = SkImage::MakeFromTexture(
+      context, backendTexture, kTopLeft_GrSurfaceOrigin, kRGBA_8888_SkColorType,
+      kPremul_SkAlphaType, nullptr);
+  if (image) {
+    SkAutoCanvasRestore autoRestore(&canvas, true);
+    canvas.translate(bounds.x(), bounds.y());
+    canvas.scale(bounds.width(), bounds.height());
+    canvas.drawImage(image, 0, 0, sampling, nullptr);
+  }
+}
+
+bool AndroidExternalImageTextureGL::UpdateImage() {
+  const ImageTextureProcs& procs = GetImageTextureProcs();
+  if (!procs.IsValid()) {
+    return false;
+  }
+  // Each frame holds one of the image reader's buffers until it's released.
+  ReleaseRetiredFrames(kMaxRetiredFramesBeforeAcquire);
+  JavaLocalRef hardware_buffer =
+      jni_facade_->ImageTextureAcquireLatestHardwareBuffer(
+          fml::jni::ScopedJavaLocalRef<jobject>(image_texture_));
+  if (hardware_buffer.is_null()) {
+    // Keep drawing the current image.
+    return false;
+  }
+  JNIEnv* env = fml::jni::AttachCurrentThread();
+  AHardwareBuffer* buffer =
+      procs.from_hardware_buffer(env, hardware_buffer.obj());
+  EGLImageKHR egl_image = EGL_NO_IMAGE_KHR;
+  if (buffer != nullptr) {
+    display_ = eglGetCurrentDisplay();
+    EGLClientBuffer client_buffer = procs.get_native_client_buffer(buffer);
+    const EGLint attributes[] = {EGL_IMAGE_PRESERVED_KHR, EGL_TRUE, EGL_NONE};
+    egl_image = procs.create_image(display_, EGL_NO_CONTEXT,
+                                   EGL_NATIVE_BUFFER_ANDROID, client_buffer,
+                                   attributes);
+  }
+  if (egl_image == EGL_NO_IMAGE_KHR) {
+    FML_LOG(ERROR) << "Could not create an EGLImage for texture " << Id();
+    // The GPU never read this image, so it can be closed right away.
+    jni_facade_->ImageTextureReleaseHardwareBuffer(
+        fml::jni::ScopedJavaLocalRef<jobject>(image_texture_),
+        hardware_buffer);
+    return false;
+  }
+  glBindTexture(GL_TEXTURE_EXTERNAL_OES, texture_name_);
+  procs.image_target_texture(GL_TEXTURE_EXTERNAL_OES, egl_image);
+
+  // The texture now references the new image, but the draws of the previous
+  // frames may still read the previous image. Keep that image open until a
+  // fence placed after those draws signals.
+  if (current_frame_.egl_image != EGL_NO_IMAGE_KHR) {
+    current_frame_.fence =
+        procs.create_sync(display_, EGL_SYNC_FENCE_KHR, nullptr);
+    if (current_frame_.fence == EGL_NO_SYNC_KHR) {
+      glFinish();
+    } else {
+      Frame& retired_frame = retired_frames_.emplace_back();
+      retired_frame.hardware_buffer.Reset(current_frame_.hardware_buffer);
+      retired_frame.egl_image = current_frame_.egl_image;
+      retired_frame.fence = current_frame_.fence;
+      current_frame_.hardware_buffer.Reset();
+      current_frame_.egl_image = EGL_NO_IMAGE_KHR;
+      current_frame_.fence = EGL_NO_SYNC_KHR;
+    }
+    ReleaseFrame(current_frame_);
+  }
+  current_frame_.hardware_buffer.Reset(env, hardware_buffer.obj());
+  current_frame_.egl_image = egl_image;
+  return true;
+}
+
+void AndroidExternalImageTextureGL::ReleaseRetiredFrames(
+    size_t max_retired_frames) {
+  const ImageTextureProcs& procs = GetImageTextureProcs();
+  while (!retired_frames_.empty()) {
+    Frame& frame = retired_frames_.front();
+    // Only block on the GPU if too many frames are still in use.
+    const EGLTimeKHR timeout =
+        retired_frames_.size() > max_retired_frames ? EGL_FOREVER_KHR : 0;
+    const EGLint status =
+        procs.client_wait_sync(display_, frame.fence,
+                               EGL_SYNC_FLUSH_COMMANDS_BIT_KHR, timeout);
+    if (status == EGL_TIMEOUT_EXPIRED_KHR) {
+      return;
+    }
+    // The frame is also released if waiting failed, since its fence will
+    // never signal.
+    ReleaseFrame(frame);
+    retired_frames_.pop_front();
+  }
+}
+
+void AndroidExternalImageTextureGL::ReleaseAllFrames() {
+  // The GPU must be done with the images before their buffers are reused.
+  if (!retired_frames_.empty() ||
+      current_frame_.egl_image != EGL_NO_IMAGE_KHR) {
+    glFinish();
+  }
+  for (Frame& frame : retired_frames_) {
+    ReleaseFrame(frame);
+  }
+  retired_frames_.clear();
+  ReleaseFrame(current_frame_);
+}
+
+void AndroidExternalImageTextureGL::ReleaseFrame(Frame& frame) {
+  const ImageTextureProcs& procs = GetImageTextureProcs();
+  if (frame.fence != EGL_NO_SYNC_KHR) {
+    procs.destroy_sync(display_, frame.fence);
+    frame.fence = EGL_NO_SYNC_KHR;
+  }
+  if (frame.egl_image != EGL_NO_IMAGE_KHR) {
+    procs.destroy_image(display_, frame.egl_image);
+    frame.egl_image = EGL_NO_IMAGE_KHR;
+  }
+  if (!frame.hardware_buffer.is_null()) {
+    jni_facade_->ImageTextureReleaseHardwareBuffer(
+        fml::jni::ScopedJavaLocalRef<jobject>(image_texture_),
+        fml::jni::ScopedJavaLocalRef<jobject>(frame.hardware_buffer));
+    frame.hardware_buffer.Reset();
+  }
+}
+
+}  // namespace flutter
@@ -0,0 +1,104 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+#ifndef FLUTTER_SHELL_PLATFORM_ANDROID_EXTERNAL_IMAGE_TEXTURE_GL_H_
+#define FLUTTER_SHELL_PLATFORM_ANDROID_EXTERNAL_IMAGE_TEXTURE_GL_H_
+
+#include <EGL/egl.h>
+#include <EGL/eglext.h>
+#include <GLES/gl.h>
+
+#include <deque>
+
+#include "flutter/common/graphics/texture.h"
+#include "flutter/shell/platform/android/platform_view_android_jni_impl.h"
+
+namespace flutter {
+
+//------------------------------------------------------------------------------
+/// @brief      A texture backed by the `HardwareBuffer`s of an `ImageReader`.
+///
+///             Unlike `AndroidExternalTextureGL`, the texture isn't attached
+///             to or detached from the GL context by Java. Each new frame is
+///             bound to the texture through an `EGLImage`, and only the latest
+///             frame is acquired from the `ImageReader`. A replaced frame is
+///             only closed once the GPU is done with the draws that read it.
+///
+///             Requires API level 29.
+///
+class AndroidExternalImageTextureGL : public flutter::Texture {
+ public:
+  AndroidExternalImageTextureGL(
+      int64_t id,
+      const fml::jni::ScopedJavaGlobalRef<jobject>& image_texture,
+      std::shared_ptr<PlatformViewAndroidJNI> jni_facade);
+
+  ~AndroidExternalImageTextureGL() override;
+
+  void Paint(SkCanvas& canvas,
+             const SkRect& bounds,
+             bool freeze,
+             GrDirectContext* context,
+             const SkSamplingOptions& sampling) override;
+
+  void OnGrContextCreated() override;
+
+  void OnGrContextDestroyed() override;
+
+  void MarkNewFrameAvailable() override;
+
+  void OnTextureUnregistered() override;
+
+ private:
+  // An image acquired from the image reader.
+  struct Frame {
+    fml::jni::ScopedJavaGlobalRef<jobject> hardware_buffer;
+    EGLImageKHR egl_image = EGL_NO_IMAGE_KHR;
+    // Signals once the GPU no longer reads the image. Only set on frames that
+    // were replaced by a newer frame.
+    EGLSyncKHR fence = EGL_NO_SYNC_KHR;
+
+    Frame() = default;
+
+    FML_DISALLOW_COPY_AND_ASSIGN(Frame);
+  };
+
+  // Binds the latest image of the image reader to the texture. Returns false
+  // if there's no image to bind.
+  bool UpdateImage();
+
+  // Releases the replaced frames whose fences signaled, and waits for the
+  // oldest ones if more than `max_retired_frames` frames remain.
+  void ReleaseRetiredFrames(size_t max_retired_frames);
+
+  // Releases all the frames, including the displayed one.
+  void ReleaseAllFrames();
+
+  // Destroys the EGL objects of the frame and closes its image.
+  void ReleaseFrame(Frame& frame);
+
+  std::shared_ptr<PlatformViewAndroidJNI> jni_facade_;
+
+  fml::jni::ScopedJavaGlobalRef<jobject> image_texture_;
+
+  bool new_frame_ready_ = false;
+
+  bool is_context_destroyed_ = false;
+
+  GLuint texture_name_ = 0;
+
+  EGLDisplay display_ = EGL_NO_DISPLAY;
+
+  // The frame bound to the texture.
+  Frame current_frame_;
+
+  // The frames replaced by `current_frame_`, oldest first.
+  std::deque<Frame> retired_frames_;
+
+  FML_DISALLOW_COPY_AND_ASSIGN(AndroidExternalImageTextureGL);
+};
+
+}  // namespace flutter
+
+#endif  // FLUTTER_SHELL_PLATFORM_ANDROID_EXTERNAL_IMAGE_TEXTURE_GL_H_
@@ -4,6 +4,7 @@
 
 package io.flutter.embedding.android;
 
+import static android.content.ComponentCallbacks2.TRIM_MEMORY_COMPLETE;
 import static android.content.ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW;
 import static io.flutter.embedding.android.FlutterActivityLaunchConfigs.DEFAULT_INITIAL_ROUTE;
 
@@ -27,6 +28,7 @@ import io.flutter.embedding.engine.FlutterEngineCache;
 import io.flutter.embedding.engine.FlutterShellArgs;
 import io.flutter.embedding.engine.dart.DartExecutor;
 import io.flutter.embedding.engine.renderer.FlutterUiDisplayListener;
+import io.flutter.embedding.engine.systemchannels.RestorationChannel;
 import io.flutter.plugin.platform.PlatformPlugin;
 import io.flutter.util.ViewUtils;
 import java.util.Arrays;
@@ -67,7 +69,11 @@ import java.util.Arrays;
 /* package */ class FlutterActivityAndFragmentDelegate implements ExclusiveAppComponent<Activity> {
   private static final String TAG = "FlutterActivityAndFragmentDelegate";
   private static final String FRAMEWORK_RESTORATION_BUNDLE_KEY = "framework";
+  private static final String COMPRESSED_FRAMEWORK_RESTORATION_BUNDLE_KEY = "framework.compressed";
   private static final String PLUGINS_RESTORATION_BUNDLE_KEY = "plugins";
+  // The saved state of an activity is sent through a binder transaction, which is limited to 1MB
+  // for everything in flight in the process.
+  private static final int LARGE_RESTORATION_DATA_BYTES = 256 * 1024;
   private static final int FLUTTER_SPLASH_VIEW_FALLBACK_ID = 486947586;
 
   // The FlutterActivity or FlutterFragment that is delegating most of its calls
@@ -348,7 +354,14 @@ import java.util.Arrays;
     byte[] frameworkState = null;
     if (bundle != null) {
       pluginState = bundle.getBundle(PLUGINS_RESTORATION_BUNDLE_KEY);
-      frameworkState = bundle.getByteArray(FRAMEWORK_RESTORATION_BUNDLE_KEY);
+      if (bundle.containsKey(COMPRESSED_FRAMEWORK_RESTORATION_BUNDLE_KEY)) {
+        frameworkState =
+            RestorationChannel.decompressRestorationData(
+                bundle.getByteArray(COMPRESSED_FRAMEWORK_RESTORATION_BUNDLE_KEY));
+      } else {
+        // The state was saved before the restoration data was compressed.
+        frameworkState = bundle.getByteArray(FRAMEWORK_RESTORATION_BUNDLE_KEY);
+      }
     }
 
     if (host.shouldRestoreAndSaveState()) {
@@ -570,9 +583,18 @@ import java.util.Arrays;
     ensureAlive();
 
     if (host.shouldRestoreAndSaveState()) {
-      bundle.putByteArray(
-          FRAMEWORK_RESTORATION_BUNDLE_KEY,
-          flutterEngine.getRestorationChannel().getRestorationData());
+      final RestorationChannel restorationChannel = flutterEngine.getRestorationChannel();
+      final byte[] frameworkState = restorationChannel.getCompressedRestorationData();
+      if (frameworkState != null && frameworkState.length > LARGE_RESTORATION_DATA_BYTES) {
+        Log.w(
+            TAG,
+            "The restoration data takes "
+                + frameworkState.length
+                + " bytes compressed ("
+                + restorationChannel.getRestorationData().length
+                + " bytes uncompressed), which risks a TransactionTooLargeException.");
+      }
+      bundle.putByteArray(COMPRESSED_FRAMEWORK_RESTORATION_BUNDLE_KEY, frameworkState);
     }
 
     if (host.shouldAttachEngineToActivity()) {
@@ -784,6 +806,7 @@ import java.util.Arrays;
       // This is always an indication that the Dart VM should collect memory
       // and free any unneeded resources.
       flutterEngine.getDartExecutor().notifyLowMemoryWarning();
+      flutterEngine.getPlatformViewsController().onTrimMemory(level);
       // Use a trim level delivered while the application is running so the
       // framework has a chance to react to the notification.
       if (level == TRIM_MEMORY_RUNNING_LOW) {
@@ -807,6 +830,7 @@ import java.util.Arrays;
     Log.v(TAG, "Forwarding onLowMemory() to FlutterEngine.");
     ensureAlive();
     flutterEngine.getDartExecutor().notifyLowMemoryWarning();
+    flutterEngine.getPlatformViewsController().onTrimMemory(TRIM_MEMORY_COMPLETE);
     flutterEngine.getSystemChannel().sendMemoryPressureWarning();
   }
 
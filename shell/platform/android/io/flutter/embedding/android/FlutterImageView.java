@@ -48,6 +48,9 @@ public class FlutterImageView extends View implements RenderSurface {
   @Nullable private Bitmap currentBitmap;
   @Nullable private FlutterRenderer flutterRenderer;
 
+  // Whether `currentBitmap` doesn't reflect `currentImage` yet.
+  private boolean isCurrentBitmapOutdated = false;
+
   public ImageReader getImageReader() {
     return imageReader;
   }
@@ -198,12 +201,27 @@ public class FlutterImageView extends View implements RenderSurface {
     if (newImage != null) {
       // Only close current image after acquiring valid new image
       closeCurrentImage();
+      // The image is drawn in the next `onDraw()`, together with the platform view mutations of
+      // the same frame.
       currentImage = newImage;
+      isCurrentBitmapOutdated = true;
       invalidate();
     }
     return newImage != null;
   }
 
+  /**
+   * Closes the image reader and the images it holds.
+   *
+   * <p>The view must not be attached to the renderer again after this call.
+   */
+  public void closeImageReader() {
+    // Drop drawings that may reference the image reader's buffers.
+    currentBitmap = null;
+    closeCurrentImage();
+    imageReader.close();
+  }
+
   /** Creates a new image reader with the provided size. */
   public void resizeIfNeeded(int width, int height) {
     if (flutterRenderer == null) {
@@ -226,8 +244,10 @@ public class FlutterImageView extends View implements RenderSurface {
   @Override
   protected void onDraw(Canvas canvas) {
     super.onDraw(canvas);
-    if (currentImage != null) {
+    // Views may be redrawn without a new image, in which case the current bitmap is up to date.
+    if (currentImage != null && isCurrentBitmapOutdated) {
       updateCurrentBitmap();
+      isCurrentBitmapOutdated = false;
     }
     if (currentBitmap != null) {
       canvas.drawBitmap(currentBitmap, 0, 0, null);
@@ -980,13 +980,19 @@ public class FlutterView extends FrameLayout implements MouseCursorPlugin.MouseC
             this.flutterEngine.getPlatformViewsController());
     localizationPlugin = this.flutterEngine.getLocalizationPlugin();
 
+    final KeyChannelResponder keyChannelResponder =
+        new KeyChannelResponder(flutterEngine.getKeyEventChannel());
     keyboardManager =
         new KeyboardManager(
             this,
             textInputPlugin,
-            new KeyChannelResponder[] {
-              new KeyChannelResponder(flutterEngine.getKeyEventChannel())
-            });
+            flutterEngine.areKeyDataPacketsEnabled()
+                // The framework pairs the key data packets of an event with its channel message,
+                // which must be sent after them.
+                ? new KeyboardManager.Responder[] {
+                  new KeyDataResponder(flutterEngine.getRenderer()), keyChannelResponder
+                }
+                : new KeyboardManager.Responder[] {keyChannelResponder});
     androidTouchProcessor =
         new AndroidTouchProcessor(this.flutterEngine.getRenderer(), /*trackMotionEvents=*/ false);
     accessibilityBridge =
@@ -0,0 +1,167 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.embedding.android;
+
+import android.view.KeyCharacterMap;
+import android.view.KeyEvent;
+import androidx.annotation.NonNull;
+import androidx.annotation.VisibleForTesting;
+import io.flutter.embedding.engine.FlutterJNI;
+import io.flutter.embedding.engine.renderer.FlutterRenderer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.HashMap;
+
+/**
+ * A {@link KeyboardManager.Responder} of {@link KeyboardManager} that handles events by sending
+ * fixed-layout key data packets to the engine through {@link FlutterRenderer}.
+ *
+ * <p>Unlike {@link KeyChannelResponder}, this responder doesn't go through a message channel: each
+ * event is written into a pooled direct {@link ByteBuffer} in the layout of the engine's {@code
+ * KeyDataPacket}, and the framework replies with a boolean. No JSON message or reply object is
+ * built per event.
+ *
+ * <p>This class corresponds to the HardwareKeyboard API in the framework. Physical and logical key
+ * values come from {@link KeyboardMap}. The framework pairs the packets with the message of the
+ * {@link KeyChannelResponder} that follows this responder, so a {@link FlutterView} uses both
+ * when its engine enables key data packets, see {@link
+ * io.flutter.embedding.engine.FlutterEngine#setKeyDataPacketsEnabled(boolean)}.
+ *
+ * <p>The framework expects every pressed key to be released before it's pressed again. This
+ * responder tracks the pressed keys, and synthesizes the down or the up events that Android didn't
+ * deliver, for example because the view didn't have focus.
+ */
+public class KeyDataResponder implements KeyboardManager.Responder {
+  // Must match the KeyEventType enum in key_data.h.
+  @VisibleForTesting static final long TYPE_DOWN = 0;
+  @VisibleForTesting static final long TYPE_UP = 1;
+  @VisibleForTesting static final long TYPE_REPEAT = 2;
+
+  // The packet holds the character size, the 5 fields of KeyData, and a single code point of up
+  // to 4 bytes in UTF-8.
+  private static final int KEY_DATA_FIELD_COUNT = 5;
+  private static final int BYTES_PER_FIELD = 8;
+  private static final int MAX_CHARACTER_BYTES = 4;
+  @VisibleForTesting static final int HEADER_SIZE = BYTES_PER_FIELD * (1 + KEY_DATA_FIELD_COUNT);
+
+  // The framework's answer to synthesized events isn't needed.
+  private static final FlutterJNI.KeyDataResponseCallback IGNORE_RESPONSE = (handled) -> {};
+
+  @NonNull private final FlutterRenderer renderer;
+  // The logical keys of the pressed keys, by physical key.
+  @NonNull private final HashMap<Long, Long> pressedKeys = new HashMap<>();
+  // Events are dispatched on the main thread one at a time, and the engine copies the packet
+  // before returning, so a single buffer is reused for every event.
+  @NonNull private final ByteBuffer packet;
+
+  public KeyDataResponder(@NonNull FlutterRenderer renderer) {
+    this.renderer = renderer;
+    this.packet =
+        ByteBuffer.allocateDirect(HEADER_SIZE + MAX_CHARACTER_BYTES)
+            .order(ByteOrder.nativeOrder());
+  }
+
+  @Override
+  public void handleEvent(
+      @NonNull KeyEvent keyEvent, @NonNull OnKeyEventHandledCallback onKeyEventHandledCallback) {
+    final int action = keyEvent.getAction();
+    if (action != KeyEvent.ACTION_DOWN && action != KeyEvent.ACTION_UP) {
+      // KeyChannelResponder doesn't send these either, so there's no message to pair a packet with.
+      onKeyEventHandledCallback.onKeyEventHandled(false);
+      return;
+    }
+
+    final long timestamp = keyEvent.getEventTime() * 1000;
+    final long physicalKey =
+        KeyboardMap.getPhysicalKey(keyEvent.getScanCode(), keyEvent.getKeyCode());
+    final boolean isRepeat = action == KeyEvent.ACTION_DOWN && keyEvent.getRepeatCount() > 0;
+    Long logicalKey = pressedKeys.get(physicalKey);
+    if (logicalKey != null && action == KeyEvent.ACTION_DOWN && !isRepeat) {
+      // The up of the previous press was missed.
+      sendPacket(timestamp, TYPE_UP, physicalKey, logicalKey, true, 0, IGNORE_RESPONSE);
+      logicalKey = null;
+    }
+    if (logicalKey == null) {
+      // The logical key is the key's character without modifiers, so shift+1 is still "1".
+      logicalKey =
+          KeyboardMap.getLogicalKey(
+              keyEvent.getKeyCode(), getPrintableCodePoint(keyEvent.getUnicodeChar(0)));
+      if (action == KeyEvent.ACTION_UP || isRepeat) {
+        // The down of this press was missed.
+        sendPacket(timestamp, TYPE_DOWN, physicalKey, logicalKey, true, 0, IGNORE_RESPONSE);
+      }
+    }
+
+    final long type;
+    final int codePoint;
+    if (action == KeyEvent.ACTION_UP) {
+      type = TYPE_UP;
+      codePoint = 0;
+      pressedKeys.remove(physicalKey);
+    } else {
+      type = isRepeat ? TYPE_REPEAT : TYPE_DOWN;
+      codePoint = getPrintableCodePoint(keyEvent.getUnicodeChar());
+      pressedKeys.put(physicalKey, logicalKey);
+    }
+    sendPacket(
+        timestamp,
+        type,
+        physicalKey,
+        logicalKey,
+        false,
+        codePoint,
+        onKeyEventHandledCallback::onKeyEventHandled);
+  }
+
+  private void sendPacket(
+      long timestamp,
+      long type,
+      long physicalKey,
+      long logicalKey,
+      boolean synthesized,
+      int codePoint,
+      @NonNull FlutterJNI.KeyDataResponseCallback callback) {
+    packet.clear();
+    // Leave room for the character size, which is known once the character is written.
+    packet.putLong(0);
+    packet.putLong(timestamp);
+    packet.putLong(type);
+    packet.putLong(physicalKey);
+    packet.putLong(logicalKey);
+    packet.putLong(synthesized ? 1 : 0);
+    if (codePoint != 0) {
+      putUtf8(packet, codePoint);
+    }
+    packet.putLong(0, packet.position() - HEADER_SIZE);
+
+    renderer.dispatchKeyDataPacket(packet, packet.position(), callback);
+  }
+
+  // Returns the given character if it's printable, or 0.
+  private static int getPrintableCodePoint(int unicodeChar) {
+    if (unicodeChar == 0 || (unicodeChar & KeyCharacterMap.COMBINING_ACCENT) != 0) {
+      return 0;
+    }
+    return Character.isISOControl(unicodeChar) ? 0 : unicodeChar;
+  }
+
+  private static void putUtf8(@NonNull ByteBuffer buffer, int codePoint) {
+    if (codePoint < 0x80) {
+      buffer.put((byte) codePoint);
+    } else if (codePoint < 0x800) {
+      buffer.put((byte) (0xC0 | (codePoint >> 6)));
+      buffer.put((byte) (0x80 | (codePoint & 0x3F)));
+    } else if (codePoint < 0x10000) {
+      buffer.put((byte) (0xE0 | (codePoint >> 12)));
+      buffer.put((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+      buffer.put((byte) (0x80 | (codePoint & 0x3F)));
+    } else {
+      buffer.put((byte) (0xF0 | (codePoint >> 18)));
+      buffer.put((byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+      buffer.put((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+      buffer.put((byte) (0x80 | (codePoint & 0x3F)));
+    }
+  }
+}
@@ -4,12 +4,17 @@
 
 package io.flutter.embedding.android;
 
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
 import android.view.KeyEvent;
 import android.view.View;
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import io.flutter.Log;
 import io.flutter.embedding.android.KeyboardManager.Responder.OnKeyEventHandledCallback;
 import io.flutter.plugin.editing.TextInputPlugin;
+import java.util.ArrayDeque;
 import java.util.HashSet;
 
 /**
@@ -52,10 +57,40 @@ import java.util.HashSet;
  *       only this time the {@link KeyboardManager} will not try to handle the redispatched {@link
  *       KeyEvent}.
  * </ul>
+ *
+ * <p>Events waiting for the {@link KeyboardManager.Responder}s are kept in an in-flight queue.
+ * Embedders can opt into bounding the queue with {@link #setMaxInFlightEvents(int)}, and into a
+ * response timeout with {@link #setResponseTimeout(long, FallbackPolicy)}. When the queue is full,
+ * or when an event has waited longer than the timeout, the event is resolved with a {@link
+ * FallbackPolicy} instead of waiting for the remaining replies, which are then ignored. Neither is
+ * enabled by default, since a responder may still act on an event that was resolved this way.
  */
 public class KeyboardManager {
   private static final String TAG = "KeyboardManager";
 
+  /** What to do with an event that the responders didn't handle in time. */
+  public enum FallbackPolicy {
+    /** Propagate the event as if no responder handled it. */
+    TREAT_AS_UNHANDLED,
+    /** Drop the event, as if a responder handled it. */
+    TREAT_AS_HANDLED,
+  }
+
+  /** Receives the outcome of each event sent to the {@link KeyboardManager.Responder}s. */
+  public interface KeyEventMetricsListener {
+    /**
+     * Called when an event has been resolved.
+     *
+     * @param keyEvent the resolved event.
+     * @param latencyMillis the time between the dispatch of the event and its resolution.
+     * @param timedOut whether the event was resolved with the fallback policy because of the
+     *     response timeout or because the in-flight queue was full.
+     * @param inFlightEventCount the number of events still waiting for the responders.
+     */
+    void onKeyEventResolved(
+        @NonNull KeyEvent keyEvent, long latencyMillis, boolean timedOut, int inFlightEventCount);
+  }
+
   /**
    * Constructor for {@link KeyboardManager} that takes a list of {@link
    * KeyboardManager.Responder}s.
@@ -98,8 +133,8 @@ public class KeyboardManager {
    * yes.
    *
    * <p>If a {@link Responder} fails to call the {@link OnKeyEventHandledCallback} callback, the
-   * {@link KeyEvent} will never be sent to the {@link TextInputPlugin}, and the {@link
-   * KeyboardManager} class can't detect such errors as there is no timeout.
+   * {@link KeyEvent} will only be resolved once it times out or is evicted from the in-flight
+   * queue, see {@link KeyboardManager#setResponseTimeout(long, FallbackPolicy)}.
    */
   interface Responder {
     interface OnKeyEventHandledCallback {
@@ -128,21 +163,32 @@ public class KeyboardManager {
               "The onKeyEventHandledCallback should be called exactly once.");
         }
         isCalled = true;
+        if (isResolved) {
+          // The event was already handled by another responder, or resolved with the fallback
+          // policy.
+          return;
+        }
         unrepliedCount -= 1;
         isEventHandled |= canHandleEvent;
-        if (unrepliedCount == 0 && !isEventHandled) {
-          onUnhandled(keyEvent);
+        if (isEventHandled || unrepliedCount == 0) {
+          resolve(this, /*timedOut=*/ false);
+          if (!isEventHandled) {
+            onUnhandled(keyEvent);
+          }
         }
       }
     }
 
-    PerEventCallbackBuilder(@NonNull KeyEvent keyEvent) {
+    PerEventCallbackBuilder(@NonNull KeyEvent keyEvent, long dispatchTime) {
       this.keyEvent = keyEvent;
+      this.dispatchTime = dispatchTime;
     }
 
     @NonNull final KeyEvent keyEvent;
+    final long dispatchTime;
     int unrepliedCount = responders.length;
     boolean isEventHandled = false;
+    boolean isResolved = false;
 
     public OnKeyEventHandledCallback buildCallback() {
       return new Callback();
@@ -154,6 +200,54 @@ public class KeyboardManager {
   @NonNull private final TextInputPlugin textInputPlugin;
   private final View view;
 
+  // The events waiting for the responders, in dispatch order.
+  @NonNull private final ArrayDeque<PerEventCallbackBuilder> inFlightEvents = new ArrayDeque<>();
+  // The maximum number of in-flight events, or 0 if the queue is unbounded.
+  private int maxInFlightEvents = 0;
+  // The response timeout in milliseconds, or 0 if events wait for the responders indefinitely.
+  private long responseTimeoutMillis = 0;
+  @NonNull private FallbackPolicy fallbackPolicy = FallbackPolicy.TREAT_AS_UNHANDLED;
+  @Nullable private KeyEventMetricsListener metricsListener;
+  @Nullable private Handler timeoutHandler;
+  private final Runnable expireTimedOutEventsRunnable = this::expireTimedOutEvents;
+
+  /**
+   * Sets how long an event waits for the responders before it's resolved with the given fallback
+   * policy. A timeout of 0 disables the timeout.
+   *
+   * <p>The policy is also used for the events evicted from a full in-flight queue.
+   */
+  public void setResponseTimeout(long timeoutMillis, @NonNull FallbackPolicy policy) {
+    if (timeoutMillis < 0) {
+      throw new IllegalArgumentException("The response timeout must not be negative.");
+    }
+    responseTimeoutMillis = timeoutMillis;
+    fallbackPolicy = policy;
+    scheduleTimeout();
+  }
+
+  /**
+   * Sets the maximum number of events waiting for the responders, or 0 for no limit, which is the
+   * default. When a new event arrives while the queue is full, the oldest event is resolved with
+   * the fallback policy set with {@link #setResponseTimeout(long, FallbackPolicy)}.
+   */
+  public void setMaxInFlightEvents(int maxInFlightEvents) {
+    if (maxInFlightEvents < 0) {
+      throw new IllegalArgumentException("The maximum number of events must not be negative.");
+    }
+    this.maxInFlightEvents = maxInFlightEvents;
+  }
+
+  /** Sets the listener that receives the response latency of each event, or null. */
+  public void setKeyEventMetricsListener(@Nullable KeyEventMetricsListener listener) {
+    metricsListener = listener;
+  }
+
+  /** The number of events waiting for the responders. */
+  public int getInFlightEventCount() {
+    return inFlightEvents.size();
+  }
+
   public boolean handleEvent(@NonNull KeyEvent keyEvent) {
     final boolean isRedispatchedEvent = redispatchedEvents.remove(keyEvent);
     if (isRedispatchedEvent) {
@@ -161,7 +255,15 @@ public class KeyboardManager {
     }
 
     if (responders.length > 0) {
-      final PerEventCallbackBuilder callbackBuilder = new PerEventCallbackBuilder(keyEvent);
+      if (maxInFlightEvents > 0 && inFlightEvents.size() >= maxInFlightEvents) {
+        applyFallbackPolicy(inFlightEvents.peekFirst());
+      }
+      final PerEventCallbackBuilder callbackBuilder =
+          new PerEventCallbackBuilder(keyEvent, SystemClock.uptimeMillis());
+      inFlightEvents.addLast(callbackBuilder);
+      if (inFlightEvents.size() == 1) {
+        scheduleTimeout();
+      }
       for (final Responder primaryResponder : responders) {
         primaryResponder.handleEvent(keyEvent, callbackBuilder.buildCallback());
       }
@@ -172,7 +274,65 @@ public class KeyboardManager {
     return true;
   }
 
+  private void resolve(@NonNull PerEventCallbackBuilder event, boolean timedOut) {
+    event.isResolved = true;
+    final boolean wasOldest = inFlightEvents.peekFirst() == event;
+    inFlightEvents.remove(event);
+    if (wasOldest) {
+      scheduleTimeout();
+    }
+    if (metricsListener != null) {
+      metricsListener.onKeyEventResolved(
+          event.keyEvent,
+          SystemClock.uptimeMillis() - event.dispatchTime,
+          timedOut,
+          inFlightEvents.size());
+    }
+  }
+
+  private void applyFallbackPolicy(@NonNull PerEventCallbackBuilder event) {
+    resolve(event, /*timedOut=*/ true);
+    if (fallbackPolicy == FallbackPolicy.TREAT_AS_UNHANDLED) {
+      onUnhandled(event.keyEvent);
+    }
+  }
+
+  // Schedules the expiration of the oldest in-flight event, if there's a response timeout.
+  private void scheduleTimeout() {
+    if (timeoutHandler != null) {
+      timeoutHandler.removeCallbacks(expireTimedOutEventsRunnable);
+    }
+    final PerEventCallbackBuilder oldestEvent = inFlightEvents.peekFirst();
+    if (responseTimeoutMillis == 0 || oldestEvent == null) {
+      return;
+    }
+    if (timeoutHandler == null) {
+      timeoutHandler = new Handler(Looper.getMainLooper());
+    }
+    timeoutHandler.postAtTime(
+        expireTimedOutEventsRunnable, oldestEvent.dispatchTime + responseTimeoutMillis);
+  }
+
+  private void expireTimedOutEvents() {
+    final long now = SystemClock.uptimeMillis();
+    PerEventCallbackBuilder oldestEvent = inFlightEvents.peekFirst();
+    while (oldestEvent != null && oldestEvent.dispatchTime + responseTimeoutMillis <= now) {
+      Log.w(TAG, "A key event wasn't handled within " + responseTimeoutMillis + "ms.");
+      applyFallbackPolicy(oldestEvent);
+      oldestEvent = inFlightEvents.peekFirst();
+    }
+    scheduleTimeout();
+  }
+
   public void destroy() {
+    if (timeoutHandler != null) {
+      timeoutHandler.removeCallbacks(expireTimedOutEventsRunnable);
+    }
+    for (PerEventCallbackBuilder event : inFlightEvents) {
+      event.isResolved = true;
+    }
+    inFlightEvents.clear();
+
     final int remainingRedispatchCount = redispatchedEvents.size();
     if (remainingRedispatchCount > 0) {
       Log.w(
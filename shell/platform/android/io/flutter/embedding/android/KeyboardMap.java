@@ -0,0 +1,732 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.embedding.android;
+
+import android.util.SparseIntArray;
+import android.util.SparseLongArray;
+import android.view.KeyEvent;
+
+/**
+ * Maps Android scan codes and key codes to the physical and logical key values of the framework's
+ * key data API.
+ *
+ * <p>The tables follow the framework's physical and logical key data: physical key values are the
+ * USB HID usages of the keys, and logical key values are in the framework's unicode, unprintable
+ * and Flutter planes. Keys that are missing from the tables are mapped to the Android plane by
+ * {@link #getPhysicalKey(int, int)} and {@link #getLogicalKey(int, int)}.
+ */
+final class KeyboardMap {
+  /** The plane of physical and logical key values that are specific to Android. */
+  static final long ANDROID_PLANE = 0x01100000000L;
+
+  // Linux evdev scan codes to physical key values.
+  private static final SparseLongArray scanCodeToPhysical = new SparseLongArray();
+  // Android key codes to physical key values, for events that don't have a scan code, such as the
+  // events of soft keyboards and virtual keys.
+  private static final SparseLongArray keyCodeToPhysical = new SparseLongArray();
+  // Android key codes of keys that don't produce a character, and of numpad keys, to logical key
+  // values.
+  private static final SparseLongArray keyCodeToLogical = new SparseLongArray();
+  // Android key codes of keys that produce a character to that character on a US keyboard, for
+  // events whose key character map doesn't produce one.
+  private static final SparseIntArray keyCodeToCharacter = new SparseIntArray();
+
+  static {
+    final SparseLongArray p = scanCodeToPhysical;
+    p.put(1, 0x00070029L); // Escape
+    p.put(2, 0x0007001eL); // Digit1
+    p.put(3, 0x0007001fL); // Digit2
+    p.put(4, 0x00070020L); // Digit3
+    p.put(5, 0x00070021L); // Digit4
+    p.put(6, 0x00070022L); // Digit5
+    p.put(7, 0x00070023L); // Digit6
+    p.put(8, 0x00070024L); // Digit7
+    p.put(9, 0x00070025L); // Digit8
+    p.put(10, 0x00070026L); // Digit9
+    p.put(11, 0x00070027L); // Digit0
+    p.put(12, 0x0007002dL); // Minus
+    p.put(13, 0x0007002eL); // Equal
+    p.put(14, 0x0007002aL); // Backspace
+    p.put(15, 0x0007002bL); // Tab
+    p.put(16, 0x00070014L); // KeyQ
+    p.put(17, 0x0007001aL); // KeyW
+    p.put(18, 0x00070008L); // KeyE
+    p.put(19, 0x00070015L); // KeyR
+    p.put(20, 0x00070017L); // KeyT
+    p.put(21, 0x0007001cL); // KeyY
+    p.put(22, 0x00070018L); // KeyU
+    p.put(23, 0x0007000cL); // KeyI
+    p.put(24, 0x00070012L); // KeyO
+    p.put(25, 0x00070013L); // KeyP
+    p.put(26, 0x0007002fL); // BracketLeft
+    p.put(27, 0x00070030L); // BracketRight
+    p.put(28, 0x00070028L); // Enter
+    p.put(29, 0x000700e0L); // ControlLeft
+    p.put(30, 0x00070004L); // KeyA
+    p.put(31, 0x00070016L); // KeyS
+    p.put(32, 0x00070007L); // KeyD
+    p.put(33, 0x00070009L); // KeyF
+    p.put(34, 0x0007000aL); // KeyG
+    p.put(35, 0x0007000bL); // KeyH
+    p.put(36, 0x0007000dL); // KeyJ
+    p.put(37, 0x0007000eL); // KeyK
+    p.put(38, 0x0007000fL); // KeyL
+    p.put(39, 0x00070033L); // Semicolon
+    p.put(40, 0x00070034L); // Quote
+    p.put(41, 0x00070035L); // Backquote
+    p.put(42, 0x000700e1L); // ShiftLeft
+    p.put(43, 0x00070031L); // Backslash
+    p.put(44, 0x0007001dL); // KeyZ
+    p.put(45, 0x0007001bL); // KeyX
+    p.put(46, 0x00070006L); // KeyC
+    p.put(47, 0x00070019L); // KeyV
+    p.put(48, 0x00070005L); // KeyB
+    p.put(49, 0x00070011L); // KeyN
+    p.put(50, 0x00070010L); // KeyM
+    p.put(51, 0x00070036L); // Comma
+    p.put(52, 0x00070037L); // Period
+    p.put(53, 0x00070038L); // Slash
+    p.put(54, 0x000700e5L); // ShiftRight
+    p.put(55, 0x00070055L); // NumpadMultiply
+    p.put(56, 0x000700e2L); // AltLeft
+    p.put(57, 0x0007002cL); // Space
+    p.put(58, 0x00070039L); // CapsLock
+    p.put(59, 0x0007003aL); // F1
+    p.put(60, 0x0007003bL); // F2
+    p.put(61, 0x0007003cL); // F3
+    p.put(62, 0x0007003dL); // F4
+    p.put(63, 0x0007003eL); // F5
+    p.put(64, 0x0007003fL); // F6
+    p.put(65, 0x00070040L); // F7
+    p.put(66, 0x00070041L); // F8
+    p.put(67, 0x00070042L); // F9
+    p.put(68, 0x00070043L); // F10
+    p.put(69, 0x00070053L); // NumLock
+    p.put(70, 0x00070047L); // ScrollLock
+    p.put(71, 0x0007005fL); // Numpad7
+    p.put(72, 0x00070060L); // Numpad8
+    p.put(73, 0x00070061L); // Numpad9
+    p.put(74, 0x00070056L); // NumpadSubtract
+    p.put(75, 0x0007005cL); // Numpad4
+    p.put(76, 0x0007005dL); // Numpad5
+    p.put(77, 0x0007005eL); // Numpad6
+    p.put(78, 0x00070057L); // NumpadAdd
+    p.put(79, 0x00070059L); // Numpad1
+    p.put(80, 0x0007005aL); // Numpad2
+    p.put(81, 0x0007005bL); // Numpad3
+    p.put(82, 0x00070062L); // Numpad0
+    p.put(83, 0x00070063L); // NumpadDecimal
+    p.put(85, 0x00070094L); // Lang5
+    p.put(86, 0x00070064L); // IntlBackslash
+    p.put(87, 0x00070044L); // F11
+    p.put(88, 0x00070045L); // F12
+    p.put(89, 0x00070087L); // IntlRo
+    p.put(90, 0x00070092L); // Lang3
+    p.put(91, 0x00070093L); // Lang4
+    p.put(92, 0x0007008aL); // Convert
+    p.put(93, 0x00070088L); // KanaMode
+    p.put(94, 0x0007008bL); // NonConvert
+    p.put(96, 0x00070058L); // NumpadEnter
+    p.put(97, 0x000700e4L); // ControlRight
+    p.put(98, 0x00070054L); // NumpadDivide
+    p.put(99, 0x00070046L); // PrintScreen
+    p.put(100, 0x000700e6L); // AltRight
+    p.put(102, 0x0007004aL); // Home
+    p.put(103, 0x00070052L); // ArrowUp
+    p.put(104, 0x0007004bL); // PageUp
+    p.put(105, 0x00070050L); // ArrowLeft
+    p.put(106, 0x0007004fL); // ArrowRight
+    p.put(107, 0x0007004dL); // End
+    p.put(108, 0x00070051L); // ArrowDown
+    p.put(109, 0x0007004eL); // PageDown
+    p.put(110, 0x00070049L); // Insert
+    p.put(111, 0x0007004cL); // Delete
+    p.put(113, 0x0007007fL); // AudioVolumeMute
+    p.put(114, 0x00070081L); // AudioVolumeDown
+    p.put(115, 0x00070080L); // AudioVolumeUp
+    p.put(116, 0x00070066L); // Power
+    p.put(117, 0x00070067L); // NumpadEqual
+    p.put(119, 0x00070048L); // Pause
+    p.put(120, 0x000c029fL); // ShowAllWindows
+    p.put(121, 0x00070085L); // NumpadComma
+    p.put(122, 0x00070090L); // Lang1
+    p.put(123, 0x00070091L); // Lang2
+    p.put(124, 0x00070089L); // IntlYen
+    p.put(125, 0x000700e3L); // MetaLeft
+    p.put(126, 0x000700e7L); // MetaRight
+    p.put(127, 0x00070065L); // ContextMenu
+    p.put(128, 0x000c0226L); // BrowserStop
+    p.put(129, 0x00070079L); // Again
+    p.put(130, 0x000700a3L); // Props
+    p.put(131, 0x0007007aL); // Undo
+    p.put(133, 0x0007007cL); // Copy
+    p.put(134, 0x00070074L); // Open
+    p.put(135, 0x0007007dL); // Paste
+    p.put(136, 0x0007007eL); // Find
+    p.put(137, 0x0007007bL); // Cut
+    p.put(138, 0x00070075L); // Help
+    p.put(140, 0x000c0192L); // LaunchApp2
+    p.put(142, 0x00010082L); // Sleep
+    p.put(143, 0x00010083L); // WakeUp
+    p.put(150, 0x000c0196L); // LaunchInternetBrowser
+    p.put(152, 0x000c019eL); // LockScreen
+    p.put(155, 0x000c018aL); // LaunchMail
+    p.put(156, 0x000c022aL); // BrowserFavorites
+    p.put(157, 0x000c0194L); // LaunchApp1
+    p.put(158, 0x000c0224L); // BrowserBack
+    p.put(159, 0x000c0225L); // BrowserForward
+    p.put(161, 0x000c00b8L); // Eject
+    p.put(163, 0x000c00b5L); // MediaTrackNext
+    p.put(164, 0x000c00cdL); // MediaPlayPause
+    p.put(165, 0x000c00b6L); // MediaTrackPrevious
+    p.put(166, 0x000c00b7L); // MediaStop
+    p.put(167, 0x000c00b2L); // MediaRecord
+    p.put(168, 0x000c00b4L); // MediaRewind
+    p.put(172, 0x000c0223L); // BrowserHome
+    p.put(173, 0x000c0227L); // BrowserRefresh
+    p.put(179, 0x000700b6L); // NumpadParenLeft
+    p.put(180, 0x000700b7L); // NumpadParenRight
+    p.put(181, 0x000c0201L); // NewKey
+    p.put(182, 0x000c0279L); // Redo
+    p.put(183, 0x00070068L); // F13
+    p.put(184, 0x00070069L); // F14
+    p.put(185, 0x0007006aL); // F15
+    p.put(186, 0x0007006bL); // F16
+    p.put(187, 0x0007006cL); // F17
+    p.put(188, 0x0007006dL); // F18
+    p.put(189, 0x0007006eL); // F19
+    p.put(190, 0x0007006fL); // F20
+    p.put(191, 0x00070070L); // F21
+    p.put(192, 0x00070071L); // F22
+    p.put(193, 0x00070072L); // F23
+    p.put(194, 0x00070073L); // F24
+    p.put(200, 0x000c00b0L); // MediaPlay
+    p.put(201, 0x000c00b1L); // MediaPause
+    p.put(205, 0x00000014L); // Suspend
+    p.put(206, 0x000c0203L); // Close
+    p.put(208, 0x000c00b3L); // MediaFastForward
+    p.put(209, 0x000c00e5L); // BassBoost
+    p.put(210, 0x000c0208L); // Print
+    p.put(217, 0x000c0221L); // BrowserSearch
+    p.put(224, 0x000c0070L); // BrightnessDown
+    p.put(225, 0x000c006fL); // BrightnessUp
+    p.put(226, 0x000c0183L); // MediaSelect
+    p.put(227, 0x000100b5L); // DisplayToggleIntExt
+    p.put(229, 0x000c007aL); // KbdIllumDown
+    p.put(230, 0x000c0079L); // KbdIllumUp
+    p.put(231, 0x000c028cL); // MailSend
+    p.put(232, 0x000c0289L); // MailReply
+    p.put(233, 0x000c028bL); // MailForward
+    p.put(234, 0x000c0207L); // Save
+    p.put(235, 0x000c01a7L); // LaunchDocuments
+    p.put(248, 0x00000018L); // MicrophoneMuteToggle
+    p.put(256, 0x0005ff01L); // GameButton1
+    p.put(257, 0x0005ff02L); // GameButton2
+    p.put(258, 0x0005ff03L); // GameButton3
+    p.put(259, 0x0005ff04L); // GameButton4
+    p.put(260, 0x0005ff05L); // GameButton5
+    p.put(261, 0x0005ff06L); // GameButton6
+    p.put(262, 0x0005ff07L); // GameButton7
+    p.put(263, 0x0005ff08L); // GameButton8
+    p.put(264, 0x0005ff09L); // GameButton9
+    p.put(265, 0x0005ff0aL); // GameButton10
+    p.put(266, 0x0005ff0bL); // GameButton11
+    p.put(267, 0x0005ff0cL); // GameButton12
+    p.put(268, 0x0005ff0dL); // GameButton13
+    p.put(269, 0x0005ff0eL); // GameButton14
+    p.put(270, 0x0005ff0fL); // GameButton15
+    p.put(271, 0x0005ff10L); // GameButton16
+    p.put(288, 0x0005ff01L); // GameButton1
+    p.put(289, 0x0005ff02L); // GameButton2
+    p.put(290, 0x0005ff03L); // GameButton3
+    p.put(291, 0x0005ff04L); // GameButton4
+    p.put(292, 0x0005ff05L); // GameButton5
+    p.put(293, 0x0005ff06L); // GameButton6
+    p.put(294, 0x0005ff07L); // GameButton7
+    p.put(295, 0x0005ff08L); // GameButton8
+    p.put(296, 0x0005ff09L); // GameButton9
+    p.put(297, 0x0005ff0aL); // GameButton10
+    p.put(298, 0x0005ff0bL); // GameButton11
+    p.put(299, 0x0005ff0cL); // GameButton12
+    p.put(300, 0x0005ff0dL); // GameButton13
+    p.put(301, 0x0005ff0eL); // GameButton14
+    p.put(302, 0x0005ff0fL); // GameButton15
+    p.put(303, 0x0005ff10L); // GameButton16
+    p.put(304, 0x0005ff11L); // GameButtonA
+    p.put(305, 0x0005ff12L); // GameButtonB
+    p.put(306, 0x0005ff13L); // GameButtonC
+    p.put(307, 0x0005ff1dL); // GameButtonX
+    p.put(308, 0x0005ff1eL); // GameButtonY
+    p.put(309, 0x0005ff1fL); // GameButtonZ
+    p.put(310, 0x0005ff14L); // GameButtonLeft1
+    p.put(311, 0x0005ff17L); // GameButtonRight1
+    p.put(312, 0x0005ff15L); // GameButtonLeft2
+    p.put(313, 0x0005ff18L); // GameButtonRight2
+    p.put(314, 0x0005ff19L); // GameButtonSelect
+    p.put(315, 0x0005ff1aL); // GameButtonStart
+    p.put(316, 0x0005ff16L); // GameButtonMode
+    p.put(317, 0x0005ff1bL); // GameButtonThumbLeft
+    p.put(318, 0x0005ff1cL); // GameButtonThumbRight
+    p.put(372, 0x000c0232L); // ZoomToggle
+    p.put(374, 0x000c01aeL); // LaunchKeyboardLayout
+    p.put(392, 0x000c01b7L); // LaunchAudioBrowser
+    p.put(397, 0x000c018eL); // LaunchCalendar
+    p.put(418, 0x000c022dL); // ZoomIn
+    p.put(419, 0x000c022eL); // ZoomOut
+    p.put(421, 0x000c0184L); // LaunchWordProcessor
+    p.put(423, 0x000c0186L); // LaunchSpreadsheet
+    p.put(429, 0x000c018dL); // LaunchContacts
+    p.put(432, 0x000c01abL); // SpellCheck
+    p.put(433, 0x000c019cL); // LogOff
+    p.put(464, 0x00000012L); // Fn
+    p.put(579, 0x000c019fL); // LaunchControlPanel
+    p.put(580, 0x000c01a2L); // SelectTask
+    p.put(581, 0x000c01b1L); // LaunchScreenSaver
+    p.put(582, 0x000c01cbL); // LaunchAssistant
+    p.put(584, 0x000c029dL); // KeyboardLayoutSelect
+    p.put(633, 0x00000017L); // PrivacyScreenToggle
+
+    final SparseLongArray k = keyCodeToPhysical;
+    k.put(KeyEvent.KEYCODE_ESCAPE, 0x00070029L); // Escape
+    k.put(KeyEvent.KEYCODE_1, 0x0007001eL); // Digit1
+    k.put(KeyEvent.KEYCODE_2, 0x0007001fL); // Digit2
+    k.put(KeyEvent.KEYCODE_3, 0x00070020L); // Digit3
+    k.put(KeyEvent.KEYCODE_4, 0x00070021L); // Digit4
+    k.put(KeyEvent.KEYCODE_5, 0x00070022L); // Digit5
+    k.put(KeyEvent.KEYCODE_6, 0x00070023L); // Digit6
+    k.put(KeyEvent.KEYCODE_7, 0x00070024L); // Digit7
+    k.put(KeyEvent.KEYCODE_8, 0x00070025L); // Digit8
+    k.put(KeyEvent.KEYCODE_9, 0x00070026L); // Digit9
+    k.put(KeyEvent.KEYCODE_0, 0x00070027L); // Digit0
+    k.put(KeyEvent.KEYCODE_MINUS, 0x0007002dL); // Minus
+    k.put(KeyEvent.KEYCODE_EQUALS, 0x0007002eL); // Equal
+    k.put(KeyEvent.KEYCODE_DEL, 0x0007002aL); // Backspace
+    k.put(KeyEvent.KEYCODE_TAB, 0x0007002bL); // Tab
+    k.put(KeyEvent.KEYCODE_Q, 0x00070014L); // KeyQ
+    k.put(KeyEvent.KEYCODE_W, 0x0007001aL); // KeyW
+    k.put(KeyEvent.KEYCODE_E, 0x00070008L); // KeyE
+    k.put(KeyEvent.KEYCODE_R, 0x00070015L); // KeyR
+    k.put(KeyEvent.KEYCODE_T, 0x00070017L); // KeyT
+    k.put(KeyEvent.KEYCODE_Y, 0x0007001cL); // KeyY
+    k.put(KeyEvent.KEYCODE_U, 0x00070018L); // KeyU
+    k.put(KeyEvent.KEYCODE_I, 0x0007000cL); // KeyI
+    k.put(KeyEvent.KEYCODE_O, 0x00070012L); // KeyO
+    k.put(KeyEvent.KEYCODE_P, 0x00070013L); // KeyP
+    k.put(KeyEvent.KEYCODE_LEFT_BRACKET, 0x0007002fL); // BracketLeft
+    k.put(KeyEvent.KEYCODE_RIGHT_BRACKET, 0x00070030L); // BracketRight
+    k.put(KeyEvent.KEYCODE_ENTER, 0x00070028L); // Enter
+    k.put(KeyEvent.KEYCODE_CTRL_LEFT, 0x000700e0L); // ControlLeft
+    k.put(KeyEvent.KEYCODE_A, 0x00070004L); // KeyA
+    k.put(KeyEvent.KEYCODE_S, 0x00070016L); // KeyS
+    k.put(KeyEvent.KEYCODE_D, 0x00070007L); // KeyD
+    k.put(KeyEvent.KEYCODE_F, 0x00070009L); // KeyF
+    k.put(KeyEvent.KEYCODE_G, 0x0007000aL); // KeyG
+    k.put(KeyEvent.KEYCODE_H, 0x0007000bL); // KeyH
+    k.put(KeyEvent.KEYCODE_J, 0x0007000dL); // KeyJ
+    k.put(KeyEvent.KEYCODE_K, 0x0007000eL); // KeyK
+    k.put(KeyEvent.KEYCODE_L, 0x0007000fL); // KeyL
+    k.put(KeyEvent.KEYCODE_SEMICOLON, 0x00070033L); // Semicolon
+    k.put(KeyEvent.KEYCODE_APOSTROPHE, 0x00070034L); // Quote
+    k.put(KeyEvent.KEYCODE_GRAVE, 0x00070035L); // Backquote
+    k.put(KeyEvent.KEYCODE_SHIFT_LEFT, 0x000700e1L); // ShiftLeft
+    k.put(KeyEvent.KEYCODE_BACKSLASH, 0x00070031L); // Backslash
+    k.put(KeyEvent.KEYCODE_Z, 0x0007001dL); // KeyZ
+    k.put(KeyEvent.KEYCODE_X, 0x0007001bL); // KeyX
+    k.put(KeyEvent.KEYCODE_C, 0x00070006L); // KeyC
+    k.put(KeyEvent.KEYCODE_V, 0x00070019L); // KeyV
+    k.put(KeyEvent.KEYCODE_B, 0x00070005L); // KeyB
+    k.put(KeyEvent.KEYCODE_N, 0x00070011L); // KeyN
+    k.put(KeyEvent.KEYCODE_M, 0x00070010L); // KeyM
+    k.put(KeyEvent.KEYCODE_COMMA, 0x00070036L); // Comma
+    k.put(KeyEvent.KEYCODE_PERIOD, 0x00070037L); // Period
+    k.put(KeyEvent.KEYCODE_SLASH, 0x00070038L); // Slash
+    k.put(KeyEvent.KEYCODE_SHIFT_RIGHT, 0x000700e5L); // ShiftRight
+    k.put(KeyEvent.KEYCODE_NUMPAD_MULTIPLY, 0x00070055L); // NumpadMultiply
+    k.put(KeyEvent.KEYCODE_ALT_LEFT, 0x000700e2L); // AltLeft
+    k.put(KeyEvent.KEYCODE_SPACE, 0x0007002cL); // Space
+    k.put(KeyEvent.KEYCODE_CAPS_LOCK, 0x00070039L); // CapsLock
+    k.put(KeyEvent.KEYCODE_F1, 0x0007003aL); // F1
+    k.put(KeyEvent.KEYCODE_F2, 0x0007003bL); // F2
+    k.put(KeyEvent.KEYCODE_F3, 0x0007003cL); // F3
+    k.put(KeyEvent.KEYCODE_F4, 0x0007003dL); // F4
+    k.put(KeyEvent.KEYCODE_F5, 0x0007003eL); // F5
+    k.put(KeyEvent.KEYCODE_F6, 0x0007003fL); // F6
+    k.put(KeyEvent.KEYCODE_F7, 0x00070040L); // F7
+    k.put(KeyEvent.KEYCODE_F8, 0x00070041L); // F8
+    k.put(KeyEvent.KEYCODE_F9, 0x00070042L); // F9
+    k.put(KeyEvent.KEYCODE_F10, 0x00070043L); // F10
+    k.put(KeyEvent.KEYCODE_NUM_LOCK, 0x00070053L); // NumLock
+    k.put(KeyEvent.KEYCODE_SCROLL_LOCK, 0x00070047L); // ScrollLock
+    k.put(KeyEvent.KEYCODE_NUMPAD_7, 0x0007005fL); // Numpad7
+    k.put(KeyEvent.KEYCODE_NUMPAD_8, 0x00070060L); // Numpad8
+    k.put(KeyEvent.KEYCODE_NUMPAD_9, 0x00070061L); // Numpad9
+    k.put(KeyEvent.KEYCODE_NUMPAD_SUBTRACT, 0x00070056L); // NumpadSubtract
+    k.put(KeyEvent.KEYCODE_NUMPAD_4, 0x0007005cL); // Numpad4
+    k.put(KeyEvent.KEYCODE_NUMPAD_5, 0x0007005dL); // Numpad5
+    k.put(KeyEvent.KEYCODE_NUMPAD_6, 0x0007005eL); // Numpad6
+    k.put(KeyEvent.KEYCODE_NUMPAD_ADD, 0x00070057L); // NumpadAdd
+    k.put(KeyEvent.KEYCODE_NUMPAD_1, 0x00070059L); // Numpad1
+    k.put(KeyEvent.KEYCODE_NUMPAD_2, 0x0007005aL); // Numpad2
+    k.put(KeyEvent.KEYCODE_NUMPAD_3, 0x0007005bL); // Numpad3
+    k.put(KeyEvent.KEYCODE_NUMPAD_0, 0x00070062L); // Numpad0
+    k.put(KeyEvent.KEYCODE_NUMPAD_DOT, 0x00070063L); // NumpadDecimal
+    k.put(KeyEvent.KEYCODE_ZENKAKU_HANKAKU, 0x00070094L); // Lang5
+    k.put(KeyEvent.KEYCODE_F11, 0x00070044L); // F11
+    k.put(KeyEvent.KEYCODE_F12, 0x00070045L); // F12
+    k.put(KeyEvent.KEYCODE_RO, 0x00070087L); // IntlRo
+    k.put(KeyEvent.KEYCODE_HENKAN, 0x0007008aL); // Convert
+    k.put(KeyEvent.KEYCODE_KATAKANA_HIRAGANA, 0x00070088L); // KanaMode
+    k.put(KeyEvent.KEYCODE_MUHENKAN, 0x0007008bL); // NonConvert
+    k.put(KeyEvent.KEYCODE_NUMPAD_ENTER, 0x00070058L); // NumpadEnter
+    k.put(KeyEvent.KEYCODE_CTRL_RIGHT, 0x000700e4L); // ControlRight
+    k.put(KeyEvent.KEYCODE_NUMPAD_DIVIDE, 0x00070054L); // NumpadDivide
+    k.put(KeyEvent.KEYCODE_SYSRQ, 0x00070046L); // PrintScreen
+    k.put(KeyEvent.KEYCODE_ALT_RIGHT, 0x000700e6L); // AltRight
+    k.put(KeyEvent.KEYCODE_MOVE_HOME, 0x0007004aL); // Home
+    k.put(KeyEvent.KEYCODE_DPAD_UP, 0x00070052L); // ArrowUp
+    k.put(KeyEvent.KEYCODE_PAGE_UP, 0x0007004bL); // PageUp
+    k.put(KeyEvent.KEYCODE_DPAD_LEFT, 0x00070050L); // ArrowLeft
+    k.put(KeyEvent.KEYCODE_DPAD_RIGHT, 0x0007004fL); // ArrowRight
+    k.put(KeyEvent.KEYCODE_MOVE_END, 0x0007004dL); // End
+    k.put(KeyEvent.KEYCODE_DPAD_DOWN, 0x00070051L); // ArrowDown
+    k.put(KeyEvent.KEYCODE_PAGE_DOWN, 0x0007004eL); // PageDown
+    k.put(KeyEvent.KEYCODE_INSERT, 0x00070049L); // Insert
+    k.put(KeyEvent.KEYCODE_FORWARD_DEL, 0x0007004cL); // Delete
+    k.put(KeyEvent.KEYCODE_VOLUME_MUTE, 0x0007007fL); // AudioVolumeMute
+    k.put(KeyEvent.KEYCODE_VOLUME_DOWN, 0x00070081L); // AudioVolumeDown
+    k.put(KeyEvent.KEYCODE_VOLUME_UP, 0x00070080L); // AudioVolumeUp
+    k.put(KeyEvent.KEYCODE_POWER, 0x00070066L); // Power
+    k.put(KeyEvent.KEYCODE_NUMPAD_EQUALS, 0x00070067L); // NumpadEqual
+    k.put(KeyEvent.KEYCODE_BREAK, 0x00070048L); // Pause
+    k.put(KeyEvent.KEYCODE_NUMPAD_COMMA, 0x00070085L); // NumpadComma
+    k.put(KeyEvent.KEYCODE_YEN, 0x00070089L); // IntlYen
+    k.put(KeyEvent.KEYCODE_META_LEFT, 0x000700e3L); // MetaLeft
+    k.put(KeyEvent.KEYCODE_META_RIGHT, 0x000700e7L); // MetaRight
+    k.put(KeyEvent.KEYCODE_MENU, 0x00070065L); // ContextMenu
+    k.put(KeyEvent.KEYCODE_COPY, 0x0007007cL); // Copy
+    k.put(KeyEvent.KEYCODE_PASTE, 0x0007007dL); // Paste
+    k.put(KeyEvent.KEYCODE_CUT, 0x0007007bL); // Cut
+    k.put(KeyEvent.KEYCODE_HELP, 0x00070075L); // Help
+    k.put(KeyEvent.KEYCODE_SLEEP, 0x00010082L); // Sleep
+    k.put(KeyEvent.KEYCODE_WAKEUP, 0x00010083L); // WakeUp
+    k.put(KeyEvent.KEYCODE_MEDIA_EJECT, 0x000c00b8L); // Eject
+    k.put(KeyEvent.KEYCODE_MEDIA_NEXT, 0x000c00b5L); // MediaTrackNext
+    k.put(KeyEvent.KEYCODE_MEDIA_PLAY_PAUSE, 0x000c00cdL); // MediaPlayPause
+    k.put(KeyEvent.KEYCODE_MEDIA_PREVIOUS, 0x000c00b6L); // MediaTrackPrevious
+    k.put(KeyEvent.KEYCODE_MEDIA_STOP, 0x000c00b7L); // MediaStop
+    k.put(KeyEvent.KEYCODE_MEDIA_RECORD, 0x000c00b2L); // MediaRecord
+    k.put(KeyEvent.KEYCODE_MEDIA_REWIND, 0x000c00b4L); // MediaRewind
+    k.put(KeyEvent.KEYCODE_NUMPAD_LEFT_PAREN, 0x000700b6L); // NumpadParenLeft
+    k.put(KeyEvent.KEYCODE_NUMPAD_RIGHT_PAREN, 0x000700b7L); // NumpadParenRight
+    k.put(KeyEvent.KEYCODE_MEDIA_PLAY, 0x000c00b0L); // MediaPlay
+    k.put(KeyEvent.KEYCODE_MEDIA_PAUSE, 0x000c00b1L); // MediaPause
+    k.put(KeyEvent.KEYCODE_MEDIA_FAST_FORWARD, 0x000c00b3L); // MediaFastForward
+    k.put(KeyEvent.KEYCODE_BRIGHTNESS_DOWN, 0x000c0070L); // BrightnessDown
+    k.put(KeyEvent.KEYCODE_BRIGHTNESS_UP, 0x000c006fL); // BrightnessUp
+    k.put(KeyEvent.KEYCODE_BUTTON_1, 0x0005ff01L); // GameButton1
+    k.put(KeyEvent.KEYCODE_BUTTON_2, 0x0005ff02L); // GameButton2
+    k.put(KeyEvent.KEYCODE_BUTTON_3, 0x0005ff03L); // GameButton3
+    k.put(KeyEvent.KEYCODE_BUTTON_4, 0x0005ff04L); // GameButton4
+    k.put(KeyEvent.KEYCODE_BUTTON_5, 0x0005ff05L); // GameButton5
+    k.put(KeyEvent.KEYCODE_BUTTON_6, 0x0005ff06L); // GameButton6
+    k.put(KeyEvent.KEYCODE_BUTTON_7, 0x0005ff07L); // GameButton7
+    k.put(KeyEvent.KEYCODE_BUTTON_8, 0x0005ff08L); // GameButton8
+    k.put(KeyEvent.KEYCODE_BUTTON_9, 0x0005ff09L); // GameButton9
+    k.put(KeyEvent.KEYCODE_BUTTON_10, 0x0005ff0aL); // GameButton10
+    k.put(KeyEvent.KEYCODE_BUTTON_11, 0x0005ff0bL); // GameButton11
+    k.put(KeyEvent.KEYCODE_BUTTON_12, 0x0005ff0cL); // GameButton12
+    k.put(KeyEvent.KEYCODE_BUTTON_13, 0x0005ff0dL); // GameButton13
+    k.put(KeyEvent.KEYCODE_BUTTON_14, 0x0005ff0eL); // GameButton14
+    k.put(KeyEvent.KEYCODE_BUTTON_15, 0x0005ff0fL); // GameButton15
+    k.put(KeyEvent.KEYCODE_BUTTON_16, 0x0005ff10L); // GameButton16
+    k.put(KeyEvent.KEYCODE_BUTTON_A, 0x0005ff11L); // GameButtonA
+    k.put(KeyEvent.KEYCODE_BUTTON_B, 0x0005ff12L); // GameButtonB
+    k.put(KeyEvent.KEYCODE_BUTTON_C, 0x0005ff13L); // GameButtonC
+    k.put(KeyEvent.KEYCODE_BUTTON_X, 0x0005ff1dL); // GameButtonX
+    k.put(KeyEvent.KEYCODE_BUTTON_Y, 0x0005ff1eL); // GameButtonY
+    k.put(KeyEvent.KEYCODE_BUTTON_Z, 0x0005ff1fL); // GameButtonZ
+    k.put(KeyEvent.KEYCODE_BUTTON_L1, 0x0005ff14L); // GameButtonLeft1
+    k.put(KeyEvent.KEYCODE_BUTTON_R1, 0x0005ff17L); // GameButtonRight1
+    k.put(KeyEvent.KEYCODE_BUTTON_L2, 0x0005ff15L); // GameButtonLeft2
+    k.put(KeyEvent.KEYCODE_BUTTON_R2, 0x0005ff18L); // GameButtonRight2
+    k.put(KeyEvent.KEYCODE_BUTTON_SELECT, 0x0005ff19L); // GameButtonSelect
+    k.put(KeyEvent.KEYCODE_BUTTON_START, 0x0005ff1aL); // GameButtonStart
+    k.put(KeyEvent.KEYCODE_BUTTON_MODE, 0x0005ff16L); // GameButtonMode
+    k.put(KeyEvent.KEYCODE_BUTTON_THUMBL, 0x0005ff1bL); // GameButtonThumbLeft
+    k.put(KeyEvent.KEYCODE_BUTTON_THUMBR, 0x0005ff1cL); // GameButtonThumbRight
+    k.put(KeyEvent.KEYCODE_ZOOM_IN, 0x000c022dL); // ZoomIn
+    k.put(KeyEvent.KEYCODE_ZOOM_OUT, 0x000c022eL); // ZoomOut
+    k.put(KeyEvent.KEYCODE_FUNCTION, 0x00000012L); // Fn
+
+    final SparseLongArray l = keyCodeToLogical;
+    l.put(KeyEvent.KEYCODE_DEL, 0x00100000008L); // Backspace
+    l.put(KeyEvent.KEYCODE_TAB, 0x00100000009L); // Tab
+    l.put(KeyEvent.KEYCODE_ENTER, 0x0010000000dL); // Enter
+    l.put(KeyEvent.KEYCODE_ESCAPE, 0x0010000001bL); // Escape
+    l.put(KeyEvent.KEYCODE_FORWARD_DEL, 0x0010000007fL); // Delete
+    l.put(KeyEvent.KEYCODE_CAPS_LOCK, 0x00100000104L); // CapsLock
+    l.put(KeyEvent.KEYCODE_FUNCTION, 0x00100000106L); // Fn
+    l.put(KeyEvent.KEYCODE_NUM_LOCK, 0x0010000010aL); // NumLock
+    l.put(KeyEvent.KEYCODE_SCROLL_LOCK, 0x0010000010cL); // ScrollLock
+    l.put(KeyEvent.KEYCODE_SYM, 0x0010000010fL); // Symbol
+    l.put(KeyEvent.KEYCODE_DPAD_DOWN, 0x00100000301L); // ArrowDown
+    l.put(KeyEvent.KEYCODE_DPAD_LEFT, 0x00100000302L); // ArrowLeft
+    l.put(KeyEvent.KEYCODE_DPAD_RIGHT, 0x00100000303L); // ArrowRight
+    l.put(KeyEvent.KEYCODE_DPAD_UP, 0x00100000304L); // ArrowUp
+    l.put(KeyEvent.KEYCODE_MOVE_END, 0x00100000305L); // End
+    l.put(KeyEvent.KEYCODE_MOVE_HOME, 0x00100000306L); // Home
+    l.put(KeyEvent.KEYCODE_PAGE_DOWN, 0x00100000307L); // PageDown
+    l.put(KeyEvent.KEYCODE_PAGE_UP, 0x00100000308L); // PageUp
+    l.put(KeyEvent.KEYCODE_CLEAR, 0x00100000401L); // Clear
+    l.put(KeyEvent.KEYCODE_COPY, 0x00100000402L); // Copy
+    l.put(KeyEvent.KEYCODE_CUT, 0x00100000404L); // Cut
+    l.put(KeyEvent.KEYCODE_INSERT, 0x00100000407L); // Insert
+    l.put(KeyEvent.KEYCODE_PASTE, 0x00100000408L); // Paste
+    l.put(KeyEvent.KEYCODE_MENU, 0x00100000505L); // ContextMenu
+    l.put(KeyEvent.KEYCODE_HELP, 0x00100000508L); // Help
+    l.put(KeyEvent.KEYCODE_BREAK, 0x00100000509L); // Pause
+    l.put(KeyEvent.KEYCODE_DPAD_CENTER, 0x0010000050cL); // Select
+    l.put(KeyEvent.KEYCODE_ZOOM_IN, 0x0010000050dL); // ZoomIn
+    l.put(KeyEvent.KEYCODE_ZOOM_OUT, 0x0010000050eL); // ZoomOut
+    l.put(KeyEvent.KEYCODE_BRIGHTNESS_DOWN, 0x00100000601L); // BrightnessDown
+    l.put(KeyEvent.KEYCODE_BRIGHTNESS_UP, 0x00100000602L); // BrightnessUp
+    l.put(KeyEvent.KEYCODE_CAMERA, 0x00100000603L); // Camera
+    l.put(KeyEvent.KEYCODE_MEDIA_EJECT, 0x00100000604L); // Eject
+    l.put(KeyEvent.KEYCODE_POWER, 0x00100000606L); // Power
+    l.put(KeyEvent.KEYCODE_SYSRQ, 0x00100000608L); // PrintScreen
+    l.put(KeyEvent.KEYCODE_SLEEP, 0x0010000060aL); // Standby
+    l.put(KeyEvent.KEYCODE_WAKEUP, 0x0010000060bL); // WakeUp
+    l.put(KeyEvent.KEYCODE_HENKAN, 0x00100000705L); // Convert
+    l.put(KeyEvent.KEYCODE_SWITCH_CHARSET, 0x0010000070bL); // ModeChange
+    l.put(KeyEvent.KEYCODE_MUHENKAN, 0x0010000070dL); // NonConvert
+    l.put(KeyEvent.KEYCODE_EISU, 0x00100000714L); // Eisu
+    l.put(KeyEvent.KEYCODE_KATAKANA_HIRAGANA, 0x00100000717L); // HiraganaKatakana
+    l.put(KeyEvent.KEYCODE_KANA, 0x00100000718L); // KanaMode
+    l.put(KeyEvent.KEYCODE_ZENKAKU_HANKAKU, 0x0010000071dL); // ZenkakuHankaku
+    l.put(KeyEvent.KEYCODE_F1, 0x00100000801L); // F1
+    l.put(KeyEvent.KEYCODE_F2, 0x00100000802L); // F2
+    l.put(KeyEvent.KEYCODE_F3, 0x00100000803L); // F3
+    l.put(KeyEvent.KEYCODE_F4, 0x00100000804L); // F4
+    l.put(KeyEvent.KEYCODE_F5, 0x00100000805L); // F5
+    l.put(KeyEvent.KEYCODE_F6, 0x00100000806L); // F6
+    l.put(KeyEvent.KEYCODE_F7, 0x00100000807L); // F7
+    l.put(KeyEvent.KEYCODE_F8, 0x00100000808L); // F8
+    l.put(KeyEvent.KEYCODE_F9, 0x00100000809L); // F9
+    l.put(KeyEvent.KEYCODE_F10, 0x0010000080aL); // F10
+    l.put(KeyEvent.KEYCODE_F11, 0x0010000080bL); // F11
+    l.put(KeyEvent.KEYCODE_F12, 0x0010000080cL); // F12
+    l.put(KeyEvent.KEYCODE_MEDIA_PLAY_PAUSE, 0x00100000a05L); // MediaPlayPause
+    l.put(KeyEvent.KEYCODE_MEDIA_STOP, 0x00100000a07L); // MediaStop
+    l.put(KeyEvent.KEYCODE_MEDIA_NEXT, 0x00100000a08L); // MediaTrackNext
+    l.put(KeyEvent.KEYCODE_MEDIA_PREVIOUS, 0x00100000a09L); // MediaTrackPrevious
+    l.put(KeyEvent.KEYCODE_VOLUME_DOWN, 0x00100000a0fL); // AudioVolumeDown
+    l.put(KeyEvent.KEYCODE_VOLUME_UP, 0x00100000a10L); // AudioVolumeUp
+    l.put(KeyEvent.KEYCODE_VOLUME_MUTE, 0x00100000a11L); // AudioVolumeMute
+    l.put(KeyEvent.KEYCODE_CALCULATOR, 0x00100000b01L); // LaunchApplication2
+    l.put(KeyEvent.KEYCODE_CALENDAR, 0x00100000b02L); // LaunchCalendar
+    l.put(KeyEvent.KEYCODE_ENVELOPE, 0x00100000b03L); // LaunchMail
+    l.put(KeyEvent.KEYCODE_MUSIC, 0x00100000b05L); // LaunchMusicPlayer
+    l.put(KeyEvent.KEYCODE_EXPLORER, 0x00100000b09L); // LaunchWebBrowser
+    l.put(KeyEvent.KEYCODE_CONTACTS, 0x00100000b0cL); // LaunchContacts
+    l.put(KeyEvent.KEYCODE_ASSIST, 0x00100000b0eL); // LaunchAssistant
+    l.put(KeyEvent.KEYCODE_BOOKMARK, 0x00100000c02L); // BrowserFavorites
+    l.put(KeyEvent.KEYCODE_FORWARD, 0x00100000c03L); // BrowserForward
+    l.put(KeyEvent.KEYCODE_REFRESH, 0x00100000c05L); // BrowserRefresh
+    l.put(KeyEvent.KEYCODE_SEARCH, 0x00100000c06L); // BrowserSearch
+    l.put(KeyEvent.KEYCODE_AVR_INPUT, 0x00100000d08L); // AvrInput
+    l.put(KeyEvent.KEYCODE_AVR_POWER, 0x00100000d09L); // AvrPower
+    l.put(KeyEvent.KEYCODE_CHANNEL_DOWN, 0x00100000d0aL); // ChannelDown
+    l.put(KeyEvent.KEYCODE_CHANNEL_UP, 0x00100000d0bL); // ChannelUp
+    l.put(KeyEvent.KEYCODE_PROG_RED, 0x00100000d0cL); // ColorF0Red
+    l.put(KeyEvent.KEYCODE_PROG_GREEN, 0x00100000d0dL); // ColorF1Green
+    l.put(KeyEvent.KEYCODE_PROG_YELLOW, 0x00100000d0eL); // ColorF2Yellow
+    l.put(KeyEvent.KEYCODE_PROG_BLUE, 0x00100000d0fL); // ColorF3Blue
+    l.put(KeyEvent.KEYCODE_CAPTIONS, 0x00100000d12L); // ClosedCaptionToggle
+    l.put(KeyEvent.KEYCODE_GUIDE, 0x00100000d22L); // Guide
+    l.put(KeyEvent.KEYCODE_INFO, 0x00100000d25L); // Info
+    l.put(KeyEvent.KEYCODE_MEDIA_FAST_FORWARD, 0x00100000d2cL); // MediaFastForward
+    l.put(KeyEvent.KEYCODE_LAST_CHANNEL, 0x00100000d2dL); // MediaLast
+    l.put(KeyEvent.KEYCODE_MEDIA_PAUSE, 0x00100000d2eL); // MediaPause
+    l.put(KeyEvent.KEYCODE_MEDIA_PLAY, 0x00100000d2fL); // MediaPlay
+    l.put(KeyEvent.KEYCODE_MEDIA_RECORD, 0x00100000d30L); // MediaRecord
+    l.put(KeyEvent.KEYCODE_MEDIA_REWIND, 0x00100000d31L); // MediaRewind
+    l.put(KeyEvent.KEYCODE_SETTINGS, 0x00100000d43L); // Settings
+    l.put(KeyEvent.KEYCODE_STB_INPUT, 0x00100000d45L); // StbInput
+    l.put(KeyEvent.KEYCODE_STB_POWER, 0x00100000d46L); // StbPower
+    l.put(KeyEvent.KEYCODE_TV, 0x00100000d49L); // TV
+    l.put(KeyEvent.KEYCODE_TV_INPUT, 0x00100000d4aL); // TVInput
+    l.put(KeyEvent.KEYCODE_TV_POWER, 0x00100000d4bL); // TVPower
+    l.put(KeyEvent.KEYCODE_DVR, 0x00100000d4fL); // DVR
+    l.put(KeyEvent.KEYCODE_MEDIA_AUDIO_TRACK, 0x00100000d50L); // MediaAudioTrack
+    l.put(KeyEvent.KEYCODE_MEDIA_SKIP_BACKWARD, 0x00100000d51L); // MediaSkipBackward
+    l.put(KeyEvent.KEYCODE_MEDIA_SKIP_FORWARD, 0x00100000d52L); // MediaSkipForward
+    l.put(KeyEvent.KEYCODE_MEDIA_STEP_BACKWARD, 0x00100000d53L); // MediaStepBackward
+    l.put(KeyEvent.KEYCODE_MEDIA_STEP_FORWARD, 0x00100000d54L); // MediaStepForward
+    l.put(KeyEvent.KEYCODE_MEDIA_TOP_MENU, 0x00100000d55L); // MediaTopMenu
+    l.put(KeyEvent.KEYCODE_NAVIGATE_IN, 0x00100000d56L); // NavigateIn
+    l.put(KeyEvent.KEYCODE_NAVIGATE_NEXT, 0x00100000d57L); // NavigateNext
+    l.put(KeyEvent.KEYCODE_NAVIGATE_OUT, 0x00100000d58L); // NavigateOut
+    l.put(KeyEvent.KEYCODE_NAVIGATE_PREVIOUS, 0x00100000d59L); // NavigatePrevious
+    l.put(KeyEvent.KEYCODE_PAIRING, 0x00100000d5aL); // Pairing
+    l.put(KeyEvent.KEYCODE_MEDIA_CLOSE, 0x00100000d5bL); // MediaClose
+    l.put(KeyEvent.KEYCODE_APP_SWITCH, 0x00100001001L); // AppSwitch
+    l.put(KeyEvent.KEYCODE_CALL, 0x00100001002L); // Call
+    l.put(KeyEvent.KEYCODE_FOCUS, 0x00100001003L); // CameraFocus
+    l.put(KeyEvent.KEYCODE_ENDCALL, 0x00100001004L); // EndCall
+    l.put(KeyEvent.KEYCODE_BACK, 0x00100001005L); // GoBack
+    l.put(KeyEvent.KEYCODE_HOME, 0x00100001006L); // GoHome
+    l.put(KeyEvent.KEYCODE_HEADSETHOOK, 0x00100001007L); // HeadsetHook
+    l.put(KeyEvent.KEYCODE_NOTIFICATION, 0x00100001009L); // Notification
+    l.put(KeyEvent.KEYCODE_MANNER_MODE, 0x0010000100aL); // MannerMode
+    l.put(KeyEvent.KEYCODE_CTRL_LEFT, 0x00200000100L); // ControlLeft
+    l.put(KeyEvent.KEYCODE_CTRL_RIGHT, 0x00200000101L); // ControlRight
+    l.put(KeyEvent.KEYCODE_SHIFT_LEFT, 0x00200000102L); // ShiftLeft
+    l.put(KeyEvent.KEYCODE_SHIFT_RIGHT, 0x00200000103L); // ShiftRight
+    l.put(KeyEvent.KEYCODE_ALT_LEFT, 0x00200000104L); // AltLeft
+    l.put(KeyEvent.KEYCODE_ALT_RIGHT, 0x00200000105L); // AltRight
+    l.put(KeyEvent.KEYCODE_META_LEFT, 0x00200000106L); // MetaLeft
+    l.put(KeyEvent.KEYCODE_META_RIGHT, 0x00200000107L); // MetaRight
+    l.put(KeyEvent.KEYCODE_NUMPAD_ENTER, 0x0020000020dL); // NumpadEnter
+    l.put(KeyEvent.KEYCODE_NUMPAD_LEFT_PAREN, 0x00200000228L); // NumpadParenLeft
+    l.put(KeyEvent.KEYCODE_NUMPAD_RIGHT_PAREN, 0x00200000229L); // NumpadParenRight
+    l.put(KeyEvent.KEYCODE_NUMPAD_MULTIPLY, 0x0020000022aL); // NumpadMultiply
+    l.put(KeyEvent.KEYCODE_NUMPAD_ADD, 0x0020000022bL); // NumpadAdd
+    l.put(KeyEvent.KEYCODE_NUMPAD_COMMA, 0x0020000022cL); // NumpadComma
+    l.put(KeyEvent.KEYCODE_NUMPAD_SUBTRACT, 0x0020000022dL); // NumpadSubtract
+    l.put(KeyEvent.KEYCODE_NUMPAD_DOT, 0x0020000022eL); // NumpadDecimal
+    l.put(KeyEvent.KEYCODE_NUMPAD_DIVIDE, 0x0020000022fL); // NumpadDivide
+    l.put(KeyEvent.KEYCODE_NUMPAD_0, 0x00200000230L); // Numpad0
+    l.put(KeyEvent.KEYCODE_NUMPAD_1, 0x00200000231L); // Numpad1
+    l.put(KeyEvent.KEYCODE_NUMPAD_2, 0x00200000232L); // Numpad2
+    l.put(KeyEvent.KEYCODE_NUMPAD_3, 0x00200000233L); // Numpad3
+    l.put(KeyEvent.KEYCODE_NUMPAD_4, 0x00200000234L); // Numpad4
+    l.put(KeyEvent.KEYCODE_NUMPAD_5, 0x00200000235L); // Numpad5
+    l.put(KeyEvent.KEYCODE_NUMPAD_6, 0x00200000236L); // Numpad6
+    l.put(KeyEvent.KEYCODE_NUMPAD_7, 0x00200000237L); // Numpad7
+    l.put(KeyEvent.KEYCODE_NUMPAD_8, 0x00200000238L); // Numpad8
+    l.put(KeyEvent.KEYCODE_NUMPAD_9, 0x00200000239L); // Numpad9
+    l.put(KeyEvent.KEYCODE_NUMPAD_EQUALS, 0x0020000023dL); // NumpadEqual
+    l.put(KeyEvent.KEYCODE_BUTTON_1, 0x00200000301L); // GameButton1
+    l.put(KeyEvent.KEYCODE_BUTTON_2, 0x00200000302L); // GameButton2
+    l.put(KeyEvent.KEYCODE_BUTTON_3, 0x00200000303L); // GameButton3
+    l.put(KeyEvent.KEYCODE_BUTTON_4, 0x00200000304L); // GameButton4
+    l.put(KeyEvent.KEYCODE_BUTTON_5, 0x00200000305L); // GameButton5
+    l.put(KeyEvent.KEYCODE_BUTTON_6, 0x00200000306L); // GameButton6
+    l.put(KeyEvent.KEYCODE_BUTTON_7, 0x00200000307L); // GameButton7
+    l.put(KeyEvent.KEYCODE_BUTTON_8, 0x00200000308L); // GameButton8
+    l.put(KeyEvent.KEYCODE_BUTTON_9, 0x00200000309L); // GameButton9
+    l.put(KeyEvent.KEYCODE_BUTTON_10, 0x0020000030aL); // GameButton10
+    l.put(KeyEvent.KEYCODE_BUTTON_11, 0x0020000030bL); // GameButton11
+    l.put(KeyEvent.KEYCODE_BUTTON_12, 0x0020000030cL); // GameButton12
+    l.put(KeyEvent.KEYCODE_BUTTON_13, 0x0020000030dL); // GameButton13
+    l.put(KeyEvent.KEYCODE_BUTTON_14, 0x0020000030eL); // GameButton14
+    l.put(KeyEvent.KEYCODE_BUTTON_15, 0x0020000030fL); // GameButton15
+    l.put(KeyEvent.KEYCODE_BUTTON_16, 0x00200000310L); // GameButton16
+    l.put(KeyEvent.KEYCODE_BUTTON_A, 0x00200000311L); // GameButtonA
+    l.put(KeyEvent.KEYCODE_BUTTON_B, 0x00200000312L); // GameButtonB
+    l.put(KeyEvent.KEYCODE_BUTTON_C, 0x00200000313L); // GameButtonC
+    l.put(KeyEvent.KEYCODE_BUTTON_L1, 0x00200000314L); // GameButtonLeft1
+    l.put(KeyEvent.KEYCODE_BUTTON_L2, 0x00200000315L); // GameButtonLeft2
+    l.put(KeyEvent.KEYCODE_BUTTON_MODE, 0x00200000316L); // GameButtonMode
+    l.put(KeyEvent.KEYCODE_BUTTON_R1, 0x00200000317L); // GameButtonRight1
+    l.put(KeyEvent.KEYCODE_BUTTON_R2, 0x00200000318L); // GameButtonRight2
+    l.put(KeyEvent.KEYCODE_BUTTON_SELECT, 0x00200000319L); // GameButtonSelect
+    l.put(KeyEvent.KEYCODE_BUTTON_START, 0x0020000031aL); // GameButtonStart
+    l.put(KeyEvent.KEYCODE_BUTTON_THUMBL, 0x0020000031bL); // GameButtonThumbLeft
+    l.put(KeyEvent.KEYCODE_BUTTON_THUMBR, 0x0020000031cL); // GameButtonThumbRight
+    l.put(KeyEvent.KEYCODE_BUTTON_X, 0x0020000031dL); // GameButtonX
+    l.put(KeyEvent.KEYCODE_BUTTON_Y, 0x0020000031eL); // GameButtonY
+    l.put(KeyEvent.KEYCODE_BUTTON_Z, 0x0020000031fL); // GameButtonZ
+
+    final SparseIntArray c = keyCodeToCharacter;
+    c.put(KeyEvent.KEYCODE_SPACE, ' ');
+    c.put(KeyEvent.KEYCODE_STAR, '*');
+    c.put(KeyEvent.KEYCODE_POUND, '#');
+    c.put(KeyEvent.KEYCODE_COMMA, ',');
+    c.put(KeyEvent.KEYCODE_PERIOD, '.');
+    c.put(KeyEvent.KEYCODE_GRAVE, '`');
+    c.put(KeyEvent.KEYCODE_MINUS, '-');
+    c.put(KeyEvent.KEYCODE_EQUALS, '=');
+    c.put(KeyEvent.KEYCODE_LEFT_BRACKET, '[');
+    c.put(KeyEvent.KEYCODE_RIGHT_BRACKET, ']');
+    c.put(KeyEvent.KEYCODE_BACKSLASH, '\\');
+    c.put(KeyEvent.KEYCODE_SEMICOLON, ';');
+    c.put(KeyEvent.KEYCODE_APOSTROPHE, '\'');
+    c.put(KeyEvent.KEYCODE_SLASH, '/');
+    c.put(KeyEvent.KEYCODE_AT, '@');
+    c.put(KeyEvent.KEYCODE_PLUS, '+');
+    c.put(KeyEvent.KEYCODE_0, '0');
+    c.put(KeyEvent.KEYCODE_1, '1');
+    c.put(KeyEvent.KEYCODE_2, '2');
+    c.put(KeyEvent.KEYCODE_3, '3');
+    c.put(KeyEvent.KEYCODE_4, '4');
+    c.put(KeyEvent.KEYCODE_5, '5');
+    c.put(KeyEvent.KEYCODE_6, '6');
+    c.put(KeyEvent.KEYCODE_7, '7');
+    c.put(KeyEvent.KEYCODE_8, '8');
+    c.put(KeyEvent.KEYCODE_9, '9');
+    c.put(KeyEvent.KEYCODE_A, 'a');
+    c.put(KeyEvent.KEYCODE_B, 'b');
+    c.put(KeyEvent.KEYCODE_C, 'c');
+    c.put(KeyEvent.KEYCODE_D, 'd');
+    c.put(KeyEvent.KEYCODE_E, 'e');
+    c.put(KeyEvent.KEYCODE_F, 'f');
+    c.put(KeyEvent.KEYCODE_G, 'g');
+    c.put(KeyEvent.KEYCODE_H, 'h');
+    c.put(KeyEvent.KEYCODE_I, 'i');
+    c.put(KeyEvent.KEYCODE_J, 'j');
+    c.put(KeyEvent.KEYCODE_K, 'k');
+    c.put(KeyEvent.KEYCODE_L, 'l');
+    c.put(KeyEvent.KEYCODE_M, 'm');
+    c.put(KeyEvent.KEYCODE_N, 'n');
+    c.put(KeyEvent.KEYCODE_O, 'o');
+    c.put(KeyEvent.KEYCODE_P, 'p');
+    c.put(KeyEvent.KEYCODE_Q, 'q');
+    c.put(KeyEvent.KEYCODE_R, 'r');
+    c.put(KeyEvent.KEYCODE_S, 's');
+    c.put(KeyEvent.KEYCODE_T, 't');
+    c.put(KeyEvent.KEYCODE_U, 'u');
+    c.put(KeyEvent.KEYCODE_V, 'v');
+    c.put(KeyEvent.KEYCODE_W, 'w');
+    c.put(KeyEvent.KEYCODE_X, 'x');
+    c.put(KeyEvent.KEYCODE_Y, 'y');
+    c.put(KeyEvent.KEYCODE_Z, 'z');
+  }
+
+  private KeyboardMap() {}
+
+  /**
+   * Returns the physical key value of the given event.
+   *
+   * @param scanCode the scan code of the event, or 0 if it has none.
+   * @param keyCode the key code of the event.
+   */
+  static long getPhysicalKey(int scanCode, int keyCode) {
+    if (scanCode == 0) {
+      // Soft keyboards and virtual keys don't have a scan code, so tell them apart by key code.
+      return keyCodeToPhysical.get(keyCode, keyCode | ANDROID_PLANE);
+    }
+    return scanCodeToPhysical.get(scanCode, scanCode | ANDROID_PLANE);
+  }
+
+  /**
+   * Returns the logical key value of the given event.
+   *
+   * @param keyCode the key code of the event.
+   * @param baseCodePoint the printable code point the key produces without modifiers, or 0 if
+   *     there's none.
+   */
+  static long getLogicalKey(int keyCode, int baseCodePoint) {
+    final long logicalKey = keyCodeToLogical.get(keyCode, -1);
+    if (logicalKey != -1) {
+      return logicalKey;
+    }
+    if (baseCodePoint != 0) {
+      return Character.toLowerCase(baseCodePoint);
+    }
+    final int character = keyCodeToCharacter.get(keyCode, 0);
+    return character != 0 ? character : (keyCode | ANDROID_PLANE);
+  }
+}
@@ -100,6 +100,9 @@ public class FlutterEngine {
   // Platform Views.
   @NonNull private final PlatformViewsController platformViewsController;
 
+  // Whether attached FlutterViews also send key events as key data packets.
+  private boolean keyDataPacketsEnabled = false;
+
   // Engine Lifecycle.
   @NonNull private final Set<EngineLifecycleListener> engineLifecycleListeners = new HashSet<>();
 
@@ -478,6 +481,27 @@ public class FlutterEngine {
     return keyEventChannel;
   }
 
+  /**
+   * Sets whether {@link io.flutter.embedding.android.FlutterView}s attached to this engine also
+   * send key events to the framework's key data API as binary packets. The framework pairs the
+   * packets of each event with the message sent through the {@link KeyEventChannel}, which is
+   * still sent.
+   *
+   * <p>Disabled by default. Takes effect for views that are attached after the call, so it's
+   * typically set when the engine is configured, before the engine is attached to a view.
+   */
+  public void setKeyDataPacketsEnabled(boolean enabled) {
+    keyDataPacketsEnabled = enabled;
+  }
+
+  /**
+   * Whether attached views send key events as key data packets, see {@link
+   * #setKeyDataPacketsEnabled(boolean)}.
+   */
+  public boolean areKeyDataPacketsEnabled() {
+    return keyDataPacketsEnabled;
+  }
+
   /** System channel that sends Android lifecycle events to Flutter. */
   @NonNull
   public LifecycleChannel getLifecycleChannel() {
@@ -13,6 +13,7 @@ import android.graphics.SurfaceTexture;
 import android.os.Build;
 import android.os.Looper;
 import android.util.Size;
+import android.util.SparseArray;
 import android.view.Surface;
 import android.view.SurfaceHolder;
 import androidx.annotation.Keep;
@@ -26,6 +27,7 @@ import io.flutter.embedding.engine.dart.PlatformMessageHandler;
 import io.flutter.embedding.engine.deferredcomponents.DeferredComponentManager;
 import io.flutter.embedding.engine.mutatorsstack.FlutterMutatorsStack;
 import io.flutter.embedding.engine.renderer.FlutterUiDisplayListener;
+import io.flutter.embedding.engine.renderer.ImageTextureWrapper;
 import io.flutter.embedding.engine.renderer.SurfaceTextureWrapper;
 import io.flutter.plugin.common.StandardMessageCodec;
 import io.flutter.plugin.localization.LocalizationPlugin;
@@ -261,6 +263,16 @@ public class FlutterJNI {
 
   public native boolean nativeFlutterTextUtilsIsRegionalIndicator(int codePoint);
 
+  /**
+   * Returns the code points that have the given Unicode property as sorted inclusive ranges,
+   * stored as [start0, end0, start1, end1, ...], or null if the property is unknown.
+   *
+   * <p>The property is one of the {@code PROPERTY_*} constants of {@code
+   * io.flutter.plugin.editing.FlutterTextUtils}.
+   */
+  @Nullable
+  public native int[] nativeFlutterTextUtilsGetPropertyRanges(int property);
+
   // ----- End Engine FlutterTextUtils Methods ----
 
   // Below represents the stateful part of the FlutterJNI instances that aren't static per program.
@@ -274,6 +286,13 @@ public class FlutterJNI {
 
   @Nullable private DeferredComponentManager deferredComponentManager;
 
+  // Callbacks of key data packets that the framework has not responded to yet, keyed by response
+  // ID.
+  @NonNull
+  private final SparseArray<KeyDataResponseCallback> pendingKeyDataResponses = new SparseArray<>();
+
+  private int nextKeyDataResponseId = 1;
+
   @NonNull
   private final Set<EngineLifecycleListener> engineLifecycleListeners = new CopyOnWriteArraySet<>();
 
@@ -371,6 +390,11 @@ public class FlutterJNI {
     ensureAttachedToNative();
     nativeDestroy(nativeShellHolderId);
     nativeShellHolderId = null;
+    // The framework will not respond to these anymore.
+    for (int i = 0; i < pendingKeyDataResponses.size(); i++) {
+      pendingKeyDataResponses.valueAt(i).onKeyDataResponse(false);
+    }
+    pendingKeyDataResponses.clear();
   }
 
   private native void nativeDestroy(long nativeShellHolderId);
@@ -620,6 +644,44 @@ public class FlutterJNI {
       long nativeShellHolderId, @NonNull ByteBuffer buffer, int position);
   // ------ End Touch Interaction Support ---
 
+  // ------ Start Key Data Support ---
+  /**
+   * Sends a packet of key data to Flutter's engine.
+   *
+   * <p>The first {@code position} bytes of the direct {@code buffer} must hold a key data packet
+   * in the layout of the engine's {@code KeyDataPacket}: the byte length of the character, the
+   * fixed-length key data fields, then the UTF-8 character. All fields are 64-bit integers in
+   * native byte order. The buffer can be reused as soon as this method returns.
+   *
+   * <p>The {@code callback} is invoked on the main thread once the framework has decided whether
+   * to handle the key event.
+   */
+  @UiThread
+  public void dispatchKeyDataPacket(
+      @NonNull ByteBuffer buffer, int position, @NonNull KeyDataResponseCallback callback) {
+    ensureRunningOnMainThread();
+    ensureAttachedToNative();
+    final int responseId = nextKeyDataResponseId++;
+    pendingKeyDataResponses.put(responseId, callback);
+    nativeDispatchKeyDataPacket(nativeShellHolderId, buffer, position, responseId);
+  }
+
+  private native void nativeDispatchKeyDataPacket(
+      long nativeShellHolderId, @NonNull ByteBuffer buffer, int position, int responseId);
+
+  // Called by native to respond to a key data packet that we sent.
+  @SuppressWarnings("unused")
+  @VisibleForTesting
+  void handleKeyDataResponse(int responseId, boolean handled) {
+    final KeyDataResponseCallback callback = pendingKeyDataResponses.get(responseId);
+    if (callback == null) {
+      return;
+    }
+    pendingKeyDataResponses.remove(responseId);
+    callback.onKeyDataResponse(handled);
+  }
+  // ------ End Key Data Support ---
+
   @UiThread
   public void setPlatformViewsController(@NonNull PlatformViewsController platformViewsController) {
     ensureRunningOnMainThread();
@@ -766,6 +828,23 @@ public class FlutterJNI {
       long textureId,
       @NonNull WeakReference<SurfaceTextureWrapper> textureWrapper);
 
+  /**
+   * Gives control of the images of an {@link android.media.ImageReader} to Flutter so that Flutter
+   * can display them within Flutter's UI.
+   */
+  @UiThread
+  public void registerImageTexture(long textureId, @NonNull ImageTextureWrapper textureWrapper) {
+    ensureRunningOnMainThread();
+    ensureAttachedToNative();
+    nativeRegisterImageTexture(
+        nativeShellHolderId, textureId, new WeakReference<ImageTextureWrapper>(textureWrapper));
+  }
+
+  private native void nativeRegisterImageTexture(
+      long nativeShellHolderId,
+      long textureId,
+      @NonNull WeakReference<ImageTextureWrapper> textureWrapper);
+
   /**
    * Call this method to inform Flutter that a texture previously registered with {@link
    * #registerTexture(long, SurfaceTextureWrapper)} has a new frame available.
@@ -782,6 +861,24 @@ public class FlutterJNI {
 
   private native void nativeMarkTextureFrameAvailable(long nativeShellHolderId, long textureId);
 
+  /**
+   * Call this method to inform Flutter that the textures previously registered with {@link
+   * #registerTexture(long, SurfaceTextureWrapper)} have new frames available.
+   *
+   * <p>This is equivalent to calling {@link #markTextureFrameAvailable(long)} for the first {@code
+   * count} IDs in {@code textureIds}, but crosses the JNI boundary once and schedules a single
+   * frame for all the textures.
+   */
+  @UiThread
+  public void markTextureFramesAvailable(@NonNull long[] textureIds, int count) {
+    ensureRunningOnMainThread();
+    ensureAttachedToNative();
+    nativeMarkTextureFramesAvailable(nativeShellHolderId, textureIds, count);
+  }
+
+  private native void nativeMarkTextureFramesAvailable(
+      long nativeShellHolderId, @NonNull long[] textureIds, int count);
+
   /**
    * Unregisters a texture that was registered with {@link #registerTexture(long,
    * SurfaceTextureWrapper)}.
@@ -1312,6 +1409,12 @@ public class FlutterJNI {
         @NonNull ByteBuffer[] stringAttributeArgs);
   }
 
+  /** Receives the framework's response to a key data packet. */
+  public interface KeyDataResponseCallback {
+    /** Called with whether the framework handled the key event. */
+    void onKeyDataResponse(boolean handled);
+  }
+
   public interface AsyncWaitForVsyncDelegate {
     void asyncWaitForVsync(final long cookie);
   }
@@ -0,0 +1,135 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.embedding.engine.deferredcomponents;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+
+/**
+ * An index of the files under the directories that {@link PlayStoreDeferredComponentManager}
+ * searches for the shared libraries of loading units: the split APKs, and the libraries that were
+ * extracted from them.
+ *
+ * <p>A directory is only listed again once its modification time changes, so finding the files
+ * costs a {@link File#lastModified()} per directory instead of a listing of every directory and a
+ * {@link File#isDirectory()} per file. {@link #invalidate()} drops the whole index, for changes
+ * that modification times may miss, such as a component being installed or uninstalled.
+ */
+class DeferredComponentLibraryIndex {
+  // Some file systems only store modification times with a precision of a second or two. A
+  // directory that was modified this recently may still change without its modification time
+  // changing, so its listing isn't reused.
+  @VisibleForTesting static final long MODIFICATION_TIME_PRECISION_MS = 2000;
+
+  private static final long UNKNOWN_MODIFICATION_TIME = -1;
+
+  private static final class IndexedDirectory {
+    final long lastModified;
+    @NonNull final File[] children;
+
+    IndexedDirectory(long lastModified, @NonNull File[] children) {
+      this.lastModified = lastModified;
+      this.children = children;
+    }
+  }
+
+  // Keyed by path.
+  @NonNull private final Map<String, IndexedDirectory> directories = new HashMap<>();
+  // The paths of the files that were listed in an indexed directory, and aren't directories.
+  @NonNull private final Set<String> files = new HashSet<>();
+
+  /**
+   * Returns the files under {@code roots}, in breadth-first order.
+   *
+   * <p>A root that isn't a directory is returned as is, whether it exists or not.
+   */
+  @NonNull
+  List<File> getFiles(@NonNull List<File> roots) {
+    final List<File> result = new ArrayList<>();
+    final Queue<File> searchFiles = new LinkedList<>(roots);
+    while (!searchFiles.isEmpty()) {
+      final File file = searchFiles.remove();
+      final IndexedDirectory directory = files.contains(file.getPath()) ? null : getDirectory(file);
+      if (directory == null) {
+        result.add(file);
+        continue;
+      }
+      for (File child : directory.children) {
+        searchFiles.add(child);
+      }
+    }
+    return result;
+  }
+
+  /** Drops the index, so that every directory is listed again. */
+  void invalidate() {
+    directories.clear();
+    files.clear();
+  }
+
+  // Returns the indexed directory at |file|, listing it if it wasn't listed since its last
+  // modification, or null if |file| isn't a directory.
+  @Nullable
+  private IndexedDirectory getDirectory(@NonNull File file) {
+    final String path = file.getPath();
+    final IndexedDirectory indexedDirectory = directories.get(path);
+    if (indexedDirectory == null && !isDirectory(file)) {
+      return null;
+    }
+    long lastModified = lastModified(file);
+    if (indexedDirectory != null) {
+      if (indexedDirectory.lastModified == lastModified
+          && lastModified != UNKNOWN_MODIFICATION_TIME) {
+        return indexedDirectory;
+      }
+      for (File child : indexedDirectory.children) {
+        files.remove(child.getPath());
+      }
+      directories.remove(path);
+    }
+
+    final File[] children = listFiles(file);
+    if (children == null) {
+      return null;
+    }
+    if (System.currentTimeMillis() - lastModified < MODIFICATION_TIME_PRECISION_MS) {
+      lastModified = UNKNOWN_MODIFICATION_TIME;
+    }
+    for (File child : children) {
+      if (!isDirectory(child)) {
+        files.add(child.getPath());
+      }
+    }
+    final IndexedDirectory directory = new IndexedDirectory(lastModified, children);
+    directories.put(path, directory);
+    return directory;
+  }
+
+  @VisibleForTesting
+  boolean isDirectory(@NonNull File file) {
+    return file.isDirectory();
+  }
+
+  @VisibleForTesting
+  long lastModified(@NonNull File file) {
+    return file.lastModified();
+  }
+
+  @VisibleForTesting
+  @Nullable
+  File[] listFiles(@NonNull File directory) {
+    return directory.listFiles();
+  }
+}
@@ -12,6 +12,8 @@ import android.content.pm.PackageManager.NameNotFoundException;
 import android.content.res.AssetManager;
 import android.os.Build;
 import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
 import android.util.SparseArray;
 import android.util.SparseIntArray;
 import androidx.annotation.NonNull;
@@ -30,12 +32,14 @@ import io.flutter.embedding.engine.loader.ApplicationInfoLoader;
 import io.flutter.embedding.engine.loader.FlutterApplicationInfo;
 import io.flutter.embedding.engine.systemchannels.DeferredComponentChannel;
 import java.io.File;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.HashMap;
-import java.util.LinkedList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Queue;
+import java.util.Set;
 
 /**
  * Flutter default implementation of DeferredComponentManager that downloads deferred component from
@@ -47,6 +51,8 @@ public class PlayStoreDeferredComponentManager implements DeferredComponentManag
   public static final String MAPPING_KEY =
       DeferredComponentManager.class.getName() + ".loadingUnitMapping";
 
+  private static final int DEFAULT_MAX_CONCURRENT_PREFETCHES = 1;
+
   private @NonNull SplitInstallManager splitInstallManager;
   private @Nullable FlutterJNI flutterJNI;
   private @Nullable DeferredComponentChannel channel;
@@ -64,11 +70,32 @@ public class PlayStoreDeferredComponentManager implements DeferredComponentManag
 
   private FeatureInstallStateUpdatedListener listener;
 
+  // The split APKs and extracted libraries that loadDartLibrary searches.
+  private @NonNull DeferredComponentLibraryIndex libraryIndex;
+
+  private @NonNull Handler mainHandler;
+  // The components to install before they are requested, in order.
+  private @NonNull Deque<String> prefetchQueue;
+  // The sessions that prefetch components which weren't requested since.
+  private @NonNull Set<Integer> prefetchSessionIds;
+  // The components whose prefetch was started, but doesn't have a session ID yet.
+  private @NonNull Set<String> pendingPrefetchNames;
+  // The loading unit IDs that were requested for the components of pendingPrefetchNames, by name.
+  private @NonNull Map<String, Integer> pendingPrefetchLoadingUnitIds;
+  // The number of prefetches that were started and aren't finished, including the ones that don't
+  // have a session ID yet.
+  private int prefetchInstallCount = 0;
+  private int maxConcurrentPrefetches = DEFAULT_MAX_CONCURRENT_PREFETCHES;
+  private boolean isPrefetchScheduled = false;
+  private boolean isDestroyed = false;
+
   private class FeatureInstallStateUpdatedListener implements SplitInstallStateUpdatedListener {
     @SuppressLint("DefaultLocale")
     public void onStateUpdate(SplitInstallSessionState state) {
       int sessionId = state.sessionId();
       if (sessionIdToName.get(sessionId) != null) {
+        // Nothing in Dart waits for a prefetch, so its result is only logged.
+        final boolean isPrefetch = prefetchSessionIds.contains(sessionId);
         switch (state.status()) {
           case SplitInstallSessionStatus.FAILED:
             {
@@ -77,11 +104,13 @@ public class PlayStoreDeferredComponentManager implements DeferredComponentManag
                   String.format(
                       "Module \"%s\" (sessionId %d) install failed with: %s",
                       sessionIdToName.get(sessionId), sessionId, state.errorCode()));
-              flutterJNI.deferredComponentInstallFailure(
-                  sessionIdToLoadingUnitId.get(sessionId),
-                  "Module install failed with " + state.errorCode(),
-                  true);
-              if (channel != null) {
+              if (!isPrefetch) {
+                flutterJNI.deferredComponentInstallFailure(
+                    sessionIdToLoadingUnitId.get(sessionId),
+                    "Module install failed with " + state.errorCode(),
+                    true);
+              }
+              if (channel != null && !isPrefetch) {
                 channel.completeInstallError(
                     sessionIdToName.get(sessionId),
                     "Android Deferred Component failed to install.");
@@ -98,6 +127,8 @@ public class PlayStoreDeferredComponentManager implements DeferredComponentManag
                   String.format(
                       "Module \"%s\" (sessionId %d) install successfully.",
                       sessionIdToName.get(sessionId), sessionId));
+              // The module's files may be in directories that were already indexed.
+              libraryIndex.invalidate();
               loadAssets(sessionIdToLoadingUnitId.get(sessionId), sessionIdToName.get(sessionId));
               // We only load Dart shared lib for the loading unit id requested. Other loading units
               // (if present) in the deferred component are not loaded, but can be loaded by
@@ -107,7 +138,7 @@ public class PlayStoreDeferredComponentManager implements DeferredComponentManag
                 loadDartLibrary(
                     sessionIdToLoadingUnitId.get(sessionId), sessionIdToName.get(sessionId));
               }
-              if (channel != null) {
+              if (channel != null && !isPrefetch) {
                 channel.completeInstallSuccess(sessionIdToName.get(sessionId));
               }
               sessionIdToName.delete(sessionId);
@@ -122,7 +153,7 @@ public class PlayStoreDeferredComponentManager implements DeferredComponentManag
                   String.format(
                       "Module \"%s\" (sessionId %d) install canceled.",
                       sessionIdToName.get(sessionId), sessionId));
-              if (channel != null) {
+              if (channel != null && !isPrefetch) {
                 channel.completeInstallError(
                     sessionIdToName.get(sessionId),
                     "Android Deferred Component installation canceled.");
@@ -195,22 +226,43 @@ public class PlayStoreDeferredComponentManager implements DeferredComponentManag
           default:
             Log.d(TAG, "Unknown status: " + state.status());
         }
+        if (prefetchSessionIds.contains(sessionId)) {
+          onPrefetchStateUpdate(sessionId, state.status());
+        }
       }
     }
   }
 
   public PlayStoreDeferredComponentManager(
       @NonNull Context context, @Nullable FlutterJNI flutterJNI) {
+    this(context, flutterJNI, SplitInstallManagerFactory.create(context));
+  }
+
+  /**
+   * Creates a manager that installs deferred components through the given {@link
+   * SplitInstallManager}, such as a {@code FakeSplitInstallManager} to test the installation of
+   * deferred components locally.
+   */
+  public PlayStoreDeferredComponentManager(
+      @NonNull Context context,
+      @Nullable FlutterJNI flutterJNI,
+      @NonNull SplitInstallManager splitInstallManager) {
     this.context = context;
     this.flutterJNI = flutterJNI;
     this.flutterApplicationInfo = ApplicationInfoLoader.load(context);
-    splitInstallManager = SplitInstallManagerFactory.create(context);
+    this.splitInstallManager = splitInstallManager;
     listener = new FeatureInstallStateUpdatedListener();
     splitInstallManager.registerListener(listener);
     sessionIdToName = new SparseArray<>();
     sessionIdToLoadingUnitId = new SparseIntArray();
     sessionIdToState = new SparseArray<>();
     nameToSessionId = new HashMap<>();
+    libraryIndex = new DeferredComponentLibraryIndex();
+    mainHandler = new Handler(Looper.getMainLooper());
+    prefetchQueue = new ArrayDeque<>();
+    prefetchSessionIds = new HashSet<>();
+    pendingPrefetchNames = new HashSet<>();
+    pendingPrefetchLoadingUnitIds = new HashMap<>();
 
     loadingUnitIdToComponentNames = new SparseArray<>();
     loadingUnitIdToSharedLibraryNames = new SparseArray<>();
@@ -288,6 +340,15 @@ public class PlayStoreDeferredComponentManager implements DeferredComponentManag
     }
   }
 
+  /**
+   * {@inheritDoc}
+   *
+   * <p>No install session is started for a component that is already installed, whether it was
+   * prefetched, installed by an earlier call, or installed with the app. Its assets and Dart
+   * library are loaded on the main thread after this method returns, and the install is reported
+   * to the {@link DeferredComponentChannel} as successful. A component that is being prefetched is
+   * loaded once the prefetch installs it.
+   */
   public void installDeferredComponent(int loadingUnitId, String componentName) {
     String resolvedComponentName =
         componentName != null ? componentName : loadingUnitIdToComponentNames.get(loadingUnitId);
@@ -304,6 +365,30 @@ public class PlayStoreDeferredComponentManager implements DeferredComponentManag
       return;
     }
 
+    // Handle a component that was prefetched, or installed earlier. No session is started for a
+    // component that is already installed, so it is loaded directly.
+    if (splitInstallManager.getInstalledModules().contains(resolvedComponentName)) {
+      loadInstalledComponent(loadingUnitId, resolvedComponentName);
+      return;
+    }
+
+    // Handle a component whose prefetch doesn't have a session yet. The request takes the session
+    // over once it starts.
+    if (pendingPrefetchNames.contains(resolvedComponentName)
+        && !pendingPrefetchLoadingUnitIds.containsKey(resolvedComponentName)) {
+      pendingPrefetchLoadingUnitIds.put(resolvedComponentName, loadingUnitId);
+      return;
+    }
+
+    // Handle a component that is being prefetched, which is loaded once it is installed.
+    Integer prefetchSessionId = nameToSessionId.get(resolvedComponentName);
+    if (prefetchSessionId != null && prefetchSessionIds.remove(prefetchSessionId)) {
+      sessionIdToLoadingUnitId.put(prefetchSessionId, loadingUnitId);
+      // The session is no longer a prefetch, so it doesn't hold back the other ones.
+      onPrefetchFinished();
+      return;
+    }
+
     SplitInstallRequest request =
         SplitInstallRequest.newBuilder().addModule(resolvedComponentName).build();
 
@@ -357,6 +442,25 @@ public class PlayStoreDeferredComponentManager implements DeferredComponentManag
             });
   }
 
+  // Loads a component that is already installed, the way a finished install session does.
+  private void loadInstalledComponent(int loadingUnitId, @NonNull String componentName) {
+    // The channel only waits for the result once installDeferredComponent returns.
+    mainHandler.post(
+        () -> {
+          // The install may still report success after the manager is destroyed.
+          if (isDestroyed) {
+            return;
+          }
+          loadAssets(loadingUnitId, componentName);
+          if (loadingUnitId > 0) {
+            loadDartLibrary(loadingUnitId, componentName);
+          }
+          if (channel != null) {
+            channel.completeInstallSuccess(componentName);
+          }
+        });
+  }
+
   public String getDeferredComponentInstallState(int loadingUnitId, String componentName) {
     String resolvedComponentName =
         componentName != null ? componentName : loadingUnitIdToComponentNames.get(loadingUnitId);
@@ -418,35 +522,26 @@ public class PlayStoreDeferredComponentManager implements DeferredComponentManag
     }
     String pathAbi = abi.replace("-", "_"); // abis are represented with underscores in paths.
 
-    // TODO(garyq): Optimize this apk/file discovery process to use less i/o and be more
-    // performant and robust.
-
     // Search directly in APKs first
     List<String> apkPaths = new ArrayList<>();
     // If not found in APKs, we check in extracted native libs for the lib directly.
     List<String> soPaths = new ArrayList<>();
 
-    Queue<File> searchFiles = new LinkedList<>();
+    List<File> searchRoots = new ArrayList<>();
     // Downloaded modules are stored here
-    searchFiles.add(context.getFilesDir());
+    searchRoots.add(context.getFilesDir());
     if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
       // The initial installed apks are provided by `sourceDirs` in ApplicationInfo.
       // The jniLibs we want are in the splits not the baseDir. These
       // APKs are only searched as a fallback, as base libs generally do not need
       // to be fully path referenced.
       for (String path : context.getApplicationInfo().splitSourceDirs) {
-        searchFiles.add(new File(path));
+        searchRoots.add(new File(path));
       }
     }
 
-    while (!searchFiles.isEmpty()) {
-      File file = searchFiles.remove();
-      if (file != null && file.isDirectory() && file.listFiles() != null) {
-        for (File f : file.listFiles()) {
-          searchFiles.add(f);
-        }
-        continue;
-      }
+    // Directories are only listed again once they change, so this is mostly an index lookup.
+    for (File file : libraryIndex.getFiles(searchRoots)) {
       String name = file.getName();
       // Special case for "split_config" since android base module non-master apks are
       // initially installed with the "split_config" prefix/name.
@@ -478,6 +573,144 @@ public class PlayStoreDeferredComponentManager implements DeferredComponentManag
         loadingUnitId, searchPaths.toArray(new String[searchPaths.size()]));
   }
 
+  /**
+   * Installs deferred components before they are requested, such as the ones the user is likely to
+   * open next.
+   *
+   * <p>The installs start once the main thread is idle, at most {@link
+   * #setMaxConcurrentPrefetches(int)} at a time, and in the given order. Components that are
+   * installed or being installed are skipped. A prefetch that would need the user to confirm the
+   * download, such as a large download over mobile data, is canceled.
+   *
+   * <p>The assets of a prefetched component are loaded once it is installed, and a later {@link
+   * #installDeferredComponent(int, String)} for it loads its Dart library without downloading
+   * anything. If the component is requested while it is being prefetched, it is loaded once the
+   * prefetch is done.
+   */
+  public void prefetchDeferredComponents(@NonNull List<String> componentNames) {
+    for (String componentName : componentNames) {
+      // Components that are included in the base module don't need to be installed.
+      if (!componentName.isEmpty() && !prefetchQueue.contains(componentName)) {
+        prefetchQueue.add(componentName);
+      }
+    }
+    schedulePrefetches();
+  }
+
+  /** Sets how many deferred components can be prefetched at the same time. Defaults to 1. */
+  public void setMaxConcurrentPrefetches(int maxConcurrentPrefetches) {
+    if (maxConcurrentPrefetches < 1) {
+      throw new IllegalArgumentException(
+          "maxConcurrentPrefetches must be at least 1, got " + maxConcurrentPrefetches);
+    }
+    this.maxConcurrentPrefetches = maxConcurrentPrefetches;
+    schedulePrefetches();
+  }
+
+  private void schedulePrefetches() {
+    if (isPrefetchScheduled || prefetchQueue.isEmpty()) {
+      return;
+    }
+    isPrefetchScheduled = true;
+    // Installs compete with the app for the network and the disk, so they only start once the
+    // main thread has nothing else to do.
+    mainHandler.post(
+        () ->
+            Looper.myQueue()
+                .addIdleHandler(
+                    () -> {
+                      isPrefetchScheduled = false;
+                      startPrefetches();
+                      return false;
+                    }));
+  }
+
+  private void startPrefetches() {
+    Set<String> installedModules = splitInstallManager.getInstalledModules();
+    while (prefetchInstallCount < maxConcurrentPrefetches && !prefetchQueue.isEmpty()) {
+      final String componentName = prefetchQueue.remove();
+      Integer sessionId = nameToSessionId.get(componentName);
+      if (installedModules.contains(componentName)
+          || pendingPrefetchNames.contains(componentName)
+          || (sessionId != null && sessionIdToName.get(sessionId) != null)) {
+        continue;
+      }
+      prefetchInstallCount++;
+      pendingPrefetchNames.add(componentName);
+      SplitInstallRequest request =
+          SplitInstallRequest.newBuilder().addModule(componentName).build();
+      splitInstallManager
+          .startInstall(request)
+          .addOnSuccessListener(
+              newSessionId -> {
+                pendingPrefetchNames.remove(componentName);
+                // Set if the component was requested while the prefetch was starting.
+                Integer requestedLoadingUnitId =
+                    pendingPrefetchLoadingUnitIds.remove(componentName);
+                if (newSessionId == 0) {
+                  // No session is started for a component that is already installed.
+                  onPrefetchFinished();
+                  if (requestedLoadingUnitId != null) {
+                    loadInstalledComponent(requestedLoadingUnitId, componentName);
+                  }
+                  return;
+                }
+                sessionIdToName.put(newSessionId, componentName);
+                sessionIdToLoadingUnitId.put(
+                    newSessionId, requestedLoadingUnitId != null ? requestedLoadingUnitId : -1);
+                if (nameToSessionId.containsKey(componentName)) {
+                  sessionIdToState.remove(nameToSessionId.get(componentName));
+                }
+                nameToSessionId.put(componentName, newSessionId);
+                sessionIdToState.put(newSessionId, "Requested");
+                if (requestedLoadingUnitId == null) {
+                  prefetchSessionIds.add(newSessionId);
+                } else {
+                  // The session is no longer a prefetch, so it doesn't hold back the other ones.
+                  onPrefetchFinished();
+                }
+              })
+          .addOnFailureListener(
+              exception -> {
+                Log.w(
+                    TAG,
+                    String.format(
+                        "Prefetch of deferred component module \"%s\" failed: %s",
+                        componentName, exception.getMessage()));
+                pendingPrefetchNames.remove(componentName);
+                Integer requestedLoadingUnitId =
+                    pendingPrefetchLoadingUnitIds.remove(componentName);
+                onPrefetchFinished();
+                if (requestedLoadingUnitId != null) {
+                  // Install the requested component on its own, which reports its failure to Dart.
+                  installDeferredComponent(requestedLoadingUnitId, componentName);
+                }
+              });
+    }
+  }
+
+  private void onPrefetchStateUpdate(int sessionId, int status) {
+    switch (status) {
+      case SplitInstallSessionStatus.REQUIRES_USER_CONFIRMATION:
+        // Nobody asked for the component yet, so the user isn't asked to confirm its download.
+        splitInstallManager.cancelInstall(sessionId);
+        break;
+      case SplitInstallSessionStatus.INSTALLED:
+      case SplitInstallSessionStatus.FAILED:
+      case SplitInstallSessionStatus.CANCELED:
+        prefetchSessionIds.remove(sessionId);
+        onPrefetchFinished();
+        break;
+      default:
+        break;
+    }
+  }
+
+  private void onPrefetchFinished() {
+    prefetchInstallCount--;
+    schedulePrefetches();
+  }
+
   public boolean uninstallDeferredComponent(int loadingUnitId, String componentName) {
     String resolvedComponentName =
         componentName != null ? componentName : loadingUnitIdToComponentNames.get(loadingUnitId);
@@ -489,6 +722,7 @@ public class PlayStoreDeferredComponentManager implements DeferredComponentManag
     List<String> modulesToUninstall = new ArrayList<>();
     modulesToUninstall.add(resolvedComponentName);
     splitInstallManager.deferredUninstall(modulesToUninstall);
+    libraryIndex.invalidate();
     if (nameToSessionId.get(resolvedComponentName) != null) {
       sessionIdToState.delete(nameToSessionId.get(resolvedComponentName));
     }
@@ -496,6 +730,12 @@ public class PlayStoreDeferredComponentManager implements DeferredComponentManag
   }
 
   public void destroy() {
+    isDestroyed = true;
+    // Drops the pending loads of installed components, and the pending prefetch scheduling.
+    mainHandler.removeCallbacksAndMessages(null);
+    isPrefetchScheduled = false;
+    prefetchQueue.clear();
+    pendingPrefetchLoadingUnitIds.clear();
     splitInstallManager.unregisterListener(listener);
     channel = null;
     flutterJNI = null;
@@ -16,6 +16,9 @@ import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.annotation.VisibleForTesting;
 import io.flutter.embedding.android.AndroidTouchProcessor;
+import io.flutter.util.ViewUtils;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * A view that applies the {@link io.flutter.embedding.engine.mutatorsstack.FlutterMutatorsStack} to
@@ -29,6 +32,11 @@ public class FlutterMutatorView extends FrameLayout {
   private int prevLeft;
   private int prevTop;
 
+  // The clipping paths and the platform view matrix derived from the mutators stack and the
+  // current offset. These are recomputed only when the mutators or the offset change.
+  @Nullable private List<Path> offsetClippingPaths;
+  @Nullable private Matrix platformViewMatrix;
+
   private final AndroidTouchProcessor androidTouchProcessor;
 
   /**
@@ -114,24 +122,53 @@ public class FlutterMutatorView extends FrameLayout {
 
   /**
    * Pass the necessary parameters to the view so it can apply correct mutations to its children.
+   *
+   * <p>If the mutators stack is equal to the stack of the previous call, the previous stack is kept
+   * along with the clipping paths and matrix derived from it. The view is only invalidated if the
+   * mutators, the offset or the size changed.
    */
   public void readyToDisplay(
       @NonNull FlutterMutatorsStack mutatorsStack, int left, int top, int width, int height) {
-    this.mutatorsStack = mutatorsStack;
+    final boolean mutatorsChanged = !mutatorsStack.equals(this.mutatorsStack);
+    final boolean offsetChanged = left != this.left || top != this.top;
+    if (mutatorsChanged) {
+      this.mutatorsStack = mutatorsStack;
+    }
     this.left = left;
     this.top = top;
-    FrameLayout.LayoutParams layoutParams = new FrameLayout.LayoutParams(width, height);
-    layoutParams.leftMargin = left;
-    layoutParams.topMargin = top;
-    setLayoutParams(layoutParams);
+    if (mutatorsChanged || offsetChanged) {
+      offsetClippingPaths = null;
+      platformViewMatrix = null;
+      invalidate();
+    }
+
+    ViewUtils.setFrameLayoutParamsIfChanged(this, width, height, left, top);
     setWillNotDraw(false);
   }
 
+  @VisibleForTesting
+  FlutterMutatorsStack getMutatorsStack() {
+    return mutatorsStack;
+  }
+
   @Override
   public void draw(Canvas canvas) {
     // Apply all clippings on the parent canvas.
     canvas.save();
-    for (Path path : mutatorsStack.getFinalClippingPaths()) {
+    for (Path path : getOffsetClippingPaths()) {
+      canvas.clipPath(path);
+    }
+    super.draw(canvas);
+    canvas.restore();
+  }
+
+  private List<Path> getOffsetClippingPaths() {
+    if (offsetClippingPaths != null) {
+      return offsetClippingPaths;
+    }
+    final List<Path> finalClippingPaths = mutatorsStack.getFinalClippingPaths();
+    offsetClippingPaths = new ArrayList<>(finalClippingPaths.size());
+    for (Path path : finalClippingPaths) {
       // Reverse the current offset.
       //
       // The frame of this view includes the final offset of the bounding rect.
@@ -140,10 +177,9 @@ public class FlutterMutatorView extends FrameLayout {
       // all the clipping paths
       Path pathCopy = new Path(path);
       pathCopy.offset(-left, -top);
-      canvas.clipPath(pathCopy);
+      offsetClippingPaths.add(pathCopy);
     }
-    super.draw(canvas);
-    canvas.restore();
+    return offsetClippingPaths;
   }
 
   @Override
@@ -157,6 +193,9 @@ public class FlutterMutatorView extends FrameLayout {
   }
 
   private Matrix getPlatformViewMatrix() {
+    if (platformViewMatrix != null) {
+      return platformViewMatrix;
+    }
     Matrix finalMatrix = new Matrix(mutatorsStack.getFinalMatrix());
 
     // Reverse scale based on screen scale.
@@ -176,6 +215,7 @@ public class FlutterMutatorView extends FrameLayout {
     // all the clipping paths
     finalMatrix.postTranslate(-left, -top);
 
+    platformViewMatrix = finalMatrix;
     return finalMatrix;
   }
 
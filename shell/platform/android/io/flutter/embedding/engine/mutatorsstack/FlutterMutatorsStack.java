@@ -12,6 +12,7 @@ import androidx.annotation.Keep;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -128,18 +129,49 @@ public class FlutterMutatorsStack {
     public Matrix getMatrix() {
       return matrix;
     }
+
+    /**
+     * Returns true if the other mutator performs the same mutation.
+     *
+     * <p>Clip path mutators are only equal if they share the same {@link android.graphics.Path}
+     * instance, since paths can't be compared structurally.
+     */
+    @Override
+    public boolean equals(Object other) {
+      if (this == other) {
+        return true;
+      }
+      if (!(other instanceof FlutterMutator)) {
+        return false;
+      }
+      final FlutterMutator mutator = (FlutterMutator) other;
+      return type == mutator.type
+          && (rect == null ? mutator.rect == null : rect.equals(mutator.rect))
+          && Arrays.equals(radiis, mutator.radiis)
+          && (matrix == null ? mutator.matrix == null : matrix.equals(mutator.matrix))
+          && path == mutator.path;
+    }
+
+    @Override
+    public int hashCode() {
+      int result = type.hashCode();
+      result = 31 * result + (rect == null ? 0 : rect.hashCode());
+      result = 31 * result + Arrays.hashCode(radiis);
+      return result;
+    }
   }
 
   private @NonNull List<FlutterMutator> mutators;
 
-  private List<Path> finalClippingPaths;
+  // Computed on first use, since the stack may be discarded without being drawn if it is equal to
+  // the stack of the previous frame.
+  @Nullable private List<Path> finalClippingPaths;
   private Matrix finalMatrix;
 
   /** Initialize the mutator stack. */
   public FlutterMutatorsStack() {
     this.mutators = new ArrayList<FlutterMutator>();
     finalMatrix = new Matrix();
-    finalClippingPaths = new ArrayList<Path>();
   }
 
   /**
@@ -154,6 +186,7 @@ public class FlutterMutatorsStack {
     FlutterMutator mutator = new FlutterMutator(matrix);
     mutators.add(mutator);
     finalMatrix.preConcat(mutator.getMatrix());
+    finalClippingPaths = null;
   }
 
   /** Push a clipRect {@link FlutterMutatorsStack.FlutterMutator} to the stack. */
@@ -161,10 +194,7 @@ public class FlutterMutatorsStack {
     Rect rect = new Rect(left, top, right, bottom);
     FlutterMutator mutator = new FlutterMutator(rect);
     mutators.add(mutator);
-    Path path = new Path();
-    path.addRect(new RectF(rect), Path.Direction.CCW);
-    path.transform(finalMatrix);
-    finalClippingPaths.add(path);
+    finalClippingPaths = null;
   }
 
   /**
@@ -181,10 +211,7 @@ public class FlutterMutatorsStack {
     Rect rect = new Rect(left, top, right, bottom);
     FlutterMutator mutator = new FlutterMutator(rect, radiis);
     mutators.add(mutator);
-    Path path = new Path();
-    path.addRoundRect(new RectF(rect), radiis, Path.Direction.CCW);
-    path.transform(finalMatrix);
-    finalClippingPaths.add(path);
+    finalClippingPaths = null;
   }
 
   /**
@@ -204,6 +231,9 @@ public class FlutterMutatorsStack {
    * <p>Clipping this list to the parent canvas of a view results the final clipping path.
    */
   public List<Path> getFinalClippingPaths() {
+    if (finalClippingPaths == null) {
+      finalClippingPaths = computeFinalClippingPaths();
+    }
     return finalClippingPaths;
   }
 
@@ -214,4 +244,59 @@ public class FlutterMutatorsStack {
   public Matrix getFinalMatrix() {
     return finalMatrix;
   }
+
+  /**
+   * Returns true if the other stack contains the same mutators in the same order.
+   *
+   * <p>Platform views that don't move, such as maps or ads, produce equal stacks on consecutive
+   * frames. This allows {@link FlutterMutatorView} to keep the previous stack along with its final
+   * clipping paths, and skip redrawing.
+   */
+  @Override
+  public boolean equals(Object other) {
+    if (this == other) {
+      return true;
+    }
+    if (!(other instanceof FlutterMutatorsStack)) {
+      return false;
+    }
+    return mutators.equals(((FlutterMutatorsStack) other).mutators);
+  }
+
+  @Override
+  public int hashCode() {
+    return mutators.hashCode();
+  }
+
+  @NonNull
+  private List<Path> computeFinalClippingPaths() {
+    final List<Path> paths = new ArrayList<Path>();
+    final Matrix matrix = new Matrix();
+    for (FlutterMutator mutator : mutators) {
+      switch (mutator.getType()) {
+        case TRANSFORM:
+          matrix.preConcat(mutator.getMatrix());
+          break;
+        case CLIP_RECT:
+          {
+            final Path path = new Path();
+            path.addRect(new RectF(mutator.getRect()), Path.Direction.CCW);
+            path.transform(matrix);
+            paths.add(path);
+            break;
+          }
+        case CLIP_RRECT:
+          {
+            final Path path = new Path();
+            path.addRoundRect(new RectF(mutator.getRect()), mutator.radiis, Path.Direction.CCW);
+            path.transform(matrix);
+            paths.add(path);
+            break;
+          }
+        default:
+          break;
+      }
+    }
+    return paths;
+  }
 }
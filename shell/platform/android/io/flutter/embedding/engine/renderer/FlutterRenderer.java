@@ -6,16 +6,22 @@ package io.flutter.embedding.engine.renderer;
 
 import android.annotation.TargetApi;
 import android.graphics.Bitmap;
+import android.graphics.ImageFormat;
 import android.graphics.SurfaceTexture;
+import android.hardware.HardwareBuffer;
+import android.media.ImageReader;
 import android.os.Build;
 import android.os.Handler;
+import android.os.Looper;
 import android.view.Surface;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
 import io.flutter.Log;
 import io.flutter.embedding.engine.FlutterJNI;
 import io.flutter.view.TextureRegistry;
 import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
@@ -39,6 +45,25 @@ public class FlutterRenderer implements TextureRegistry {
   @NonNull private final AtomicLong nextTextureId = new AtomicLong(0L);
   @Nullable private Surface surface;
   private boolean isDisplayingFlutterUi = false;
+  @Nullable private SurfaceTexturePool surfaceTexturePool;
+
+  // IDs of the textures that have a new frame since the last flush. UI thread only.
+  @NonNull private long[] pendingFrameTextureIds = new long[4];
+  private int pendingFrameTextureCount = 0;
+  private boolean isTextureFrameFlushScheduled = false;
+
+  // The platform task runner runs on the main looper.
+  @NonNull private final Handler platformHandler = new Handler(Looper.getMainLooper());
+
+  @NonNull
+  private final Runnable textureFrameFlushRunnable =
+      new Runnable() {
+        @Override
+        public void run() {
+          isTextureFrameFlushScheduled = false;
+          flushTextureFramesAvailable();
+        }
+      };
 
   @NonNull
   private final FlutterUiDisplayListener flutterUiDisplayListener =
@@ -88,11 +113,43 @@ public class FlutterRenderer implements TextureRegistry {
   }
 
   // ------ START TextureRegistry IMPLEMENTATION -----
+  /**
+   * Parks the {@link SurfaceTexture} entries released by Flutter plugins, so that {@link
+   * #createSurfaceTexture()} can hand them out again instead of creating and registering a new
+   * {@link SurfaceTexture}.
+   *
+   * <p>A reused entry keeps its texture ID, and may display the last frame of its previous producer
+   * until the new producer draws a frame.
+   *
+   * @param maxParkedEntries The maximum number of released entries kept by the pool.
+   * @param idleTimeoutMs How long a released entry is kept before it's released for good.
+   */
+  public void enableSurfaceTexturePool(int maxParkedEntries, long idleTimeoutMs) {
+    disableSurfaceTexturePool();
+    surfaceTexturePool = new SurfaceTexturePool(maxParkedEntries, idleTimeoutMs);
+  }
+
+  /** Releases the entries parked by {@link #enableSurfaceTexturePool(int, long)}, if any. */
+  public void disableSurfaceTexturePool() {
+    if (surfaceTexturePool != null) {
+      surfaceTexturePool.clear();
+      surfaceTexturePool = null;
+    }
+  }
+
   /**
    * Creates and returns a new {@link SurfaceTexture} that is also made available to Flutter code.
    */
   @Override
   public SurfaceTextureEntry createSurfaceTexture() {
+    if (surfaceTexturePool != null) {
+      final SurfaceTextureRegistryEntry parkedEntry = surfaceTexturePool.acquire();
+      if (parkedEntry != null) {
+        Log.v(TAG, "Reusing SurfaceTexture ID: " + parkedEntry.id());
+        parkedEntry.reuse();
+        return parkedEntry;
+      }
+    }
     Log.v(TAG, "Creating a SurfaceTexture.");
     final SurfaceTexture surfaceTexture = new SurfaceTexture(0);
     surfaceTexture.detachFromGLContext();
@@ -103,14 +160,40 @@ public class FlutterRenderer implements TextureRegistry {
     return entry;
   }
 
+  @VisibleForTesting
   final class SurfaceTextureRegistryEntry implements TextureRegistry.SurfaceTextureEntry {
     private final long id;
     @NonNull private final SurfaceTextureWrapper textureWrapper;
     private boolean released;
 
+    // Incremented whenever the entry is parked, so that frame callbacks of a previous producer
+    // are ignored once the entry is reused.
+    private int lease = 0;
+
+    @VisibleForTesting SurfaceTexture.OnFrameAvailableListener onFrameListener;
+
     SurfaceTextureRegistryEntry(long id, @NonNull SurfaceTexture surfaceTexture) {
       this.id = id;
       this.textureWrapper = new SurfaceTextureWrapper(surfaceTexture);
+      setOnFrameAvailableListener();
+    }
+
+    private void setOnFrameAvailableListener() {
+      final int listenerLease = lease;
+      onFrameListener =
+          new SurfaceTexture.OnFrameAvailableListener() {
+            @Override
+            public void onFrameAvailable(@NonNull SurfaceTexture texture) {
+              if (released || listenerLease != lease || !flutterJNI.isAttached()) {
+                // Even though we make sure to unregister the callback before releasing, as of
+                // Android O, SurfaceTexture has a data race when accessing the callback, so the
+                // callback may still be called by a stale reference after released==true and
+                // mNativeView==null.
+                return;
+              }
+              markTextureFrameAvailable(id);
+            }
+          };
 
       if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
         // The callback relies on being executed on the UI thread (unsynchronised read of
@@ -127,30 +210,127 @@ public class FlutterRenderer implements TextureRegistry {
       }
     }
 
-    private SurfaceTexture.OnFrameAvailableListener onFrameListener =
-        new SurfaceTexture.OnFrameAvailableListener() {
+    @NonNull
+    public SurfaceTextureWrapper textureWrapper() {
+      return textureWrapper;
+    }
+
+    @Override
+    @NonNull
+    public SurfaceTexture surfaceTexture() {
+      return textureWrapper.surfaceTexture();
+    }
+
+    @Override
+    public long id() {
+      return id;
+    }
+
+    @Override
+    public void release() {
+      if (released) {
+        return;
+      }
+      released = true;
+      cancelTextureFrameAvailable(id);
+      if (surfaceTexturePool != null && flutterJNI.isAttached() && surfaceTexturePool.park(this)) {
+        Log.v(TAG, "Parking a SurfaceTexture (" + id + ").");
+        lease++;
+        surfaceTexture().setOnFrameAvailableListener(null);
+        return;
+      }
+      Log.v(TAG, "Releasing a SurfaceTexture (" + id + ").");
+      textureWrapper.release();
+      unregisterTexture(id);
+    }
+
+    // Hands out a parked entry again.
+    void reuse() {
+      released = false;
+      setOnFrameAvailableListener();
+    }
+
+    // Releases a parked entry for good. The engine may have been detached since the entry was
+    // parked.
+    void destroy() {
+      Log.v(TAG, "Releasing a parked SurfaceTexture (" + id + ").");
+      textureWrapper.release();
+      if (flutterJNI.isAttached()) {
+        unregisterTexture(id);
+      }
+    }
+  }
+
+  /** Image textures require API level 29, which can wrap the images in hardware buffers. */
+  @Override
+  public boolean isImageTextureSupported() {
+    return Build.VERSION.SDK_INT >= 29;
+  }
+
+  /**
+   * Creates and returns a new texture that displays the images of an {@link ImageReader} and is
+   * also made available to Flutter code.
+   */
+  @Override
+  public ImageTextureEntry createImageTexture(int width, int height, int maxImages) {
+    if (!isImageTextureSupported()) {
+      throw new UnsupportedOperationException("Image textures require API level 29.");
+    }
+    if (maxImages < 4) {
+      throw new IllegalArgumentException("maxImages must be at least 4, but was " + maxImages);
+    }
+    Log.v(TAG, "Creating an ImageReader texture.");
+    final ImageReaderTextureRegistryEntry entry =
+        new ImageReaderTextureRegistryEntry(
+            nextTextureId.getAndIncrement(),
+            ImageReader.newInstance(
+                width,
+                height,
+                // Lets producers such as video decoders and cameras pick their own format.
+                ImageFormat.PRIVATE,
+                maxImages,
+                HardwareBuffer.USAGE_GPU_SAMPLED_IMAGE));
+    Log.v(TAG, "New ImageReader texture ID: " + entry.id());
+    flutterJNI.registerImageTexture(entry.id(), entry.textureWrapper());
+    return entry;
+  }
+
+  @TargetApi(29)
+  @VisibleForTesting
+  final class ImageReaderTextureRegistryEntry implements TextureRegistry.ImageTextureEntry {
+    private final long id;
+    @NonNull private final ImageTextureWrapper textureWrapper;
+    private boolean released;
+
+    ImageReaderTextureRegistryEntry(long id, @NonNull ImageReader imageReader) {
+      this.id = id;
+      this.textureWrapper = new ImageTextureWrapper(imageReader);
+      // Like SurfaceTexture frames, new images are signaled on the UI thread.
+      imageReader.setOnImageAvailableListener(onImageAvailableListener, new Handler());
+    }
+
+    @VisibleForTesting
+    final ImageReader.OnImageAvailableListener onImageAvailableListener =
+        new ImageReader.OnImageAvailableListener() {
           @Override
-          public void onFrameAvailable(@NonNull SurfaceTexture texture) {
+          public void onImageAvailable(@NonNull ImageReader reader) {
             if (released || !flutterJNI.isAttached()) {
-              // Even though we make sure to unregister the callback before releasing, as of
-              // Android O, SurfaceTexture has a data race when accessing the callback, so the
-              // callback may still be called by a stale reference after released==true and
-              // mNativeView==null.
               return;
             }
+            // The engine acquires the image when it draws the texture.
             markTextureFrameAvailable(id);
           }
         };
 
     @NonNull
-    public SurfaceTextureWrapper textureWrapper() {
+    public ImageTextureWrapper textureWrapper() {
       return textureWrapper;
     }
 
     @Override
     @NonNull
-    public SurfaceTexture surfaceTexture() {
-      return textureWrapper.surfaceTexture();
+    public Surface getSurface() {
+      return textureWrapper.imageReader().getSurface();
     }
 
     @Override
@@ -163,8 +343,10 @@ public class FlutterRenderer implements TextureRegistry {
       if (released) {
         return;
       }
-      Log.v(TAG, "Releasing a SurfaceTexture (" + id + ").");
+      Log.v(TAG, "Releasing an ImageReader texture (" + id + ").");
+      textureWrapper.imageReader().setOnImageAvailableListener(null, null);
       textureWrapper.release();
+      cancelTextureFrameAvailable(id);
       unregisterTexture(id);
       released = true;
     }
@@ -315,14 +497,73 @@ public class FlutterRenderer implements TextureRegistry {
     flutterJNI.dispatchPointerDataPacket(buffer, position);
   }
 
+  /**
+   * Sends a key data packet to the framework. See {@link FlutterJNI#dispatchKeyDataPacket} for the
+   * layout of the packet.
+   */
+  public void dispatchKeyDataPacket(
+      @NonNull ByteBuffer buffer,
+      int position,
+      @NonNull FlutterJNI.KeyDataResponseCallback callback) {
+    flutterJNI.dispatchKeyDataPacket(buffer, position, callback);
+  }
+
   // TODO(mattcarroll): describe the native behavior that this invokes
   private void registerTexture(long textureId, @NonNull SurfaceTextureWrapper textureWrapper) {
     flutterJNI.registerTexture(textureId, textureWrapper);
   }
 
-  // TODO(mattcarroll): describe the native behavior that this invokes
+  /**
+   * Records that the given texture has a new frame.
+   *
+   * <p>Textures such as videos or camera previews produce frames independently of each other, so
+   * the frame-available signals received in the same main looper turn are coalesced and sent to
+   * Flutter in a single call from the next platform task. Waiting for the next vsync instead would
+   * delay the new frames by up to a vsync.
+   */
   private void markTextureFrameAvailable(long textureId) {
-    flutterJNI.markTextureFrameAvailable(textureId);
+    for (int i = 0; i < pendingFrameTextureCount; i++) {
+      if (pendingFrameTextureIds[i] == textureId) {
+        return;
+      }
+    }
+    if (pendingFrameTextureCount == pendingFrameTextureIds.length) {
+      pendingFrameTextureIds = Arrays.copyOf(pendingFrameTextureIds, pendingFrameTextureCount * 2);
+    }
+    pendingFrameTextureIds[pendingFrameTextureCount++] = textureId;
+    if (!isTextureFrameFlushScheduled) {
+      isTextureFrameFlushScheduled = true;
+      platformHandler.post(textureFrameFlushRunnable);
+    }
+  }
+
+  // Drops a pending frame-available signal of a texture that is being unregistered.
+  private void cancelTextureFrameAvailable(long textureId) {
+    for (int i = 0; i < pendingFrameTextureCount; i++) {
+      if (pendingFrameTextureIds[i] == textureId) {
+        pendingFrameTextureCount--;
+        pendingFrameTextureIds[i] = pendingFrameTextureIds[pendingFrameTextureCount];
+        return;
+      }
+    }
+  }
+
+  /** Notifies Flutter of all the textures that have a new frame since the last flush. */
+  @VisibleForTesting
+  void flushTextureFramesAvailable() {
+    if (pendingFrameTextureCount == 0) {
+      return;
+    }
+    final int count = pendingFrameTextureCount;
+    pendingFrameTextureCount = 0;
+    if (!flutterJNI.isAttached()) {
+      return;
+    }
+    if (count == 1) {
+      flutterJNI.markTextureFrameAvailable(pendingFrameTextureIds[0]);
+    } else {
+      flutterJNI.markTextureFramesAvailable(pendingFrameTextureIds, count);
+    }
   }
 
   // TODO(mattcarroll): describe the native behavior that this invokes
@@ -0,0 +1,94 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.embedding.engine.renderer;
+
+import android.annotation.TargetApi;
+import android.hardware.HardwareBuffer;
+import android.media.Image;
+import android.media.ImageReader;
+import androidx.annotation.Keep;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * A wrapper for an {@link ImageReader} whose images are displayed by a Flutter texture.
+ *
+ * <p>The engine acquires the images on the raster thread, while the reader is released on the
+ * platform thread. This wrapper prevents acquiring images from a closed reader.
+ *
+ * <p>Only the latest image of the reader is acquired, so frames that were produced while the
+ * previous image was displayed are dropped. An acquired image is kept open until the engine
+ * releases its hardware buffer, which happens once a newer image is bound to the texture and the
+ * GPU finished the draws that read the older image.
+ */
+@Keep
+@TargetApi(29)
+public class ImageTextureWrapper {
+  @NonNull private final ImageReader imageReader;
+  // The images whose hardware buffers were handed to the engine, keyed by those buffers.
+  @NonNull private final Map<HardwareBuffer, Image> acquiredImages = new IdentityHashMap<>();
+  private boolean released;
+
+  public ImageTextureWrapper(@NonNull ImageReader imageReader) {
+    this.imageReader = imageReader;
+  }
+
+  @NonNull
+  public ImageReader imageReader() {
+    return imageReader;
+  }
+
+  // Called by native.
+  @SuppressWarnings("unused")
+  @Nullable
+  public HardwareBuffer acquireLatestHardwareBuffer() {
+    synchronized (this) {
+      if (released) {
+        return null;
+      }
+      final Image image = imageReader.acquireLatestImage();
+      if (image == null) {
+        return null;
+      }
+      final HardwareBuffer hardwareBuffer = image.getHardwareBuffer();
+      if (hardwareBuffer == null) {
+        image.close();
+        return null;
+      }
+      acquiredImages.put(hardwareBuffer, image);
+      return hardwareBuffer;
+    }
+  }
+
+  // Called by native once the GPU no longer reads the buffer.
+  @SuppressWarnings("unused")
+  public void releaseHardwareBuffer(@NonNull HardwareBuffer hardwareBuffer) {
+    synchronized (this) {
+      final Image image = acquiredImages.remove(hardwareBuffer);
+      if (image == null) {
+        // Already closed by `release()`.
+        return;
+      }
+      hardwareBuffer.close();
+      image.close();
+    }
+  }
+
+  public void release() {
+    synchronized (this) {
+      if (!released) {
+        for (Map.Entry<HardwareBuffer, Image> entry : acquiredImages.entrySet()) {
+          entry.getKey().close();
+          entry.getValue().close();
+        }
+        acquiredImages.clear();
+        imageReader.close();
+        released = true;
+      }
+    }
+  }
+}
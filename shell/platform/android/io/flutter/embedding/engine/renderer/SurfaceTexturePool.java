@@ -0,0 +1,126 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.embedding.engine.renderer;
+
+import android.annotation.TargetApi;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+
+/**
+ * A pool of released {@link FlutterRenderer.SurfaceTextureRegistryEntry}s.
+ *
+ * <p>Creating a {@code SurfaceTexture} entry allocates a {@link android.graphics.SurfaceTexture},
+ * detaches it from the GL context, and registers it with the engine, and releasing it unregisters
+ * it again. Lists of video feeds do this for every cell that scrolls in and out of view. Entries
+ * returned to this pool stay registered with the engine instead, and are handed out again with
+ * the same texture ID.
+ *
+ * <p>Parked entries are released for good once they have been idle for longer than the idle
+ * timeout, when the pool exceeds its capacity, or when the pool is cleared.
+ *
+ * <p>All methods must be called on the UI thread.
+ */
+@TargetApi(Build.VERSION_CODES.JELLY_BEAN)
+class SurfaceTexturePool {
+  private static class ParkedEntry {
+    @NonNull final FlutterRenderer.SurfaceTextureRegistryEntry entry;
+    final long parkedAtMs;
+
+    ParkedEntry(@NonNull FlutterRenderer.SurfaceTextureRegistryEntry entry, long parkedAtMs) {
+      this.entry = entry;
+      this.parkedAtMs = parkedAtMs;
+    }
+  }
+
+  private final int maxParkedEntries;
+  private final long idleTimeoutMs;
+  @NonNull private final Handler handler = new Handler(Looper.getMainLooper());
+
+  // Ordered from oldest to newest.
+  private final ArrayDeque<ParkedEntry> parkedEntries = new ArrayDeque<>();
+
+  private boolean isTrimScheduled = false;
+
+  private final Runnable trimRunnable =
+      new Runnable() {
+        @Override
+        public void run() {
+          isTrimScheduled = false;
+          trimIdleEntries();
+          scheduleTrim();
+        }
+      };
+
+  SurfaceTexturePool(int maxParkedEntries, long idleTimeoutMs) {
+    this.maxParkedEntries = maxParkedEntries;
+    this.idleTimeoutMs = idleTimeoutMs;
+  }
+
+  /** Returns the most recently parked entry, or null if the pool is empty. */
+  @Nullable
+  FlutterRenderer.SurfaceTextureRegistryEntry acquire() {
+    final ParkedEntry parked = parkedEntries.pollLast();
+    return parked == null ? null : parked.entry;
+  }
+
+  /**
+   * Parks the given entry. Returns false if the pool doesn't keep entries, in which case the caller
+   * must release the entry.
+   */
+  boolean park(@NonNull FlutterRenderer.SurfaceTextureRegistryEntry entry) {
+    if (maxParkedEntries <= 0) {
+      return false;
+    }
+    parkedEntries.addLast(new ParkedEntry(entry, SystemClock.uptimeMillis()));
+    while (parkedEntries.size() > maxParkedEntries) {
+      parkedEntries.pollFirst().entry.destroy();
+    }
+    scheduleTrim();
+    return true;
+  }
+
+  /** Releases the entries that have been parked for longer than the idle timeout. */
+  void trimIdleEntries() {
+    final long now = SystemClock.uptimeMillis();
+    final Iterator<ParkedEntry> entries = parkedEntries.iterator();
+    while (entries.hasNext()) {
+      final ParkedEntry parked = entries.next();
+      if (now - parked.parkedAtMs < idleTimeoutMs) {
+        // Entries are ordered by age, so the remaining entries are newer.
+        break;
+      }
+      parked.entry.destroy();
+      entries.remove();
+    }
+  }
+
+  /** Releases all the parked entries. */
+  void clear() {
+    while (!parkedEntries.isEmpty()) {
+      parkedEntries.pollFirst().entry.destroy();
+    }
+    handler.removeCallbacks(trimRunnable);
+    isTrimScheduled = false;
+  }
+
+  int getParkedEntryCount() {
+    return parkedEntries.size();
+  }
+
+  private void scheduleTrim() {
+    if (isTrimScheduled || parkedEntries.isEmpty()) {
+      return;
+    }
+    isTrimScheduled = true;
+    final long trimAtUptimeMs = parkedEntries.peekFirst().parkedAtMs + idleTimeoutMs;
+    handler.postAtTime(trimRunnable, trimAtUptimeMs);
+  }
+}
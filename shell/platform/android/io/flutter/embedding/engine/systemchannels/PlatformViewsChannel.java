@@ -14,6 +14,9 @@ import io.flutter.plugin.common.StandardMethodCodec;
 import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
@@ -26,6 +29,39 @@ import java.util.Map;
 public class PlatformViewsChannel {
   private static final String TAG = "PlatformViewsChannel";
 
+  /**
+   * The size in bytes of the header of a {@code touchPacket} message.
+   *
+   * <p>A touch packet is a little-endian byte array made of a header followed by {@code
+   * pointerCount} pointers. The header contains, in order:
+   *
+   * <ul>
+   *   <li>int64 {@code downTime}, int64 {@code eventTime} and int64 {@code motionEventId}
+   *   <li>int32 {@code viewId}, {@code action}, {@code pointerCount}, {@code metaState} and {@code
+   *       buttonState}
+   *   <li>float32 {@code xPrecision} and {@code yPrecision}
+   *   <li>int32 {@code deviceId}, {@code edgeFlags}, {@code source} and {@code flags}
+   * </ul>
+   *
+   * <p>Each pointer contains the int32 {@code id} and {@code toolType}, followed by the float32
+   * {@code orientation}, {@code pressure}, {@code size}, {@code toolMajor}, {@code toolMinor},
+   * {@code touchMajor}, {@code touchMinor}, {@code x} and {@code y}. Like in {@code touch}
+   * messages, lengths and coordinates are in logical pixels.
+   */
+  public static final int TOUCH_PACKET_HEADER_SIZE = 68;
+
+  /** The size in bytes of each pointer of a {@code touchPacket} message. */
+  public static final int TOUCH_PACKET_POINTER_SIZE = 44;
+
+  /** The offset of the view ID in the header of a {@code touchPacket} message. */
+  public static final int TOUCH_PACKET_VIEW_ID_OFFSET = 24;
+
+  /** The offset of the pointer count in the header of a {@code touchPacket} message. */
+  public static final int TOUCH_PACKET_POINTER_COUNT_OFFSET = 32;
+
+  /** The number of float32 values of each pointer of a {@code touchPacket} message. */
+  public static final int TOUCH_PACKET_POINTER_COORD_COUNT = 9;
+
   private final MethodChannel channel;
   private PlatformViewsHandler handler;
 
@@ -67,6 +103,9 @@ public class PlatformViewsChannel {
             case "touch":
               touch(call, result);
               break;
+            case "touchPacket":
+              touchPacket(call, result);
+              break;
             case "setDirection":
               setDirection(call, result);
               break;
@@ -180,6 +219,42 @@ public class PlatformViewsChannel {
           }
         }
 
+        private void touchPacket(@NonNull MethodCall call, @NonNull MethodChannel.Result result) {
+          final Object arguments = call.arguments();
+          if (!(arguments instanceof byte[])) {
+            result.error("error", "Touch packet must be a byte array, got " + arguments, null);
+            return;
+          }
+          final byte[] packet = (byte[]) arguments;
+          if (packet.length < TOUCH_PACKET_HEADER_SIZE) {
+            result.error("error", "Touch packet is too short: " + packet.length + " bytes", null);
+            return;
+          }
+          final ByteBuffer buffer = ByteBuffer.wrap(packet).order(ByteOrder.LITTLE_ENDIAN);
+          final int pointerCount = buffer.getInt(TOUCH_PACKET_POINTER_COUNT_OFFSET);
+          if (pointerCount < 0) {
+            result.error("error", "Touch packet has " + pointerCount + " pointers", null);
+            return;
+          }
+          // Computed in 64 bits, since a large pointer count would overflow an int.
+          final long expectedLength =
+              TOUCH_PACKET_HEADER_SIZE + (long) pointerCount * TOUCH_PACKET_POINTER_SIZE;
+          if (packet.length != expectedLength) {
+            result.error(
+                "error",
+                "Touch packet of " + packet.length + " bytes has " + pointerCount + " pointers",
+                null);
+            return;
+          }
+
+          try {
+            handler.onTouchPacket(buffer);
+            result.success(null);
+          } catch (IllegalStateException exception) {
+            result.error("error", detailedExceptionString(exception), null);
+          }
+        }
+
         private void setDirection(@NonNull MethodCall call, @NonNull MethodChannel.Result result) {
           Map<String, Object> setDirectionArgs = call.arguments();
           int newDirectionViewId = (int) setDirectionArgs.get("id");
@@ -287,6 +362,20 @@ public class PlatformViewsChannel {
      */
     void onTouch(@NonNull PlatformViewTouch touch);
 
+    /**
+     * The user touched a platform view within Flutter.
+     *
+     * <p>Unlike {@link #onTouch(PlatformViewTouch)}, the touch data is encoded in a little-endian
+     * binary {@code packet}, which avoids boxing every field of every pointer. See {@link
+     * PlatformViewsChannel#TOUCH_PACKET_HEADER_SIZE} for the layout.
+     *
+     * <p>The default implementation decodes the packet and forwards it to {@link
+     * #onTouch(PlatformViewTouch)}.
+     */
+    default void onTouchPacket(@NonNull ByteBuffer packet) {
+      onTouch(decodeTouchPacket(packet));
+    }
+
     /**
      * The Flutter application would like to change the layout direction of an existing Android
      * {@code View}, i.e., platform view.
@@ -371,6 +460,112 @@ public class PlatformViewsChannel {
     }
   }
 
+  /**
+   * A decoded {@code touchPacket} message.
+   *
+   * <p>This is the only decoder of the packet layout described in {@link
+   * #TOUCH_PACKET_HEADER_SIZE}. The fields are overwritten by each call to {@link
+   * #decode(ByteBuffer)}, and the pointer arrays are reused when they are large enough, so a single
+   * instance can decode every packet without allocating.
+   */
+  public static class TouchPacket {
+    public long downTime;
+    public long eventTime;
+    public long motionEventId;
+    public int viewId;
+    public int action;
+    public int pointerCount;
+    public int metaState;
+    public int buttonState;
+    public float xPrecision;
+    public float yPrecision;
+    public int deviceId;
+    public int edgeFlags;
+    public int source;
+    public int flags;
+
+    /** The ID of each pointer. Only the first {@link #pointerCount} values are decoded. */
+    @NonNull public int[] pointerIds = new int[0];
+
+    /** The tool type of each pointer. Only the first {@link #pointerCount} values are decoded. */
+    @NonNull public int[] toolTypes = new int[0];
+
+    /**
+     * The {@link #TOUCH_PACKET_POINTER_COORD_COUNT} float32 values of each pointer, in the order of
+     * the packet. Only the values of the first {@link #pointerCount} pointers are decoded.
+     */
+    @NonNull public float[] pointerCoords = new float[0];
+
+    /** Decodes the given packet, whose length was already checked against its pointer count. */
+    public void decode(@NonNull ByteBuffer packet) {
+      packet.rewind();
+      downTime = packet.getLong();
+      eventTime = packet.getLong();
+      motionEventId = packet.getLong();
+      viewId = packet.getInt();
+      action = packet.getInt();
+      pointerCount = packet.getInt();
+      metaState = packet.getInt();
+      buttonState = packet.getInt();
+      xPrecision = packet.getFloat();
+      yPrecision = packet.getFloat();
+      deviceId = packet.getInt();
+      edgeFlags = packet.getInt();
+      source = packet.getInt();
+      flags = packet.getInt();
+
+      if (pointerIds.length < pointerCount) {
+        pointerIds = new int[pointerCount];
+        toolTypes = new int[pointerCount];
+        pointerCoords = new float[pointerCount * TOUCH_PACKET_POINTER_COORD_COUNT];
+      }
+      for (int i = 0; i < pointerCount; i++) {
+        pointerIds[i] = packet.getInt();
+        toolTypes[i] = packet.getInt();
+        for (int j = 0; j < TOUCH_PACKET_POINTER_COORD_COUNT; j++) {
+          pointerCoords[i * TOUCH_PACKET_POINTER_COORD_COUNT + j] = packet.getFloat();
+        }
+      }
+    }
+  }
+
+  /** Decodes a {@code touchPacket} message into the arguments of a {@code touch} message. */
+  @NonNull
+  private static PlatformViewTouch decodeTouchPacket(@NonNull ByteBuffer packet) {
+    final TouchPacket touchPacket = new TouchPacket();
+    touchPacket.decode(packet);
+
+    final int pointerCount = touchPacket.pointerCount;
+    final List<List<Integer>> pointerProperties = new ArrayList<>(pointerCount);
+    final List<List<Double>> pointerCoords = new ArrayList<>(pointerCount);
+    for (int i = 0; i < pointerCount; i++) {
+      pointerProperties.add(Arrays.asList(touchPacket.pointerIds[i], touchPacket.toolTypes[i]));
+      final List<Double> coords = new ArrayList<>(TOUCH_PACKET_POINTER_COORD_COUNT);
+      for (int j = 0; j < TOUCH_PACKET_POINTER_COORD_COUNT; j++) {
+        coords.add((double) touchPacket.pointerCoords[i * TOUCH_PACKET_POINTER_COORD_COUNT + j]);
+      }
+      pointerCoords.add(coords);
+    }
+
+    return new PlatformViewTouch(
+        touchPacket.viewId,
+        touchPacket.downTime,
+        touchPacket.eventTime,
+        touchPacket.action,
+        pointerCount,
+        pointerProperties,
+        pointerCoords,
+        touchPacket.metaState,
+        touchPacket.buttonState,
+        touchPacket.xPrecision,
+        touchPacket.yPrecision,
+        touchPacket.deviceId,
+        touchPacket.edgeFlags,
+        touchPacket.source,
+        touchPacket.flags,
+        touchPacket.motionEventId);
+  }
+
   /** The state of a touch event in Flutter within a platform view. */
   public static class PlatformViewTouch {
     /** The ID of the platform view as seen by the Flutter side. */
@@ -5,13 +5,21 @@
 package io.flutter.embedding.engine.systemchannels;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
 import io.flutter.Log;
 import io.flutter.embedding.engine.dart.DartExecutor;
 import io.flutter.plugin.common.MethodCall;
 import io.flutter.plugin.common.MethodChannel;
 import io.flutter.plugin.common.StandardMethodCodec;
+import java.io.ByteArrayOutputStream;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
 
 /**
  * System channel to exchange restoration data between framework and engine.
@@ -28,11 +36,27 @@ import java.util.Map;
  * only provide the restoration data to the Activity during the onCreate callback.
  *
  * <p>The current restoration data provided by the framework can be read via {@code
- * getRestorationData()}.
+ * getRestorationData()}, or compressed via {@code getCompressedRestorationData()}. The framework
+ * sends its whole restoration data whenever it changes, so the channel compresses the latest data
+ * on a background thread, and only once per burst of changes. The size of the data can be reported
+ * with a {@link RestorationDataSizeListener}.
  */
 public class RestorationChannel {
   private static final String TAG = "RestorationChannel";
 
+  private static Executor defaultCompressionExecutor;
+
+  /** Receives the size of the restoration data, e.g. to report it to telemetry. */
+  public interface RestorationDataSizeListener {
+    /**
+     * Called each time {@link #getCompressedRestorationData()} returns data, which the embedding
+     * does when it saves the instance state of the app.
+     *
+     * <p>Large data risks a {@code TransactionTooLargeException} when the state is saved.
+     */
+    void onRestorationDataSize(int compressedBytes, int uncompressedBytes);
+  }
+
   public RestorationChannel(
       @NonNull DartExecutor dartExecutor, @NonNull boolean waitForRestorationData) {
     this(
@@ -41,8 +65,17 @@ public class RestorationChannel {
   }
 
   RestorationChannel(MethodChannel channel, @NonNull boolean waitForRestorationData) {
+    this(channel, waitForRestorationData, getDefaultCompressionExecutor());
+  }
+
+  @VisibleForTesting
+  RestorationChannel(
+      MethodChannel channel,
+      @NonNull boolean waitForRestorationData,
+      @NonNull Executor compressionExecutor) {
     this.channel = channel;
     this.waitForRestorationData = waitForRestorationData;
+    this.compressionExecutor = compressionExecutor;
 
     channel.setMethodCallHandler(handler);
   }
@@ -71,11 +104,113 @@ public class RestorationChannel {
   private boolean engineHasProvidedData = false;
   private boolean frameworkHasRequestedData = false;
 
+  @NonNull private final Executor compressionExecutor;
+  // Guards the fields below, which are shared with the compression executor.
+  private final Object compressionLock = new Object();
+  // The latest data to compress, if a compression is scheduled.
+  private byte[] dataToCompress;
+  private boolean isCompressionScheduled = false;
+  // The data that is being compressed, if any.
+  private byte[] compressingData;
+  // The last data that was compressed, and the result.
+  private byte[] compressedData;
+  private byte[] compressedDataSource;
+
+  @Nullable private RestorationDataSizeListener restorationDataSizeListener;
+
   /** Obtain the most current restoration data that the framework has provided. */
   public byte[] getRestorationData() {
     return restorationData;
   }
 
+  /** Sets the listener that receives the size of the restoration data, or removes it if null. */
+  public void setRestorationDataSizeListener(@Nullable RestorationDataSizeListener listener) {
+    restorationDataSizeListener = listener;
+  }
+
+  /**
+   * Obtain the most current restoration data that the framework has provided, compressed for
+   * {@link #decompressRestorationData(byte[])}.
+   *
+   * <p>The data is usually compressed in the background by the time it's needed. If it is being
+   * compressed, this waits for the result. If its compression hasn't started yet, it is compressed
+   * on the calling thread instead, and the background compression skips it.
+   */
+  @Nullable
+  public byte[] getCompressedRestorationData() {
+    final byte[] data = restorationData;
+    if (data == null) {
+      return null;
+    }
+    final byte[] compressed = getOrCompress(data);
+    if (restorationDataSizeListener != null) {
+      restorationDataSizeListener.onRestorationDataSize(compressed.length, data.length);
+    }
+    return compressed;
+  }
+
+  @NonNull
+  private byte[] getOrCompress(@NonNull byte[] data) {
+    synchronized (compressionLock) {
+      boolean isInterrupted = false;
+      while (compressedDataSource != data && compressingData == data && !isInterrupted) {
+        try {
+          compressionLock.wait();
+        } catch (InterruptedException e) {
+          // Compress the data here instead.
+          isInterrupted = true;
+          Thread.currentThread().interrupt();
+        }
+      }
+      if (compressedDataSource == data) {
+        return compressedData;
+      }
+      if (dataToCompress == data) {
+        // The scheduled compression is done here.
+        dataToCompress = null;
+      }
+    }
+    final byte[] compressed = compress(data);
+    synchronized (compressionLock) {
+      if (restorationData == data) {
+        compressedData = compressed;
+        compressedDataSource = data;
+      }
+    }
+    return compressed;
+  }
+
+  /**
+   * Decompresses data returned by {@link #getCompressedRestorationData()}, or returns null if it
+   * isn't valid.
+   */
+  @Nullable
+  public static byte[] decompressRestorationData(@Nullable byte[] compressedData) {
+    if (compressedData == null) {
+      return null;
+    }
+    final Inflater inflater = new Inflater();
+    inflater.setInput(compressedData);
+    final ByteArrayOutputStream output = new ByteArrayOutputStream(compressedData.length * 4);
+    final byte[] buffer = new byte[8192];
+    try {
+      while (!inflater.finished()) {
+        final int length = inflater.inflate(buffer);
+        if (length == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+          Log.e(TAG, "Restoration data is truncated.");
+          return null;
+        }
+        output.write(buffer, 0, length);
+      }
+    } catch (DataFormatException e) {
+      Log.e(TAG, "Restoration data is not valid: " + e.getMessage());
+      return null;
+    } finally {
+      inflater.end();
+    }
+    return output.toByteArray();
+  }
+
   /** Set the restoration data from which the framework will restore its state. */
   public void setRestorationData(byte[] data) {
     engineHasProvidedData = true;
@@ -83,7 +218,7 @@ public class RestorationChannel {
       // If their is a pending request from the framework, answer it.
       pendingFrameworkRestorationChannelRequest.success(packageData(data));
       pendingFrameworkRestorationChannelRequest = null;
-      restorationData = data;
+      updateRestorationData(data);
     } else if (frameworkHasRequestedData) {
       // If the framework has previously received the engine's restoration data, push the new data
       // directly to it. This case can happen when "waitForRestorationData" is false and the
@@ -96,7 +231,7 @@ public class RestorationChannel {
           new MethodChannel.Result() {
             @Override
             public void success(Object result) {
-              restorationData = data;
+              updateRestorationData(data);
             }
 
             @Override
@@ -116,7 +251,7 @@ public class RestorationChannel {
           });
     } else {
       // Otherwise, just cache the data until the framework asks for it.
-      restorationData = data;
+      updateRestorationData(data);
     }
   }
 
@@ -127,7 +262,75 @@ public class RestorationChannel {
    * state prior to the hot restart will get restored.
    */
   public void clearData() {
-    restorationData = null;
+    updateRestorationData(null);
+  }
+
+  private void updateRestorationData(byte[] data) {
+    restorationData = data;
+    if (data == null) {
+      synchronized (compressionLock) {
+        dataToCompress = null;
+        compressedData = null;
+        compressedDataSource = null;
+      }
+      return;
+    }
+    synchronized (compressionLock) {
+      dataToCompress = data;
+      if (isCompressionScheduled) {
+        // The scheduled compression picks up the latest data.
+        return;
+      }
+      isCompressionScheduled = true;
+    }
+    compressionExecutor.execute(
+        () -> {
+          final byte[] source;
+          synchronized (compressionLock) {
+            source = dataToCompress;
+            dataToCompress = null;
+            isCompressionScheduled = false;
+            if (source == null) {
+              return;
+            }
+            compressingData = source;
+          }
+          final byte[] compressed = compress(source);
+          synchronized (compressionLock) {
+            compressedData = compressed;
+            compressedDataSource = source;
+            compressingData = null;
+            compressionLock.notifyAll();
+          }
+        });
+  }
+
+  @NonNull
+  private static byte[] compress(@NonNull byte[] data) {
+    final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+    deflater.setInput(data);
+    deflater.finish();
+    final ByteArrayOutputStream output = new ByteArrayOutputStream(data.length / 2 + 64);
+    final byte[] buffer = new byte[8192];
+    while (!deflater.finished()) {
+      output.write(buffer, 0, deflater.deflate(buffer));
+    }
+    deflater.end();
+    return output.toByteArray();
+  }
+
+  @NonNull
+  private static synchronized Executor getDefaultCompressionExecutor() {
+    if (defaultCompressionExecutor == null) {
+      defaultCompressionExecutor =
+          Executors.newSingleThreadExecutor(
+              (runnable) -> {
+                final Thread thread = new Thread(runnable, "flutter-restoration");
+                thread.setDaemon(true);
+                return thread;
+              });
+    }
+    return defaultCompressionExecutor;
   }
 
   private final MethodChannel.MethodCallHandler handler =
@@ -138,7 +341,7 @@ public class RestorationChannel {
           final Object args = call.arguments;
           switch (method) {
             case "put":
-              restorationData = (byte[]) args;
+              updateRestorationData((byte[]) args);
               result.success(null);
               break;
             case "get":
@@ -11,8 +11,10 @@ import io.flutter.embedding.engine.dart.DartExecutor;
 import io.flutter.plugin.common.JSONMethodCodec;
 import io.flutter.plugin.common.MethodCall;
 import io.flutter.plugin.common.MethodChannel;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import org.json.JSONArray;
@@ -217,6 +219,32 @@ public class TextInputChannel {
     channel.invokeMethod("TextInputClient.updateEditingState", Arrays.asList(inputClientId, state));
   }
 
+  /**
+   * Instructs Flutter to apply the given text editing deltas, in order, to the editing state of the
+   * given client.
+   *
+   * <p>Only used when the client configuration sets {@code enableDeltaModel}. The framework applies
+   * the deltas to its own copy of the editing state instead of replacing it with a new one.
+   */
+  public void updateEditingStateWithDeltas(
+      int inputClientId, @NonNull List<TextEditingDelta> deltas) {
+    Log.v(
+        TAG,
+        "Sending message to update editing state with "
+            + String.valueOf(deltas.size())
+            + " delta(s).");
+
+    final ArrayList<HashMap<Object, Object>> jsonDeltas = new ArrayList<>(deltas.size());
+    for (TextEditingDelta delta : deltas) {
+      jsonDeltas.add(delta.toJson());
+    }
+    final HashMap<Object, Object> state = new HashMap<>();
+    state.put("deltas", jsonDeltas);
+
+    channel.invokeMethod(
+        "TextInputClient.updateEditingStateWithDeltas", Arrays.asList(inputClientId, state));
+  }
+
   public void updateEditingStateWithTag(
       int inputClientId, HashMap<String, TextEditState> editStates) {
     Log.v(
@@ -430,7 +458,8 @@ public class TextInputChannel {
           inputAction,
           json.isNull("actionLabel") ? null : json.getString("actionLabel"),
           json.isNull("autofill") ? null : Autofill.fromJson(json.getJSONObject("autofill")),
-          fields);
+          fields,
+          json.optBoolean("enableDeltaModel"));
     }
 
     @NonNull
@@ -581,6 +610,9 @@ public class TextInputChannel {
     @Nullable public final String actionLabel;
     @Nullable public final Autofill autofill;
     @Nullable public final Configuration[] fields;
+    // Whether the framework expects editing state updates as TextEditingDeltas, sent through
+    // TextInputClient.updateEditingStateWithDeltas.
+    public final boolean enableDeltaModel;
 
     public Configuration(
         boolean obscureText,
@@ -593,6 +625,32 @@ public class TextInputChannel {
         @Nullable String actionLabel,
         @Nullable Autofill autofill,
         @Nullable Configuration[] fields) {
+      this(
+          obscureText,
+          autocorrect,
+          enableSuggestions,
+          enableIMEPersonalizedLearning,
+          textCapitalization,
+          inputType,
+          inputAction,
+          actionLabel,
+          autofill,
+          fields,
+          false);
+    }
+
+    public Configuration(
+        boolean obscureText,
+        boolean autocorrect,
+        boolean enableSuggestions,
+        boolean enableIMEPersonalizedLearning,
+        @NonNull TextCapitalization textCapitalization,
+        @NonNull InputType inputType,
+        @Nullable Integer inputAction,
+        @Nullable String actionLabel,
+        @Nullable Autofill autofill,
+        @Nullable Configuration[] fields,
+        boolean enableDeltaModel) {
       this.obscureText = obscureText;
       this.autocorrect = autocorrect;
       this.enableSuggestions = enableSuggestions;
@@ -603,6 +661,7 @@ public class TextInputChannel {
       this.actionLabel = actionLabel;
       this.autofill = autofill;
       this.fields = fields;
+      this.enableDeltaModel = enableDeltaModel;
     }
   }
 
@@ -763,4 +822,71 @@ public class TextInputChannel {
       return composingStart >= 0 && composingEnd > composingStart;
     }
   }
+
+  /**
+   * A single change to the editing state of a text input client.
+   *
+   * <p>The text in the range [{@link #deltaStart}, {@link #deltaEnd}) of {@link #oldText} is
+   * replaced with {@link #deltaText}, and the selection and the composing region are then set to
+   * the given ranges. A delta with a {@link #deltaStart} of -1 doesn't change the text.
+   */
+  public static class TextEditingDelta {
+    @NonNull public final String oldText;
+    @NonNull public final String deltaText;
+    public final int deltaStart;
+    public final int deltaEnd;
+    public final int selectionStart;
+    public final int selectionEnd;
+    public final int composingStart;
+    public final int composingEnd;
+
+    public TextEditingDelta(
+        @NonNull String oldText,
+        @NonNull String deltaText,
+        int deltaStart,
+        int deltaEnd,
+        int selectionStart,
+        int selectionEnd,
+        int composingStart,
+        int composingEnd) {
+      this.oldText = oldText;
+      this.deltaText = deltaText;
+      this.deltaStart = deltaStart;
+      this.deltaEnd = deltaEnd;
+      this.selectionStart = selectionStart;
+      this.selectionEnd = selectionEnd;
+      this.composingStart = composingStart;
+      this.composingEnd = composingEnd;
+    }
+
+    /** Creates a delta that only updates the selection and the composing region. */
+    @NonNull
+    public static TextEditingDelta nonText(
+        @NonNull String text,
+        int selectionStart,
+        int selectionEnd,
+        int composingStart,
+        int composingEnd) {
+      return new TextEditingDelta(
+          text, "", -1, -1, selectionStart, selectionEnd, composingStart, composingEnd);
+    }
+
+    // The editable doesn't track the affinity or the direction of the selection, so they're the
+    // framework's defaults.
+    @NonNull
+    HashMap<Object, Object> toJson() {
+      final HashMap<Object, Object> delta = new HashMap<>();
+      delta.put("oldText", oldText);
+      delta.put("deltaText", deltaText);
+      delta.put("deltaStart", deltaStart);
+      delta.put("deltaEnd", deltaEnd);
+      delta.put("selectionBase", selectionStart);
+      delta.put("selectionExtent", selectionEnd);
+      delta.put("selectionAffinity", "TextAffinity.downstream");
+      delta.put("selectionIsDirectional", false);
+      delta.put("composingBase", composingStart);
+      delta.put("composingExtent", composingEnd);
+      return delta;
+    }
+  }
 }
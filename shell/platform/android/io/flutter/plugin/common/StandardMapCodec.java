@@ -0,0 +1,379 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugin.common;
+
+import static io.flutter.plugin.common.StandardMessageCodec.DOUBLE;
+import static io.flutter.plugin.common.StandardMessageCodec.FALSE;
+import static io.flutter.plugin.common.StandardMessageCodec.INT;
+import static io.flutter.plugin.common.StandardMessageCodec.LONG;
+import static io.flutter.plugin.common.StandardMessageCodec.MAP;
+import static io.flutter.plugin.common.StandardMessageCodec.NULL;
+import static io.flutter.plugin.common.StandardMessageCodec.STRING;
+import static io.flutter.plugin.common.StandardMessageCodec.TRUE;
+import static io.flutter.plugin.common.StandardMessageCodec.UTF8;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import io.flutter.plugin.common.StandardMessageCodec.ExposedByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * A {@link MessageCodec} for a Java data class that is sent as a map from field names to field
+ * values, in the format of {@link StandardMessageCodec}. On the Dart side, messages are a {@code
+ * Map<String, Object?>} decoded by the {@code StandardMessageCodec}.
+ *
+ * <p>Fields are written from, and read into, the data class directly instead of through a {@code
+ * Map}, and numbers and booleans are read without boxing them. Other field values are written and
+ * read by a {@link StandardMessageCodec}.
+ *
+ * <p>Subclasses declare the names of the fields, write every field of a value in {@link
+ * #writeFields(FieldWriter, Object)} in the declared order, and create a value from the fields of
+ * a message in {@link #readFields(FieldReader)}. Every declared field must be in a message, unless
+ * it is declared with {@link #declareOptionalFields(String...)}. A message whose keys or values
+ * don't match the declared fields fails to decode with an {@link IllegalArgumentException}, rather
+ * than producing a value with missing or wrong fields.
+ */
+public abstract class StandardMapCodec<T> implements MessageCodec<T> {
+  @NonNull private final StandardMessageCodec valueCodec;
+  @NonNull private final String[] fieldNames;
+  // The UTF-8 encoding of each field name.
+  @NonNull private final byte[][] encodedFieldNames;
+  // Whether each field can be missing from a message.
+  @NonNull private final boolean[] isOptional;
+
+  /** Creates a codec for the given fields, whose other values use the standard types. */
+  protected StandardMapCodec(@NonNull String... fieldNames) {
+    this(StandardMessageCodec.INSTANCE, fieldNames);
+  }
+
+  /**
+   * Creates a codec for the given fields, whose values that aren't numbers, booleans or strings
+   * are written and read by {@code valueCodec}.
+   */
+  protected StandardMapCodec(
+      @NonNull StandardMessageCodec valueCodec, @NonNull String... fieldNames) {
+    this.valueCodec = valueCodec;
+    this.fieldNames = fieldNames.clone();
+    encodedFieldNames = new byte[fieldNames.length][];
+    isOptional = new boolean[fieldNames.length];
+    for (int i = 0; i < fieldNames.length; i++) {
+      for (int j = 0; j < i; j++) {
+        if (fieldNames[j].equals(fieldNames[i])) {
+          throw new IllegalArgumentException("Duplicate field: " + fieldNames[i]);
+        }
+      }
+      encodedFieldNames[i] = fieldNames[i].getBytes(UTF8);
+    }
+  }
+
+  /**
+   * Declares fields that can be missing from a message, which {@link FieldReader#has(String)}
+   * tells. Subclasses call this from their constructor. Values are still encoded with every field.
+   */
+  protected final void declareOptionalFields(@NonNull String... fieldNames) {
+    for (String fieldName : fieldNames) {
+      isOptional[getFieldIndex(fieldName)] = true;
+    }
+  }
+
+  /** Writes every field of {@code value} to {@code writer}, in the declared order. */
+  protected abstract void writeFields(@NonNull FieldWriter writer, @NonNull T value);
+
+  /** Creates a value from the fields of a message. */
+  @NonNull
+  protected abstract T readFields(@NonNull FieldReader reader);
+
+  @Override
+  @Nullable
+  public ByteBuffer encodeMessage(@Nullable T message) {
+    if (message == null) {
+      return null;
+    }
+    final ExposedByteArrayOutputStream stream = new ExposedByteArrayOutputStream();
+    stream.write(MAP);
+    StandardMessageCodec.writeSize(stream, fieldNames.length);
+    final FieldWriter writer = new FieldWriter(stream);
+    writeFields(writer, message);
+    if (writer.fieldIndex != fieldNames.length) {
+      throw new IllegalStateException(
+          "Wrote " + writer.fieldIndex + " of the " + fieldNames.length + " fields");
+    }
+    final ByteBuffer buffer = ByteBuffer.allocateDirect(stream.size());
+    buffer.put(stream.buffer(), 0, stream.size());
+    return buffer;
+  }
+
+  @Override
+  @Nullable
+  public T decodeMessage(@Nullable ByteBuffer message) {
+    if (message == null) {
+      return null;
+    }
+    message.order(ByteOrder.nativeOrder());
+    if (!message.hasRemaining() || message.get() != MAP) {
+      throw new IllegalArgumentException("Message is not a map");
+    }
+    final int size = StandardMessageCodec.readSize(message);
+    final FieldReader reader = new FieldReader();
+    for (int i = 0; i < size; i++) {
+      final int fieldIndex = readFieldIndex(message);
+      if (reader.isPresent[fieldIndex]) {
+        throw new IllegalArgumentException("Duplicate field: " + fieldNames[fieldIndex]);
+      }
+      reader.readField(fieldIndex, message);
+    }
+    // The subclass may not read every field, so they are checked here.
+    for (int i = 0; i < fieldNames.length; i++) {
+      if (!reader.isPresent[i] && !isOptional[i]) {
+        throw new IllegalArgumentException("Missing field: " + fieldNames[i]);
+      }
+    }
+    final T value = readFields(reader);
+    if (message.hasRemaining()) {
+      throw new IllegalArgumentException("Message corrupted");
+    }
+    return value;
+  }
+
+  // Reads a key of the message, and returns the index of its field without decoding it.
+  private int readFieldIndex(@NonNull ByteBuffer buffer) {
+    if (!buffer.hasRemaining() || buffer.get() != STRING) {
+      throw new IllegalArgumentException("Field names must be strings");
+    }
+    final int length = StandardMessageCodec.readSize(buffer);
+    final int position = buffer.position();
+    if (length > buffer.remaining()) {
+      throw new IllegalArgumentException("Message corrupted");
+    }
+    buffer.position(position + length);
+    for (int i = 0; i < encodedFieldNames.length; i++) {
+      final byte[] name = encodedFieldNames[i];
+      if (name.length != length) {
+        continue;
+      }
+      int j = 0;
+      while (j < length && buffer.get(position + j) == name[j]) {
+        j++;
+      }
+      if (j == length) {
+        return i;
+      }
+    }
+    final byte[] name = new byte[length];
+    for (int j = 0; j < length; j++) {
+      name[j] = buffer.get(position + j);
+    }
+    throw new IllegalArgumentException("Unknown field: " + new String(name, UTF8));
+  }
+
+  private int getFieldIndex(@NonNull String fieldName) {
+    for (int i = 0; i < fieldNames.length; i++) {
+      if (fieldNames[i].equals(fieldName)) {
+        return i;
+      }
+    }
+    throw new IllegalArgumentException("Undeclared field: " + fieldName);
+  }
+
+  /** Writes the fields of a value, in the declared order. */
+  public final class FieldWriter {
+    @NonNull private final ExposedByteArrayOutputStream stream;
+    private int fieldIndex = 0;
+
+    private FieldWriter(@NonNull ExposedByteArrayOutputStream stream) {
+      this.stream = stream;
+    }
+
+    public void writeInt(@NonNull String fieldName, int value) {
+      writeFieldName(fieldName);
+      stream.write(INT);
+      StandardMessageCodec.writeInt(stream, value);
+    }
+
+    public void writeLong(@NonNull String fieldName, long value) {
+      writeFieldName(fieldName);
+      stream.write(LONG);
+      StandardMessageCodec.writeLong(stream, value);
+    }
+
+    public void writeDouble(@NonNull String fieldName, double value) {
+      writeFieldName(fieldName);
+      stream.write(DOUBLE);
+      StandardMessageCodec.writeAlignment(stream, 8);
+      StandardMessageCodec.writeDouble(stream, value);
+    }
+
+    public void writeBoolean(@NonNull String fieldName, boolean value) {
+      writeFieldName(fieldName);
+      stream.write(value ? TRUE : FALSE);
+    }
+
+    public void writeString(@NonNull String fieldName, @Nullable String value) {
+      writeFieldName(fieldName);
+      if (value == null) {
+        stream.write(NULL);
+        return;
+      }
+      stream.write(STRING);
+      StandardMessageCodec.writeBytes(stream, value.getBytes(UTF8));
+    }
+
+    /** Writes a value that the codec's {@link StandardMessageCodec} supports. */
+    public void writeValue(@NonNull String fieldName, @Nullable Object value) {
+      writeFieldName(fieldName);
+      valueCodec.writeNestedValue(stream, value);
+    }
+
+    private void writeFieldName(@NonNull String fieldName) {
+      if (fieldIndex == fieldNames.length || !fieldNames[fieldIndex].equals(fieldName)) {
+        throw new IllegalStateException(
+            "Field "
+                + fieldName
+                + " is written out of order, "
+                + (fieldIndex == fieldNames.length
+                    ? "after the last field"
+                    : "instead of " + fieldNames[fieldIndex]));
+      }
+      stream.write(STRING);
+      StandardMessageCodec.writeBytes(stream, encodedFieldNames[fieldIndex]);
+      fieldIndex++;
+    }
+  }
+
+  /** Reads the fields of a message. */
+  public final class FieldReader {
+    @NonNull private final boolean[] isPresent;
+    // The type byte of each field.
+    @NonNull private final byte[] types;
+    // The value of each number and boolean field, as the bits of a long.
+    @NonNull private final long[] primitives;
+    // The value of each other field.
+    @NonNull private final Object[] objects;
+
+    private FieldReader() {
+      isPresent = new boolean[fieldNames.length];
+      types = new byte[fieldNames.length];
+      primitives = new long[fieldNames.length];
+      objects = new Object[fieldNames.length];
+    }
+
+    private void readField(int fieldIndex, @NonNull ByteBuffer buffer) {
+      if (!buffer.hasRemaining()) {
+        throw new IllegalArgumentException("Message corrupted");
+      }
+      final byte type = buffer.get();
+      isPresent[fieldIndex] = true;
+      types[fieldIndex] = type;
+      switch (type) {
+        case NULL:
+          break;
+        case TRUE:
+          primitives[fieldIndex] = 1;
+          break;
+        case FALSE:
+          primitives[fieldIndex] = 0;
+          break;
+        case INT:
+          primitives[fieldIndex] = buffer.getInt();
+          break;
+        case LONG:
+          primitives[fieldIndex] = buffer.getLong();
+          break;
+        case DOUBLE:
+          StandardMessageCodec.readAlignment(buffer, 8);
+          primitives[fieldIndex] = buffer.getLong();
+          break;
+        default:
+          // Let the value codec read the type byte again.
+          buffer.position(buffer.position() - 1);
+          objects[fieldIndex] = valueCodec.readNestedValue(buffer);
+          break;
+      }
+    }
+
+    /** Returns whether the message has the given field, which is only unknown for optional ones. */
+    public boolean has(@NonNull String fieldName) {
+      return isPresent[getFieldIndex(fieldName)];
+    }
+
+    /** Returns whether the given field is missing from the message, or null. */
+    public boolean isNull(@NonNull String fieldName) {
+      final int fieldIndex = getFieldIndex(fieldName);
+      return !isPresent[fieldIndex] || types[fieldIndex] == NULL;
+    }
+
+    public int getInt(@NonNull String fieldName) {
+      final int fieldIndex = getFieldIndex(fieldName);
+      checkType(fieldIndex, "an int", INT, INT);
+      return (int) primitives[fieldIndex];
+    }
+
+    /** Returns the value of a field that Dart sent as an int, of either size. */
+    public long getLong(@NonNull String fieldName) {
+      final int fieldIndex = getFieldIndex(fieldName);
+      checkType(fieldIndex, "an int", INT, LONG);
+      return primitives[fieldIndex];
+    }
+
+    public double getDouble(@NonNull String fieldName) {
+      final int fieldIndex = getFieldIndex(fieldName);
+      checkType(fieldIndex, "a double", DOUBLE, DOUBLE);
+      return Double.longBitsToDouble(primitives[fieldIndex]);
+    }
+
+    public boolean getBoolean(@NonNull String fieldName) {
+      final int fieldIndex = getFieldIndex(fieldName);
+      checkType(fieldIndex, "a bool", TRUE, FALSE);
+      return primitives[fieldIndex] != 0;
+    }
+
+    /** Returns the value of a string field, or null if it's null. */
+    @Nullable
+    public String getString(@NonNull String fieldName) {
+      final int fieldIndex = getFieldIndex(fieldName);
+      checkType(fieldIndex, "a String", STRING, NULL);
+      return (String) objects[fieldIndex];
+    }
+
+    /**
+     * Returns the value of a field as {@link StandardMessageCodec} would decode it, or null if
+     * it's null.
+     */
+    @Nullable
+    public Object getValue(@NonNull String fieldName) {
+      final int fieldIndex = getFieldIndex(fieldName);
+      if (!isPresent[fieldIndex]) {
+        throw new IllegalArgumentException("Missing field: " + fieldName);
+      }
+      switch (types[fieldIndex]) {
+        case TRUE:
+        case FALSE:
+          return primitives[fieldIndex] != 0;
+        case INT:
+          return (int) primitives[fieldIndex];
+        case LONG:
+          return primitives[fieldIndex];
+        case DOUBLE:
+          return Double.longBitsToDouble(primitives[fieldIndex]);
+        default:
+          return objects[fieldIndex];
+      }
+    }
+
+    private void checkType(
+        int fieldIndex, @NonNull String typeName, byte allowedType, byte otherAllowedType) {
+      if (!isPresent[fieldIndex]) {
+        throw new IllegalArgumentException("Missing field: " + fieldNames[fieldIndex]);
+      }
+      final byte type = types[fieldIndex];
+      if (type == allowedType || type == otherAllowedType) {
+        return;
+      }
+      throw new IllegalArgumentException(
+          "Field " + fieldNames[fieldIndex] + " is not " + typeName + ", its type is " + type);
+    }
+  }
+}
@@ -4,6 +4,8 @@
 
 package io.flutter.plugin.common;
 
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import io.flutter.BuildConfig;
 import io.flutter.Log;
 import java.io.ByteArrayOutputStream;
@@ -13,9 +15,11 @@ import java.nio.ByteOrder;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * MessageCodec using the Flutter standard binary encoding.
@@ -58,12 +62,185 @@ import java.util.Map.Entry;
  * <p>BigIntegers are represented in Dart as strings with the hexadecimal representation of the
  * integer's value.
  *
- * <p>To extend the codec, overwrite the writeValue and readValueOfType methods.
+ * <p>To extend the codec, register a {@link ValueWriter} and a {@link ValueReader} for each custom
+ * type with {@link #registerType(int, Class, ValueWriter, ValueReader)}, or overwrite the
+ * writeValue and readValueOfType methods.
  */
 public class StandardMessageCodec implements MessageCodec<Object> {
   private static final String TAG = "StandardMessageCodec#";
   public static final StandardMessageCodec INSTANCE = new StandardMessageCodec();
 
+  /**
+   * Writes the values of a type registered with {@link #registerType(int, Class, ValueWriter,
+   * ValueReader)}.
+   */
+  public interface ValueWriter<T> {
+    /**
+     * Writes a byte serialization of {@code value} to {@code stream}, after its type byte.
+     *
+     * <p>Nested values are written with {@link #writeNestedValue(ByteArrayOutputStream, Object)}.
+     */
+    void write(
+        @NonNull StandardMessageCodec codec,
+        @NonNull ByteArrayOutputStream stream,
+        @NonNull T value);
+  }
+
+  /**
+   * Reads the values of a type registered with {@link #registerType(int, Class, ValueWriter,
+   * ValueReader)}.
+   */
+  public interface ValueReader<T> {
+    /**
+     * Reads a value as written by the {@link ValueWriter} of its type, after its type byte.
+     *
+     * <p>Nested values are read with {@link #readNestedValue(ByteBuffer)}.
+     */
+    @Nullable
+    T read(@NonNull StandardMessageCodec codec, @NonNull ByteBuffer buffer);
+  }
+
+  private static final class Registration {
+    final byte type;
+    @NonNull final Class<?> valueClass;
+    @NonNull final ValueWriter<Object> writer;
+    @NonNull final ValueReader<?> reader;
+
+    Registration(
+        byte type,
+        @NonNull Class<?> valueClass,
+        @NonNull ValueWriter<Object> writer,
+        @NonNull ValueReader<?> reader) {
+      this.type = type;
+      this.valueClass = valueClass;
+      this.writer = writer;
+      this.reader = reader;
+    }
+  }
+
+  // Caches that a class has no registered writer.
+  private static final Registration NO_REGISTRATION =
+      new Registration(
+          (byte) 0, Object.class, (codec, stream, value) -> {}, (codec, buffer) -> null);
+
+  // Keyed by the registered class, in the order of registration. Guarded by itself.
+  private final Map<Class<?>, Registration> registrations = new LinkedHashMap<>();
+  // The registration that handles each class that was written, which is the one of the class
+  // itself or else the first registered superclass or interface.
+  private final Map<Class<?>, Registration> registrationsByValueClass = new ConcurrentHashMap<>();
+  // Indexed by type byte.
+  private volatile Registration[] registrationsByType;
+
+  // The classes of the values that the standard types handle.
+  private static final Class<?>[] STANDARD_VALUE_CLASSES = {
+    Boolean.class,
+    Number.class,
+    CharSequence.class,
+    byte[].class,
+    int[].class,
+    long[].class,
+    double[].class,
+    float[].class,
+    List.class,
+    Map.class
+  };
+
+  /**
+   * Registers how to write values of {@code valueClass}, and of its subclasses, as the given type
+   * byte, and how to read that type byte.
+   *
+   * <p>A value whose class isn't registered is written by the registration of its first
+   * registered superclass or interface, in the order of registration. Values of the standard types
+   * are always written as such, so a class can't be registered if it is, extends, or is a
+   * superclass or interface of one of them, such as {@link String}, {@link List}, {@link Map} or
+   * {@link Object}.
+   *
+   * <p>Subclasses that overwrite writeValue and readValueOfType must call super for the registered
+   * types to be handled.
+   *
+   * @param type the type byte of the values, from 128 to 255, as the smaller ones are reserved for
+   *     the standard types.
+   * @throws IllegalArgumentException if the type byte or the class is already registered, or if
+   *     the class overlaps a standard type.
+   * @throws IllegalStateException if called on {@link #INSTANCE}, which is shared. Types are
+   *     registered on a codec of their own.
+   */
+  public final <T> void registerType(
+      int type,
+      @NonNull Class<T> valueClass,
+      @NonNull ValueWriter<? super T> writer,
+      @NonNull ValueReader<? extends T> reader) {
+    if (this == INSTANCE) {
+      throw new IllegalStateException(
+          "Types can't be registered on StandardMessageCodec.INSTANCE, which is shared");
+    }
+    if (type < 128 || type > 255) {
+      throw new IllegalArgumentException("The type byte must be from 128 to 255, got " + type);
+    }
+    for (Class<?> standardClass : STANDARD_VALUE_CLASSES) {
+      if (standardClass.isAssignableFrom(valueClass)
+          || valueClass.isAssignableFrom(standardClass)) {
+        throw new IllegalArgumentException(
+            valueClass + " can't be registered, as it overlaps the standard type " + standardClass);
+      }
+    }
+    synchronized (registrations) {
+      if (registrations.containsKey(valueClass)) {
+        throw new IllegalArgumentException(valueClass + " is already registered");
+      }
+      final Registration[] byType =
+          registrationsByType == null ? new Registration[256] : registrationsByType.clone();
+      if (byType[type] != null) {
+        throw new IllegalArgumentException("Type byte " + type + " is already registered");
+      }
+      @SuppressWarnings("unchecked")
+      final Registration registration =
+          new Registration((byte) type, valueClass, (ValueWriter<Object>) writer, reader);
+      registrations.put(valueClass, registration);
+      byType[type] = registration;
+      registrationsByType = byType;
+      // The new registration may handle classes that previously fell back to another one.
+      registrationsByValueClass.clear();
+    }
+  }
+
+  /**
+   * Writes a value nested in a value of a registered type, such as one of its fields, with its
+   * type byte.
+   */
+  public final void writeNestedValue(
+      @NonNull ByteArrayOutputStream stream, @Nullable Object value) {
+    writeValue(stream, value);
+  }
+
+  /** Reads a value as written by {@link #writeNestedValue(ByteArrayOutputStream, Object)}. */
+  @Nullable
+  public final Object readNestedValue(@NonNull ByteBuffer buffer) {
+    return readValue(buffer);
+  }
+
+  @NonNull
+  private Registration getRegistration(@NonNull Class<?> valueClass) {
+    Registration registration = registrationsByValueClass.get(valueClass);
+    if (registration != null) {
+      return registration;
+    }
+    synchronized (registrations) {
+      registration = registrations.get(valueClass);
+      if (registration == null) {
+        registration = NO_REGISTRATION;
+        for (Registration candidate : registrations.values()) {
+          if (candidate.valueClass.isAssignableFrom(valueClass)) {
+            registration = candidate;
+            break;
+          }
+        }
+      }
+      registrationsByValueClass.put(valueClass, registration);
+    }
+    return registration;
+  }
+
   @Override
   public ByteBuffer encodeMessage(Object message) {
     if (message == null) {
@@ -90,22 +267,23 @@ public class StandardMessageCodec implements MessageCodec<Object> {
   }
 
   private static final boolean LITTLE_ENDIAN = ByteOrder.nativeOrder() == ByteOrder.LITTLE_ENDIAN;
-  private static final Charset UTF8 = Charset.forName("UTF8");
-  private static final byte NULL = 0;
-  private static final byte TRUE = 1;
-  private static final byte FALSE = 2;
-  private static final byte INT = 3;
-  private static final byte LONG = 4;
-  private static final byte BIGINT = 5;
-  private static final byte DOUBLE = 6;
-  private static final byte STRING = 7;
-  private static final byte BYTE_ARRAY = 8;
-  private static final byte INT_ARRAY = 9;
-  private static final byte LONG_ARRAY = 10;
-  private static final byte DOUBLE_ARRAY = 11;
-  private static final byte LIST = 12;
-  private static final byte MAP = 13;
-  private static final byte FLOAT_ARRAY = 14;
+  // The wire format, which StandardMapCodec shares.
+  static final Charset UTF8 = Charset.forName("UTF8");
+  static final byte NULL = 0;
+  static final byte TRUE = 1;
+  static final byte FALSE = 2;
+  static final byte INT = 3;
+  static final byte LONG = 4;
+  static final byte BIGINT = 5;
+  static final byte DOUBLE = 6;
+  static final byte STRING = 7;
+  static final byte BYTE_ARRAY = 8;
+  static final byte INT_ARRAY = 9;
+  static final byte LONG_ARRAY = 10;
+  static final byte DOUBLE_ARRAY = 11;
+  static final byte LIST = 12;
+  static final byte MAP = 13;
+  static final byte FLOAT_ARRAY = 14;
 
   /**
    * Writes an int representing a size to the specified stream. Uses an expanding code of 1 to 5
@@ -215,7 +393,17 @@ public class StandardMessageCodec implements MessageCodec<Object> {
   protected void writeValue(ByteArrayOutputStream stream, Object value) {
     if (value == null || value.equals(null)) {
       stream.write(NULL);
-    } else if (value instanceof Boolean) {
+      return;
+    }
+    if (registrationsByType != null) {
+      final Registration registration = getRegistration(value.getClass());
+      if (registration != NO_REGISTRATION) {
+        stream.write(registration.type);
+        registration.writer.write(this, stream, value);
+        return;
+      }
+    }
+    if (value instanceof Boolean) {
       stream.write(((Boolean) value).booleanValue() ? TRUE : FALSE);
     } else if (value instanceof Number) {
       if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
@@ -439,7 +627,15 @@ public class StandardMessageCodec implements MessageCodec<Object> {
           break;
         }
       default:
-        throw new IllegalArgumentException("Message corrupted");
+        {
+          final Registration[] byType = registrationsByType;
+          final Registration registration = byType == null ? null : byType[type & 0xff];
+          if (registration == null) {
+            throw new IllegalArgumentException("Message corrupted");
+          }
+          result = registration.reader.read(this, buffer);
+          break;
+        }
     }
     return result;
   }
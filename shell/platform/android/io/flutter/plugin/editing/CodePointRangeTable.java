@@ -0,0 +1,56 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugin.editing;
+
+import androidx.annotation.NonNull;
+
+/**
+ * An immutable set of code points, stored as sorted inclusive ranges.
+ *
+ * <p>Used by {@link FlutterTextUtils} to answer Unicode property queries in Java, with a binary
+ * search over the ranges instead of a JNI call per code point.
+ */
+final class CodePointRangeTable {
+  // Sorted, non-overlapping ranges, stored as [start0, end0, start1, end1, ...]. Ends are
+  // inclusive.
+  @NonNull private final int[] ranges;
+
+  /**
+   * Creates a table from the given ranges, stored as [start0, end0, start1, end1, ...] with
+   * inclusive ends.
+   *
+   * @throws IllegalArgumentException if the ranges are not sorted and non-overlapping.
+   */
+  CodePointRangeTable(@NonNull int[] ranges) {
+    if (ranges.length % 2 != 0) {
+      throw new IllegalArgumentException("Ranges must have an even length.");
+    }
+    for (int i = 0; i < ranges.length; i += 2) {
+      if (ranges[i] > ranges[i + 1] || (i > 0 && ranges[i] <= ranges[i - 1])) {
+        throw new IllegalArgumentException("Ranges must be sorted and must not overlap.");
+      }
+    }
+    this.ranges = ranges;
+  }
+
+  boolean contains(int codePoint) {
+    final int rangeCount = ranges.length / 2;
+    if (rangeCount == 0 || codePoint < ranges[0] || codePoint > ranges[ranges.length - 1]) {
+      return false;
+    }
+    // Find the last range that starts at or before the code point.
+    int low = 0;
+    int high = rangeCount - 1;
+    while (low < high) {
+      final int mid = (low + high + 1) >>> 1;
+      if (ranges[mid * 2] <= codePoint) {
+        low = mid;
+      } else {
+        high = mid - 1;
+      }
+    }
+    return codePoint <= ranges[low * 2 + 1];
+  }
+}
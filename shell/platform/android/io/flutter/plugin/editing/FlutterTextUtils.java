@@ -4,7 +4,10 @@
 
 package io.flutter.plugin.editing;
 
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
 import io.flutter.embedding.engine.FlutterJNI;
+import java.util.Arrays;
 
 class FlutterTextUtils {
   public static final int LINE_FEED = 0x0A;
@@ -12,30 +15,92 @@ class FlutterTextUtils {
   public static final int COMBINING_ENCLOSING_KEYCAP = 0x20E3;
   public static final int CANCEL_TAG = 0xE007F;
   public static final int ZERO_WIDTH_JOINER = 0x200D;
+
+  // The Unicode properties that can be loaded with
+  // FlutterJNI#nativeFlutterTextUtilsGetPropertyRanges.
+  static final int PROPERTY_EMOJI = 0;
+  static final int PROPERTY_EMOJI_MODIFIER = 1;
+  static final int PROPERTY_EMOJI_MODIFIER_BASE = 2;
+  static final int PROPERTY_VARIATION_SELECTOR = 3;
+  static final int PROPERTY_REGIONAL_INDICATOR = 4;
+  private static final int PROPERTY_COUNT = 5;
+
   private final FlutterJNI flutterJNI;
 
+  // The code points of each property, loaded from the ICU data the first time the property is
+  // queried, so that stepping over a grapheme doesn't make a JNI call per code point. The tables
+  // only depend on the ICU data, so they are shared by every instance rather than loaded again for
+  // each input connection. Tables are immutable, so loaded ones are read without locking.
+  private static final CodePointRangeTable[] propertyTables =
+      new CodePointRangeTable[PROPERTY_COUNT];
+
+  // The properties this instance failed to load a table for. These fall back to a JNI call per
+  // code point, and are loaded again by the next instance.
+  private int failedPropertyMask = 0;
+
   public FlutterTextUtils(FlutterJNI flutterJNI) {
     this.flutterJNI = flutterJNI;
   }
 
   public boolean isEmoji(int codePoint) {
-    return flutterJNI.nativeFlutterTextUtilsIsEmoji(codePoint);
+    final CodePointRangeTable table = getPropertyTable(PROPERTY_EMOJI);
+    return table != null
+        ? table.contains(codePoint)
+        : flutterJNI.nativeFlutterTextUtilsIsEmoji(codePoint);
   }
 
   public boolean isEmojiModifier(int codePoint) {
-    return flutterJNI.nativeFlutterTextUtilsIsEmojiModifier(codePoint);
+    final CodePointRangeTable table = getPropertyTable(PROPERTY_EMOJI_MODIFIER);
+    return table != null
+        ? table.contains(codePoint)
+        : flutterJNI.nativeFlutterTextUtilsIsEmojiModifier(codePoint);
   }
 
   public boolean isEmojiModifierBase(int codePoint) {
-    return flutterJNI.nativeFlutterTextUtilsIsEmojiModifierBase(codePoint);
+    final CodePointRangeTable table = getPropertyTable(PROPERTY_EMOJI_MODIFIER_BASE);
+    return table != null
+        ? table.contains(codePoint)
+        : flutterJNI.nativeFlutterTextUtilsIsEmojiModifierBase(codePoint);
   }
 
   public boolean isVariationSelector(int codePoint) {
-    return flutterJNI.nativeFlutterTextUtilsIsVariationSelector(codePoint);
+    final CodePointRangeTable table = getPropertyTable(PROPERTY_VARIATION_SELECTOR);
+    return table != null
+        ? table.contains(codePoint)
+        : flutterJNI.nativeFlutterTextUtilsIsVariationSelector(codePoint);
   }
 
   public boolean isRegionalIndicatorSymbol(int codePoint) {
-    return flutterJNI.nativeFlutterTextUtilsIsRegionalIndicator(codePoint);
+    final CodePointRangeTable table = getPropertyTable(PROPERTY_REGIONAL_INDICATOR);
+    return table != null
+        ? table.contains(codePoint)
+        : flutterJNI.nativeFlutterTextUtilsIsRegionalIndicator(codePoint);
+  }
+
+  @Nullable
+  private CodePointRangeTable getPropertyTable(int property) {
+    final CodePointRangeTable table = propertyTables[property];
+    if (table != null || (failedPropertyMask & (1 << property)) != 0) {
+      return table;
+    }
+    synchronized (propertyTables) {
+      if (propertyTables[property] == null) {
+        final int[] ranges = flutterJNI.nativeFlutterTextUtilsGetPropertyRanges(property);
+        if (ranges == null) {
+          failedPropertyMask |= 1 << property;
+          return null;
+        }
+        propertyTables[property] = new CodePointRangeTable(ranges);
+      }
+      return propertyTables[property];
+    }
+  }
+
+  @VisibleForTesting
+  static void clearPropertyTables() {
+    synchronized (propertyTables) {
+      Arrays.fill(propertyTables, null);
+    }
   }
 
   public boolean isTagSpecChar(int codePoint) {
@@ -22,6 +22,9 @@ import java.util.ArrayList;
 ///
 /// Adding/removing listeners or changing the editing state in a didChangeEditingState callback may
 /// cause unexpected behavior.
+///
+/// When the delta model is enabled, text changes are also recorded as TextEditingDeltas, which
+/// listeners can extract to send the changes without sending the whole text.
 //
 // Currently this class does not notify its listeners on spans-only changes (e.g.,
 // Selection.setSelection). Wrap them in a batch edit to trigger a change notification.
@@ -50,6 +53,9 @@ class ListenableEditingState extends SpannableStringBuilder {
   private int mComposingStartWhenBeginBatchEdit;
   private int mComposingEndWhenBeginBatchEdit;
 
+  private boolean mDeltaModelEnabled;
+  private ArrayList<TextInputChannel.TextEditingDelta> mBatchTextEditingDeltas = new ArrayList<>();
+
   private BaseInputConnection mDummyConnection;
 
   // The View is only used for creating a dummy BaseInputConnection for setComposingRegion. The View
@@ -146,6 +152,21 @@ class ListenableEditingState extends SpannableStringBuilder {
     endBatchEdit();
   }
 
+  /// Sets whether text changes are recorded as TextEditingDeltas.
+  public void setDeltaModelEnabled(boolean enabled) {
+    mDeltaModelEnabled = enabled;
+    if (!enabled) {
+      mBatchTextEditingDeltas.clear();
+    }
+  }
+
+  /// Returns the text changes recorded since the last call, and clears them.
+  public ArrayList<TextInputChannel.TextEditingDelta> extractBatchTextEditingDeltas() {
+    final ArrayList<TextInputChannel.TextEditingDelta> deltas = mBatchTextEditingDeltas;
+    mBatchTextEditingDeltas = new ArrayList<>();
+    return deltas;
+  }
+
   public void addEditingStateListener(EditingStateWatcher listener) {
     if (mChangeNotificationDepth > 0) {
       Log.e(TAG, "adding a listener " + listener.toString() + " in a listener callback");
@@ -183,6 +204,8 @@ class ListenableEditingState extends SpannableStringBuilder {
     for (int i = 0; i < end - start && !textChanged; i++) {
       textChanged |= charAt(start + i) != tb.charAt(tbstart + i);
     }
+    // The framework applies each delta to the text it replaces, so the delta carries that text.
+    final String oldText = textChanged && mDeltaModelEnabled ? toString() : null;
     if (textChanged) {
       mToStringCache = null;
     }
@@ -193,6 +216,18 @@ class ListenableEditingState extends SpannableStringBuilder {
     final int composingEnd = getComposingEnd();
 
     final SpannableStringBuilder editable = super.replace(start, end, tb, tbstart, tbend);
+    if (oldText != null) {
+      mBatchTextEditingDeltas.add(
+          new TextInputChannel.TextEditingDelta(
+              oldText,
+              tb.subSequence(tbstart, tbend).toString(),
+              start,
+              end,
+              getSelectionStart(),
+              getSelectionEnd(),
+              getComposingStart(),
+              getComposingEnd()));
+    }
     if (mBatchEditNestDepth > 0) {
       return editable;
     }
@@ -30,6 +30,7 @@ import io.flutter.embedding.android.KeyboardManager;
 import io.flutter.embedding.engine.systemchannels.TextInputChannel;
 import io.flutter.embedding.engine.systemchannels.TextInputChannel.TextEditState;
 import io.flutter.plugin.platform.PlatformViewsController;
+import java.util.ArrayList;
 import java.util.HashMap;
 
 /** Android implementation of the text input plugin. */
@@ -43,6 +44,9 @@ public class TextInputPlugin implements ListenableEditingState.EditingStateWatch
   @NonNull private InputTarget inputTarget = new InputTarget(InputTarget.Type.NO_TARGET, 0);
   @Nullable private TextInputChannel.Configuration configuration;
   @Nullable private SparseArray<TextInputChannel.Configuration> mAutofillConfigurations;
+  // The values the autofill manager knows, keyed by autofill id. The autofill manager is only
+  // notified of the fields whose values changed since they were last reported.
+  @NonNull private final SparseArray<String> mAutofillReportedValues = new SparseArray<>();
   @Nullable private ListenableEditingState mEditable;
   private boolean mRestartInputPending;
   @Nullable private InputConnection lastInputConnection;
@@ -52,6 +56,8 @@ public class TextInputPlugin implements ListenableEditingState.EditingStateWatch
 
   // Initialize the "last seen" text editing values to a non-null value.
   private TextEditState mLastKnownFrameworkTextEditingState;
+  // Whether mEditable is being updated with the editing state sent by the framework.
+  private boolean mIsApplyingFrameworkTextEditingState = false;
 
   // When true following calls to createInputConnection will return the cached lastInputConnection
   // if the input
@@ -124,6 +130,7 @@ public class TextInputPlugin implements ListenableEditingState.EditingStateWatch
             } else {
               afm.cancel();
             }
+            onAutofillSessionFinished();
           }
 
           @Override
@@ -217,6 +224,7 @@ public class TextInputPlugin implements ListenableEditingState.EditingStateWatch
     platformViewsController.detachTextInputPlugin();
     textInputChannel.setTextInputMethodHandler(null);
     notifyViewExited();
+    onAutofillSessionFinished();
     if (mEditable != null) {
       mEditable.removeEditingStateListener(this);
     }
@@ -420,6 +428,7 @@ public class TextInputPlugin implements ListenableEditingState.EditingStateWatch
     mEditable =
         new ListenableEditingState(
             configuration.autofill != null ? configuration.autofill.editState : null, mView);
+    mEditable.setDeltaModelEnabled(configuration.enableDeltaModel);
     updateAutofillConfigurationIfNeeded(configuration);
 
     // setTextInputClient will be followed by a call to setTextInputEditingState.
@@ -447,13 +456,16 @@ public class TextInputPlugin implements ListenableEditingState.EditingStateWatch
   }
 
   private static boolean composingChanged(
-      TextInputChannel.TextEditState before, TextInputChannel.TextEditState after) {
-    final int composingRegionLength = before.composingEnd - before.composingStart;
+      CharSequence beforeText,
+      int beforeComposingStart,
+      int beforeComposingEnd,
+      TextInputChannel.TextEditState after) {
+    final int composingRegionLength = beforeComposingEnd - beforeComposingStart;
     if (composingRegionLength != after.composingEnd - after.composingStart) {
       return true;
     }
     for (int index = 0; index < composingRegionLength; index++) {
-      if (before.text.charAt(index + before.composingStart)
+      if (beforeText.charAt(index + beforeComposingStart)
           != after.text.charAt(index + after.composingStart)) {
         return true;
       }
@@ -465,21 +477,39 @@ public class TextInputPlugin implements ListenableEditingState.EditingStateWatch
   // latest TextEditState from the framework.
   @VisibleForTesting
   void setTextInputEditingState(View view, TextInputChannel.TextEditState state) {
-    if (!mRestartInputPending
+    if (isDeltaModelEnabled() && mLastKnownFrameworkTextEditingState != null) {
+      // The framework applied every delta sent so far, so the editable is the editing state it
+      // last knew about. Only its composing region is compared, to avoid copying the whole text.
+      final int composingStart = mEditable.getComposingStart();
+      final int composingEnd = mEditable.getComposingEnd();
+      if (!mRestartInputPending && composingStart >= 0 && composingEnd > composingStart) {
+        mRestartInputPending = composingChanged(mEditable, composingStart, composingEnd, state);
+        if (mRestartInputPending) {
+          Log.i(TAG, "Composing region changed by the framework. Restarting the input method.");
+        }
+      }
+    } else if (!mRestartInputPending
         && mLastKnownFrameworkTextEditingState != null
         && mLastKnownFrameworkTextEditingState.hasComposing()) {
       // Also restart input if the framework (or the developer) decides to
       // change the composing region by itself (which is discouraged). Many IMEs
       // don't expect editors to commit composing text, so a restart is needed
       // to reset their internal states.
-      mRestartInputPending = composingChanged(mLastKnownFrameworkTextEditingState, state);
+      mRestartInputPending =
+          composingChanged(
+              mLastKnownFrameworkTextEditingState.text,
+              mLastKnownFrameworkTextEditingState.composingStart,
+              mLastKnownFrameworkTextEditingState.composingEnd,
+              state);
       if (mRestartInputPending) {
         Log.i(TAG, "Composing region changed by the framework. Restarting the input method.");
       }
     }
 
     mLastKnownFrameworkTextEditingState = state;
+    mIsApplyingFrameworkTextEditingState = true;
     mEditable.setEditingState(state);
+    mIsApplyingFrameworkTextEditingState = false;
 
     // Restart if needed. Restarting will also update the selection.
     if (mRestartInputPending) {
@@ -488,6 +518,10 @@ public class TextInputPlugin implements ListenableEditingState.EditingStateWatch
     }
   }
 
+  private boolean isDeltaModelEnabled() {
+    return configuration != null && configuration.enableDeltaModel;
+  }
+
   private interface MinMax {
     void inspect(double x, double y);
   }
@@ -617,7 +651,12 @@ public class TextInputPlugin implements ListenableEditingState.EditingStateWatch
       boolean textChanged, boolean selectionChanged, boolean composingRegionChanged) {
     if (textChanged) {
       // Notify the autofill manager of the value change.
-      notifyValueChanged(mEditable.toString());
+      notifyValueChanged(mEditable);
+    }
+
+    if (isDeltaModelEnabled()) {
+      sendTextEditingDeltas(selectionChanged || composingRegionChanged);
+      return;
     }
 
     final int selectionStart = mEditable.getSelectionStart();
@@ -647,6 +686,39 @@ public class TextInputPlugin implements ListenableEditingState.EditingStateWatch
     }
   }
 
+  // Sends the changes recorded by mEditable instead of the whole editing state, followed by a
+  // non-text delta if the selection or the composing region changed after the last text change.
+  private void sendTextEditingDeltas(boolean selectionOrComposingRegionChanged) {
+    final ArrayList<TextInputChannel.TextEditingDelta> deltas =
+        mEditable.extractBatchTextEditingDeltas();
+    if (mLastKnownFrameworkTextEditingState == null || mIsApplyingFrameworkTextEditingState) {
+      // The framework needs to send its editing state first, and already knows the state it sent.
+      return;
+    }
+    if (deltas.isEmpty() && !selectionOrComposingRegionChanged) {
+      return;
+    }
+
+    final int selectionStart = mEditable.getSelectionStart();
+    final int selectionEnd = mEditable.getSelectionEnd();
+    final int composingStart = mEditable.getComposingStart();
+    final int composingEnd = mEditable.getComposingEnd();
+    final TextInputChannel.TextEditingDelta lastDelta =
+        deltas.isEmpty() ? null : deltas.get(deltas.size() - 1);
+    if (lastDelta == null
+        || lastDelta.selectionStart != selectionStart
+        || lastDelta.selectionEnd != selectionEnd
+        || lastDelta.composingStart != composingStart
+        || lastDelta.composingEnd != composingEnd) {
+      // The selection or the composing region changed after the last text change.
+      deltas.add(
+          TextInputChannel.TextEditingDelta.nonText(
+              mEditable.toString(),
+              selectionStart, selectionEnd, composingStart, composingEnd));
+    }
+    textInputChannel.updateEditingStateWithDeltas(inputTarget.id, deltas);
+  }
+
   // -------- End: ListenableEditingState watcher implementation -------
 
   // -------- Start: Autofill -------
@@ -700,13 +772,28 @@ public class TextInputPlugin implements ListenableEditingState.EditingStateWatch
     afm.notifyViewExited(mView, triggerIdentifier.hashCode());
   }
 
-  private void notifyValueChanged(String newValue) {
+  private void notifyValueChanged(CharSequence newValue) {
     if (Build.VERSION.SDK_INT < Build.VERSION_CODES.O || afm == null || !needsAutofill()) {
       return;
     }
 
     final String triggerIdentifier = configuration.autofill.uniqueIdentifier;
-    afm.notifyValueChanged(mView, triggerIdentifier.hashCode(), AutofillValue.forText(newValue));
+    // Only copy the text when the autofill manager needs it.
+    notifyAutofillValueChangedIfNeeded(triggerIdentifier.hashCode(), newValue.toString());
+  }
+
+  // The next autofill session doesn't know any value, so every value has to be reported again.
+  private void onAutofillSessionFinished() {
+    mAutofillReportedValues.clear();
+  }
+
+  // Must only be called when the autofill manager is available.
+  private void notifyAutofillValueChangedIfNeeded(int autofillId, @NonNull String value) {
+    if (value.equals(mAutofillReportedValues.get(autofillId))) {
+      return;
+    }
+    mAutofillReportedValues.put(autofillId, value);
+    afm.notifyValueChanged(mView, autofillId, AutofillValue.forText(value));
   }
 
   private void updateAutofillConfigurationIfNeeded(TextInputChannel.Configuration configuration) {
@@ -717,6 +804,7 @@ public class TextInputPlugin implements ListenableEditingState.EditingStateWatch
     if (configuration == null || configuration.autofill == null) {
       // Disables autofill if the configuration doesn't have an autofill field.
       mAutofillConfigurations = null;
+      mAutofillReportedValues.clear();
       return;
     }
 
@@ -731,10 +819,8 @@ public class TextInputPlugin implements ListenableEditingState.EditingStateWatch
         TextInputChannel.Configuration.Autofill autofill = config.autofill;
         if (autofill != null) {
           mAutofillConfigurations.put(autofill.uniqueIdentifier.hashCode(), config);
-          afm.notifyValueChanged(
-              mView,
-              autofill.uniqueIdentifier.hashCode(),
-              AutofillValue.forText(autofill.editState.text));
+          notifyAutofillValueChangedIfNeeded(
+              autofill.uniqueIdentifier.hashCode(), autofill.editState.text);
         }
       }
     }
@@ -774,9 +860,11 @@ public class TextInputPlugin implements ListenableEditingState.EditingStateWatch
             lastClientRect.width(),
             lastClientRect.height());
         child.setAutofillValue(AutofillValue.forText(mEditable));
+        mAutofillReportedValues.put(autofillId, mEditable.toString());
       } else {
         child.setDimens(0, 0, 0, 0, 1, 1);
         child.setAutofillValue(AutofillValue.forText(autofill.editState.text));
+        mAutofillReportedValues.put(autofillId, autofill.editState.text);
       }
     }
   }
@@ -805,6 +893,8 @@ public class TextInputPlugin implements ListenableEditingState.EditingStateWatch
       final TextInputChannel.TextEditState newState =
           new TextInputChannel.TextEditState(value, value.length(), value.length(), -1, -1);
 
+      // The autofill manager already knows the value it provided.
+      mAutofillReportedValues.put(virtualId, value);
       if (autofill.uniqueIdentifier.equals(currentAutofill.uniqueIdentifier)) {
         // Autofilling the current client is the same as handling user input
         // from the virtual keyboard. Setting the editable to newState and an
@@ -4,6 +4,7 @@
 
 package io.flutter.plugin.localization;
 
+import android.annotation.TargetApi;
 import android.content.Context;
 import android.content.res.Configuration;
 import android.content.res.Resources;
@@ -14,56 +15,44 @@ import androidx.annotation.Nullable;
 import androidx.annotation.VisibleForTesting;
 import io.flutter.embedding.engine.systemchannels.LocalizationChannel;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 
 /** Android implementation of the localization plugin. */
 public class LocalizationPlugin {
   @NonNull private final LocalizationChannel localizationChannel;
   @NonNull private final Context context;
 
+  // Creating localized resources is expensive, so they are reused, and so are the strings that
+  // were resolved through them. Both are cleared when the configuration changes.
+  @VisibleForTesting static final int MAX_CACHED_LOCALES = 8;
+  @VisibleForTesting static final int MAX_CACHED_STRINGS = 256;
+
+  @NonNull
+  private final Map<Locale, Resources> localizedResources = new LruMap<>(MAX_CACHED_LOCALES);
+
+  // Keyed by getStringCacheKey. Strings that don't exist are cached as null.
+  @NonNull private final Map<String, String> resolvedStrings = new LruMap<>(MAX_CACHED_STRINGS);
+
+  // The last result of resolveNativeLocale, which holds as long as the preferred locales and the
+  // supported locales stay the same.
+  @Nullable private Locale resolvedLocale;
+  @Nullable private Object resolvedLocalePreferredLocales;
+  @Nullable private List<Locale> resolvedLocaleSupportedLocales;
+
   @VisibleForTesting
   final LocalizationChannel.LocalizationMessageHandler localizationMessageHandler =
       new LocalizationChannel.LocalizationMessageHandler() {
         @Override
         public String getStringResource(@NonNull String key, @Nullable String localeString) {
-          Context localContext = context;
-          String stringToReturn = null;
-          Locale savedLocale = null;
-
-          if (localeString != null) {
-            Locale locale = localeFromString(localeString);
-
-            // setLocale and createConfigurationContext is only available on API >= 17
-            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR1) {
-              Configuration config = new Configuration(context.getResources().getConfiguration());
-              config.setLocale(locale);
-              localContext = context.createConfigurationContext(config);
-            } else {
-              // In API < 17, we have to update the locale in Configuration.
-              Resources resources = context.getResources();
-              Configuration config = resources.getConfiguration();
-              savedLocale = config.locale;
-              config.locale = locale;
-              resources.updateConfiguration(config, null);
-            }
-          }
-
-          String packageName = context.getPackageName();
-          int resId = localContext.getResources().getIdentifier(key, "string", packageName);
-          if (resId != 0) {
-            // 0 means the resource is not found.
-            stringToReturn = localContext.getResources().getString(resId);
+          final String cacheKey = getStringCacheKey(key, localeString);
+          if (resolvedStrings.containsKey(cacheKey)) {
+            return resolvedStrings.get(cacheKey);
           }
-
-          // In API < 17, we had to restore the original locale after using.
-          if (localeString != null && Build.VERSION.SDK_INT < Build.VERSION_CODES.JELLY_BEAN_MR1) {
-            Resources resources = context.getResources();
-            Configuration config = resources.getConfiguration();
-            config.locale = savedLocale;
-            resources.updateConfiguration(config, null);
-          }
-
+          final String stringToReturn = loadStringResource(key, localeString);
+          resolvedStrings.put(cacheKey, stringToReturn);
           return stringToReturn;
         }
       };
@@ -76,17 +65,103 @@ public class LocalizationPlugin {
     this.localizationChannel.setLocalizationMessageHandler(localizationMessageHandler);
   }
 
+  @Nullable
+  private String loadStringResource(@NonNull String key, @Nullable String localeString) {
+    Resources resources = context.getResources();
+    String stringToReturn = null;
+    Locale savedLocale = null;
+
+    if (localeString != null) {
+      Locale locale = localeFromString(localeString);
+
+      // setLocale and createConfigurationContext is only available on API >= 17
+      if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR1) {
+        resources = getLocalizedResources(locale);
+      } else {
+        // In API < 17, we have to update the locale in Configuration.
+        Configuration config = resources.getConfiguration();
+        savedLocale = config.locale;
+        config.locale = locale;
+        resources.updateConfiguration(config, null);
+      }
+    }
+
+    String packageName = context.getPackageName();
+    int resId = resources.getIdentifier(key, "string", packageName);
+    if (resId != 0) {
+      // 0 means the resource is not found.
+      stringToReturn = resources.getString(resId);
+    }
+
+    // In API < 17, we had to restore the original locale after using.
+    if (localeString != null && Build.VERSION.SDK_INT < Build.VERSION_CODES.JELLY_BEAN_MR1) {
+      Configuration config = resources.getConfiguration();
+      config.locale = savedLocale;
+      resources.updateConfiguration(config, null);
+    }
+
+    return stringToReturn;
+  }
+
+  @TargetApi(17)
+  @NonNull
+  private Resources getLocalizedResources(@NonNull Locale locale) {
+    Resources resources = localizedResources.get(locale);
+    if (resources == null) {
+      Configuration config = new Configuration(context.getResources().getConfiguration());
+      config.setLocale(locale);
+      resources = context.createConfigurationContext(config).getResources();
+      localizedResources.put(locale, resources);
+    }
+    return resources;
+  }
+
+  @NonNull
+  private static String getStringCacheKey(@NonNull String key, @Nullable String localeString) {
+    // Resource names can't contain a null character.
+    return localeString == null ? key : key + '\u0000' + localeString;
+  }
+
   /**
    * Computes the {@link Locale} in supportedLocales that best matches the user's preferred locales.
    *
+   * <p>The result is reused until the user's preferred locales or supportedLocales change.
+   *
    * <p>FlutterEngine must be non-null when this method is invoked.
    */
-  @SuppressWarnings("deprecation")
   public Locale resolveNativeLocale(List<Locale> supportedLocales) {
     if (supportedLocales == null || supportedLocales.isEmpty()) {
       return null;
     }
 
+    final Object preferredLocales = getPreferredLocales();
+    if (resolvedLocale != null
+        && supportedLocales.equals(resolvedLocaleSupportedLocales)
+        && (preferredLocales == null
+            ? resolvedLocalePreferredLocales == null
+            : preferredLocales.equals(resolvedLocalePreferredLocales))) {
+      return resolvedLocale;
+    }
+    resolvedLocale = computeNativeLocale(supportedLocales);
+    resolvedLocalePreferredLocales = preferredLocales;
+    resolvedLocaleSupportedLocales = new ArrayList<>(supportedLocales);
+    return resolvedLocale;
+  }
+
+  // Returns the LocaleList of the user's preferred locales, or their Locale before API 24.
+  @SuppressWarnings("deprecation")
+  @Nullable
+  private Object getPreferredLocales() {
+    final Configuration config = context.getResources().getConfiguration();
+    if (Build.VERSION.SDK_INT >= android.os.Build.VERSION_CODES.N) {
+      return config.getLocales();
+    }
+    return config.locale;
+  }
+
+  @SuppressWarnings("deprecation")
+  private Locale computeNativeLocale(@NonNull List<Locale> supportedLocales) {
+
     // Android improved the localization resolution algorithms after API 24 (7.0, Nougat).
     // See https://developer.android.com/guide/topics/resources/multilingual-support
     //
@@ -168,10 +243,19 @@ public class LocalizationPlugin {
   /**
    * Send the current {@link Locale} configuration to Flutter.
    *
+   * <p>This must be invoked when the configuration changes, since it also clears the localized
+   * resources and strings that were cached for the previous configuration.
+   *
    * <p>FlutterEngine must be non-null when this method is invoked.
    */
   @SuppressWarnings("deprecation")
   public void sendLocalesToFlutter(@NonNull Configuration config) {
+    localizedResources.clear();
+    resolvedStrings.clear();
+    resolvedLocale = null;
+    resolvedLocalePreferredLocales = null;
+    resolvedLocaleSupportedLocales = null;
+
     List<Locale> locales = new ArrayList<>();
     if (Build.VERSION.SDK_INT >= android.os.Build.VERSION_CODES.N) {
       LocaleList localeList = config.getLocales();
@@ -221,4 +305,19 @@ public class LocalizationPlugin {
       return new Locale(languageCode, countryCode, scriptCode);
     }
   }
+
+  // A map that evicts its least recently used entry when it grows beyond maxSize entries.
+  private static final class LruMap<K, V> extends LinkedHashMap<K, V> {
+    private final int maxSize;
+
+    LruMap(int maxSize) {
+      super(16, 0.75f, /* accessOrder= */ true);
+      this.maxSize = maxSize;
+    }
+
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+      return size() > maxSize;
+    }
+  }
 }
@@ -0,0 +1,241 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugin.platform;
+
+import static android.content.ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW;
+
+import android.annotation.TargetApi;
+import android.content.Context;
+import android.os.SystemClock;
+import androidx.annotation.NonNull;
+import androidx.annotation.VisibleForTesting;
+import io.flutter.Log;
+import io.flutter.embedding.android.FlutterImageView;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * A size-keyed pool of overlay {@link FlutterImageView}s used by hybrid composition.
+ *
+ * <p>Creating an overlay view allocates an {@link android.media.ImageReader} with several
+ * full-screen buffers. Since the engine destroys its overlay surfaces whenever a frame no longer
+ * contains platform views, scrolling a list past a platform view would otherwise create and close
+ * an {@link android.media.ImageReader} repeatedly. Views returned to this pool are parked instead,
+ * and handed out again to the next overlay request of the same size.
+ *
+ * <p>Parked views are closed once they have been idle for longer than the idle timeout, when the
+ * pool exceeds its capacity, or when the system reports memory pressure.
+ */
+@TargetApi(19)
+class OverlayViewPool {
+  private static final String TAG = "OverlayViewPool";
+
+  // Overlay image readers are RGBA_8888 with 3 buffers. See `FlutterImageView#createImageReader`.
+  private static final int BYTES_PER_PIXEL = 4;
+  private static final int BUFFERS_PER_VIEW = 3;
+
+  @VisibleForTesting static final int DEFAULT_MAX_PARKED_VIEWS = 4;
+  @VisibleForTesting static final long DEFAULT_IDLE_TIMEOUT_MS = 10000;
+
+  private static class ParkedView {
+    @NonNull final FlutterImageView view;
+    final long parkedAtMs;
+
+    ParkedView(@NonNull FlutterImageView view, long parkedAtMs) {
+      this.view = view;
+      this.parkedAtMs = parkedAtMs;
+    }
+  }
+
+  private final int maxParkedViews;
+  private final long idleTimeoutMs;
+
+  // Parked views keyed by their packed size. Each queue is ordered from oldest to newest.
+  private final Map<Long, ArrayDeque<ParkedView>> parkedViews = new HashMap<>();
+
+  // The size of every view created by this pool that hasn't been closed yet.
+  private final Map<FlutterImageView, Long> viewSizes = new HashMap<>();
+
+  private int parkedViewCount = 0;
+  private long hitCount = 0;
+  private long missCount = 0;
+
+  OverlayViewPool() {
+    this(DEFAULT_MAX_PARKED_VIEWS, DEFAULT_IDLE_TIMEOUT_MS);
+  }
+
+  @VisibleForTesting
+  OverlayViewPool(int maxParkedViews, long idleTimeoutMs) {
+    this.maxParkedViews = maxParkedViews;
+    this.idleTimeoutMs = idleTimeoutMs;
+  }
+
+  /**
+   * Returns an overlay view of the given size, either reused from the pool or newly created.
+   *
+   * <p>The returned view must be handed back with {@link #release(FlutterImageView)} once the
+   * engine no longer renders to it.
+   */
+  @NonNull
+  FlutterImageView acquire(@NonNull Context context, int width, int height) {
+    trimIdleViews();
+
+    final long key = packSize(width, height);
+    final ArrayDeque<ParkedView> queue = parkedViews.get(key);
+    if (queue != null && !queue.isEmpty()) {
+      // Reuse the most recently parked view since it's the least likely to be trimmed soon.
+      final ParkedView parked = queue.pollLast();
+      if (queue.isEmpty()) {
+        parkedViews.remove(key);
+      }
+      parkedViewCount--;
+      hitCount++;
+      return parked.view;
+    }
+
+    missCount++;
+    final FlutterImageView view = createImageView(context, width, height);
+    viewSizes.put(view, key);
+    return view;
+  }
+
+  /**
+   * Parks a view previously returned by {@link #acquire(Context, int, int)} so it can be reused.
+   *
+   * <p>The view must already be detached from the renderer and removed from the view hierarchy.
+   * Views that weren't created by this pool are ignored.
+   */
+  void release(@NonNull FlutterImageView view) {
+    final Long key = viewSizes.get(view);
+    if (key == null) {
+      return;
+    }
+    ArrayDeque<ParkedView> queue = parkedViews.get(key);
+    if (queue == null) {
+      queue = new ArrayDeque<>();
+      parkedViews.put(key, queue);
+    }
+    queue.addLast(new ParkedView(view, SystemClock.uptimeMillis()));
+    parkedViewCount++;
+
+    trimToSize(maxParkedViews);
+  }
+
+  /** Closes the parked views that have been idle for longer than the idle timeout. */
+  void trimIdleViews() {
+    if (parkedViewCount == 0) {
+      return;
+    }
+    final long now = SystemClock.uptimeMillis();
+    final Iterator<ArrayDeque<ParkedView>> queues = parkedViews.values().iterator();
+    while (queues.hasNext()) {
+      final ArrayDeque<ParkedView> queue = queues.next();
+      while (!queue.isEmpty() && now - queue.peekFirst().parkedAtMs >= idleTimeoutMs) {
+        close(queue.pollFirst().view);
+      }
+      if (queue.isEmpty()) {
+        queues.remove();
+      }
+    }
+  }
+
+  /**
+   * Releases memory held by parked views in response to {@link
+   * android.content.ComponentCallbacks2#onTrimMemory(int)}.
+   */
+  void onTrimMemory(int level) {
+    if (level >= TRIM_MEMORY_RUNNING_LOW) {
+      clear();
+    } else {
+      trimIdleViews();
+    }
+    Log.v(
+        TAG,
+        "Trimmed overlay views. Hits: "
+            + hitCount
+            + ", misses: "
+            + missCount
+            + ", image reader bytes held: "
+            + getImageReaderBytesHeld());
+  }
+
+  /** Closes all the parked views. */
+  void clear() {
+    trimToSize(0);
+  }
+
+  /** The number of overlay requests that were served by a parked view. */
+  long getHitCount() {
+    return hitCount;
+  }
+
+  /** The number of overlay requests that required creating a new view. */
+  long getMissCount() {
+    return missCount;
+  }
+
+  /** The number of views currently parked in the pool. */
+  int getParkedViewCount() {
+    return parkedViewCount;
+  }
+
+  /**
+   * The approximate number of bytes held by the image readers of all views created by this pool
+   * that haven't been closed, whether they are in use or parked.
+   */
+  long getImageReaderBytesHeld() {
+    long bytes = 0;
+    for (long key : viewSizes.values()) {
+      bytes += (long) unpackWidth(key) * unpackHeight(key) * BYTES_PER_PIXEL * BUFFERS_PER_VIEW;
+    }
+    return bytes;
+  }
+
+  @VisibleForTesting
+  @NonNull
+  FlutterImageView createImageView(@NonNull Context context, int width, int height) {
+    return new FlutterImageView(context, width, height, FlutterImageView.SurfaceKind.overlay);
+  }
+
+  private void trimToSize(int maxSize) {
+    while (parkedViewCount > maxSize) {
+      // Evict the oldest parked view across all the sizes.
+      ArrayDeque<ParkedView> oldestQueue = null;
+      long oldestKey = 0;
+      for (Map.Entry<Long, ArrayDeque<ParkedView>> entry : parkedViews.entrySet()) {
+        final ArrayDeque<ParkedView> queue = entry.getValue();
+        if (oldestQueue == null
+            || queue.peekFirst().parkedAtMs < oldestQueue.peekFirst().parkedAtMs) {
+          oldestQueue = queue;
+          oldestKey = entry.getKey();
+        }
+      }
+      close(oldestQueue.pollFirst().view);
+      if (oldestQueue.isEmpty()) {
+        parkedViews.remove(oldestKey);
+      }
+    }
+  }
+
+  private void close(@NonNull FlutterImageView view) {
+    parkedViewCount--;
+    viewSizes.remove(view);
+    view.closeImageReader();
+  }
+
+  private static long packSize(int width, int height) {
+    return ((long) width << 32) | (height & 0xffffffffL);
+  }
+
+  private static int unpackWidth(long key) {
+    return (int) (key >>> 32);
+  }
+
+  private static int unpackHeight(long key) {
+    return (int) key;
+  }
+}
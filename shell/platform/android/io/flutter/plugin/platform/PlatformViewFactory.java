@@ -27,6 +27,46 @@ public abstract class PlatformViewFactory {
    */
   public abstract PlatformView create(Context context, int viewId, Object args);
 
+  /**
+   * Returns the number of disposed platform views of this factory that are kept for reuse.
+   *
+   * <p>By default, platform views are disposed when Flutter no longer displays them. Factories that
+   * return a positive number keep up to that many views in a pool instead, and are asked to {@link
+   * #rebindView rebind} them to the next view requested by Flutter, similar to {@code
+   * RecyclerView}. This avoids building expensive views such as web views or maps over and over
+   * again when they scroll in and out of a list.
+   *
+   * <p>Only applies to platform views displayed with hybrid composition. The pool is cleared on
+   * memory pressure, and when the platform views controller is detached.
+   */
+  public int getMaxRecycledViews() {
+    return 0;
+  }
+
+  /**
+   * Invoked when a platform view of this factory is kept for reuse instead of being disposed.
+   *
+   * <p>The view is no longer displayed by Flutter. Implementations should release the state of the
+   * previous view, for example stop loading content.
+   *
+   * @param view the platform view that was removed from the Flutter UI.
+   */
+  public void onViewRecycled(PlatformView view) {}
+
+  /**
+   * Binds a recycled platform view to a new platform view request.
+   *
+   * @param view a view previously returned by {@link #create} and passed to {@link
+   *     #onViewRecycled}.
+   * @param viewId unique identifier for the requested view.
+   * @param args arguments sent from the Flutter app, decoded like the args of {@link #create}.
+   * @return true if the view was rebound and can be used for the request. If false, the view is
+   *     disposed, and a new view is created.
+   */
+  public boolean rebindView(PlatformView view, int viewId, Object args) {
+    return false;
+  }
+
   /** Returns the codec to be used for decoding the args parameter of {@link #create}. */
   public final MessageCodec<Object> getCreateArgsCodec() {
     return createArgsCodec;
@@ -0,0 +1,115 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugin.platform;
+
+import static android.content.ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import io.flutter.Log;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A per view type pool of disposed {@link PlatformView}s, whose factories opted into recycling
+ * with {@link PlatformViewFactory#getMaxRecycledViews()}.
+ *
+ * <p>All the pooled views are disposed when the system reports memory pressure, or when the pool is
+ * cleared.
+ */
+class PlatformViewPool {
+  private static final String TAG = "PlatformViewPool";
+
+  private static class RecycledView {
+    @NonNull final PlatformView view;
+    @NonNull final PlatformViewFactory factory;
+
+    RecycledView(@NonNull PlatformView view, @NonNull PlatformViewFactory factory) {
+      this.view = view;
+      this.factory = factory;
+    }
+  }
+
+  // Recycled views keyed by their view type. Each queue is ordered from oldest to newest.
+  private final Map<String, ArrayDeque<RecycledView>> recycledViews = new HashMap<>();
+
+  private long reusedViewCount = 0;
+
+  /**
+   * Returns a recycled view of the given type rebound to the given request, or null if there's no
+   * recycled view that could be rebound.
+   */
+  @Nullable
+  PlatformView acquire(@NonNull String viewType, int viewId, @Nullable Object args) {
+    final ArrayDeque<RecycledView> views = recycledViews.get(viewType);
+    if (views == null) {
+      return null;
+    }
+    while (!views.isEmpty()) {
+      final RecycledView recycled = views.pollLast();
+      if (recycled.factory.rebindView(recycled.view, viewId, args)) {
+        reusedViewCount++;
+        return recycled.view;
+      }
+      recycled.view.dispose();
+    }
+    return null;
+  }
+
+  /**
+   * Keeps the given view for reuse. Returns false if the factory doesn't recycle views, or its pool
+   * is full, in which case the caller must dispose the view.
+   */
+  boolean recycle(
+      @NonNull String viewType, @NonNull PlatformView view, @NonNull PlatformViewFactory factory) {
+    final int maxRecycledViews = factory.getMaxRecycledViews();
+    if (maxRecycledViews <= 0) {
+      return false;
+    }
+    ArrayDeque<RecycledView> views = recycledViews.get(viewType);
+    if (views == null) {
+      views = new ArrayDeque<>();
+      recycledViews.put(viewType, views);
+    }
+    if (views.size() >= maxRecycledViews) {
+      return false;
+    }
+    factory.onViewRecycled(view);
+    views.addLast(new RecycledView(view, factory));
+    return true;
+  }
+
+  /** Disposes the recycled views if the memory is running low. */
+  void onTrimMemory(int level) {
+    if (level >= TRIM_MEMORY_RUNNING_LOW) {
+      Log.v(TAG, "Disposing " + getRecycledViewCount() + " recycled platform views.");
+      clear();
+    }
+  }
+
+  /** Disposes all the recycled views. */
+  void clear() {
+    for (ArrayDeque<RecycledView> views : recycledViews.values()) {
+      for (RecycledView recycled : views) {
+        recycled.view.dispose();
+      }
+    }
+    recycledViews.clear();
+  }
+
+  int getRecycledViewCount() {
+    int count = 0;
+    for (ArrayDeque<RecycledView> views : recycledViews.values()) {
+      count += views.size();
+    }
+    return count;
+  }
+
+  /** The number of views handed out again instead of being created by their factory. */
+  long getReusedViewCount() {
+    return reusedViewCount;
+  }
+}
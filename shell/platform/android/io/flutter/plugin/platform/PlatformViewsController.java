@@ -15,7 +15,7 @@ import android.util.SparseArray;
 import android.view.MotionEvent;
 import android.view.View;
 import android.view.ViewGroup;
-import android.widget.FrameLayout;
+import android.view.ViewParent;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.annotation.UiThread;
@@ -31,9 +31,12 @@ import io.flutter.embedding.engine.mutatorsstack.*;
 import io.flutter.embedding.engine.renderer.FlutterRenderer;
 import io.flutter.embedding.engine.systemchannels.PlatformViewsChannel;
 import io.flutter.plugin.editing.TextInputPlugin;
+import io.flutter.util.ViewUtils;
 import io.flutter.view.AccessibilityBridge;
 import io.flutter.view.TextureRegistry;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -86,6 +89,20 @@ public class PlatformViewsController implements PlatformViewsAccessibilityDelega
   // This only applies to hybrid composition.
   private final SparseArray<PlatformView> platformViews;
 
+  // The view types of the views in `platformViews`.
+  //
+  // This only applies to hybrid composition.
+  private final SparseArray<String> platformViewTypes;
+
+  // Disposed platform views kept for reuse by factories that opted into recycling.
+  //
+  // This only applies to hybrid composition.
+  private final PlatformViewPool platformViewPool;
+
+  // Virtual displays of disposed platform views, kept warm for the next virtual display platform
+  // view.
+  private final VirtualDisplayPool virtualDisplayPool;
+
   // The platform view parents that are appended to `FlutterView`.
   // If an entry in `platformViews` doesn't have an entry in this array, the platform view isn't
   // in the view hierarchy.
@@ -102,6 +119,12 @@ public class PlatformViewsController implements PlatformViewsAccessibilityDelega
   // Next available unique ID for use in overlayLayerViews.
   private int nextOverlayLayerId = 0;
 
+  // Overlay views that are no longer used by the engine, and can be reused by the next
+  // overlay surface of the same size.
+  //
+  // This only applies to hybrid composition.
+  private final OverlayViewPool overlayViewPool;
+
   // Tracks whether the flutterView has been converted to use a FlutterImageView.
   private boolean flutterViewConvertedToImageView = false;
 
@@ -116,6 +139,25 @@ public class PlatformViewsController implements PlatformViewsAccessibilityDelega
   // Platform view IDs that were displayed since the start of the current frame.
   private HashSet<Integer> currentFrameUsedPlatformViewIds;
 
+  // Platform view parents and overlay views displayed since the start of the current frame, in
+  // z-order from bottom to top.
+  //
+  // The views are only brought to front when this order differs from the order of the topmost
+  // children in `FlutterView`, since `View#bringToFront` always triggers a relayout.
+  private final ArrayList<View> currentFrameZOrder;
+
+  // The number of Android view mutations (visibility, layout params and z-order changes) that
+  // were skipped because nothing changed since the previous frame.
+  private int currentFrameSkippedViewMutations = 0;
+  private int lastFrameSkippedViewMutations = 0;
+  private long totalSkippedViewMutations = 0;
+
+  // Touch packets and their pointers, reused across packets.
+  private final PlatformViewsChannel.TouchPacket touchPacket =
+      new PlatformViewsChannel.TouchPacket();
+  private PointerProperties[] packetPointerProperties = new PointerProperties[0];
+  private PointerCoords[] packetPointerCoords = new PointerCoords[0];
+
   // Used to acquire the original motion events using the motionEventIds.
   private final MotionEventTracker motionEventTracker;
 
@@ -148,8 +190,13 @@ public class PlatformViewsController implements PlatformViewsAccessibilityDelega
             createParams = factory.getCreateArgsCodec().decodeMessage(request.params);
           }
 
-          final PlatformView platformView = factory.create(context, request.viewId, createParams);
+          PlatformView platformView =
+              platformViewPool.acquire(request.viewType, request.viewId, createParams);
+          if (platformView == null) {
+            platformView = factory.create(context, request.viewId, createParams);
+          }
           platformViews.put(request.viewId, platformView);
+          platformViewTypes.put(request.viewId, request.viewType);
         }
 
         @Override
@@ -162,7 +209,12 @@ public class PlatformViewsController implements PlatformViewsAccessibilityDelega
               parentView.removeView(platformView.getView());
             }
             platformViews.remove(viewId);
-            platformView.dispose();
+            final String viewType = platformViewTypes.get(viewId);
+            platformViewTypes.remove(viewId);
+            final PlatformViewFactory factory = registry.getFactory(viewType);
+            if (factory == null || !platformViewPool.recycle(viewType, platformView, factory)) {
+              platformView.dispose();
+            }
           }
           if (parentView != null) {
             parentView.unsetOnDescendantFocusChangeListener();
@@ -222,7 +274,8 @@ public class PlatformViewsController implements PlatformViewsAccessibilityDelega
                     if (hasFocus) {
                       platformViewsChannel.invokeViewFocused(request.viewId);
                     }
-                  });
+                  },
+                  virtualDisplayPool);
 
           if (vdController == null) {
             throw new IllegalStateException(
@@ -318,6 +371,26 @@ public class PlatformViewsController implements PlatformViewsAccessibilityDelega
           }
         }
 
+        @Override
+        public void onTouchPacket(@NonNull ByteBuffer packet) {
+          final int viewId = packet.getInt(PlatformViewsChannel.TOUCH_PACKET_VIEW_ID_OFFSET);
+          float density = context.getResources().getDisplayMetrics().density;
+          ensureValidAndroidVersion(Build.VERSION_CODES.KITKAT_WATCH);
+          if (vdControllers.containsKey(viewId)) {
+            final MotionEvent event = toMotionEvent(density, packet, /*usingVirtualDiplays=*/ true);
+            vdControllers.get(viewId).dispatchTouchEvent(event);
+          } else if (platformViews.get(viewId) != null) {
+            final MotionEvent event =
+                toMotionEvent(density, packet, /*usingVirtualDiplays=*/ false);
+            View view = platformViews.get(viewId).getView();
+            if (view != null) {
+              view.dispatchTouchEvent(event);
+            }
+          } else {
+            throw new IllegalStateException("Sending touch to an unknown view with id: " + viewId);
+          }
+        }
+
         @TargetApi(Build.VERSION_CODES.JELLY_BEAN_MR1)
         @Override
         public void setDirection(int viewId, int direction) {
@@ -423,14 +496,100 @@ public class PlatformViewsController implements PlatformViewsAccessibilityDelega
         touch.flags);
   }
 
+  /**
+   * Converts a touch packet sent with the {@code touchPacket} method into a {@link MotionEvent}.
+   *
+   * <p>The packet is decoded by {@link PlatformViewsChannel.TouchPacket}, and the pointers are
+   * converted into arrays reused across packets, since {@link MotionEvent#obtain} copies them.
+   */
+  @VisibleForTesting
+  public MotionEvent toMotionEvent(
+      float density, @NonNull ByteBuffer packet, boolean usingVirtualDiplays) {
+    touchPacket.decode(packet);
+    final int pointerCount = touchPacket.pointerCount;
+    ensurePacketPointerCapacity(pointerCount);
+    final float[] values = touchPacket.pointerCoords;
+    for (int i = 0; i < pointerCount; i++) {
+      final PointerProperties properties = packetPointerProperties[i];
+      properties.id = touchPacket.pointerIds[i];
+      properties.toolType = touchPacket.toolTypes[i];
+      final PointerCoords coords = packetPointerCoords[i];
+      final int offset = i * PlatformViewsChannel.TOUCH_PACKET_POINTER_COORD_COUNT;
+      coords.clear();
+      coords.orientation = values[offset];
+      coords.pressure = values[offset + 1];
+      coords.size = values[offset + 2];
+      coords.toolMajor = values[offset + 3] * density;
+      coords.toolMinor = values[offset + 4] * density;
+      coords.touchMajor = values[offset + 5] * density;
+      coords.touchMinor = values[offset + 6] * density;
+      coords.x = values[offset + 7] * density;
+      coords.y = values[offset + 8] * density;
+    }
+
+    MotionEventTracker.MotionEventId motionEventId =
+        MotionEventTracker.MotionEventId.from(touchPacket.motionEventId);
+    MotionEvent trackedEvent = motionEventTracker.pop(motionEventId);
+    if (!usingVirtualDiplays && trackedEvent != null) {
+      return MotionEvent.obtain(
+          trackedEvent.getDownTime(),
+          trackedEvent.getEventTime(),
+          trackedEvent.getAction(),
+          pointerCount,
+          packetPointerProperties,
+          packetPointerCoords,
+          trackedEvent.getMetaState(),
+          trackedEvent.getButtonState(),
+          trackedEvent.getXPrecision(),
+          trackedEvent.getYPrecision(),
+          trackedEvent.getDeviceId(),
+          trackedEvent.getEdgeFlags(),
+          trackedEvent.getSource(),
+          trackedEvent.getFlags());
+    }
+    return MotionEvent.obtain(
+        touchPacket.downTime,
+        touchPacket.eventTime,
+        touchPacket.action,
+        pointerCount,
+        packetPointerProperties,
+        packetPointerCoords,
+        touchPacket.metaState,
+        touchPacket.buttonState,
+        touchPacket.xPrecision,
+        touchPacket.yPrecision,
+        touchPacket.deviceId,
+        touchPacket.edgeFlags,
+        touchPacket.source,
+        touchPacket.flags);
+  }
+
+  private void ensurePacketPointerCapacity(int pointerCount) {
+    if (packetPointerProperties.length >= pointerCount) {
+      return;
+    }
+    final int oldCapacity = packetPointerProperties.length;
+    packetPointerProperties = Arrays.copyOf(packetPointerProperties, pointerCount);
+    packetPointerCoords = Arrays.copyOf(packetPointerCoords, pointerCount);
+    for (int i = oldCapacity; i < pointerCount; i++) {
+      packetPointerProperties[i] = new PointerProperties();
+      packetPointerCoords[i] = new PointerCoords();
+    }
+  }
+
   public PlatformViewsController() {
     registry = new PlatformViewRegistryImpl();
     vdControllers = new HashMap<>();
     accessibilityEventsDelegate = new AccessibilityEventsDelegate();
     contextToPlatformView = new HashMap<>();
     overlayLayerViews = new SparseArray<>();
+    overlayViewPool = new OverlayViewPool();
+    platformViewTypes = new SparseArray<>();
+    platformViewPool = new PlatformViewPool();
+    virtualDisplayPool = new VirtualDisplayPool();
     currentFrameUsedOverlayLayerIds = new HashSet<>();
     currentFrameUsedPlatformViewIds = new HashSet<>();
+    currentFrameZOrder = new ArrayList<>();
 
     platformViews = new SparseArray<>();
     platformViewParent = new SparseArray<>();
@@ -474,6 +633,10 @@ public class PlatformViewsController implements PlatformViewsAccessibilityDelega
       platformViewsChannel.setPlatformViewsHandler(null);
     }
     destroyOverlaySurfaces();
+    overlayViewPool.clear();
+    // Recycled platform views were created with the context of the previous attachment.
+    platformViewPool.clear();
+    virtualDisplayPool.clear();
     platformViewsChannel = null;
     context = null;
     textureRegistry = null;
@@ -502,6 +665,8 @@ public class PlatformViewsController implements PlatformViewsAccessibilityDelega
    */
   public void detachFromView() {
     destroyOverlaySurfaces();
+    // Pooled overlay views were created with the context of the previous view.
+    overlayViewPool.clear();
     this.flutterView = null;
 
     // Inform all existing platform views that they are no longer associated with
@@ -588,6 +753,16 @@ public class PlatformViewsController implements PlatformViewsAccessibilityDelega
     flushAllViews();
   }
 
+  /**
+   * Releases pooled resources in response to {@link
+   * android.content.ComponentCallbacks2#onTrimMemory(int)}.
+   */
+  public void onTrimMemory(int level) {
+    overlayViewPool.onTrimMemory(level);
+    platformViewPool.onTrimMemory(level);
+    virtualDisplayPool.onTrimMemory(level);
+  }
+
   @Override
   public View getPlatformViewById(Integer id) {
     // Hybrid composition.
@@ -707,10 +882,12 @@ public class PlatformViewsController implements PlatformViewsAccessibilityDelega
       controller.dispose();
     }
     vdControllers.clear();
+    virtualDisplayPool.clear();
 
     while (platformViews.size() > 0) {
       channelHandler.disposeAndroidViewForPlatformView(platformViews.keyAt(0));
     }
+    platformViewPool.clear();
 
     if (contextToPlatformView.size() > 0) {
       contextToPlatformView.clear();
@@ -797,15 +974,13 @@ public class PlatformViewsController implements PlatformViewsAccessibilityDelega
 
     final FlutterMutatorView parentView = platformViewParent.get(viewId);
     parentView.readyToDisplay(mutatorsStack, x, y, width, height);
-    parentView.setVisibility(View.VISIBLE);
-    parentView.bringToFront();
+    setVisibilityIfNeeded(parentView, View.VISIBLE);
+    currentFrameZOrder.add(parentView);
 
-    final FrameLayout.LayoutParams layoutParams =
-        new FrameLayout.LayoutParams(viewWidth, viewHeight);
     final View view = platformViews.get(viewId).getView();
     if (view != null) {
-      view.setLayoutParams(layoutParams);
-      view.bringToFront();
+      setLayoutParamsIfNeeded(view, viewWidth, viewHeight, /*left=*/ 0, /*top=*/ 0);
+      bringToFrontOfParentIfNeeded(view);
     }
     currentFrameUsedPlatformViewIds.add(viewId);
   }
@@ -831,18 +1006,17 @@ public class PlatformViewsController implements PlatformViewsAccessibilityDelega
       ((FlutterView) flutterView).addView(overlayView);
     }
 
-    FrameLayout.LayoutParams layoutParams = new FrameLayout.LayoutParams((int) width, (int) height);
-    layoutParams.leftMargin = (int) x;
-    layoutParams.topMargin = (int) y;
-    overlayView.setLayoutParams(layoutParams);
-    overlayView.setVisibility(View.VISIBLE);
-    overlayView.bringToFront();
+    setLayoutParamsIfNeeded(overlayView, width, height, x, y);
+    setVisibilityIfNeeded(overlayView, View.VISIBLE);
+    currentFrameZOrder.add(overlayView);
     currentFrameUsedOverlayLayerIds.add(id);
   }
 
   public void onBeginFrame() {
     currentFrameUsedOverlayLayerIds.clear();
     currentFrameUsedPlatformViewIds.clear();
+    currentFrameZOrder.clear();
+    currentFrameSkippedViewMutations = 0;
   }
 
   /**
@@ -877,9 +1051,12 @@ public class PlatformViewsController implements PlatformViewsAccessibilityDelega
     final boolean isFrameRenderedUsingImageReaders =
         flutterViewConvertedToImageView && view.acquireLatestImageViewFrame();
     finishFrame(isFrameRenderedUsingImageReaders);
+    overlayViewPool.trimIdleViews();
   }
 
   private void finishFrame(boolean isFrameRenderedUsingImageReaders) {
+    applyCurrentFrameZOrder();
+
     for (int i = 0; i < overlayLayerViews.size(); i++) {
       final int overlayId = overlayLayerViews.keyAt(i);
       final FlutterImageView overlayView = overlayLayerViews.valueAt(i);
@@ -896,7 +1073,7 @@ public class PlatformViewsController implements PlatformViewsAccessibilityDelega
           overlayView.detachFromRenderer();
         }
         // Hide overlay surfaces that aren't rendered in the current frame.
-        overlayView.setVisibility(View.GONE);
+        setVisibilityIfNeeded(overlayView, View.GONE);
       }
     }
 
@@ -915,11 +1092,80 @@ public class PlatformViewsController implements PlatformViewsAccessibilityDelega
       // they are removed when the framework diposes the platform view widget.
       if (currentFrameUsedPlatformViewIds.contains(viewId)
           && (isFrameRenderedUsingImageReaders || !synchronizeToNativeViewHierarchy)) {
-        parentView.setVisibility(View.VISIBLE);
+        setVisibilityIfNeeded(parentView, View.VISIBLE);
       } else {
-        parentView.setVisibility(View.GONE);
+        setVisibilityIfNeeded(parentView, View.GONE);
       }
     }
+
+    lastFrameSkippedViewMutations = currentFrameSkippedViewMutations;
+    totalSkippedViewMutations += currentFrameSkippedViewMutations;
+    currentFrameSkippedViewMutations = 0;
+  }
+
+  /**
+   * Brings the views displayed in the current frame to front, unless they are already the topmost
+   * children of {@code FlutterView} in the same order.
+   */
+  private void applyCurrentFrameZOrder() {
+    final FlutterView view = (FlutterView) flutterView;
+    final int frameViewCount = currentFrameZOrder.size();
+    final int childCount = view.getChildCount();
+    boolean isInOrder = frameViewCount <= childCount;
+    for (int i = 0; isInOrder && i < frameViewCount; i++) {
+      isInOrder = view.getChildAt(childCount - frameViewCount + i) == currentFrameZOrder.get(i);
+    }
+    if (isInOrder) {
+      currentFrameSkippedViewMutations += frameViewCount;
+      return;
+    }
+    for (View frameView : currentFrameZOrder) {
+      frameView.bringToFront();
+    }
+  }
+
+  private void setVisibilityIfNeeded(@NonNull View view, int visibility) {
+    if (view.getVisibility() == visibility) {
+      currentFrameSkippedViewMutations++;
+      return;
+    }
+    view.setVisibility(visibility);
+  }
+
+  private void setLayoutParamsIfNeeded(
+      @NonNull View view, int width, int height, int left, int top) {
+    if (!ViewUtils.setFrameLayoutParamsIfChanged(view, width, height, left, top)) {
+      currentFrameSkippedViewMutations++;
+    }
+  }
+
+  // Brings a platform view to the front of its parent, which may also hold views that the
+  // platform view added or that were added around it, unless it's already the topmost child.
+  private void bringToFrontOfParentIfNeeded(@NonNull View view) {
+    final ViewParent parent = view.getParent();
+    if (parent instanceof ViewGroup) {
+      final ViewGroup parentGroup = (ViewGroup) parent;
+      if (parentGroup.getChildAt(parentGroup.getChildCount() - 1) == view) {
+        currentFrameSkippedViewMutations++;
+        return;
+      }
+    }
+    view.bringToFront();
+  }
+
+  /**
+   * The number of Android view mutations skipped in the last frame because the geometry, z-order
+   * or visibility of the platform views and overlays didn't change.
+   */
+  @VisibleForTesting
+  int getLastFrameSkippedViewMutationCount() {
+    return lastFrameSkippedViewMutations;
+  }
+
+  /** The number of Android view mutations skipped across all the frames. */
+  @VisibleForTesting
+  long getTotalSkippedViewMutationCount() {
+    return totalSkippedViewMutations;
   }
 
   /**
@@ -952,17 +1198,20 @@ public class PlatformViewsController implements PlatformViewsAccessibilityDelega
     // if the drawings they contain have a different tight bound.
     //
     // The final view size is determined when its frame is set.
+    //
+    // Overlay views released by `destroyOverlaySurfaces` are reused when they have the same size,
+    // which avoids creating a new `ImageReader` every time platform views scroll into view.
     return createOverlaySurface(
-        new FlutterImageView(
-            flutterView.getContext(),
-            flutterView.getWidth(),
-            flutterView.getHeight(),
-            FlutterImageView.SurfaceKind.overlay));
+        overlayViewPool.acquire(
+            flutterView.getContext(), flutterView.getWidth(), flutterView.getHeight()));
   }
 
   /**
    * Destroys the overlay surfaces and removes them from the view hierarchy.
    *
+   * <p>The overlay views are returned to the overlay view pool, so they can back the overlay
+   * surfaces created in upcoming frames.
+   *
    * <p>This method is used only internally by {@code FlutterJNI}.
    *
    * <p>This member is not intended for public use, and is only visible for testing.
@@ -975,6 +1224,7 @@ public class PlatformViewsController implements PlatformViewsAccessibilityDelega
       if (flutterView != null) {
         ((FlutterView) flutterView).removeView(overlayView);
       }
+      overlayViewPool.release(overlayView);
     }
     overlayLayerViews.clear();
   }
@@ -31,15 +31,19 @@ class VirtualDisplayController {
       int height,
       int viewId,
       Object createParams,
-      OnFocusChangeListener focusChangeListener) {
+      OnFocusChangeListener focusChangeListener,
+      VirtualDisplayPool virtualDisplayPool) {
     textureEntry.surfaceTexture().setDefaultBufferSize(width, height);
     Surface surface = new Surface(textureEntry.surfaceTexture());
-    DisplayManager displayManager =
-        (DisplayManager) context.getSystemService(Context.DISPLAY_SERVICE);
 
     int densityDpi = context.getResources().getDisplayMetrics().densityDpi;
-    VirtualDisplay virtualDisplay =
-        displayManager.createVirtualDisplay("flutter-vd", width, height, densityDpi, surface, 0);
+    VirtualDisplay virtualDisplay = virtualDisplayPool.acquire(densityDpi, width, height, surface);
+    if (virtualDisplay == null) {
+      DisplayManager displayManager =
+          (DisplayManager) context.getSystemService(Context.DISPLAY_SERVICE);
+      virtualDisplay =
+          displayManager.createVirtualDisplay("flutter-vd", width, height, densityDpi, surface, 0);
+    }
 
     if (virtualDisplay == null) {
       return null;
@@ -54,7 +58,10 @@ class VirtualDisplayController {
         textureEntry,
         focusChangeListener,
         viewId,
-        createParams);
+        createParams,
+        width,
+        height,
+        virtualDisplayPool);
   }
 
   private final Context context;
@@ -62,9 +69,12 @@ class VirtualDisplayController {
   private final int densityDpi;
   private final TextureRegistry.SurfaceTextureEntry textureEntry;
   private final OnFocusChangeListener focusChangeListener;
+  private final VirtualDisplayPool virtualDisplayPool;
   private VirtualDisplay virtualDisplay;
   @VisibleForTesting SingleViewPresentation presentation;
   private Surface surface;
+  private int width;
+  private int height;
 
   private VirtualDisplayController(
       Context context,
@@ -75,13 +85,19 @@ class VirtualDisplayController {
       TextureRegistry.SurfaceTextureEntry textureEntry,
       OnFocusChangeListener focusChangeListener,
       int viewId,
-      Object createParams) {
+      Object createParams,
+      int width,
+      int height,
+      VirtualDisplayPool virtualDisplayPool) {
     this.context = context;
     this.accessibilityEventsDelegate = accessibilityEventsDelegate;
     this.textureEntry = textureEntry;
     this.focusChangeListener = focusChangeListener;
     this.surface = surface;
     this.virtualDisplay = virtualDisplay;
+    this.width = width;
+    this.height = height;
+    this.virtualDisplayPool = virtualDisplayPool;
     densityDpi = context.getResources().getDisplayMetrics().densityDpi;
     presentation =
         new SingleViewPresentation(
@@ -96,6 +112,22 @@ class VirtualDisplayController {
   }
 
   public void resize(final int width, final int height, final Runnable onNewSizeFrameAvailable) {
+    if (width == this.width && height == this.height) {
+      // The framework may resize a view to its current size, e.g. after a hot reload.
+      getView().post(onNewSizeFrameAvailable);
+      return;
+    }
+    this.width = width;
+    this.height = height;
+    if (Build.VERSION.SDK_INT >= 31) {
+      // Presentations follow the size of their display starting API 31, so the virtual display
+      // and the presentation don't need to be recreated.
+      textureEntry.surfaceTexture().setDefaultBufferSize(width, height);
+      virtualDisplay.resize(width, height, densityDpi);
+      getView().post(onNewSizeFrameAvailable);
+      return;
+    }
+
     boolean isFocused = getView().isFocused();
     final SingleViewPresentation.PresentationState presentationState = presentation.detachState();
     // We detach the surface to prevent it being destroyed when releasing the vd.
@@ -169,7 +201,7 @@ class VirtualDisplayController {
     presentation.cancel();
     presentation.detachState();
     view.dispose();
-    virtualDisplay.release();
+    virtualDisplayPool.release(virtualDisplay, densityDpi);
     textureEntry.release();
   }
 
@@ -0,0 +1,105 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.plugin.platform;
+
+import static android.content.ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW;
+
+import android.annotation.TargetApi;
+import android.hardware.display.VirtualDisplay;
+import android.os.Build;
+import android.util.SparseArray;
+import android.view.Surface;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+import java.util.ArrayDeque;
+
+/**
+ * A density-keyed pool of {@link VirtualDisplay}s released by disposed virtual display platform
+ * views.
+ *
+ * <p>Creating a virtual display is a round trip to the system server, which adds up when a list
+ * creates and disposes platform views as it scrolls. Released displays are detached from their
+ * surface and kept warm instead, and are resized and attached to the surface of the next platform
+ * view with the same density.
+ */
+@TargetApi(Build.VERSION_CODES.KITKAT_WATCH)
+class VirtualDisplayPool {
+  @VisibleForTesting static final int DEFAULT_MAX_PARKED_DISPLAYS = 2;
+
+  private final int maxParkedDisplays;
+
+  // Parked displays keyed by density. Each queue is ordered from oldest to newest.
+  private final SparseArray<ArrayDeque<VirtualDisplay>> parkedDisplays = new SparseArray<>();
+  private int parkedDisplayCount = 0;
+
+  VirtualDisplayPool() {
+    this(DEFAULT_MAX_PARKED_DISPLAYS);
+  }
+
+  @VisibleForTesting
+  VirtualDisplayPool(int maxParkedDisplays) {
+    this.maxParkedDisplays = maxParkedDisplays;
+  }
+
+  /**
+   * Returns a parked display with the given density, resized to the given size and attached to the
+   * given surface, or null if there's no such display.
+   */
+  @Nullable
+  VirtualDisplay acquire(int densityDpi, int width, int height, @NonNull Surface surface) {
+    final ArrayDeque<VirtualDisplay> displays = parkedDisplays.get(densityDpi);
+    if (displays == null || displays.isEmpty()) {
+      return null;
+    }
+    final VirtualDisplay display = displays.pollLast();
+    parkedDisplayCount--;
+    display.resize(width, height, densityDpi);
+    display.setSurface(surface);
+    return display;
+  }
+
+  /**
+   * Parks the given display, which must no longer show a presentation. The display is released if
+   * the pool is full.
+   */
+  void release(@NonNull VirtualDisplay display, int densityDpi) {
+    // Keep the surface alive, it's owned by the texture entry.
+    display.setSurface(null);
+    if (parkedDisplayCount >= maxParkedDisplays) {
+      display.release();
+      return;
+    }
+    ArrayDeque<VirtualDisplay> displays = parkedDisplays.get(densityDpi);
+    if (displays == null) {
+      displays = new ArrayDeque<>();
+      parkedDisplays.put(densityDpi, displays);
+    }
+    displays.addLast(display);
+    parkedDisplayCount++;
+  }
+
+  /** Releases the parked displays if the memory is running low. */
+  void onTrimMemory(int level) {
+    if (level >= TRIM_MEMORY_RUNNING_LOW) {
+      clear();
+    }
+  }
+
+  /** Releases all the parked displays. */
+  void clear() {
+    for (int i = 0; i < parkedDisplays.size(); i++) {
+      for (VirtualDisplay display : parkedDisplays.valueAt(i)) {
+        display.release();
+      }
+    }
+    parkedDisplays.clear();
+    parkedDisplayCount = 0;
+  }
+
+  int getParkedDisplayCount() {
+    return parkedDisplayCount;
+  }
+}
@@ -9,6 +9,9 @@ import android.content.Context;
 import android.content.ContextWrapper;
 import android.os.Build;
 import android.view.View;
+import android.view.ViewGroup;
+import android.widget.FrameLayout;
+import androidx.annotation.NonNull;
 
 public final class ViewUtils {
   /**
@@ -45,4 +48,32 @@ public final class ViewUtils {
     }
     return fallbackId;
   }
+
+  /**
+   * Gives {@code view} {@link FrameLayout.LayoutParams} of the given size and margins, unless its
+   * layout params already have them.
+   *
+   * <p>Setting layout params always requests a layout, so this avoids a relayout when views are
+   * positioned on every frame.
+   *
+   * @return whether the layout params were replaced.
+   */
+  public static boolean setFrameLayoutParamsIfChanged(
+      @NonNull View view, int width, int height, int leftMargin, int topMargin) {
+    final ViewGroup.LayoutParams currentParams = view.getLayoutParams();
+    if (currentParams instanceof FrameLayout.LayoutParams) {
+      final FrameLayout.LayoutParams currentFrameParams = (FrameLayout.LayoutParams) currentParams;
+      if (currentFrameParams.width == width
+          && currentFrameParams.height == height
+          && currentFrameParams.leftMargin == leftMargin
+          && currentFrameParams.topMargin == topMargin) {
+        return false;
+      }
+    }
+    final FrameLayout.LayoutParams layoutParams = new FrameLayout.LayoutParams(width, height);
+    layoutParams.leftMargin = leftMargin;
+    layoutParams.topMargin = topMargin;
+    view.setLayoutParams(layoutParams);
+    return true;
+  }
 }
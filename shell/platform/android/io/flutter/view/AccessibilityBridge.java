@@ -16,13 +16,16 @@ import android.opengl.Matrix;
 import android.os.Build;
 import android.os.Bundle;
 import android.os.Handler;
+import android.os.Looper;
 import android.provider.Settings;
 import android.text.SpannableString;
 import android.text.TextUtils;
 import android.text.style.LocaleSpan;
 import android.text.style.TtsSpan;
+import android.view.Choreographer;
 import android.view.MotionEvent;
 import android.view.View;
+import android.view.ViewParent;
 import android.view.WindowInsets;
 import android.view.WindowManager;
 import android.view.accessibility.AccessibilityEvent;
@@ -43,6 +46,8 @@ import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.nio.charset.Charset;
 import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -241,6 +246,24 @@ public class AccessibilityBridge extends AccessibilityNodeProvider {
     return hoveredObject.id;
   }
 
+  /**
+   * Returns how many values derived from a {@code SemanticsNode} were reused from its cache while
+   * creating {@link AccessibilityNodeInfo}s.
+   */
+  @VisibleForTesting
+  public int getNodeInfoCacheHitCount() {
+    return nodeInfoCacheHitCount;
+  }
+
+  /**
+   * Returns how many values derived from a {@code SemanticsNode} had to be computed while creating
+   * {@link AccessibilityNodeInfo}s, because the node changed since they were cached.
+   */
+  @VisibleForTesting
+  public int getNodeInfoCacheMissCount() {
+    return nodeInfoCacheMissCount;
+  }
+
   // A Java/Android cached representation of the Flutter app's navigation stack. The Flutter
   // navigation stack is tracked so that accessibility announcements can be made during Flutter's
   // navigation changes.
@@ -261,24 +284,84 @@ public class AccessibilityBridge extends AccessibilityNodeProvider {
   // Set to true after {@code release} has been invoked.
   private boolean isReleased = false;
 
+  // The executor that decodes semantics updates off the UI thread, shared by all bridges. It runs
+  // one task at a time, so updates are applied in the order Flutter sent them.
+  @Nullable private static Executor defaultSemanticsUpdateExecutor;
+
+  // Decodes semantics updates off the UI thread, or null if they are decoded on the UI thread.
+  @Nullable private Executor semanticsUpdateExecutor = getDefaultSemanticsUpdateExecutor();
+
+  @NonNull private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+  // Updates that Flutter sent and that weren't applied yet, in order. Only used on the UI thread.
+  @NonNull private final ArrayDeque<PendingUpdate> pendingUpdates = new ArrayDeque<>();
+
+  // Sends the content changed and scrolled events of the semantics updates of each frame from the
+  // next frame callback, without the redundant ones.
+  @NonNull
+  private final AccessibilityEventCoalescer accessibilityEventCoalescer =
+      new AccessibilityEventCoalescer(
+          new AccessibilityEventCoalescer.Delegate() {
+            @Override
+            public void sendAccessibilityEvent(@NonNull AccessibilityEvent event) {
+              if (isReleased) {
+                event.recycle();
+                return;
+              }
+              requestSendAccessibilityEvent(event);
+            }
+
+            @Override
+            public void postFrameCallback(@NonNull Runnable callback) {
+              Choreographer.getInstance().postFrameCallback(frameTimeNanos -> callback.run());
+            }
+
+            @Override
+            public int getParentId(int virtualViewId) {
+              SemanticsNode semanticsNode = flutterSemanticsTree.get(virtualViewId);
+              if (semanticsNode == null || semanticsNode.parent == null) {
+                return AccessibilityEventCoalescer.NO_PARENT;
+              }
+              return semanticsNode.parent.id;
+            }
+          });
+
+  // Applies the pending updates that were decoded, in order.
+  //
+  // All the updates that were decoded since the UI thread last got to them are applied before the
+  // next frame callback, so that their accessibility events are coalesced.
+  @NonNull private final Runnable applyDecodedUpdates = () -> applyPendingUpdates(false);
+
+  // Incremented whenever {@link #customAccessibilityActions} change, which invalidates the actions
+  // that the {@link SemanticsNode}s cached for their {@link AccessibilityNodeInfo}s.
+  private int customAccessibilityActionsGeneration = 0;
+
+  // How often the values cached by the {@link SemanticsNode}s for their {@link
+  // AccessibilityNodeInfo}s could be reused, or had to be computed again.
+  private int nodeInfoCacheHitCount = 0;
+  private int nodeInfoCacheMissCount = 0;
+
   // Handler for all messages received from Flutter via the {@code accessibilityChannel}
   private final AccessibilityChannel.AccessibilityMessageHandler accessibilityMessageHandler =
       new AccessibilityChannel.AccessibilityMessageHandler() {
         /** The Dart application would like the given {@code message} to be announced. */
         @Override
         public void announce(@NonNull String message) {
+          applyPendingUpdates();
           rootAccessibilityView.announceForAccessibility(message);
         }
 
         /** The user has tapped on the widget with the given {@code nodeId}. */
         @Override
         public void onTap(int nodeId) {
+          applyPendingUpdates();
           sendAccessibilityEvent(nodeId, AccessibilityEvent.TYPE_VIEW_CLICKED);
         }
 
         /** The user has long pressed on the widget with the given {@code nodeId}. */
         @Override
         public void onLongPress(int nodeId) {
+          applyPendingUpdates();
           sendAccessibilityEvent(nodeId, AccessibilityEvent.TYPE_VIEW_LONG_CLICKED);
         }
 
@@ -294,6 +377,7 @@ public class AccessibilityBridge extends AccessibilityNodeProvider {
           if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.P) {
             return;
           }
+          applyPendingUpdates();
           AccessibilityEvent e =
               obtainAccessibilityEvent(ROOT_NODE_ID, AccessibilityEvent.TYPE_WINDOW_STATE_CHANGED);
           e.getText().add(message);
@@ -304,7 +388,7 @@ public class AccessibilityBridge extends AccessibilityNodeProvider {
         @Override
         public void updateCustomAccessibilityActions(ByteBuffer buffer, String[] strings) {
           buffer.order(ByteOrder.LITTLE_ENDIAN);
-          AccessibilityBridge.this.updateCustomAccessibilityActions(buffer, strings);
+          AccessibilityBridge.this.scheduleCustomAccessibilityActionsUpdate(buffer, strings);
         }
 
         /** Flutter's semantics tree has changed. Update our Android-side cache. */
@@ -315,7 +399,7 @@ public class AccessibilityBridge extends AccessibilityNodeProvider {
           for (ByteBuffer args : stringAttributeArgs) {
             args.order(ByteOrder.LITTLE_ENDIAN);
           }
-          AccessibilityBridge.this.updateSemantics(buffer, strings, stringAttributeArgs);
+          AccessibilityBridge.this.scheduleSemanticsUpdate(buffer, strings, stringAttributeArgs);
         }
       };
 
@@ -497,6 +581,8 @@ public class AccessibilityBridge extends AccessibilityNodeProvider {
     }
     contentResolver.unregisterContentObserver(animationScaleObserver);
     accessibilityChannel.setAccessibilityMessageHandler(null);
+    pendingUpdates.clear();
+    accessibilityEventCoalescer.clear();
   }
 
   /** Returns true if the Android OS currently has accessibility enabled, false otherwise. */
@@ -735,26 +821,18 @@ public class AccessibilityBridge extends AccessibilityNodeProvider {
       result.setTraversalAfter(rootAccessibilityView, semanticsNode.previousNodeId);
     }
 
-    Rect bounds = semanticsNode.getGlobalRect();
-    if (semanticsNode.parent != null) {
-      Rect parentBounds = semanticsNode.parent.getGlobalRect();
-      Rect boundsInParent = new Rect(bounds);
-      boundsInParent.offset(-parentBounds.left, -parentBounds.top);
-      result.setBoundsInParent(boundsInParent);
-    } else {
-      result.setBoundsInParent(bounds);
-    }
-    final Rect boundsInScreen = getBoundsInScreen(bounds);
-    result.setBoundsInScreen(boundsInScreen);
+    // AccessibilityNodeInfo copies the bounds, so the cached rects can be passed directly.
+    result.setBoundsInParent(semanticsNode.getBoundsInParent());
+    final int[] locationOnScreen = new int[2];
+    rootAccessibilityView.getLocationOnScreen(locationOnScreen);
+    result.setBoundsInScreen(semanticsNode.getBoundsInScreen(locationOnScreen));
     result.setVisibleToUser(true);
     result.setEnabled(
         !semanticsNode.hasFlag(Flag.HAS_ENABLED_STATE) || semanticsNode.hasFlag(Flag.IS_ENABLED));
 
     if (semanticsNode.hasAction(Action.TAP)) {
       if (Build.VERSION.SDK_INT >= 21 && semanticsNode.onTapOverride != null) {
-        result.addAction(
-            new AccessibilityNodeInfo.AccessibilityAction(
-                AccessibilityNodeInfo.ACTION_CLICK, semanticsNode.onTapOverride.hint));
+        result.addAction(semanticsNode.getNodeInfoActions().tapOverride);
         result.setClickable(true);
       } else {
         result.addAction(AccessibilityNodeInfo.ACTION_CLICK);
@@ -763,9 +841,7 @@ public class AccessibilityBridge extends AccessibilityNodeProvider {
     }
     if (semanticsNode.hasAction(Action.LONG_PRESS)) {
       if (Build.VERSION.SDK_INT >= 21 && semanticsNode.onLongPressOverride != null) {
-        result.addAction(
-            new AccessibilityNodeInfo.AccessibilityAction(
-                AccessibilityNodeInfo.ACTION_LONG_CLICK, semanticsNode.onLongPressOverride.hint));
+        result.addAction(semanticsNode.getNodeInfoActions().longPressOverride);
         result.setLongClickable(true);
       } else {
         result.addAction(AccessibilityNodeInfo.ACTION_LONG_CLICK);
@@ -851,9 +927,9 @@ public class AccessibilityBridge extends AccessibilityNodeProvider {
     // Scopes routes are not focusable, only need to set the content
     // for non-scopes-routes semantics nodes.
     if (semanticsNode.hasFlag(Flag.IS_TEXT_FIELD)) {
-      result.setText(semanticsNode.getValueLabelHint());
+      result.setText(semanticsNode.getCachedValueLabelHint());
     } else if (!semanticsNode.hasFlag(Flag.SCOPES_ROUTE)) {
-      CharSequence content = semanticsNode.getValueLabelHint();
+      CharSequence content = semanticsNode.getCachedValueLabelHint();
       if (Build.VERSION.SDK_INT < Build.VERSION_CODES.P) {
         if (semanticsNode.tooltip != null) {
           // For backward compatibility with Flutter SDK before Android API
@@ -907,11 +983,9 @@ public class AccessibilityBridge extends AccessibilityNodeProvider {
 
     // Actions on the local context menu
     if (Build.VERSION.SDK_INT >= 21) {
-      if (semanticsNode.customAccessibilityActions != null) {
-        for (CustomAccessibilityAction action : semanticsNode.customAccessibilityActions) {
-          result.addAction(
-              new AccessibilityNodeInfo.AccessibilityAction(action.resourceId, action.label));
-        }
+      for (AccessibilityNodeInfo.AccessibilityAction action :
+          semanticsNode.getNodeInfoActions().customActions) {
+        result.addAction(action);
       }
     }
 
@@ -940,20 +1014,6 @@ public class AccessibilityBridge extends AccessibilityNodeProvider {
     return result;
   }
 
-  /**
-   * Get the bounds in screen with root FlutterView's offset.
-   *
-   * @param bounds the bounds in FlutterView
-   * @return the bounds with offset
-   */
-  private Rect getBoundsInScreen(Rect bounds) {
-    Rect boundsInScreen = new Rect(bounds);
-    int[] locationOnScreen = new int[2];
-    rootAccessibilityView.getLocationOnScreen(locationOnScreen);
-    boundsInScreen.offset(locationOnScreen[0], locationOnScreen[1]);
-    return boundsInScreen;
-  }
-
   /**
    * Instructs the view represented by {@code virtualViewId} to carry out the desired {@code
    * accessibilityAction}, perhaps configured by additional {@code arguments}.
@@ -970,6 +1030,8 @@ public class AccessibilityBridge extends AccessibilityNodeProvider {
   @Override
   public boolean performAction(
       int virtualViewId, int accessibilityAction, @Nullable Bundle arguments) {
+    // The action applies to the nodes as Flutter last described them.
+    applyPendingUpdates();
     if (virtualViewId >= MIN_ENGINE_GENERATED_NODE_ID) {
       // The node is in the engine generated range, and is handled by the accessibility view
       // embedder.
@@ -1437,6 +1499,8 @@ public class AccessibilityBridge extends AccessibilityNodeProvider {
     if (!accessibilityManager.isTouchExplorationEnabled()) {
       return false;
     }
+    // Hit test against the nodes as Flutter last described them.
+    applyPendingUpdates();
     if (flutterSemanticsTree.isEmpty()) {
       return false;
     }
@@ -1523,6 +1587,128 @@ public class AccessibilityBridge extends AccessibilityNodeProvider {
       stringIndex = buffer.getInt();
       action.hint = stringIndex == -1 ? null : strings[stringIndex];
     }
+    customAccessibilityActionsGeneration++;
+  }
+
+  @NonNull
+  private static synchronized Executor getDefaultSemanticsUpdateExecutor() {
+    if (defaultSemanticsUpdateExecutor == null) {
+      defaultSemanticsUpdateExecutor =
+          Executors.newSingleThreadExecutor(
+              (runnable) -> {
+                final Thread thread = new Thread(runnable, "flutter-semantics");
+                thread.setDaemon(true);
+                return thread;
+              });
+    }
+    return defaultSemanticsUpdateExecutor;
+  }
+
+  /**
+   * Sets the {@link Executor} that decodes semantics updates, or null to decode them on the UI
+   * thread.
+   *
+   * <p>The executor must run tasks one at a time, in submission order.
+   */
+  @VisibleForTesting
+  void setSemanticsUpdateExecutor(@Nullable Executor executor) {
+    semanticsUpdateExecutor = executor;
+  }
+
+  /**
+   * Applies the given custom accessibility actions on the UI thread, in order with the semantics
+   * updates.
+   */
+  @VisibleForTesting
+  void scheduleCustomAccessibilityActionsUpdate(
+      @NonNull ByteBuffer buffer, @NonNull String[] strings) {
+    if (pendingUpdates.isEmpty()) {
+      updateCustomAccessibilityActions(buffer, strings);
+      return;
+    }
+    // There's little to decode, but the actions must not be applied before the semantics updates
+    // that are still pending.
+    pendingUpdates.add(new PendingUpdate(copyOf(buffer), strings, null));
+  }
+
+  /**
+   * Decodes the given semantics update on the semantics update executor, then applies it to
+   * {@link #flutterSemanticsTree} on the UI thread.
+   *
+   * <p>Only decoding, including the {@link StringAttribute}s, runs off the UI thread. Geometry is
+   * still computed on the UI thread, because it is stored in the {@link SemanticsNode}s that
+   * Android reads from the UI thread at any time.
+   */
+  @VisibleForTesting
+  void scheduleSemanticsUpdate(
+      @NonNull ByteBuffer buffer,
+      @NonNull String[] strings,
+      @NonNull ByteBuffer[] stringAttributeArgs) {
+    final Executor executor = semanticsUpdateExecutor;
+    if (executor == null) {
+      applyPendingUpdates();
+      updateSemantics(buffer, strings, stringAttributeArgs);
+      return;
+    }
+    // The buffers are backed by native memory that is only valid during this call.
+    final ByteBuffer bufferCopy = copyOf(buffer);
+    final ByteBuffer[] stringAttributeArgsCopy = new ByteBuffer[stringAttributeArgs.length];
+    for (int i = 0; i < stringAttributeArgs.length; i++) {
+      stringAttributeArgsCopy[i] = copyOf(stringAttributeArgs[i]);
+    }
+    final PendingUpdate update = new PendingUpdate(bufferCopy, strings, stringAttributeArgsCopy);
+    pendingUpdates.add(update);
+    executor.execute(
+        () -> {
+          update.decode();
+          mainHandler.post(applyDecodedUpdates);
+        });
+  }
+
+  /**
+   * Applies every pending update, decoding on the UI thread the ones that the semantics update
+   * executor didn't decode yet.
+   *
+   * <p>Called before handling anything that refers to semantics nodes, such as an action from
+   * Android or a message from Flutter, so that it sees the nodes as Flutter last described them.
+   */
+  private void applyPendingUpdates() {
+    applyPendingUpdates(true);
+  }
+
+  // Applies the pending updates in order. Unless decodeOnUiThread is set, stops at the first update
+  // that the semantics update executor didn't decode yet.
+  private void applyPendingUpdates(boolean decodeOnUiThread) {
+    while (!isReleased && !pendingUpdates.isEmpty()) {
+      final PendingUpdate update = pendingUpdates.peekFirst();
+      if (!decodeOnUiThread && !update.isDecoded()) {
+        return;
+      }
+      pendingUpdates.removeFirst();
+      final List<SemanticsNodeUpdate> nodeUpdates = update.decode();
+      if (nodeUpdates == null) {
+        updateCustomAccessibilityActions(update.buffer, update.strings);
+      } else {
+        applySemanticsUpdate(nodeUpdates);
+      }
+    }
+  }
+
+  /**
+   * Returns the number of accessibility events that were dropped or replaced instead of being sent,
+   * because they were redundant with other events of the same frame.
+   */
+  @VisibleForTesting
+  public int getSuppressedAccessibilityEventCount() {
+    return accessibilityEventCoalescer.getSuppressedEventCount();
+  }
+
+  @NonNull
+  private static ByteBuffer copyOf(@NonNull ByteBuffer buffer) {
+    final ByteBuffer copy = ByteBuffer.allocate(buffer.remaining()).order(buffer.order());
+    copy.put(buffer.duplicate());
+    copy.flip();
+    return copy;
   }
 
   /**
@@ -1536,11 +1722,18 @@ public class AccessibilityBridge extends AccessibilityNodeProvider {
       @NonNull ByteBuffer buffer,
       @NonNull String[] strings,
       @NonNull ByteBuffer[] stringAttributeArgs) {
+    applySemanticsUpdate(SemanticsNodeUpdate.decodeAll(buffer, strings, stringAttributeArgs));
+  }
+
+  /**
+   * Updates {@link #flutterSemanticsTree} with node configurations that were already decoded from a
+   * semantics update buffer, then sends the resulting {@link AccessibilityEvent}s.
+   */
+  private void applySemanticsUpdate(@NonNull List<SemanticsNodeUpdate> nodeUpdates) {
     ArrayList<SemanticsNode> updated = new ArrayList<>();
-    while (buffer.hasRemaining()) {
-      int id = buffer.getInt();
-      SemanticsNode semanticsNode = getOrCreateSemanticsNode(id);
-      semanticsNode.updateWith(buffer, strings, stringAttributeArgs);
+    for (SemanticsNodeUpdate nodeUpdate : nodeUpdates) {
+      SemanticsNode semanticsNode = getOrCreateSemanticsNode(nodeUpdate.id);
+      semanticsNode.updateWith(nodeUpdate);
       if (semanticsNode.hasFlag(Flag.IS_HIDDEN)) {
         continue;
       }
@@ -1705,7 +1898,9 @@ public class AccessibilityBridge extends AccessibilityNodeProvider {
           // index of 2.
           event.setToIndex(object.scrollIndex + visibleChildren - 1);
         }
-        sendAccessibilityEvent(event);
+        if (accessibilityManager.isEnabled()) {
+          accessibilityEventCoalescer.sendViewScrolled(object.id, event);
+        }
       }
       if (object.hasFlag(Flag.IS_LIVE_REGION) && object.didChangeLabel()) {
         sendWindowContentChangeEvent(object.id);
@@ -1825,11 +2020,18 @@ public class AccessibilityBridge extends AccessibilityNodeProvider {
     if (!accessibilityManager.isEnabled()) {
       return;
     }
-    // See
-    // https://developer.android.com/reference/android/view/View.html#sendAccessibilityEvent(int)
-    // We just want the final part at this point, since the event parameter
-    // has already been correctly populated.
-    rootAccessibilityView.getParent().requestSendAccessibilityEvent(rootAccessibilityView, event);
+    requestSendAccessibilityEvent(event);
+  }
+
+  private void requestSendAccessibilityEvent(@NonNull AccessibilityEvent event) {
+    // The event is already populated, so only the final part of
+    // View#sendAccessibilityEvent(int) is needed.
+    final ViewParent parent = rootAccessibilityView.getParent();
+    if (parent == null) {
+      event.recycle();
+      return;
+    }
+    parent.requestSendAccessibilityEvent(rootAccessibilityView, event);
   }
 
   /**
@@ -1873,8 +2075,9 @@ public class AccessibilityBridge extends AccessibilityNodeProvider {
   }
 
   /**
-   * Creates a {@link AccessibilityEvent#TYPE_WINDOW_CONTENT_CHANGED} and sends the event to
-   * Android's accessibility system.
+   * Creates a {@link AccessibilityEvent#TYPE_WINDOW_CONTENT_CHANGED} for a semantics update and
+   * sends the event to Android's accessibility system on the next frame, unless an event of the
+   * same frame already covers it.
    *
    * <p>It sets the content change types to {@link AccessibilityEvent#CONTENT_CHANGE_TYPE_SUBTREE}
    * when supported by the API level.
@@ -1883,12 +2086,26 @@ public class AccessibilityBridge extends AccessibilityNodeProvider {
    * has changed.
    */
   private void sendWindowContentChangeEvent(int virtualViewId) {
+    if (!accessibilityManager.isEnabled()) {
+      return;
+    }
+    final AccessibilityEvent event = obtainWindowContentChangeEvent(virtualViewId);
+    // Live regions are announced from their own events, so they are never merged into the
+    // event of an ancestor.
+    final SemanticsNode semanticsNode = flutterSemanticsTree.get(virtualViewId);
+    final boolean isLiveRegion =
+        semanticsNode != null && semanticsNode.hasFlag(Flag.IS_LIVE_REGION);
+    accessibilityEventCoalescer.sendWindowContentChanged(virtualViewId, event, !isLiveRegion);
+  }
+
+  @NonNull
+  private AccessibilityEvent obtainWindowContentChangeEvent(int virtualViewId) {
     AccessibilityEvent event =
         obtainAccessibilityEvent(virtualViewId, AccessibilityEvent.TYPE_WINDOW_CONTENT_CHANGED);
     if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.KITKAT) {
       event.setContentChangeTypes(AccessibilityEvent.CONTENT_CHANGE_TYPE_SUBTREE);
     }
-    sendAccessibilityEvent(event);
+    return event;
   }
 
   /**
@@ -2011,7 +2228,7 @@ public class AccessibilityBridge extends AccessibilityNodeProvider {
     }
     accessibilityFocusedSemanticsNode = null;
     hoveredObject = null;
-    sendWindowContentChangeEvent(0);
+    sendAccessibilityEvent(obtainWindowContentChangeEvent(0));
   }
 
   /**
@@ -2186,6 +2403,263 @@ public class AccessibilityBridge extends AccessibilityNodeProvider {
     String locale;
   }
 
+  /**
+   * The {@link AccessibilityNodeInfo.AccessibilityAction}s of a {@link SemanticsNode}'s overridden
+   * and custom actions.
+   *
+   * <p>{@link AccessibilityNodeInfo.AccessibilityAction}s are immutable, so they are created once
+   * per version of the node and added to every {@link AccessibilityNodeInfo} created for it.
+   */
+  @TargetApi(21)
+  @RequiresApi(21)
+  private static final class NodeInfoActions {
+    @Nullable final AccessibilityNodeInfo.AccessibilityAction tapOverride;
+    @Nullable final AccessibilityNodeInfo.AccessibilityAction longPressOverride;
+    @NonNull final List<AccessibilityNodeInfo.AccessibilityAction> customActions;
+
+    NodeInfoActions(@NonNull SemanticsNode semanticsNode) {
+      tapOverride =
+          semanticsNode.onTapOverride == null
+              ? null
+              : new AccessibilityNodeInfo.AccessibilityAction(
+                  AccessibilityNodeInfo.ACTION_CLICK, semanticsNode.onTapOverride.hint);
+      longPressOverride =
+          semanticsNode.onLongPressOverride == null
+              ? null
+              : new AccessibilityNodeInfo.AccessibilityAction(
+                  AccessibilityNodeInfo.ACTION_LONG_CLICK, semanticsNode.onLongPressOverride.hint);
+      if (semanticsNode.customAccessibilityActions == null) {
+        customActions = Collections.emptyList();
+      } else {
+        customActions = new ArrayList<>(semanticsNode.customAccessibilityActions.size());
+        for (CustomAccessibilityAction action : semanticsNode.customAccessibilityActions) {
+          customActions.add(
+              new AccessibilityNodeInfo.AccessibilityAction(action.resourceId, action.label));
+        }
+      }
+    }
+  }
+
+  /**
+   * A semantics update or a custom accessibility actions update that Flutter sent, and that {@link
+   * AccessibilityBridge} didn't apply yet.
+   *
+   * <p>A semantics update is decoded by whichever of the semantics update executor and the UI
+   * thread gets to it first. Decoding is guarded by this object, which also makes the decoded
+   * {@link SemanticsNodeUpdate}s visible to the UI thread.
+   */
+  private static final class PendingUpdate {
+    @NonNull final ByteBuffer buffer;
+    @NonNull final String[] strings;
+    // Null for a custom accessibility actions update, which is applied without being decoded.
+    @Nullable private final ByteBuffer[] stringAttributeArgs;
+    // The decoded semantics update, or null if it wasn't decoded yet. Guarded by this.
+    @Nullable private List<SemanticsNodeUpdate> nodeUpdates;
+
+    PendingUpdate(
+        @NonNull ByteBuffer buffer,
+        @NonNull String[] strings,
+        @Nullable ByteBuffer[] stringAttributeArgs) {
+      this.buffer = buffer;
+      this.strings = strings;
+      this.stringAttributeArgs = stringAttributeArgs;
+    }
+
+    synchronized boolean isDecoded() {
+      return stringAttributeArgs == null || nodeUpdates != null;
+    }
+
+    /** Decodes the semantics update if needed, and returns it, or null for custom actions. */
+    @Nullable
+    synchronized List<SemanticsNodeUpdate> decode() {
+      if (stringAttributeArgs != null && nodeUpdates == null) {
+        nodeUpdates = SemanticsNodeUpdate.decodeAll(buffer, strings, stringAttributeArgs);
+      }
+      return nodeUpdates;
+    }
+  }
+
+  /**
+   * The configuration of a single {@link SemanticsNode}, as decoded from a semantics update buffer.
+   *
+   * <p>Decoding doesn't touch the semantics tree, so it can run off the UI thread. The tree is then
+   * updated on the UI thread with {@link SemanticsNode#updateWith(SemanticsNodeUpdate)}.
+   *
+   * <p>The fields are only written by {@link #decodeAll}, and must not be changed after the update
+   * is handed to the UI thread, which only reads them.
+   */
+  private static final class SemanticsNodeUpdate {
+    int id;
+    int flags;
+    int actions;
+    int maxValueLength;
+    int currentValueLength;
+    int textSelectionBase;
+    int textSelectionExtent;
+    int platformViewId;
+    int scrollChildren;
+    int scrollIndex;
+    float scrollPosition;
+    float scrollExtentMax;
+    float scrollExtentMin;
+    String label;
+    List<StringAttribute> labelAttributes;
+    String value;
+    List<StringAttribute> valueAttributes;
+    String increasedValue;
+    List<StringAttribute> increasedValueAttributes;
+    String decreasedValue;
+    List<StringAttribute> decreasedValueAttributes;
+    String hint;
+    List<StringAttribute> hintAttributes;
+    String tooltip;
+    TextDirection textDirection;
+    float left;
+    float top;
+    float right;
+    float bottom;
+    final float[] transform = new float[16];
+    int[] childrenInTraversalOrder;
+    int[] childrenInHitTestOrder;
+    int[] customAccessibilityActionIds;
+
+    /**
+     * Decodes every node configuration in the given {@code buffer}, in order.
+     *
+     * <p>The buffer is encoded by PlatformViewAndroid::UpdateSemantics, and the decode logic must
+     * be kept in sync with that method's encoding logic.
+     */
+    @NonNull
+    static List<SemanticsNodeUpdate> decodeAll(
+        @NonNull ByteBuffer buffer,
+        @NonNull String[] strings,
+        @NonNull ByteBuffer[] stringAttributeArgs) {
+      final List<SemanticsNodeUpdate> updates = new ArrayList<>();
+      while (buffer.hasRemaining()) {
+        updates.add(decode(buffer, strings, stringAttributeArgs));
+      }
+      return updates;
+    }
+
+    private static SemanticsNodeUpdate decode(
+        @NonNull ByteBuffer buffer,
+        @NonNull String[] strings,
+        @NonNull ByteBuffer[] stringAttributeArgs) {
+      final SemanticsNodeUpdate update = new SemanticsNodeUpdate();
+      update.id = buffer.getInt();
+      update.flags = buffer.getInt();
+      update.actions = buffer.getInt();
+      update.maxValueLength = buffer.getInt();
+      update.currentValueLength = buffer.getInt();
+      update.textSelectionBase = buffer.getInt();
+      update.textSelectionExtent = buffer.getInt();
+      update.platformViewId = buffer.getInt();
+      update.scrollChildren = buffer.getInt();
+      update.scrollIndex = buffer.getInt();
+      update.scrollPosition = buffer.getFloat();
+      update.scrollExtentMax = buffer.getFloat();
+      update.scrollExtentMin = buffer.getFloat();
+
+      int stringIndex = buffer.getInt();
+      update.label = stringIndex == -1 ? null : strings[stringIndex];
+
+      update.labelAttributes = getStringAttributesFromBuffer(buffer, stringAttributeArgs);
+
+      stringIndex = buffer.getInt();
+      update.value = stringIndex == -1 ? null : strings[stringIndex];
+
+      update.valueAttributes = getStringAttributesFromBuffer(buffer, stringAttributeArgs);
+
+      stringIndex = buffer.getInt();
+      update.increasedValue = stringIndex == -1 ? null : strings[stringIndex];
+
+      update.increasedValueAttributes = getStringAttributesFromBuffer(buffer, stringAttributeArgs);
+
+      stringIndex = buffer.getInt();
+      update.decreasedValue = stringIndex == -1 ? null : strings[stringIndex];
+
+      update.decreasedValueAttributes = getStringAttributesFromBuffer(buffer, stringAttributeArgs);
+
+      stringIndex = buffer.getInt();
+      update.hint = stringIndex == -1 ? null : strings[stringIndex];
+
+      update.hintAttributes = getStringAttributesFromBuffer(buffer, stringAttributeArgs);
+
+      stringIndex = buffer.getInt();
+      update.tooltip = stringIndex == -1 ? null : strings[stringIndex];
+
+      update.textDirection = TextDirection.fromInt(buffer.getInt());
+
+      update.left = buffer.getFloat();
+      update.top = buffer.getFloat();
+      update.right = buffer.getFloat();
+      update.bottom = buffer.getFloat();
+
+      for (int i = 0; i < 16; ++i) {
+        update.transform[i] = buffer.getFloat();
+      }
+
+      final int childCount = buffer.getInt();
+      update.childrenInTraversalOrder = new int[childCount];
+      update.childrenInHitTestOrder = new int[childCount];
+      for (int i = 0; i < childCount; ++i) {
+        update.childrenInTraversalOrder[i] = buffer.getInt();
+      }
+      for (int i = 0; i < childCount; ++i) {
+        update.childrenInHitTestOrder[i] = buffer.getInt();
+      }
+
+      final int actionCount = buffer.getInt();
+      update.customAccessibilityActionIds = new int[actionCount];
+      for (int i = 0; i < actionCount; i++) {
+        update.customAccessibilityActionIds[i] = buffer.getInt();
+      }
+      return update;
+    }
+
+    private static List<StringAttribute> getStringAttributesFromBuffer(
+        @NonNull ByteBuffer buffer, @NonNull ByteBuffer[] stringAttributeArgs) {
+      final int attributesCount = buffer.getInt();
+      if (attributesCount == -1) {
+        return null;
+      }
+      final List<StringAttribute> result = new ArrayList<>(attributesCount);
+      for (int i = 0; i < attributesCount; ++i) {
+        final int start = buffer.getInt();
+        final int end = buffer.getInt();
+        final StringAttributeType type = StringAttributeType.values()[buffer.getInt()];
+        switch (type) {
+          case SPELLOUT:
+            {
+              // Pops the -1 size.
+              buffer.getInt();
+              SpellOutStringAttribute attribute = new SpellOutStringAttribute();
+              attribute.start = start;
+              attribute.end = end;
+              attribute.type = type;
+              result.add(attribute);
+              break;
+            }
+          case LOCALE:
+            {
+              final int argsIndex = buffer.getInt();
+              final ByteBuffer args = stringAttributeArgs[argsIndex];
+              LocaleStringAttribute attribute = new LocaleStringAttribute();
+              attribute.start = start;
+              attribute.end = end;
+              attribute.type = type;
+              attribute.locale = Charset.forName("UTF-8").decode(args).toString();
+              result.add(attribute);
+              break;
+            }
+          default:
+            break;
+        }
+      }
+      return result;
+    }
+  }
+
   /**
    * Flutter {@code SemanticsNode} represented in Java/Android.
    *
@@ -2285,6 +2759,29 @@ public class AccessibilityBridge extends AccessibilityNodeProvider {
     private float[] globalTransform;
     private Rect globalRect;
 
+    // Incremented whenever the configuration or the global geometry of this node changes.
+    //
+    // The values below are derived from the node for its AccessibilityNodeInfo. Each is cached
+    // with the generation it was computed at, and only computed again once the node changed.
+    private int generation = 0;
+
+    private int valueLabelHintGeneration = -1;
+    private CharSequence valueLabelHint;
+
+    private int boundsInParentGeneration = -1;
+    private SemanticsNode boundsInParentParent;
+    private int boundsInParentParentGeneration = -1;
+    private final Rect boundsInParent = new Rect();
+
+    private int boundsInScreenGeneration = -1;
+    private int boundsInScreenLeftOffset;
+    private int boundsInScreenTopOffset;
+    private final Rect boundsInScreen = new Rect();
+
+    private int nodeInfoActionsGeneration = -1;
+    private int nodeInfoActionsCustomActionsGeneration = -1;
+    private NodeInfoActions nodeInfoActions;
+
     SemanticsNode(@NonNull AccessibilityBridge accessibilityBridge) {
       this.accessibilityBridge = accessibilityBridge;
     }
@@ -2387,10 +2884,7 @@ public class AccessibilityBridge extends AccessibilityNodeProvider {
       }
     }
 
-    private void updateWith(
-        @NonNull ByteBuffer buffer,
-        @NonNull String[] strings,
-        @NonNull ByteBuffer[] stringAttributeArgs) {
+    private void updateWith(@NonNull SemanticsNodeUpdate update) {
       hadPreviousConfig = true;
       previousValue = value;
       previousLabel = label;
@@ -2402,78 +2896,58 @@ public class AccessibilityBridge extends AccessibilityNodeProvider {
       previousScrollExtentMax = scrollExtentMax;
       previousScrollExtentMin = scrollExtentMin;
 
-      flags = buffer.getInt();
-      actions = buffer.getInt();
-      maxValueLength = buffer.getInt();
-      currentValueLength = buffer.getInt();
-      textSelectionBase = buffer.getInt();
-      textSelectionExtent = buffer.getInt();
-      platformViewId = buffer.getInt();
-      scrollChildren = buffer.getInt();
-      scrollIndex = buffer.getInt();
-      scrollPosition = buffer.getFloat();
-      scrollExtentMax = buffer.getFloat();
-      scrollExtentMin = buffer.getFloat();
-
-      int stringIndex = buffer.getInt();
-      label = stringIndex == -1 ? null : strings[stringIndex];
-
-      labelAttributes = getStringAttributesFromBuffer(buffer, stringAttributeArgs);
-
-      stringIndex = buffer.getInt();
-      value = stringIndex == -1 ? null : strings[stringIndex];
-
-      valueAttributes = getStringAttributesFromBuffer(buffer, stringAttributeArgs);
-
-      stringIndex = buffer.getInt();
-      increasedValue = stringIndex == -1 ? null : strings[stringIndex];
-
-      increasedValueAttributes = getStringAttributesFromBuffer(buffer, stringAttributeArgs);
-
-      stringIndex = buffer.getInt();
-      decreasedValue = stringIndex == -1 ? null : strings[stringIndex];
-
-      decreasedValueAttributes = getStringAttributesFromBuffer(buffer, stringAttributeArgs);
-
-      stringIndex = buffer.getInt();
-      hint = stringIndex == -1 ? null : strings[stringIndex];
-
-      hintAttributes = getStringAttributesFromBuffer(buffer, stringAttributeArgs);
-
-      stringIndex = buffer.getInt();
-      tooltip = stringIndex == -1 ? null : strings[stringIndex];
-
-      textDirection = TextDirection.fromInt(buffer.getInt());
-
-      left = buffer.getFloat();
-      top = buffer.getFloat();
-      right = buffer.getFloat();
-      bottom = buffer.getFloat();
+      flags = update.flags;
+      actions = update.actions;
+      maxValueLength = update.maxValueLength;
+      currentValueLength = update.currentValueLength;
+      textSelectionBase = update.textSelectionBase;
+      textSelectionExtent = update.textSelectionExtent;
+      platformViewId = update.platformViewId;
+      scrollChildren = update.scrollChildren;
+      scrollIndex = update.scrollIndex;
+      scrollPosition = update.scrollPosition;
+      scrollExtentMax = update.scrollExtentMax;
+      scrollExtentMin = update.scrollExtentMin;
+      label = update.label;
+      labelAttributes = update.labelAttributes;
+      value = update.value;
+      valueAttributes = update.valueAttributes;
+      increasedValue = update.increasedValue;
+      increasedValueAttributes = update.increasedValueAttributes;
+      decreasedValue = update.decreasedValue;
+      decreasedValueAttributes = update.decreasedValueAttributes;
+      hint = update.hint;
+      hintAttributes = update.hintAttributes;
+      tooltip = update.tooltip;
+      textDirection = update.textDirection;
+
+      left = update.left;
+      top = update.top;
+      right = update.right;
+      bottom = update.bottom;
 
       if (transform == null) {
         transform = new float[16];
       }
-      for (int i = 0; i < 16; ++i) {
-        transform[i] = buffer.getFloat();
-      }
+      System.arraycopy(update.transform, 0, transform, 0, 16);
       inverseTransformDirty = true;
       globalGeometryDirty = true;
+      generation++;
 
-      final int childCount = buffer.getInt();
       childrenInTraversalOrder.clear();
       childrenInHitTestOrder.clear();
-      for (int i = 0; i < childCount; ++i) {
-        SemanticsNode child = accessibilityBridge.getOrCreateSemanticsNode(buffer.getInt());
+      for (int childId : update.childrenInTraversalOrder) {
+        SemanticsNode child = accessibilityBridge.getOrCreateSemanticsNode(childId);
         child.parent = this;
         childrenInTraversalOrder.add(child);
       }
-      for (int i = 0; i < childCount; ++i) {
-        SemanticsNode child = accessibilityBridge.getOrCreateSemanticsNode(buffer.getInt());
+      for (int childId : update.childrenInHitTestOrder) {
+        SemanticsNode child = accessibilityBridge.getOrCreateSemanticsNode(childId);
         child.parent = this;
         childrenInHitTestOrder.add(child);
       }
 
-      final int actionCount = buffer.getInt();
+      final int actionCount = update.customAccessibilityActionIds.length;
       if (actionCount == 0) {
         customAccessibilityActions = null;
       } else {
@@ -2481,9 +2955,9 @@ public class AccessibilityBridge extends AccessibilityNodeProvider {
           customAccessibilityActions = new ArrayList<>(actionCount);
         else customAccessibilityActions.clear();
 
-        for (int i = 0; i < actionCount; i++) {
+        for (int actionId : update.customAccessibilityActionIds) {
           CustomAccessibilityAction action =
-              accessibilityBridge.getOrCreateAccessibilityAction(buffer.getInt());
+              accessibilityBridge.getOrCreateAccessibilityAction(actionId);
           if (action.overrideId == Action.TAP.value) {
             onTapOverride = action;
           } else if (action.overrideId == Action.LONG_PRESS.value) {
@@ -2501,48 +2975,6 @@ public class AccessibilityBridge extends AccessibilityNodeProvider {
       }
     }
 
-    private List<StringAttribute> getStringAttributesFromBuffer(
-        @NonNull ByteBuffer buffer, @NonNull ByteBuffer[] stringAttributeArgs) {
-      final int attributesCount = buffer.getInt();
-      if (attributesCount == -1) {
-        return null;
-      }
-      final List<StringAttribute> result = new ArrayList<>(attributesCount);
-      for (int i = 0; i < attributesCount; ++i) {
-        final int start = buffer.getInt();
-        final int end = buffer.getInt();
-        final StringAttributeType type = StringAttributeType.values()[buffer.getInt()];
-        switch (type) {
-          case SPELLOUT:
-            {
-              // Pops the -1 size.
-              buffer.getInt();
-              SpellOutStringAttribute attribute = new SpellOutStringAttribute();
-              attribute.start = start;
-              attribute.end = end;
-              attribute.type = type;
-              result.add(attribute);
-              break;
-            }
-          case LOCALE:
-            {
-              final int argsIndex = buffer.getInt();
-              final ByteBuffer args = stringAttributeArgs[argsIndex];
-              LocaleStringAttribute attribute = new LocaleStringAttribute();
-              attribute.start = start;
-              attribute.end = end;
-              attribute.type = type;
-              attribute.locale = Charset.forName("UTF-8").decode(args).toString();
-              result.add(attribute);
-              break;
-            }
-          default:
-            break;
-        }
-      }
-      return result;
-    }
-
     private void ensureInverseTransform() {
       if (!inverseTransformDirty) {
         return;
@@ -2678,6 +3110,7 @@ public class AccessibilityBridge extends AccessibilityNodeProvider {
             Math.round(max(point1[1], point2[1], point3[1], point4[1])));
 
         globalGeometryDirty = false;
+        generation++;
       }
 
       if (BuildConfig.DEBUG) {
@@ -2714,6 +3147,83 @@ public class AccessibilityBridge extends AccessibilityNodeProvider {
       return Math.max(a, Math.max(b, Math.max(c, d)));
     }
 
+    /** Returns {@link #getValueLabelHint()}, computed again only if this node changed. */
+    private CharSequence getCachedValueLabelHint() {
+      if (valueLabelHintGeneration == generation) {
+        accessibilityBridge.nodeInfoCacheHitCount++;
+        return valueLabelHint;
+      }
+      accessibilityBridge.nodeInfoCacheMissCount++;
+      valueLabelHint = getValueLabelHint();
+      valueLabelHintGeneration = generation;
+      return valueLabelHint;
+    }
+
+    /**
+     * Returns the global rect of this node relative to the global rect of its parent, computed
+     * again only if this node or its parent changed.
+     */
+    private Rect getBoundsInParent() {
+      final int parentGeneration = parent == null ? -1 : parent.generation;
+      if (boundsInParentGeneration == generation
+          && boundsInParentParent == parent
+          && boundsInParentParentGeneration == parentGeneration) {
+        accessibilityBridge.nodeInfoCacheHitCount++;
+        return boundsInParent;
+      }
+      accessibilityBridge.nodeInfoCacheMissCount++;
+      boundsInParent.set(getGlobalRect());
+      if (parent != null) {
+        final Rect parentBounds = parent.getGlobalRect();
+        boundsInParent.offset(-parentBounds.left, -parentBounds.top);
+      }
+      boundsInParentGeneration = generation;
+      boundsInParentParent = parent;
+      boundsInParentParentGeneration = parentGeneration;
+      return boundsInParent;
+    }
+
+    /**
+     * Returns the global rect of this node offset by the given location of the root view on
+     * screen, computed again only if this node changed or the root view moved.
+     */
+    private Rect getBoundsInScreen(@NonNull int[] rootLocationOnScreen) {
+      if (boundsInScreenGeneration == generation
+          && boundsInScreenLeftOffset == rootLocationOnScreen[0]
+          && boundsInScreenTopOffset == rootLocationOnScreen[1]) {
+        accessibilityBridge.nodeInfoCacheHitCount++;
+        return boundsInScreen;
+      }
+      accessibilityBridge.nodeInfoCacheMissCount++;
+      boundsInScreen.set(getGlobalRect());
+      boundsInScreen.offset(rootLocationOnScreen[0], rootLocationOnScreen[1]);
+      boundsInScreenGeneration = generation;
+      boundsInScreenLeftOffset = rootLocationOnScreen[0];
+      boundsInScreenTopOffset = rootLocationOnScreen[1];
+      return boundsInScreen;
+    }
+
+    /**
+     * Returns the {@link AccessibilityNodeInfo.AccessibilityAction}s of this node's overridden and
+     * custom actions, computed again only if this node or the custom actions changed.
+     */
+    @TargetApi(21)
+    @RequiresApi(21)
+    private NodeInfoActions getNodeInfoActions() {
+      if (nodeInfoActionsGeneration == generation
+          && nodeInfoActionsCustomActionsGeneration
+              == accessibilityBridge.customAccessibilityActionsGeneration) {
+        accessibilityBridge.nodeInfoCacheHitCount++;
+        return nodeInfoActions;
+      }
+      accessibilityBridge.nodeInfoCacheMissCount++;
+      nodeInfoActions = new NodeInfoActions(this);
+      nodeInfoActionsGeneration = generation;
+      nodeInfoActionsCustomActionsGeneration =
+          accessibilityBridge.customAccessibilityActionsGeneration;
+      return nodeInfoActions;
+    }
+
     private CharSequence getValueLabelHint() {
       CharSequence[] array;
       if (Build.VERSION.SDK_INT < Build.VERSION_CODES.LOLLIPOP) {
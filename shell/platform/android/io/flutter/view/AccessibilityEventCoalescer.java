@@ -0,0 +1,162 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.view;
+
+import android.os.Build;
+import android.view.accessibility.AccessibilityEvent;
+import androidx.annotation.NonNull;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Collects the {@link AccessibilityEvent#TYPE_WINDOW_CONTENT_CHANGED} and {@link
+ * AccessibilityEvent#TYPE_VIEW_SCROLLED} events that the semantics updates of a frame produce, and
+ * sends them from the next frame callback, without redundant events.
+ *
+ * <p>Within a frame:
+ *
+ * <ul>
+ *   <li>A {@link AccessibilityEvent#TYPE_WINDOW_CONTENT_CHANGED} event is dropped if an event of
+ *       that type is already pending for the same node, or for an ancestor whose subtree covers it.
+ *   <li>A {@link AccessibilityEvent#TYPE_VIEW_SCROLLED} event replaces the one already pending for
+ *       the same node, since only the latest scroll position matters.
+ * </ul>
+ *
+ * <p>Other events, such as focus changes and hover events, describe what the user just did, so
+ * {@link AccessibilityBridge} sends them right away instead.
+ */
+final class AccessibilityEventCoalescer {
+  /** Sends the events and describes the semantics tree to the coalescer. */
+  interface Delegate {
+    /** Sends the given event to Android's accessibility system. */
+    void sendAccessibilityEvent(@NonNull AccessibilityEvent event);
+
+    /** Runs the given callback on the next frame. */
+    void postFrameCallback(@NonNull Runnable callback);
+
+    /**
+     * Returns the ID of the parent of the given node, or {@link #NO_PARENT} if the node is the root
+     * or is unknown.
+     */
+    int getParentId(int virtualViewId);
+  }
+
+  /** Returned by {@link Delegate#getParentId(int)} for nodes without a parent. */
+  static final int NO_PARENT = -1;
+
+  private static final class PendingEvent {
+    @NonNull AccessibilityEvent event;
+
+    PendingEvent(@NonNull AccessibilityEvent event) {
+      this.event = event;
+    }
+  }
+
+  @NonNull private final Delegate delegate;
+  @NonNull private final List<PendingEvent> pendingEvents = new ArrayList<>();
+
+  // The pending events that can be merged, by the ID of their node.
+  @NonNull private final Map<Integer, PendingEvent> pendingContentChanges = new HashMap<>();
+  @NonNull private final Map<Integer, PendingEvent> pendingScrolls = new HashMap<>();
+
+  // Whether flush is posted to the next frame.
+  private boolean isFlushPosted = false;
+  private int suppressedEventCount = 0;
+
+  @NonNull private final Runnable flush = this::flush;
+
+  AccessibilityEventCoalescer(@NonNull Delegate delegate) {
+    this.delegate = delegate;
+  }
+
+  /**
+   * Sends a {@link AccessibilityEvent#TYPE_WINDOW_CONTENT_CHANGED} event for the given node.
+   *
+   * @param mergeIntoAncestor whether the event can be dropped in favor of a pending event for an
+   *     ancestor. Live regions should pass false, since their own events are what gets them
+   *     announced.
+   */
+  void sendWindowContentChanged(
+      int virtualViewId, @NonNull AccessibilityEvent event, boolean mergeIntoAncestor) {
+    final PendingEvent pending = pendingContentChanges.get(virtualViewId);
+    if (pending != null) {
+      if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.KITKAT) {
+        pending.event.setContentChangeTypes(
+            pending.event.getContentChangeTypes() | event.getContentChangeTypes());
+      }
+      suppress(event);
+      return;
+    }
+    if (mergeIntoAncestor) {
+      for (int id = delegate.getParentId(virtualViewId);
+          id != NO_PARENT;
+          id = delegate.getParentId(id)) {
+        if (pendingContentChanges.containsKey(id)) {
+          suppress(event);
+          return;
+        }
+      }
+    }
+    pendingContentChanges.put(virtualViewId, enqueue(event));
+  }
+
+  /** Sends a {@link AccessibilityEvent#TYPE_VIEW_SCROLLED} event for the given node. */
+  void sendViewScrolled(int virtualViewId, @NonNull AccessibilityEvent event) {
+    final PendingEvent pending = pendingScrolls.get(virtualViewId);
+    if (pending != null) {
+      // Keep the position of the earlier event, with the latest scroll values.
+      suppress(pending.event);
+      pending.event = event;
+      return;
+    }
+    pendingScrolls.put(virtualViewId, enqueue(event));
+  }
+
+  /** Drops the pending events without sending them. */
+  void clear() {
+    for (PendingEvent pending : pendingEvents) {
+      pending.event.recycle();
+    }
+    pendingEvents.clear();
+    pendingContentChanges.clear();
+    pendingScrolls.clear();
+    // A flush that is still posted finds nothing to send, and the next event posts a new one.
+    isFlushPosted = false;
+  }
+
+  /** Returns the number of events that were dropped or replaced instead of being sent. */
+  int getSuppressedEventCount() {
+    return suppressedEventCount;
+  }
+
+  @NonNull
+  private PendingEvent enqueue(@NonNull AccessibilityEvent event) {
+    final PendingEvent pending = new PendingEvent(event);
+    pendingEvents.add(pending);
+    if (!isFlushPosted) {
+      isFlushPosted = true;
+      delegate.postFrameCallback(flush);
+    }
+    return pending;
+  }
+
+  private void suppress(@NonNull AccessibilityEvent event) {
+    suppressedEventCount++;
+    event.recycle();
+  }
+
+  private void flush() {
+    isFlushPosted = false;
+    final List<PendingEvent> events = new ArrayList<>(pendingEvents);
+    pendingEvents.clear();
+    pendingContentChanges.clear();
+    pendingScrolls.clear();
+    for (PendingEvent pending : events) {
+      delegate.sendAccessibilityEvent(pending.event);
+    }
+  }
+}
@@ -5,6 +5,7 @@
 package io.flutter.view;
 
 import android.graphics.SurfaceTexture;
+import android.view.Surface;
 
 // TODO(mattcarroll): re-evalute docs in this class and add nullability annotations.
 /**
@@ -20,6 +21,39 @@ public interface TextureRegistry {
    */
   SurfaceTextureEntry createSurfaceTexture();
 
+  /**
+   * Whether {@link #createImageTexture(int, int, int)} is supported by this registry on the
+   * current device.
+   *
+   * <p>Callers should check this before creating an image texture, and fall back to {@link
+   * #createSurfaceTexture()} otherwise.
+   */
+  default boolean isImageTextureSupported() {
+    return false;
+  }
+
+  /**
+   * Creates and registers a texture that displays the images of an {@link
+   * android.media.ImageReader} managed by the Flutter engine.
+   *
+   * <p>Producers draw to {@link ImageTextureEntry#getSurface()}. Unlike a SurfaceTexture, the
+   * texture isn't attached to the raster thread's GL context, and when frames are produced faster
+   * than Flutter draws them, only the latest frame is displayed.
+   *
+   * <p>Must only be called if {@link #isImageTextureSupported()} returns true.
+   *
+   * @param width The width of the images in pixels.
+   * @param height The height of the images in pixels.
+   * @param maxImages The number of buffers shared by the producer and Flutter. Must be at least 4,
+   *     since Flutter holds the displayed image and the image it replaced until the GPU is done
+   *     with them, and needs two more buffers to skip to the latest image.
+   * @return An ImageTextureEntry.
+   * @throws UnsupportedOperationException if {@link #isImageTextureSupported()} returns false.
+   */
+  default ImageTextureEntry createImageTexture(int width, int height, int maxImages) {
+    throw new UnsupportedOperationException("Image textures aren't supported by this registry.");
+  }
+
   /** A registry entry for a managed SurfaceTexture. */
   interface SurfaceTextureEntry {
     /** @return The managed SurfaceTexture. */
@@ -31,4 +65,16 @@ public interface TextureRegistry {
     /** Deregisters and releases this SurfaceTexture. */
     void release();
   }
+
+  /** A registry entry for a managed texture backed by an ImageReader. */
+  interface ImageTextureEntry {
+    /** @return The surface that producers draw frames to. */
+    Surface getSurface();
+
+    /** @return The identity of this texture. */
+    long id();
+
+    /** Deregisters this texture and closes its ImageReader. */
+    void release();
+  }
 }
@@ -27,6 +27,11 @@ class JNIMock final : public PlatformViewAndroidJNI {
               (int responseId, std::unique_ptr<fml::Mapping> data),
               (override));
 
+  MOCK_METHOD(void,
+              FlutterViewHandleKeyDataResponse,
+              (int responseId, bool handled),
+              (override));
+
   MOCK_METHOD(void,
               FlutterViewUpdateSemantics,
               (std::vector<uint8_t> buffer,
@@ -64,6 +69,16 @@ class JNIMock final : public PlatformViewAndroidJNI {
               (JavaLocalRef surface_texture),
               (override));
 
+  MOCK_METHOD(JavaLocalRef,
+              ImageTextureAcquireLatestHardwareBuffer,
+              (JavaLocalRef image_texture),
+              (override));
+
+  MOCK_METHOD(void,
+              ImageTextureReleaseHardwareBuffer,
+              (JavaLocalRef image_texture, JavaLocalRef hardware_buffer),
+              (override));
+
   MOCK_METHOD(void,
               FlutterViewOnDisplayPlatformView,
               (int view_id,
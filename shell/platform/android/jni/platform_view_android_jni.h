@@ -51,6 +51,15 @@ class PlatformViewAndroidJNI {
       int responseId,
       std::unique_ptr<fml::Mapping> data) = 0;
 
+  //----------------------------------------------------------------------------
+  /// @brief      Responds to a key data packet with whether the framework
+  ///             handled the key event.
+  ///
+  /// @note       Must be called from the platform thread.
+  ///
+  virtual void FlutterViewHandleKeyDataResponse(int responseId,
+                                                bool handled) = 0;
+
   //----------------------------------------------------------------------------
   /// @brief      Sends semantics tree updates.
   ///
@@ -109,6 +118,28 @@ class PlatformViewAndroidJNI {
   virtual void SurfaceTextureDetachFromGLContext(
       JavaLocalRef surface_texture) = 0;
 
+  //----------------------------------------------------------------------------
+  /// @brief      Acquires the latest image of an ImageReader-backed texture.
+  ///             The image stays open until its hardware buffer is passed
+  ///             to `ImageTextureReleaseHardwareBuffer`.
+  ///
+  /// @return     The `android.hardware.HardwareBuffer` of the image, or null
+  ///             if there's no new image.
+  ///
+  virtual JavaLocalRef ImageTextureAcquireLatestHardwareBuffer(
+      JavaLocalRef image_texture) = 0;
+
+  //----------------------------------------------------------------------------
+  /// @brief      Closes an image acquired by
+  ///             `ImageTextureAcquireLatestHardwareBuffer`, so the producer
+  ///             can reuse its buffer.
+  ///
+  /// @note       Must only be called once the GPU no longer reads the buffer.
+  ///
+  virtual void ImageTextureReleaseHardwareBuffer(
+      JavaLocalRef image_texture,
+      JavaLocalRef hardware_buffer) = 0;
+
   //----------------------------------------------------------------------------
   /// @brief      Positions and sizes a platform view if using hybrid
   ///             composition.
@@ -4,13 +4,17 @@
 
 #include "flutter/shell/platform/android/platform_view_android.h"
 
+#include <cstring>
 #include <memory>
+#include <string>
 #include <utility>
 
 #include "flutter/fml/synchronization/waitable_event.h"
+#include "flutter/lib/ui/window/key_data_packet.h"
 #include "flutter/shell/common/shell_io_manager.h"
 #include "flutter/shell/gpu/gpu_surface_gl_delegate.h"
 #include "flutter/shell/platform/android/android_context_gl.h"
+#include "flutter/shell/platform/android/android_external_image_texture_gl.h"
 #include "flutter/shell/platform/android/android_external_texture_gl.h"
 #include "flutter/shell/platform/android/android_surface_gl.h"
 #include "flutter/shell/platform/android/android_surface_software.h"
@@ -269,6 +273,50 @@ void PlatformViewAndroid::DispatchSemanticsAction(JNIEnv* env,
       std::move(args_vector));
 }
 
+void PlatformViewAndroid::DispatchKeyDataPacket(JNIEnv* env,
+                                                jobject buffer,
+                                                jint position,
+                                                jint response_id) {
+  // The buffer holds a packet in the layout of |KeyDataPacket|: the size of
+  // the character, the fixed-length |KeyData| fields, then the character.
+  // The framework replies on the UI thread, but the Java side must be called
+  // on the platform thread.
+  auto respond = [jni_facade = jni_facade_,
+                  platform_task_runner = task_runners_.GetPlatformTaskRunner(),
+                  response_id](bool handled) {
+    platform_task_runner->PostTask([jni_facade, response_id, handled]() {
+      jni_facade->FlutterViewHandleKeyDataResponse(response_id, handled);
+    });
+  };
+
+  uint8_t* data = static_cast<uint8_t*>(env->GetDirectBufferAddress(buffer));
+  const size_t header_size = sizeof(uint64_t) + sizeof(KeyData);
+  if (data == nullptr || position < 0 ||
+      static_cast<size_t>(position) < header_size) {
+    FML_LOG(ERROR) << "Dropping malformed key data packet.";
+    // The Java side still waits for a response to the event.
+    respond(false);
+    return;
+  }
+
+  uint64_t character_size;
+  memcpy(&character_size, data, sizeof(uint64_t));
+  if (character_size > static_cast<size_t>(position) - header_size) {
+    FML_LOG(ERROR) << "Dropping malformed key data packet.";
+    respond(false);
+    return;
+  }
+
+  KeyData key_data;
+  memcpy(&key_data, data + sizeof(uint64_t), sizeof(KeyData));
+  std::string character(reinterpret_cast<const char*>(data + header_size),
+                        character_size);
+  auto packet = std::make_unique<KeyDataPacket>(
+      key_data, character.empty() ? nullptr : character.c_str());
+
+  PlatformView::DispatchKeyDataPacket(std::move(packet), std::move(respond));
+}
+
 // |PlatformView|
 void PlatformViewAndroid::UpdateSemantics(
     flutter::SemanticsNodeUpdates update,
@@ -283,6 +331,13 @@ void PlatformViewAndroid::RegisterExternalTexture(
       texture_id, surface_texture, std::move(jni_facade_)));
 }
 
+void PlatformViewAndroid::RegisterImageTexture(
+    int64_t texture_id,
+    const fml::jni::ScopedJavaGlobalRef<jobject>& image_texture) {
+  RegisterTexture(std::make_shared<AndroidExternalImageTextureGL>(
+      texture_id, image_texture, jni_facade_));
+}
+
 // |PlatformView|
 std::unique_ptr<VsyncWaiter> PlatformViewAndroid::CreateVSyncWaiter() {
   return std::make_unique<VsyncWaiterAndroid>(task_runners_);
@@ -94,10 +94,19 @@ class PlatformViewAndroid final : public PlatformView {
                                jobject args,
                                jint args_position);
 
+  void DispatchKeyDataPacket(JNIEnv* env,
+                             jobject buffer,
+                             jint position,
+                             jint response_id);
+
   void RegisterExternalTexture(
       int64_t texture_id,
       const fml::jni::ScopedJavaGlobalRef<jobject>& surface_texture);
 
+  void RegisterImageTexture(
+      int64_t texture_id,
+      const fml::jni::ScopedJavaGlobalRef<jobject>& image_texture);
+
   // |PlatformView|
   void LoadDartDeferredLibrary(
       intptr_t loading_unit_id,
@@ -4,14 +4,18 @@
 
 #include "flutter/shell/platform/android/platform_view_android_jni_impl.h"
 
+#include <algorithm>
+#include <android/api-level.h>
 #include <android/native_window_jni.h>
 #include <dlfcn.h>
 #include <jni.h>
 #include <memory>
 #include <sstream>
 #include <utility>
+#include <vector>
 
 #include "unicode/uchar.h"
+#include "unicode/uset.h"
 
 #include "flutter/assets/directory_asset_bundle.h"
 #include "flutter/common/settings.h"
@@ -74,6 +78,8 @@ static jmethodID g_handle_platform_message_method = nullptr;
 
 static jmethodID g_handle_platform_message_response_method = nullptr;
 
+static jmethodID g_handle_key_data_response_method = nullptr;
+
 static jmethodID g_update_semantics_method = nullptr;
 
 static jmethodID g_update_custom_accessibility_actions_method = nullptr;
@@ -100,6 +106,13 @@ static jmethodID g_get_transform_matrix_method = nullptr;
 
 static jmethodID g_detach_from_gl_context_method = nullptr;
 
+static fml::jni::ScopedJavaGlobalRef<jclass>* g_image_texture_wrapper_class =
+    nullptr;
+
+static jmethodID g_acquire_latest_hardware_buffer_method = nullptr;
+
+static jmethodID g_release_hardware_buffer_method = nullptr;
+
 static jmethodID g_compute_platform_resolved_locale_method = nullptr;
 
 static jmethodID g_request_dart_deferred_library_method = nullptr;
@@ -417,6 +430,20 @@ static void DispatchPointerDataPacket(JNIEnv* env,
       std::move(packet));
 }
 
+static void DispatchKeyDataPacket(JNIEnv* env,
+                                  jobject jcaller,
+                                  jlong shell_holder,
+                                  jobject buffer,
+                                  jint position,
+                                  jint response_id) {
+  ANDROID_SHELL_HOLDER->GetPlatformView()->DispatchKeyDataPacket(
+      env,         //
+      buffer,      //
+      position,    //
+      response_id  //
+  );
+}
+
 static void DispatchSemanticsAction(JNIEnv* env,
                                     jobject jcaller,
                                     jlong shell_holder,
@@ -462,6 +489,17 @@ static void RegisterTexture(JNIEnv* env,
   );
 }
 
+static void RegisterImageTexture(JNIEnv* env,
+                                 jobject jcaller,
+                                 jlong shell_holder,
+                                 jlong texture_id,
+                                 jobject image_texture) {
+  ANDROID_SHELL_HOLDER->GetPlatformView()->RegisterImageTexture(
+      static_cast<int64_t>(texture_id),                           //
+      fml::jni::ScopedJavaGlobalRef<jobject>(env, image_texture)  //
+  );
+}
+
 static void MarkTextureFrameAvailable(JNIEnv* env,
                                       jobject jcaller,
                                       jlong shell_holder,
@@ -470,6 +508,19 @@ static void MarkTextureFrameAvailable(JNIEnv* env,
       static_cast<int64_t>(texture_id));
 }
 
+static void MarkTextureFramesAvailable(JNIEnv* env,
+                                       jobject jcaller,
+                                       jlong shell_holder,
+                                       jlongArray texture_ids,
+                                       jint count) {
+  const jsize length = std::min<jsize>(
+      std::max<jint>(count, 0), env->GetArrayLength(texture_ids));
+  std::vector<jlong> ids(length);
+  env->GetLongArrayRegion(texture_ids, 0, length, ids.data());
+  ANDROID_SHELL_HOLDER->GetPlatformView()->MarkTextureFramesAvailable(
+      std::vector<int64_t>(ids.begin(), ids.end()));
+}
+
 static void UnregisterTexture(JNIEnv* env,
                               jobject jcaller,
                               jlong shell_holder,
@@ -538,6 +589,58 @@ static jboolean FlutterTextUtilsIsRegionalIndicator(JNIEnv* env,
   return u_hasBinaryProperty(codePoint, UProperty::UCHAR_REGIONAL_INDICATOR);
 }
 
+// The property values must match the PROPERTY_* constants of FlutterTextUtils.
+static jintArray FlutterTextUtilsGetPropertyRanges(JNIEnv* env,
+                                                   jobject obj,
+                                                   jint property) {
+  UProperty uproperty;
+  switch (property) {
+    case 0:
+      uproperty = UProperty::UCHAR_EMOJI;
+      break;
+    case 1:
+      uproperty = UProperty::UCHAR_EMOJI_MODIFIER;
+      break;
+    case 2:
+      uproperty = UProperty::UCHAR_EMOJI_MODIFIER_BASE;
+      break;
+    case 3:
+      uproperty = UProperty::UCHAR_VARIATION_SELECTOR;
+      break;
+    case 4:
+      uproperty = UProperty::UCHAR_REGIONAL_INDICATOR;
+      break;
+    default:
+      return nullptr;
+  }
+
+  UErrorCode status = U_ZERO_ERROR;
+  const USet* set = u_getBinaryPropertySet(uproperty, &status);
+  if (U_FAILURE(status)) {
+    return nullptr;
+  }
+  std::vector<jint> ranges;
+  const int32_t item_count = uset_getItemCount(set);
+  for (int32_t i = 0; i < item_count; i++) {
+    UChar32 start;
+    UChar32 end;
+    // Binary property sets only contain ranges, which have no string.
+    if (uset_getItem(set, i, &start, &end, nullptr, 0, &status) != 0 ||
+        U_FAILURE(status)) {
+      return nullptr;
+    }
+    ranges.push_back(start);
+    ranges.push_back(end);
+  }
+
+  jintArray result = env->NewIntArray(ranges.size());
+  if (result == nullptr) {
+    return nullptr;
+  }
+  env->SetIntArrayRegion(result, 0, ranges.size(), ranges.data());
+  return result;
+}
+
 static void LoadLoadingUnitFailure(intptr_t loading_unit_id,
                                    std::string message,
                                    bool transient) {
@@ -697,6 +800,11 @@ bool RegisterApi(JNIEnv* env) {
           .signature = "(JLjava/nio/ByteBuffer;I)V",
           .fnPtr = reinterpret_cast<void*>(&DispatchPointerDataPacket),
       },
+      {
+          .name = "nativeDispatchKeyDataPacket",
+          .signature = "(JLjava/nio/ByteBuffer;II)V",
+          .fnPtr = reinterpret_cast<void*>(&DispatchKeyDataPacket),
+      },
       {
           .name = "nativeDispatchSemanticsAction",
           .signature = "(JIILjava/nio/ByteBuffer;I)V",
@@ -723,11 +831,22 @@ bool RegisterApi(JNIEnv* env) {
                        "WeakReference;)V",
           .fnPtr = reinterpret_cast<void*>(&RegisterTexture),
       },
+      {
+          .name = "nativeRegisterImageTexture",
+          .signature = "(JJLjava/lang/ref/"
+                       "WeakReference;)V",
+          .fnPtr = reinterpret_cast<void*>(&RegisterImageTexture),
+      },
       {
           .name = "nativeMarkTextureFrameAvailable",
           .signature = "(JJ)V",
           .fnPtr = reinterpret_cast<void*>(&MarkTextureFrameAvailable),
       },
+      {
+          .name = "nativeMarkTextureFramesAvailable",
+          .signature = "(J[JI)V",
+          .fnPtr = reinterpret_cast<void*>(&MarkTextureFramesAvailable),
+      },
       {
           .name = "nativeUnregisterTexture",
           .signature = "(JJ)V",
@@ -770,6 +889,11 @@ bool RegisterApi(JNIEnv* env) {
           .fnPtr =
               reinterpret_cast<void*>(&FlutterTextUtilsIsRegionalIndicator),
       },
+      {
+          .name = "nativeFlutterTextUtilsGetPropertyRanges",
+          .signature = "(I)[I",
+          .fnPtr = reinterpret_cast<void*>(&FlutterTextUtilsGetPropertyRanges),
+      },
       {
           .name = "nativeLoadDartDeferredLibrary",
           .signature = "(JI[Ljava/lang/String;)V",
@@ -835,6 +959,14 @@ bool RegisterApi(JNIEnv* env) {
     return false;
   }
 
+  g_handle_key_data_response_method = env->GetMethodID(
+      g_flutter_jni_class->obj(), "handleKeyDataResponse", "(IZ)V");
+
+  if (g_handle_key_data_response_method == nullptr) {
+    FML_LOG(ERROR) << "Could not locate handleKeyDataResponse method";
+    return false;
+  }
+
   g_update_semantics_method = env->GetMethodID(
       g_flutter_jni_class->obj(), "updateSemantics",
       "(Ljava/nio/ByteBuffer;[Ljava/lang/String;[Ljava/nio/ByteBuffer;)V");
@@ -1066,6 +1198,37 @@ bool PlatformViewAndroid::Register(JNIEnv* env) {
     return false;
   }
 
+  g_image_texture_wrapper_class = new fml::jni::ScopedJavaGlobalRef<jclass>(
+      env, env->FindClass(
+               "io/flutter/embedding/engine/renderer/ImageTextureWrapper"));
+  if (g_image_texture_wrapper_class->is_null()) {
+    FML_LOG(ERROR) << "Could not locate ImageTextureWrapper class";
+    return false;
+  }
+
+  // `android.hardware.HardwareBuffer` doesn't exist before API level 26, and
+  // image textures are only created from API level 29.
+  if (android_get_device_api_level() >= 29) {
+    g_acquire_latest_hardware_buffer_method =
+        env->GetMethodID(g_image_texture_wrapper_class->obj(),
+                         "acquireLatestHardwareBuffer",
+                         "()Landroid/hardware/HardwareBuffer;");
+
+    if (g_acquire_latest_hardware_buffer_method == nullptr) {
+      FML_LOG(ERROR) << "Could not locate acquireLatestHardwareBuffer method";
+      return false;
+    }
+
+    g_release_hardware_buffer_method = env->GetMethodID(
+        g_image_texture_wrapper_class->obj(), "releaseHardwareBuffer",
+        "(Landroid/hardware/HardwareBuffer;)V");
+
+    if (g_release_hardware_buffer_method == nullptr) {
+      FML_LOG(ERROR) << "Could not locate releaseHardwareBuffer method";
+      return false;
+    }
+  }
+
   g_compute_platform_resolved_locale_method = env->GetMethodID(
       g_flutter_jni_class->obj(), "computePlatformResolvedLocale",
       "([Ljava/lang/String;)[Ljava/lang/String;");
@@ -1158,6 +1321,24 @@ void PlatformViewAndroidJNIImpl::FlutterViewHandlePlatformMessageResponse(
   FML_CHECK(fml::jni::CheckException(env));
 }
 
+void PlatformViewAndroidJNIImpl::FlutterViewHandleKeyDataResponse(
+    int responseId,
+    bool handled) {
+  JNIEnv* env = fml::jni::AttachCurrentThread();
+
+  auto java_object = java_object_.get(env);
+  if (java_object.is_null()) {
+    // The Java object was collected before the framework responded. Drop the
+    // response on the floor.
+    return;
+  }
+
+  env->CallVoidMethod(java_object.obj(), g_handle_key_data_response_method,
+                      responseId, static_cast<jboolean>(handled));
+
+  FML_CHECK(fml::jni::CheckException(env));
+}
+
 void PlatformViewAndroidJNIImpl::FlutterViewUpdateSemantics(
     std::vector<uint8_t> buffer,
     std::vector<std::string> strings,
@@ -1345,6 +1526,57 @@ void PlatformViewAndroidJNIImpl::SurfaceTextureDetachFromGLContext(
   FML_CHECK(fml::jni::CheckException(env));
 }
 
+JavaLocalRef
+PlatformViewAndroidJNIImpl::ImageTextureAcquireLatestHardwareBuffer(
+    JavaLocalRef image_texture) {
+  JNIEnv* env = fml::jni::AttachCurrentThread();
+
+  if (image_texture.is_null() ||
+      g_acquire_latest_hardware_buffer_method == nullptr) {
+    return JavaLocalRef();
+  }
+
+  fml::jni::ScopedJavaLocalRef<jobject> image_texture_local_ref(
+      env, env->CallObjectMethod(image_texture.obj(),
+                                 g_java_weak_reference_get_method));
+  if (image_texture_local_ref.is_null()) {
+    return JavaLocalRef();
+  }
+
+  JavaLocalRef hardware_buffer(
+      env, env->CallObjectMethod(image_texture_local_ref.obj(),
+                                 g_acquire_latest_hardware_buffer_method));
+
+  FML_CHECK(fml::jni::CheckException(env));
+  return hardware_buffer;
+}
+
+void PlatformViewAndroidJNIImpl::ImageTextureReleaseHardwareBuffer(
+    JavaLocalRef image_texture,
+    JavaLocalRef hardware_buffer) {
+  JNIEnv* env = fml::jni::AttachCurrentThread();
+
+  if (image_texture.is_null() || hardware_buffer.is_null() ||
+      g_release_hardware_buffer_method == nullptr) {
+    return;
+  }
+
+  fml::jni::ScopedJavaLocalRef<jobject> image_texture_local_ref(
+      env, env->CallObjectMethod(image_texture.obj(),
+                                 g_java_weak_reference_get_method));
+  if (image_texture_local_ref.is_null()) {
+    // The wrapper was collected without being released. Collection doesn't
+    // close its images, and they can't be reached from here anymore: they are
+    // only closed by the finalizers of the images and their ImageReader.
+    return;
+  }
+
+  env->CallVoidMethod(image_texture_local_ref.obj(),
+                      g_release_hardware_buffer_method, hardware_buffer.obj());
+
+  FML_CHECK(fml::jni::CheckException(env));
+}
+
 void PlatformViewAndroidJNIImpl::FlutterViewOnDisplayPlatformView(
     int view_id,
     int x,
@@ -28,6 +28,8 @@ class PlatformViewAndroidJNIImpl final : public PlatformViewAndroidJNI {
       int responseId,
       std::unique_ptr<fml::Mapping> data) override;
 
+  void FlutterViewHandleKeyDataResponse(int responseId, bool handled) override;
+
   void FlutterViewUpdateSemantics(
       std::vector<uint8_t> buffer,
       std::vector<std::string> strings,
@@ -51,6 +53,12 @@ class PlatformViewAndroidJNIImpl final : public PlatformViewAndroidJNI {
 
   void SurfaceTextureDetachFromGLContext(JavaLocalRef surface_texture) override;
 
+  JavaLocalRef ImageTextureAcquireLatestHardwareBuffer(
+      JavaLocalRef image_texture) override;
+
+  void ImageTextureReleaseHardwareBuffer(JavaLocalRef image_texture,
+                                         JavaLocalRef hardware_buffer) override;
+
   void FlutterViewOnDisplayPlatformView(int view_id,
                                         int x,
                                         int y,
@@ -12,6 +12,7 @@ import io.flutter.embedding.android.FlutterFragmentTest;
 import io.flutter.embedding.android.FlutterTextureViewTest;
 import io.flutter.embedding.android.FlutterViewTest;
 import io.flutter.embedding.android.KeyChannelResponderTest;
+import io.flutter.embedding.android.KeyDataResponderTest;
 import io.flutter.embedding.android.KeyboardManagerTest;
 import io.flutter.embedding.engine.FlutterEngineCacheTest;
 import io.flutter.embedding.engine.FlutterEngineConnectionRegistryTest;
@@ -21,29 +22,38 @@ import io.flutter.embedding.engine.LocalizationPluginTest;
 import io.flutter.embedding.engine.RenderingComponentTest;
 import io.flutter.embedding.engine.dart.DartExecutorTest;
 import io.flutter.embedding.engine.dart.DartMessengerTest;
+import io.flutter.embedding.engine.deferredcomponents.DeferredComponentLibraryIndexTest;
 import io.flutter.embedding.engine.deferredcomponents.PlayStoreDeferredComponentManagerTest;
 import io.flutter.embedding.engine.loader.ApplicationInfoLoaderTest;
 import io.flutter.embedding.engine.loader.FlutterLoaderTest;
 import io.flutter.embedding.engine.mutatorsstack.FlutterMutatorViewTest;
 import io.flutter.embedding.engine.plugins.shim.ShimPluginRegistryTest;
 import io.flutter.embedding.engine.renderer.FlutterRendererTest;
+import io.flutter.embedding.engine.renderer.ImageTextureWrapperTest;
 import io.flutter.embedding.engine.systemchannels.DeferredComponentChannelTest;
 import io.flutter.embedding.engine.systemchannels.KeyEventChannelTest;
 import io.flutter.embedding.engine.systemchannels.PlatformChannelTest;
+import io.flutter.embedding.engine.systemchannels.PlatformViewsChannelTest;
 import io.flutter.embedding.engine.systemchannels.RestorationChannelTest;
 import io.flutter.external.FlutterLaunchTests;
 import io.flutter.plugin.common.BinaryCodecTest;
+import io.flutter.plugin.common.StandardMapCodecTest;
 import io.flutter.plugin.common.StandardMessageCodecTest;
 import io.flutter.plugin.common.StandardMethodCodecTest;
+import io.flutter.plugin.editing.FlutterTextUtilsTest;
 import io.flutter.plugin.editing.InputConnectionAdaptorTest;
 import io.flutter.plugin.editing.ListenableEditingStateTest;
 import io.flutter.plugin.editing.TextInputPluginTest;
 import io.flutter.plugin.mouse.MouseCursorPluginTest;
+import io.flutter.plugin.platform.OverlayViewPoolTest;
 import io.flutter.plugin.platform.PlatformPluginTest;
+import io.flutter.plugin.platform.PlatformViewPoolTest;
 import io.flutter.plugin.platform.PlatformViewsControllerTest;
 import io.flutter.plugin.platform.SingleViewPresentationTest;
+import io.flutter.plugin.platform.VirtualDisplayPoolTest;
 import io.flutter.util.PreconditionsTest;
 import io.flutter.view.AccessibilityBridgeTest;
+import io.flutter.view.AccessibilityEventCoalescerTest;
 import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
 import org.junit.runners.Suite.SuiteClasses;
@@ -54,6 +64,7 @@ import test.io.flutter.embedding.engine.PluginComponentTest;
 @RunWith(Suite.class)
 @SuiteClasses({
   AccessibilityBridgeTest.class,
+  AccessibilityEventCoalescerTest.class,
   ApplicationInfoLoaderTest.class,
   BinaryCodecTest.class,
   DartExecutorTest.class,
@@ -79,14 +90,21 @@ import test.io.flutter.embedding.engine.PluginComponentTest;
   FlutterViewTest.class,
   InputConnectionAdaptorTest.class,
   DeferredComponentChannelTest.class,
+  DeferredComponentLibraryIndexTest.class,
+  FlutterTextUtilsTest.class,
+  ImageTextureWrapperTest.class,
   KeyboardManagerTest.class,
   KeyChannelResponderTest.class,
+  KeyDataResponderTest.class,
   KeyEventChannelTest.class,
   ListenableEditingStateTest.class,
   LocalizationPluginTest.class,
   MouseCursorPluginTest.class,
+  OverlayViewPoolTest.class,
   PlatformChannelTest.class,
   PlatformPluginTest.class,
+  PlatformViewPoolTest.class,
+  PlatformViewsChannelTest.class,
   PlatformViewsControllerTest.class,
   PlayStoreDeferredComponentManagerTest.class,
   PluginComponentTest.class,
@@ -96,9 +114,11 @@ import test.io.flutter.embedding.engine.PluginComponentTest;
   ShimPluginRegistryTest.class,
   SingleViewPresentationTest.class,
   SmokeTest.class,
+  StandardMapCodecTest.class,
   StandardMessageCodecTest.class,
   StandardMethodCodecTest.class,
   TextInputPluginTest.class,
+  VirtualDisplayPoolTest.class,
 })
 /** Runs all of the unit tests listed in the {@code @SuiteClasses} annotation. */
 public class FlutterTestSuite {}
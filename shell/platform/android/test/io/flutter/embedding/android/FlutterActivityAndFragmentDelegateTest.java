@@ -1,10 +1,12 @@
 package io.flutter.embedding.android;
 
 import static android.content.ComponentCallbacks2.*;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Matchers.isNull;
@@ -21,6 +23,7 @@ import android.content.Intent;
 import android.graphics.Color;
 import android.graphics.drawable.ColorDrawable;
 import android.net.Uri;
+import android.os.Bundle;
 import androidx.annotation.NonNull;
 import androidx.lifecycle.Lifecycle;
 import io.flutter.FlutterInjector;
@@ -38,14 +41,17 @@ import io.flutter.embedding.engine.systemchannels.LifecycleChannel;
 import io.flutter.embedding.engine.systemchannels.LocalizationChannel;
 import io.flutter.embedding.engine.systemchannels.MouseCursorChannel;
 import io.flutter.embedding.engine.systemchannels.NavigationChannel;
+import io.flutter.embedding.engine.systemchannels.RestorationChannel;
 import io.flutter.embedding.engine.systemchannels.SettingsChannel;
 import io.flutter.embedding.engine.systemchannels.SystemChannel;
 import io.flutter.embedding.engine.systemchannels.TextInputChannel;
 import io.flutter.plugin.localization.LocalizationPlugin;
 import io.flutter.plugin.platform.PlatformViewsController;
+import java.util.Arrays;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.robolectric.Robolectric;
 import org.robolectric.RobolectricTestRunner;
 import org.robolectric.RuntimeEnvironment;
@@ -725,6 +731,10 @@ public class FlutterActivityAndFragmentDelegateTest {
     // Verify that the call was forwarded to the engine.
     verify(mockFlutterEngine.getDartExecutor(), times(7)).notifyLowMemoryWarning();
     verify(mockFlutterEngine.getSystemChannel(), times(1)).sendMemoryPressureWarning();
+    verify(mockFlutterEngine.getPlatformViewsController(), times(1))
+        .onTrimMemory(TRIM_MEMORY_RUNNING_LOW);
+    verify(mockFlutterEngine.getPlatformViewsController(), times(1))
+        .onTrimMemory(TRIM_MEMORY_COMPLETE);
   }
 
   @Test
@@ -742,6 +752,8 @@ public class FlutterActivityAndFragmentDelegateTest {
     // Verify that the call was forwarded to the engine.
     verify(mockFlutterEngine.getDartExecutor(), times(1)).notifyLowMemoryWarning();
     verify(mockFlutterEngine.getSystemChannel(), times(1)).sendMemoryPressureWarning();
+    verify(mockFlutterEngine.getPlatformViewsController(), times(1))
+        .onTrimMemory(TRIM_MEMORY_COMPLETE);
   }
 
   @Test
@@ -926,6 +938,52 @@ public class FlutterActivityAndFragmentDelegateTest {
     assertNull(delegate.activePreDrawListener);
   }
 
+  @Test
+  public void itRestoresTheFrameworkStateItSaved() {
+    byte[] frameworkState = new byte[10000];
+    Arrays.fill(frameworkState, (byte) 'a');
+    RestorationChannel restorationChannel =
+        new RestorationChannel(mock(DartExecutor.class), /*waitForRestorationData=*/ false);
+    restorationChannel.setRestorationData(frameworkState);
+    when(mockFlutterEngine.getRestorationChannel()).thenReturn(restorationChannel);
+    when(mockHost.shouldRestoreAndSaveState()).thenReturn(true);
+
+    FlutterActivityAndFragmentDelegate delegate = new FlutterActivityAndFragmentDelegate(mockHost);
+    delegate.onAttach(RuntimeEnvironment.application);
+    Bundle bundle = new Bundle();
+    delegate.onSaveInstanceState(bundle);
+
+    // The saved data is compressed.
+    assertTrue(bundle.getByteArray("framework.compressed").length < frameworkState.length);
+
+    RestorationChannel restoredChannel = mock(RestorationChannel.class);
+    when(mockFlutterEngine.getRestorationChannel()).thenReturn(restoredChannel);
+    FlutterActivityAndFragmentDelegate restoredDelegate =
+        new FlutterActivityAndFragmentDelegate(mockHost);
+    restoredDelegate.onAttach(RuntimeEnvironment.application);
+    restoredDelegate.onRestoreInstanceState(bundle);
+
+    ArgumentCaptor<byte[]> restoredState = ArgumentCaptor.forClass(byte[].class);
+    verify(restoredChannel).setRestorationData(restoredState.capture());
+    assertArrayEquals(frameworkState, restoredState.getValue());
+  }
+
+  @Test
+  public void itRestoresTheFrameworkStateOfTheUncompressedKey() {
+    RestorationChannel restorationChannel = mock(RestorationChannel.class);
+    when(mockFlutterEngine.getRestorationChannel()).thenReturn(restorationChannel);
+    when(mockHost.shouldRestoreAndSaveState()).thenReturn(true);
+    byte[] frameworkState = "Any String you want".getBytes();
+    Bundle bundle = new Bundle();
+    bundle.putByteArray("framework", frameworkState);
+
+    FlutterActivityAndFragmentDelegate delegate = new FlutterActivityAndFragmentDelegate(mockHost);
+    delegate.onAttach(RuntimeEnvironment.application);
+    delegate.onRestoreInstanceState(bundle);
+
+    verify(restorationChannel).setRestorationData(frameworkState);
+  }
+
   /**
    * Creates a mock {@link io.flutter.embedding.engine.FlutterEngine}.
    *
@@ -6,6 +6,7 @@ import static junit.framework.TestCase.assertTrue;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyInt;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
@@ -24,6 +25,7 @@ import android.media.Image;
 import android.media.Image.Plane;
 import android.media.ImageReader;
 import android.view.DisplayCutout;
+import android.view.KeyEvent;
 import android.view.View;
 import android.view.ViewGroup;
 import android.view.WindowInsets;
@@ -37,6 +39,7 @@ import io.flutter.embedding.engine.renderer.FlutterRenderer;
 import io.flutter.embedding.engine.systemchannels.SettingsChannel;
 import io.flutter.plugin.platform.PlatformViewsController;
 import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
 import java.util.concurrent.atomic.AtomicReference;
 import org.junit.Before;
 import org.junit.Test;
@@ -81,6 +84,41 @@ public class FlutterViewTest {
     verify(platformViewsController, times(1)).attachToView(flutterView);
   }
 
+  @Test
+  public void attachToFlutterEngine_sendsKeyDataPacketsWhenEnabled() {
+    FlutterView flutterView = spy(new FlutterView(RuntimeEnvironment.application));
+    // The view isn't attached to a window, so it has no dispatcher state of its own.
+    doReturn(new KeyEvent.DispatcherState()).when(flutterView).getKeyDispatcherState();
+    FlutterEngine flutterEngine =
+        spy(new FlutterEngine(RuntimeEnvironment.application, mockFlutterLoader, mockFlutterJni));
+    flutterEngine.setKeyDataPacketsEnabled(true);
+
+    flutterView.attachToFlutterEngine(flutterEngine);
+    flutterView.dispatchKeyEvent(new KeyEvent(KeyEvent.ACTION_DOWN, KeyEvent.KEYCODE_A));
+
+    // The packet is sent along with the channel message, which the framework pairs it with.
+    verify(mockFlutterJni, times(1))
+        .dispatchKeyDataPacket(
+            any(ByteBuffer.class), anyInt(), any(FlutterJNI.KeyDataResponseCallback.class));
+    verify(flutterEngine, times(1)).getKeyEventChannel();
+  }
+
+  @Test
+  public void attachToFlutterEngine_sendsKeyEventsThroughChannelByDefault() {
+    FlutterView flutterView = spy(new FlutterView(RuntimeEnvironment.application));
+    doReturn(new KeyEvent.DispatcherState()).when(flutterView).getKeyDispatcherState();
+    FlutterEngine flutterEngine =
+        spy(new FlutterEngine(RuntimeEnvironment.application, mockFlutterLoader, mockFlutterJni));
+
+    flutterView.attachToFlutterEngine(flutterEngine);
+    flutterView.dispatchKeyEvent(new KeyEvent(KeyEvent.ACTION_DOWN, KeyEvent.KEYCODE_A));
+
+    verify(flutterEngine, times(1)).getKeyEventChannel();
+    verify(mockFlutterJni, times(0))
+        .dispatchKeyDataPacket(
+            any(ByteBuffer.class), anyInt(), any(FlutterJNI.KeyDataResponseCallback.class));
+  }
+
   @Test
   public void detachFromFlutterEngine_alertsPlatformViews() {
     FlutterView flutterView = new FlutterView(RuntimeEnvironment.application);
@@ -705,6 +743,37 @@ public class FlutterViewTest {
     verify(mockReader, times(6)).acquireLatestImage();
   }
 
+  @Test
+  @SuppressLint("WrongCall") /*View#onDraw*/
+  public void flutterImageView_onDrawCopiesEachImageOnce() {
+    final ImageReader mockReader = mock(ImageReader.class);
+    when(mockReader.getMaxImages()).thenReturn(2);
+
+    final Image mockImage = mock(Image.class);
+    when(mockImage.getPlanes()).thenReturn(new Plane[0]);
+    when(mockReader.acquireLatestImage()).thenReturn(mockImage);
+
+    final FlutterImageView imageView =
+        spy(
+            new FlutterImageView(
+                RuntimeEnvironment.application,
+                mockReader,
+                FlutterImageView.SurfaceKind.background));
+
+    final FlutterJNI jni = mock(FlutterJNI.class);
+    imageView.attachToRenderer(new FlutterRenderer(jni));
+    doNothing().when(imageView).invalidate();
+
+    assertTrue(imageView.acquireLatestImage());
+    imageView.onDraw(mock(Canvas.class)); // Copy the image.
+    imageView.onDraw(mock(Canvas.class)); // No new image, reuse the bitmap.
+    verify(mockImage, times(1)).getPlanes();
+
+    assertTrue(imageView.acquireLatestImage());
+    imageView.onDraw(mock(Canvas.class)); // Copy the new image.
+    verify(mockImage, times(2)).getPlanes();
+  }
+
   @Test
   public void flutterImageView_detachFromRendererClosesPreviousImage() {
     final ImageReader mockReader = mock(ImageReader.class);
@@ -0,0 +1,264 @@
+package io.flutter.embedding.android;
+
+import static android.view.KeyCharacterMap.VIRTUAL_KEYBOARD;
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import android.annotation.TargetApi;
+import android.view.KeyEvent;
+import io.flutter.embedding.engine.FlutterJNI.KeyDataResponseCallback;
+import io.flutter.embedding.engine.renderer.FlutterRenderer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+@Config(manifest = Config.NONE)
+@RunWith(RobolectricTestRunner.class)
+@TargetApi(28)
+public class KeyDataResponderTest {
+  // A decoded key data packet.
+  private static class Packet {
+    long timestamp;
+    long type;
+    long physical;
+    long logical;
+    long synthesized;
+    String character;
+  }
+
+  private FlutterRenderer renderer;
+  private KeyDataResponder responder;
+  private final List<Packet> packets = new ArrayList<>();
+  private final List<KeyDataResponseCallback> responseCallbacks = new ArrayList<>();
+
+  @Before
+  public void setUp() {
+    renderer = mock(FlutterRenderer.class);
+    // The buffer is reused, so decode it when it's dispatched.
+    doAnswer(
+            invocation -> {
+              packets.add(decode(invocation.getArgument(0), invocation.getArgument(1)));
+              responseCallbacks.add(invocation.getArgument(2));
+              return null;
+            })
+        .when(renderer)
+        .dispatchKeyDataPacket(any(ByteBuffer.class), anyInt(), any(KeyDataResponseCallback.class));
+    responder = new KeyDataResponder(renderer);
+  }
+
+  @Test
+  public void handleEvent__writesPacketForPrintableKey() {
+    final KeyEvent event =
+        new KeyEvent(12, 34, KeyEvent.ACTION_DOWN, KeyEvent.KEYCODE_A, 0, 0, VIRTUAL_KEYBOARD, 30);
+
+    responder.handleEvent(event, (handled) -> {});
+
+    assertEquals(1, packets.size());
+    final Packet packet = packets.get(0);
+    assertEquals(34000, packet.timestamp);
+    assertEquals(KeyDataResponder.TYPE_DOWN, packet.type);
+    assertEquals(0x00070004L, packet.physical); // KeyA
+    assertEquals('a', packet.logical);
+    assertEquals(0, packet.synthesized);
+    assertEquals("a", packet.character);
+  }
+
+  @Test
+  public void handleEvent__writesRepeatAndUpEvents() {
+    responder.handleEvent(
+        new KeyEvent(0, 0, KeyEvent.ACTION_DOWN, KeyEvent.KEYCODE_A, 0, 0, VIRTUAL_KEYBOARD, 30),
+        (handled) -> {});
+    responder.handleEvent(
+        new KeyEvent(0, 0, KeyEvent.ACTION_DOWN, KeyEvent.KEYCODE_A, 1, 0, VIRTUAL_KEYBOARD, 30),
+        (handled) -> {});
+    responder.handleEvent(
+        new KeyEvent(0, 0, KeyEvent.ACTION_UP, KeyEvent.KEYCODE_A, 0, 0, VIRTUAL_KEYBOARD, 30),
+        (handled) -> {});
+
+    assertEquals(3, packets.size());
+    assertEquals(KeyDataResponder.TYPE_DOWN, packets.get(0).type);
+    assertEquals(KeyDataResponder.TYPE_REPEAT, packets.get(1).type);
+    assertEquals("a", packets.get(1).character);
+    assertEquals(KeyDataResponder.TYPE_UP, packets.get(2).type);
+    assertEquals('a', packets.get(2).logical);
+    assertEquals("", packets.get(2).character);
+    for (Packet packet : packets) {
+      assertEquals(0, packet.synthesized);
+    }
+  }
+
+  @Test
+  public void handleEvent__synthesizesMissedUp() {
+    final List<Boolean> results = new ArrayList<>();
+    responder.handleEvent(
+        new KeyEvent(0, 0, KeyEvent.ACTION_DOWN, KeyEvent.KEYCODE_A, 0, 0, VIRTUAL_KEYBOARD, 30),
+        results::add);
+    responder.handleEvent(
+        new KeyEvent(0, 0, KeyEvent.ACTION_DOWN, KeyEvent.KEYCODE_A, 0, 0, VIRTUAL_KEYBOARD, 30),
+        results::add);
+
+    assertEquals(3, packets.size());
+    assertEquals(KeyDataResponder.TYPE_UP, packets.get(1).type);
+    assertEquals(0x00070004L, packets.get(1).physical); // KeyA
+    assertEquals('a', packets.get(1).logical);
+    assertEquals(1, packets.get(1).synthesized);
+    assertEquals(KeyDataResponder.TYPE_DOWN, packets.get(2).type);
+    assertEquals(0, packets.get(2).synthesized);
+
+    // Only the responses to the real events are forwarded.
+    for (KeyDataResponseCallback callback : responseCallbacks) {
+      callback.onKeyDataResponse(true);
+    }
+    assertEquals(2, results.size());
+  }
+
+  @Test
+  public void handleEvent__synthesizesMissedDown() {
+    responder.handleEvent(
+        new KeyEvent(0, 0, KeyEvent.ACTION_DOWN, KeyEvent.KEYCODE_A, 3, 0, VIRTUAL_KEYBOARD, 30),
+        (handled) -> {});
+    responder.handleEvent(
+        new KeyEvent(
+            0, 0, KeyEvent.ACTION_UP, KeyEvent.KEYCODE_SHIFT_LEFT, 0, 0, VIRTUAL_KEYBOARD, 42),
+        (handled) -> {});
+
+    assertEquals(4, packets.size());
+    assertEquals(KeyDataResponder.TYPE_DOWN, packets.get(0).type);
+    assertEquals(1, packets.get(0).synthesized);
+    assertEquals("", packets.get(0).character);
+    assertEquals(KeyDataResponder.TYPE_REPEAT, packets.get(1).type);
+    assertEquals(0, packets.get(1).synthesized);
+    assertEquals(KeyDataResponder.TYPE_DOWN, packets.get(2).type);
+    assertEquals(0x000700e1L, packets.get(2).physical); // ShiftLeft
+    assertEquals(1, packets.get(2).synthesized);
+    assertEquals(KeyDataResponder.TYPE_UP, packets.get(3).type);
+    assertEquals(0x000700e1L, packets.get(3).physical); // ShiftLeft
+    assertEquals(0, packets.get(3).synthesized);
+  }
+
+  @Test
+  public void handleEvent__usesUnmodifiedCharacterForLogicalKey() {
+    // Shift+1 produces "!" on a US keyboard.
+    final KeyEvent event = mock(KeyEvent.class);
+    when(event.getAction()).thenReturn(KeyEvent.ACTION_DOWN);
+    when(event.getKeyCode()).thenReturn(KeyEvent.KEYCODE_1);
+    when(event.getScanCode()).thenReturn(2);
+    when(event.getUnicodeChar()).thenReturn((int) '!');
+    when(event.getUnicodeChar(0)).thenReturn((int) '1');
+
+    responder.handleEvent(event, (handled) -> {});
+
+    assertEquals(1, packets.size());
+    assertEquals(0x0007001eL, packets.get(0).physical); // Digit1
+    assertEquals('1', packets.get(0).logical);
+    assertEquals("!", packets.get(0).character);
+  }
+
+  @Test
+  public void handleEvent__mapsKeysWithoutScanCodeByKeyCode() {
+    responder.handleEvent(new KeyEvent(KeyEvent.ACTION_DOWN, KeyEvent.KEYCODE_A), (handled) -> {});
+    responder.handleEvent(new KeyEvent(KeyEvent.ACTION_DOWN, KeyEvent.KEYCODE_B), (handled) -> {});
+
+    assertEquals(2, packets.size());
+    assertEquals(0x00070004L, packets.get(0).physical); // KeyA
+    assertEquals(0x00070005L, packets.get(1).physical); // KeyB
+    // Both keys are pressed, so the second down didn't release the first key.
+    assertEquals(KeyDataResponder.TYPE_DOWN, packets.get(1).type);
+    assertEquals(0, packets.get(1).synthesized);
+  }
+
+  @Test
+  public void handleEvent__mapsNonPrintableKeyWithKeyboardMap() {
+    responder.handleEvent(
+        new KeyEvent(
+            0, 0, KeyEvent.ACTION_DOWN, KeyEvent.KEYCODE_SHIFT_LEFT, 0, 0, VIRTUAL_KEYBOARD, 42),
+        (handled) -> {});
+
+    assertEquals(1, packets.size());
+    assertEquals(0x000700e1L, packets.get(0).physical); // ShiftLeft
+    assertEquals(0x00200000102L, packets.get(0).logical); // ShiftLeft
+    assertEquals("", packets.get(0).character);
+  }
+
+  @Test
+  public void handleEvent__prefersKeyboardMapOverCharacterForLogicalKey() {
+    responder.handleEvent(
+        new KeyEvent(
+            0, 0, KeyEvent.ACTION_DOWN, KeyEvent.KEYCODE_NUMPAD_1, 0, 0, VIRTUAL_KEYBOARD, 79),
+        (handled) -> {});
+
+    assertEquals(1, packets.size());
+    assertEquals(0x00070059L, packets.get(0).physical); // Numpad1
+    assertEquals(0x00200000231L, packets.get(0).logical); // Numpad1
+  }
+
+  @Test
+  public void handleEvent__usesAndroidPlaneForUnmappedKey() {
+    responder.handleEvent(
+        new KeyEvent(
+            0, 0, KeyEvent.ACTION_DOWN, KeyEvent.KEYCODE_STEM_1, 0, 0, VIRTUAL_KEYBOARD, 0x300),
+        (handled) -> {});
+    responder.handleEvent(
+        new KeyEvent(
+            0, 0, KeyEvent.ACTION_DOWN, KeyEvent.KEYCODE_STEM_2, 0, 0, VIRTUAL_KEYBOARD, 0),
+        (handled) -> {});
+
+    assertEquals(2, packets.size());
+    assertEquals(0x300 | KeyboardMap.ANDROID_PLANE, packets.get(0).physical);
+    assertEquals(KeyEvent.KEYCODE_STEM_1 | KeyboardMap.ANDROID_PLANE, packets.get(0).logical);
+    assertEquals(KeyEvent.KEYCODE_STEM_2 | KeyboardMap.ANDROID_PLANE, packets.get(1).physical);
+    assertEquals(KeyEvent.KEYCODE_STEM_2 | KeyboardMap.ANDROID_PLANE, packets.get(1).logical);
+  }
+
+  @Test
+  public void handleEvent__forwardsFrameworkResponse() {
+    final List<Boolean> results = new ArrayList<>();
+    responder.handleEvent(new KeyEvent(KeyEvent.ACTION_DOWN, KeyEvent.KEYCODE_A), results::add);
+    responder.handleEvent(new KeyEvent(KeyEvent.ACTION_UP, KeyEvent.KEYCODE_A), results::add);
+    assertTrue(results.isEmpty());
+
+    responseCallbacks.get(1).onKeyDataResponse(false);
+    responseCallbacks.get(0).onKeyDataResponse(true);
+
+    assertEquals(2, results.size());
+    assertFalse(results.get(0));
+    assertTrue(results.get(1));
+  }
+
+  @Test
+  public void handleEvent__answersUnsupportedActionsWithoutDispatching() {
+    final List<Boolean> results = new ArrayList<>();
+    responder.handleEvent(
+        new KeyEvent(0, 0, KeyEvent.ACTION_MULTIPLE, KeyEvent.KEYCODE_A, 2), results::add);
+
+    assertEquals(1, results.size());
+    assertFalse(results.get(0));
+    verify(renderer, never())
+        .dispatchKeyDataPacket(any(ByteBuffer.class), anyInt(), any(KeyDataResponseCallback.class));
+  }
+
+  private static Packet decode(ByteBuffer buffer, int position) {
+    final ByteBuffer view = buffer.duplicate().order(ByteOrder.nativeOrder());
+    view.position(0);
+    view.limit(position);
+    final int characterSize = (int) view.getLong();
+    final Packet packet = new Packet();
+    packet.timestamp = view.getLong();
+    packet.type = view.getLong();
+    packet.physical = view.getLong();
+    packet.logical = view.getLong();
+    packet.synthesized = view.getLong();
+    final byte[] character = new byte[characterSize];
+    view.get(character);
+    packet.character = new String(character, StandardCharsets.UTF_8);
+    assertFalse(view.hasRemaining());
+    return packet;
+  }
+}
@@ -1,5 +1,6 @@
 package io.flutter.embedding.android;
 
+import static android.os.Looper.getMainLooper;
 import static junit.framework.TestCase.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
@@ -9,6 +10,7 @@ import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.robolectric.Shadows.shadowOf;
 
 import android.annotation.TargetApi;
 import android.view.KeyEvent;
@@ -21,6 +23,9 @@ import io.flutter.embedding.engine.systemchannels.KeyEventChannel;
 import io.flutter.embedding.engine.systemchannels.TextInputChannel;
 import io.flutter.plugin.editing.TextInputPlugin;
 import io.flutter.util.FakeKeyEvent;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -300,4 +305,111 @@ public class KeyboardManagerTest {
     verify(keyboardManager, times(2)).handleEvent(any(KeyEvent.class));
     assertNull(fakeResponder.mLastKeyEvent);
   }
+
+  @Test
+  public void unansweredEventsAreRedispatchedAfterTheResponseTimeout() {
+    final FakeResponder fakeResponder = new FakeResponder();
+    keyboardManager =
+        new KeyboardManager(
+            mockView, mockTextInputPlugin, new KeyboardManager.Responder[] {fakeResponder});
+    keyboardManager.setResponseTimeout(100, KeyboardManager.FallbackPolicy.TREAT_AS_UNHANDLED);
+    final List<Long> latencies = new ArrayList<>();
+    keyboardManager.setKeyEventMetricsListener(
+        (keyEvent, latencyMillis, timedOut, inFlightEventCount) -> {
+          assertEquals(true, timedOut);
+          assertEquals(0, inFlightEventCount);
+          latencies.add(latencyMillis);
+        });
+    final KeyEvent keyEvent = new FakeKeyEvent(KeyEvent.ACTION_DOWN, 65);
+
+    keyboardManager.handleEvent(keyEvent);
+    assertEquals(1, keyboardManager.getInFlightEventCount());
+
+    shadowOf(getMainLooper()).idleFor(Duration.ofMillis(99));
+    verify(mockTextInputPlugin, times(0)).handleKeyEvent(any(KeyEvent.class));
+
+    shadowOf(getMainLooper()).idleFor(Duration.ofMillis(1));
+    verify(mockTextInputPlugin, times(1)).handleKeyEvent(keyEvent);
+    verify(mockRootView, times(1)).dispatchKeyEvent(keyEvent);
+    assertEquals(0, keyboardManager.getInFlightEventCount());
+    assertEquals(1, latencies.size());
+    assertEquals(100, (long) latencies.get(0));
+
+    // The late reply is ignored.
+    fakeResponder.eventHandled(false);
+    verify(mockTextInputPlugin, times(1)).handleKeyEvent(keyEvent);
+  }
+
+  @Test
+  public void unansweredEventsAreDroppedAfterTheResponseTimeoutIfTreatedAsHandled() {
+    final FakeResponder fakeResponder = new FakeResponder();
+    keyboardManager =
+        new KeyboardManager(
+            mockView, mockTextInputPlugin, new KeyboardManager.Responder[] {fakeResponder});
+    keyboardManager.setResponseTimeout(100, KeyboardManager.FallbackPolicy.TREAT_AS_HANDLED);
+
+    keyboardManager.handleEvent(new FakeKeyEvent(KeyEvent.ACTION_DOWN, 65));
+    shadowOf(getMainLooper()).idleFor(Duration.ofMillis(100));
+
+    assertEquals(0, keyboardManager.getInFlightEventCount());
+    verify(mockTextInputPlugin, times(0)).handleKeyEvent(any(KeyEvent.class));
+    verify(mockRootView, times(0)).dispatchKeyEvent(any(KeyEvent.class));
+  }
+
+  @Test
+  public void oldestEventIsResolvedWhenTheInFlightQueueIsFull() {
+    final FakeResponder fakeResponder = new FakeResponder();
+    keyboardManager =
+        new KeyboardManager(
+            mockView, mockTextInputPlugin, new KeyboardManager.Responder[] {fakeResponder});
+    keyboardManager.setMaxInFlightEvents(1);
+    final KeyEvent firstEvent = new FakeKeyEvent(KeyEvent.ACTION_DOWN, 65);
+    final KeyEvent secondEvent = new FakeKeyEvent(KeyEvent.ACTION_UP, 65);
+
+    keyboardManager.handleEvent(firstEvent);
+    keyboardManager.handleEvent(secondEvent);
+
+    verify(mockTextInputPlugin, times(1)).handleKeyEvent(firstEvent);
+    verify(mockTextInputPlugin, times(0)).handleKeyEvent(secondEvent);
+    assertEquals(1, keyboardManager.getInFlightEventCount());
+  }
+
+  @Test
+  public void inFlightQueueIsUnboundedByDefault() {
+    final FakeResponder fakeResponder = new FakeResponder();
+    keyboardManager =
+        new KeyboardManager(
+            mockView, mockTextInputPlugin, new KeyboardManager.Responder[] {fakeResponder});
+
+    for (int i = 0; i < 1000; i++) {
+      keyboardManager.handleEvent(new FakeKeyEvent(KeyEvent.ACTION_DOWN, 65));
+    }
+
+    // No event is resolved before the responder replies, so none is handled twice.
+    assertEquals(1000, keyboardManager.getInFlightEventCount());
+    verify(mockTextInputPlugin, times(0)).handleKeyEvent(any(KeyEvent.class));
+    verify(mockRootView, times(0)).dispatchKeyEvent(any(KeyEvent.class));
+  }
+
+  @Test
+  public void reportsTheResponseLatencyOfAnsweredEvents() {
+    final FakeResponder fakeResponder = new FakeResponder();
+    keyboardManager =
+        new KeyboardManager(
+            mockView, mockTextInputPlugin, new KeyboardManager.Responder[] {fakeResponder});
+    final List<Long> latencies = new ArrayList<>();
+    keyboardManager.setKeyEventMetricsListener(
+        (keyEvent, latencyMillis, timedOut, inFlightEventCount) -> {
+          assertEquals(false, timedOut);
+          latencies.add(latencyMillis);
+        });
+
+    keyboardManager.handleEvent(new FakeKeyEvent(KeyEvent.ACTION_DOWN, 65));
+    shadowOf(getMainLooper()).idleFor(Duration.ofMillis(20));
+    fakeResponder.eventHandled(true);
+
+    assertEquals(1, latencies.size());
+    assertEquals(20, (long) latencies.get(0));
+    assertEquals(0, keyboardManager.getInFlightEventCount());
+  }
 }
@@ -0,0 +1,195 @@
+// Copyright 2013 The Flutter Authors. All rights reserved.
+// Use of this source code is governed by a BSD-style license that can be
+// found in the LICENSE file.
+
+package io.flutter.embedding.engine.deferredcomponents;
+
+import static junit.framework.TestCase.assertEquals;
+import static junit.framework.TestCase.assertTrue;
+
+import androidx.annotation.NonNull;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+@Config(manifest = Config.NONE)
+@RunWith(RobolectricTestRunner.class)
+public class DeferredComponentLibraryIndexTest {
+  private static final int MODULE_COUNT = 10;
+  private static final long AN_HOUR_AGO = System.currentTimeMillis() - 60 * 60 * 1000;
+
+  @Rule public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  // Counts the file system calls of the index.
+  private static class CountingLibraryIndex extends DeferredComponentLibraryIndex {
+    int isDirectoryCount = 0;
+    int lastModifiedCount = 0;
+    int listFilesCount = 0;
+
+    @Override
+    boolean isDirectory(@NonNull File file) {
+      isDirectoryCount++;
+      return super.isDirectory(file);
+    }
+
+    @Override
+    long lastModified(@NonNull File file) {
+      lastModifiedCount++;
+      return super.lastModified(file);
+    }
+
+    @Override
+    File[] listFiles(@NonNull File directory) {
+      listFilesCount++;
+      return super.listFiles(directory);
+    }
+
+    int getCallCount() {
+      return isDirectoryCount + lastModifiedCount + listFilesCount;
+    }
+
+    void resetCallCounts() {
+      isDirectoryCount = 0;
+      lastModifiedCount = 0;
+      listFilesCount = 0;
+    }
+  }
+
+  private File filesDir;
+  private File nativeLibrariesDir;
+  private List<File> roots;
+  private int directoryCount;
+
+  @Before
+  public void setUp() throws IOException {
+    // Laid out like the files that SplitCompat extracts.
+    filesDir = temporaryFolder.newFolder("files");
+    final File splitcompatDir = new File(filesDir, "splitcompat/123");
+    nativeLibrariesDir = new File(splitcompatDir, "native-libraries");
+    final File verifiedSplitsDir = new File(splitcompatDir, "verified-splits");
+    assertTrue(verifiedSplitsDir.mkdirs());
+    for (int i = 0; i < MODULE_COUNT; i++) {
+      final File moduleDir = new File(nativeLibrariesDir, "module" + i + ".config.arm64_v8a");
+      assertTrue(moduleDir.mkdirs());
+      assertTrue(new File(moduleDir, "libapp.so-" + i + ".part.so").createNewFile());
+      assertTrue(new File(verifiedSplitsDir, "module" + i + ".apk").createNewFile());
+      assertTrue(
+          new File(verifiedSplitsDir, "module" + i + ".config.arm64_v8a.apk").createNewFile());
+    }
+    // files, splitcompat, 123, native-libraries, verified-splits, and the module directories.
+    directoryCount = 5 + MODULE_COUNT;
+    setLastModifiedRecursively(filesDir, AN_HOUR_AGO);
+
+    final File splitApk = temporaryFolder.newFile("split_config.arm64_v8a.apk");
+    roots = Arrays.asList(filesDir, splitApk, new File("does/not/exist.apk"));
+  }
+
+  @Test
+  public void getFilesFindsTheSameFilesAsAFullWalk() {
+    final DeferredComponentLibraryIndex index = new DeferredComponentLibraryIndex();
+
+    assertEquals(walk(roots), index.getFiles(roots));
+    assertEquals(walk(roots), index.getFiles(roots));
+  }
+
+  @Test
+  public void getFilesOnlyChecksModificationTimesOfUnchangedDirectories() {
+    final CountingLibraryIndex index = new CountingLibraryIndex();
+    index.getFiles(roots);
+    final int firstCallCount = index.getCallCount();
+    assertEquals(directoryCount, index.listFilesCount);
+
+    index.resetCallCounts();
+    final List<File> files = index.getFiles(roots);
+
+    assertEquals(walk(roots), files);
+    assertEquals(0, index.listFilesCount);
+    assertEquals(directoryCount, index.lastModifiedCount);
+    // The roots that aren't indexed directories are checked again.
+    assertEquals(2, index.isDirectoryCount);
+    assertTrue(index.getCallCount() * 3 < firstCallCount);
+  }
+
+  @Test
+  public void getFilesListsModifiedDirectoriesAgain() throws IOException {
+    final CountingLibraryIndex index = new CountingLibraryIndex();
+    index.getFiles(roots);
+
+    final File moduleDir = new File(nativeLibrariesDir, "module0.config.arm64_v8a");
+    final File newLibrary = new File(moduleDir, "libapp.so-100.part.so");
+    assertTrue(newLibrary.createNewFile());
+    assertTrue(moduleDir.setLastModified(AN_HOUR_AGO + 1000));
+    index.resetCallCounts();
+    final List<File> files = index.getFiles(roots);
+
+    assertTrue(files.contains(newLibrary));
+    assertEquals(walk(roots), files);
+    assertEquals(1, index.listFilesCount);
+  }
+
+  @Test
+  public void getFilesDoesNotReuseListingsOfRecentlyModifiedDirectories() throws IOException {
+    final CountingLibraryIndex index = new CountingLibraryIndex();
+    // The modification time may not change if a file is added within its precision.
+    assertTrue(filesDir.setLastModified(System.currentTimeMillis()));
+    index.getFiles(roots);
+
+    final File newLibrary = new File(filesDir, "libapp.so-100.part.so");
+    assertTrue(newLibrary.createNewFile());
+    index.resetCallCounts();
+    final List<File> files = index.getFiles(roots);
+
+    assertTrue(files.contains(newLibrary));
+    assertEquals(1, index.listFilesCount);
+  }
+
+  @Test
+  public void invalidateListsEveryDirectoryAgain() {
+    final CountingLibraryIndex index = new CountingLibraryIndex();
+    index.getFiles(roots);
+
+    index.invalidate();
+    index.resetCallCounts();
+    index.getFiles(roots);
+
+    assertEquals(directoryCount, index.listFilesCount);
+  }
+
+  // The search that PlayStoreDeferredComponentManager did before it had an index.
+  private static List<File> walk(List<File> roots) {
+    final List<File> files = new ArrayList<>();
+    final Queue<File> searchFiles = new LinkedList<>(roots);
+    while (!searchFiles.isEmpty()) {
+      final File file = searchFiles.remove();
+      if (file.isDirectory() && file.listFiles() != null) {
+        for (File f : file.listFiles()) {
+          searchFiles.add(f);
+        }
+        continue;
+      }
+      files.add(file);
+    }
+    return files;
+  }
+
+  private static void setLastModifiedRecursively(File file, long time) {
+    final File[] children = file.listFiles();
+    if (children != null) {
+      for (File child : children) {
+        setLastModifiedRecursively(child, time);
+      }
+    }
+    assertTrue(file.setLastModified(time));
+  }
+}
@@ -9,10 +9,14 @@ import static junit.framework.TestCase.assertFalse;
 import static junit.framework.TestCase.assertTrue;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.anyInt;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.robolectric.Shadows.shadowOf;
 
 import android.annotation.TargetApi;
 import android.content.Context;
@@ -21,10 +25,24 @@ import android.content.pm.PackageManager;
 import android.content.pm.PackageManager.NameNotFoundException;
 import android.content.res.AssetManager;
 import android.os.Bundle;
+import android.os.Looper;
 import androidx.annotation.NonNull;
+import com.google.android.play.core.splitinstall.SplitInstallManager;
+import com.google.android.play.core.splitinstall.SplitInstallRequest;
+import com.google.android.play.core.splitinstall.SplitInstallSessionState;
+import com.google.android.play.core.splitinstall.SplitInstallStateUpdatedListener;
+import com.google.android.play.core.splitinstall.model.SplitInstallSessionStatus;
+import com.google.android.play.core.tasks.OnSuccessListener;
+import com.google.android.play.core.tasks.Task;
 import io.flutter.embedding.engine.FlutterJNI;
 import io.flutter.embedding.engine.loader.ApplicationInfoLoader;
+import io.flutter.embedding.engine.systemchannels.DeferredComponentChannel;
 import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.robolectric.RobolectricTestRunner;
@@ -83,6 +101,59 @@ public class PlayStoreDeferredComponentManagerTest {
     }
   }
 
+  // Records the installs that are started, and starts a session for each of them.
+  private final List<String> startedModules = new ArrayList<>();
+  private final Set<String> installedModules = new HashSet<>();
+  private SplitInstallStateUpdatedListener splitInstallListener;
+  // When set, the session IDs of the started installs are only reported by heldInstallResults.
+  private boolean holdInstallResults = false;
+  private final List<Runnable> heldInstallResults = new ArrayList<>();
+
+  private SplitInstallManager createSplitInstallManager() {
+    SplitInstallManager splitInstallManager = mock(SplitInstallManager.class);
+    when(splitInstallManager.getInstalledModules()).thenReturn(installedModules);
+    doAnswer(
+            invocation -> {
+              splitInstallListener = invocation.getArgument(0);
+              return null;
+            })
+        .when(splitInstallManager)
+        .registerListener(any());
+    when(splitInstallManager.startInstall(any()))
+        .thenAnswer(
+            invocation -> {
+              SplitInstallRequest request = invocation.getArgument(0);
+              startedModules.addAll(request.getModuleNames());
+              return createSuccessfulTask(startedModules.size());
+            });
+    return splitInstallManager;
+  }
+
+  @SuppressWarnings("unchecked")
+  private Task<Integer> createSuccessfulTask(int sessionId) {
+    Task<Integer> task = mock(Task.class);
+    when(task.addOnSuccessListener(any()))
+        .thenAnswer(
+            invocation -> {
+              OnSuccessListener<Integer> listener = invocation.getArgument(0);
+              if (holdInstallResults) {
+                heldInstallResults.add(() -> listener.onSuccess(sessionId));
+              } else {
+                listener.onSuccess(sessionId);
+              }
+              return task;
+            });
+    when(task.addOnFailureListener(any())).thenReturn(task);
+    return task;
+  }
+
+  private void updateSessionState(int sessionId, int status) {
+    SplitInstallSessionState state = mock(SplitInstallSessionState.class);
+    when(state.sessionId()).thenReturn(sessionId);
+    when(state.status()).thenReturn(status);
+    splitInstallListener.onStateUpdate(state);
+  }
+
   private Context createSpyContext(Bundle metadata) throws NameNotFoundException {
     Context spyContext = spy(RuntimeEnvironment.application);
     doReturn(spyContext).when(spyContext).createPackageContext(any(), anyInt());
@@ -346,4 +417,237 @@ public class PlayStoreDeferredComponentManagerTest {
     TestPlayStoreDeferredComponentManager playStoreManager =
         new TestPlayStoreDeferredComponentManager(spyContext, jni);
   }
+
+  @Test
+  public void prefetchStartsInstallsWhenIdleUpToTheLimit() throws NameNotFoundException {
+    TestFlutterJNI jni = new TestFlutterJNI();
+    Context spyContext = createSpyContext(null);
+    doReturn(null).when(spyContext).getAssets();
+    PlayStoreDeferredComponentManager playStoreManager =
+        new PlayStoreDeferredComponentManager(spyContext, jni, createSplitInstallManager());
+    playStoreManager.setMaxConcurrentPrefetches(2);
+
+    playStoreManager.prefetchDeferredComponents(
+        Arrays.asList("module1", "module2", "module1", "module3"));
+    assertTrue(startedModules.isEmpty());
+    shadowOf(Looper.getMainLooper()).idle();
+    assertEquals(Arrays.asList("module1", "module2"), startedModules);
+    assertEquals("Requested", playStoreManager.getDeferredComponentInstallState(-1, "module1"));
+
+    updateSessionState(1, SplitInstallSessionStatus.INSTALLED);
+    assertEquals(1, jni.updateAssetManagerCalled);
+    assertEquals(0, jni.loadDartDeferredLibraryCalled);
+    shadowOf(Looper.getMainLooper()).idle();
+    assertEquals(Arrays.asList("module1", "module2", "module3"), startedModules);
+  }
+
+  @Test
+  public void prefetchSkipsInstalledComponents() throws NameNotFoundException {
+    TestFlutterJNI jni = new TestFlutterJNI();
+    Context spyContext = createSpyContext(null);
+    PlayStoreDeferredComponentManager playStoreManager =
+        new PlayStoreDeferredComponentManager(spyContext, jni, createSplitInstallManager());
+    installedModules.add("module1");
+
+    playStoreManager.prefetchDeferredComponents(Arrays.asList("module1", "", "module2"));
+    shadowOf(Looper.getMainLooper()).idle();
+
+    assertEquals(Arrays.asList("module2"), startedModules);
+  }
+
+  @Test
+  public void installOfAnInstalledComponentDoesNotStartASession() throws NameNotFoundException {
+    TestFlutterJNI jni = new TestFlutterJNI();
+    Context spyContext = createSpyContext(null);
+    doReturn(null).when(spyContext).getAssets();
+    doReturn(new File("test/path/libapp.so-123.part.so")).when(spyContext).getFilesDir();
+    PlayStoreDeferredComponentManager playStoreManager =
+        new PlayStoreDeferredComponentManager(spyContext, jni, createSplitInstallManager());
+    installedModules.add("module1");
+
+    playStoreManager.installDeferredComponent(123, "module1");
+    assertEquals(0, jni.loadDartDeferredLibraryCalled);
+    shadowOf(Looper.getMainLooper()).idle();
+
+    assertTrue(startedModules.isEmpty());
+    assertEquals(1, jni.updateAssetManagerCalled);
+    assertEquals(1, jni.loadDartDeferredLibraryCalled);
+    assertEquals(123, jni.loadingUnitId);
+  }
+
+  @Test
+  public void installAttachesToAPrefetchInProgress() throws NameNotFoundException {
+    TestFlutterJNI jni = new TestFlutterJNI();
+    Context spyContext = createSpyContext(null);
+    doReturn(null).when(spyContext).getAssets();
+    doReturn(new File("test/path/libapp.so-123.part.so")).when(spyContext).getFilesDir();
+    PlayStoreDeferredComponentManager playStoreManager =
+        new PlayStoreDeferredComponentManager(spyContext, jni, createSplitInstallManager());
+    playStoreManager.prefetchDeferredComponents(Arrays.asList("module1", "module2"));
+    shadowOf(Looper.getMainLooper()).idle();
+    assertEquals(Arrays.asList("module1"), startedModules);
+
+    playStoreManager.installDeferredComponent(123, "module1");
+    // The requested install no longer counts as a prefetch.
+    shadowOf(Looper.getMainLooper()).idle();
+    assertEquals(Arrays.asList("module1", "module2"), startedModules);
+
+    updateSessionState(1, SplitInstallSessionStatus.INSTALLED);
+    assertEquals(1, jni.loadDartDeferredLibraryCalled);
+    assertEquals(123, jni.loadingUnitId);
+  }
+
+  @Test
+  public void installAttachesToAPrefetchWithoutASession() throws NameNotFoundException {
+    TestFlutterJNI jni = new TestFlutterJNI();
+    Context spyContext = createSpyContext(null);
+    doReturn(null).when(spyContext).getAssets();
+    doReturn(new File("test/path/libapp.so-123.part.so")).when(spyContext).getFilesDir();
+    PlayStoreDeferredComponentManager playStoreManager =
+        new PlayStoreDeferredComponentManager(spyContext, jni, createSplitInstallManager());
+    holdInstallResults = true;
+    playStoreManager.prefetchDeferredComponents(Arrays.asList("module1", "module2"));
+    shadowOf(Looper.getMainLooper()).idle();
+    assertEquals(Arrays.asList("module1"), startedModules);
+
+    // The prefetch was started, but its session ID isn't known yet.
+    playStoreManager.installDeferredComponent(123, "module1");
+    assertEquals(Arrays.asList("module1"), startedModules);
+
+    heldInstallResults.remove(0).run();
+    // The requested install no longer counts as a prefetch.
+    shadowOf(Looper.getMainLooper()).idle();
+    assertEquals(Arrays.asList("module1", "module2"), startedModules);
+
+    updateSessionState(1, SplitInstallSessionStatus.INSTALLED);
+    assertEquals(1, jni.loadDartDeferredLibraryCalled);
+    assertEquals(123, jni.loadingUnitId);
+  }
+
+  @Test
+  public void installOfAComponentInstalledWithTheAppCompletesOnTheMainThread()
+      throws NameNotFoundException {
+    TestFlutterJNI jni = new TestFlutterJNI();
+    Context spyContext = createSpyContext(null);
+    doReturn(null).when(spyContext).getAssets();
+    PlayStoreDeferredComponentManager playStoreManager =
+        new PlayStoreDeferredComponentManager(spyContext, jni, createSplitInstallManager());
+    DeferredComponentChannel channel = mock(DeferredComponentChannel.class);
+    playStoreManager.setDeferredComponentChannel(channel);
+    installedModules.add("assetOnlyModule");
+
+    playStoreManager.installDeferredComponent(-1, "assetOnlyModule");
+    // The channel only waits for the result once the install call returns.
+    verify(channel, never()).completeInstallSuccess(any());
+    shadowOf(Looper.getMainLooper()).idle();
+
+    assertTrue(startedModules.isEmpty());
+    verify(channel).completeInstallSuccess("assetOnlyModule");
+    assertEquals(1, jni.updateAssetManagerCalled);
+    // An asset-only install doesn't load a Dart library.
+    assertEquals(0, jni.loadDartDeferredLibraryCalled);
+    assertEquals(
+        "installedPendingLoad",
+        playStoreManager.getDeferredComponentInstallState(-1, "assetOnlyModule"));
+  }
+
+  @Test
+  public void destroyDropsThePendingLoadOfAnInstalledComponent() throws NameNotFoundException {
+    TestFlutterJNI jni = new TestFlutterJNI();
+    Context spyContext = createSpyContext(null);
+    doReturn(null).when(spyContext).getAssets();
+    PlayStoreDeferredComponentManager playStoreManager =
+        new PlayStoreDeferredComponentManager(spyContext, jni, createSplitInstallManager());
+    DeferredComponentChannel channel = mock(DeferredComponentChannel.class);
+    playStoreManager.setDeferredComponentChannel(channel);
+    installedModules.add("module1");
+
+    playStoreManager.installDeferredComponent(123, "module1");
+    playStoreManager.destroy();
+    shadowOf(Looper.getMainLooper()).idle();
+
+    assertEquals(0, jni.updateAssetManagerCalled);
+    assertEquals(0, jni.loadDartDeferredLibraryCalled);
+    verify(channel, never()).completeInstallSuccess(any());
+  }
+
+  @Test
+  public void prefetchResultsAreNotReportedToTheChannel() throws NameNotFoundException {
+    TestFlutterJNI jni = new TestFlutterJNI();
+    Context spyContext = createSpyContext(null);
+    doReturn(null).when(spyContext).getAssets();
+    PlayStoreDeferredComponentManager playStoreManager =
+        new PlayStoreDeferredComponentManager(spyContext, jni, createSplitInstallManager());
+    DeferredComponentChannel channel = mock(DeferredComponentChannel.class);
+    playStoreManager.setDeferredComponentChannel(channel);
+    playStoreManager.setMaxConcurrentPrefetches(3);
+    playStoreManager.prefetchDeferredComponents(Arrays.asList("module1", "module2", "module3"));
+    shadowOf(Looper.getMainLooper()).idle();
+    assertEquals(Arrays.asList("module1", "module2", "module3"), startedModules);
+
+    updateSessionState(1, SplitInstallSessionStatus.INSTALLED);
+    updateSessionState(2, SplitInstallSessionStatus.FAILED);
+    updateSessionState(3, SplitInstallSessionStatus.CANCELED);
+
+    verify(channel, never()).completeInstallSuccess(any());
+    verify(channel, never()).completeInstallError(any(), any());
+    assertEquals(0, jni.deferredComponentInstallFailureCalled);
+  }
+
+  @Test
+  public void requestedPrefetchResultIsReportedToTheChannel() throws NameNotFoundException {
+    TestFlutterJNI jni = new TestFlutterJNI();
+    Context spyContext = createSpyContext(null);
+    doReturn(null).when(spyContext).getAssets();
+    doReturn(new File("test/path/libapp.so-123.part.so")).when(spyContext).getFilesDir();
+    PlayStoreDeferredComponentManager playStoreManager =
+        new PlayStoreDeferredComponentManager(spyContext, jni, createSplitInstallManager());
+    DeferredComponentChannel channel = mock(DeferredComponentChannel.class);
+    playStoreManager.setDeferredComponentChannel(channel);
+    playStoreManager.prefetchDeferredComponents(Arrays.asList("module1"));
+    shadowOf(Looper.getMainLooper()).idle();
+
+    playStoreManager.installDeferredComponent(123, "module1");
+    updateSessionState(1, SplitInstallSessionStatus.INSTALLED);
+
+    verify(channel).completeInstallSuccess("module1");
+  }
+
+  @Test
+  public void prefetchIsCanceledIfItRequiresUserConfirmation() throws NameNotFoundException {
+    TestFlutterJNI jni = new TestFlutterJNI();
+    Context spyContext = createSpyContext(null);
+    SplitInstallManager splitInstallManager = createSplitInstallManager();
+    PlayStoreDeferredComponentManager playStoreManager =
+        new PlayStoreDeferredComponentManager(spyContext, jni, splitInstallManager);
+    playStoreManager.prefetchDeferredComponents(Arrays.asList("module1"));
+    shadowOf(Looper.getMainLooper()).idle();
+
+    updateSessionState(1, SplitInstallSessionStatus.REQUIRES_USER_CONFIRMATION);
+    verify(splitInstallManager).cancelInstall(1);
+    updateSessionState(1, SplitInstallSessionStatus.CANCELED);
+    assertEquals(0, jni.deferredComponentInstallFailureCalled);
+  }
+
+  @Test
+  public void requestedInstallIsNotCanceledIfItRequiresUserConfirmation()
+      throws NameNotFoundException {
+    TestFlutterJNI jni = new TestFlutterJNI();
+    Context spyContext = createSpyContext(null);
+    SplitInstallManager splitInstallManager = createSplitInstallManager();
+    PlayStoreDeferredComponentManager playStoreManager =
+        new PlayStoreDeferredComponentManager(spyContext, jni, splitInstallManager);
+    playStoreManager.installDeferredComponent(-1, "module1");
+
+    updateSessionState(1, SplitInstallSessionStatus.REQUIRES_USER_CONFIRMATION);
+    verify(splitInstallManager, never()).cancelInstall(anyInt());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void setMaxConcurrentPrefetchesRejectsZero() throws NameNotFoundException {
+    PlayStoreDeferredComponentManager playStoreManager =
+        new PlayStoreDeferredComponentManager(
+            createSpyContext(null), new TestFlutterJNI(), createSplitInstallManager());
+    playStoreManager.setMaxConcurrentPrefetches(0);
+  }
 }
@@ -81,6 +81,66 @@ public class FlutterMutatorViewTest {
     }
   }
 
+  @Test
+  public void readyToDisplay_keepsPreviousMutatorsStackIfEqual() {
+    final FlutterMutatorView view = spy(new FlutterMutatorView(RuntimeEnvironment.systemContext));
+
+    final FlutterMutatorsStack firstStack = createMutatorsStack(/*clipRight=*/ 10);
+    view.readyToDisplay(firstStack, /*left=*/ 1, /*top=*/ 2, /*width=*/ 10, /*height=*/ 10);
+    final ViewGroup.LayoutParams firstLayoutParams = view.getLayoutParams();
+    verify(view, times(1)).invalidate();
+
+    final FlutterMutatorsStack secondStack = createMutatorsStack(/*clipRight=*/ 10);
+    assertEquals(firstStack, secondStack);
+    view.readyToDisplay(secondStack, /*left=*/ 1, /*top=*/ 2, /*width=*/ 10, /*height=*/ 10);
+
+    assertSame(firstStack, view.getMutatorsStack());
+    assertSame(firstLayoutParams, view.getLayoutParams());
+    verify(view, times(1)).invalidate();
+  }
+
+  @Test
+  public void readyToDisplay_invalidatesIfMutatorsStackChanges() {
+    final FlutterMutatorView view = spy(new FlutterMutatorView(RuntimeEnvironment.systemContext));
+
+    final FlutterMutatorsStack firstStack = createMutatorsStack(/*clipRight=*/ 10);
+    view.readyToDisplay(firstStack, /*left=*/ 1, /*top=*/ 2, /*width=*/ 10, /*height=*/ 10);
+
+    final FlutterMutatorsStack secondStack = createMutatorsStack(/*clipRight=*/ 20);
+    assertFalse(firstStack.equals(secondStack));
+    view.readyToDisplay(secondStack, /*left=*/ 1, /*top=*/ 2, /*width=*/ 10, /*height=*/ 10);
+
+    assertSame(secondStack, view.getMutatorsStack());
+    verify(view, times(2)).invalidate();
+  }
+
+  @Test
+  public void readyToDisplay_invalidatesIfOffsetChanges() {
+    final FlutterMutatorView view = spy(new FlutterMutatorView(RuntimeEnvironment.systemContext));
+
+    final FlutterMutatorsStack stack = createMutatorsStack(/*clipRight=*/ 10);
+    view.readyToDisplay(stack, /*left=*/ 1, /*top=*/ 2, /*width=*/ 10, /*height=*/ 10);
+    view.readyToDisplay(stack, /*left=*/ 3, /*top=*/ 4, /*width=*/ 10, /*height=*/ 10);
+
+    verify(view, times(2)).invalidate();
+  }
+
+  @Test
+  public void mutatorsStack_computesFinalClippingPathsOnce() {
+    final FlutterMutatorsStack stack = createMutatorsStack(/*clipRight=*/ 10);
+    stack.pushClipRRect(0, 0, 5, 5, new float[] {1, 1, 1, 1, 1, 1, 1, 1});
+
+    assertEquals(2, stack.getFinalClippingPaths().size());
+    assertSame(stack.getFinalClippingPaths(), stack.getFinalClippingPaths());
+  }
+
+  private static FlutterMutatorsStack createMutatorsStack(int clipRight) {
+    final FlutterMutatorsStack stack = new FlutterMutatorsStack();
+    stack.pushTransform(new float[] {1, 0, 5, 0, 1, 5, 0, 0, 1});
+    stack.pushClipRect(0, 0, clipRight, 10);
+    return stack;
+  }
+
   @Test
   public void childHasFocus_rootHasFocus() {
     final View rootView = mock(View.class);
@@ -1,15 +1,34 @@
 package io.flutter.embedding.engine.renderer;
 
+import static android.os.Looper.getMainLooper;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.robolectric.Shadows.shadowOf;
 
+import android.graphics.SurfaceTexture;
 import android.view.Surface;
 import io.flutter.embedding.engine.FlutterJNI;
+import io.flutter.view.TextureRegistry.SurfaceTextureEntry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.robolectric.RobolectricTestRunner;
 import org.robolectric.annotation.Config;
 
@@ -116,4 +135,186 @@ public class FlutterRendererTest {
     // Verify behavior under test.
     verify(fakeFlutterJNI, times(0)).markTextureFrameAvailable(eq(entry.id()));
   }
+
+  @Test
+  public void itCoalescesTextureFramesAvailableIntoOneCallPerFlush() {
+    // Setup the test.
+    when(fakeFlutterJNI.isAttached()).thenReturn(true);
+    FlutterRenderer flutterRenderer = new FlutterRenderer(fakeFlutterJNI);
+
+    List<FlutterRenderer.SurfaceTextureRegistryEntry> entries = new ArrayList<>();
+    for (int i = 0; i < 16; i++) {
+      entries.add(
+          (FlutterRenderer.SurfaceTextureRegistryEntry) flutterRenderer.createSurfaceTexture());
+    }
+
+    // Execute the behavior under test.
+    for (int frame = 0; frame < 3; frame++) {
+      for (FlutterRenderer.SurfaceTextureRegistryEntry entry : entries) {
+        entry.onFrameListener.onFrameAvailable(entry.surfaceTexture());
+      }
+    }
+    entries.get(0).release();
+    flutterRenderer.flushTextureFramesAvailable();
+    flutterRenderer.flushTextureFramesAvailable();
+
+    // Verify the behavior under test.
+    verify(fakeFlutterJNI, never()).markTextureFrameAvailable(anyLong());
+    ArgumentCaptor<long[]> idsCaptor = ArgumentCaptor.forClass(long[].class);
+    ArgumentCaptor<Integer> countCaptor = ArgumentCaptor.forClass(Integer.class);
+    verify(fakeFlutterJNI, times(1))
+        .markTextureFramesAvailable(idsCaptor.capture(), countCaptor.capture());
+
+    long[] ids = Arrays.copyOf(idsCaptor.getValue(), countCaptor.getValue());
+    Arrays.sort(ids);
+    long[] expectedIds = new long[15];
+    for (int i = 0; i < expectedIds.length; i++) {
+      expectedIds[i] = entries.get(i + 1).id();
+    }
+    assertArrayEquals(expectedIds, ids);
+  }
+
+  @Test
+  public void itSendsSingleTextureFrameAvailableWithoutBatching() {
+    // Setup the test.
+    when(fakeFlutterJNI.isAttached()).thenReturn(true);
+    FlutterRenderer flutterRenderer = new FlutterRenderer(fakeFlutterJNI);
+    FlutterRenderer.SurfaceTextureRegistryEntry entry =
+        (FlutterRenderer.SurfaceTextureRegistryEntry) flutterRenderer.createSurfaceTexture();
+
+    // Execute the behavior under test.
+    entry.onFrameListener.onFrameAvailable(entry.surfaceTexture());
+    entry.onFrameListener.onFrameAvailable(entry.surfaceTexture());
+    flutterRenderer.flushTextureFramesAvailable();
+
+    // Verify the behavior under test.
+    verify(fakeFlutterJNI, times(1)).markTextureFrameAvailable(eq(entry.id()));
+  }
+
+  @Test
+  public void itFlushesTextureFramesAvailableWithoutWaitingForVsync() {
+    // Setup the test.
+    when(fakeFlutterJNI.isAttached()).thenReturn(true);
+    FlutterRenderer flutterRenderer = new FlutterRenderer(fakeFlutterJNI);
+    FlutterRenderer.SurfaceTextureRegistryEntry firstEntry =
+        (FlutterRenderer.SurfaceTextureRegistryEntry) flutterRenderer.createSurfaceTexture();
+    FlutterRenderer.SurfaceTextureRegistryEntry secondEntry =
+        (FlutterRenderer.SurfaceTextureRegistryEntry) flutterRenderer.createSurfaceTexture();
+
+    // Execute the behavior under test.
+    firstEntry.onFrameListener.onFrameAvailable(firstEntry.surfaceTexture());
+    secondEntry.onFrameListener.onFrameAvailable(secondEntry.surfaceTexture());
+    // Runs the tasks posted to the main looper without advancing the clock to the next vsync.
+    shadowOf(getMainLooper()).idle();
+
+    // Verify the behavior under test.
+    verify(fakeFlutterJNI, times(1)).markTextureFramesAvailable(any(long[].class), eq(2));
+  }
+
+  @Test
+  public void itReportsImageTexturesAsUnsupportedBeforeApi29() {
+    // Setup the test.
+    when(fakeFlutterJNI.isAttached()).thenReturn(true);
+    FlutterRenderer flutterRenderer = new FlutterRenderer(fakeFlutterJNI);
+
+    // Verify the behavior under test.
+    assertFalse(flutterRenderer.isImageTextureSupported());
+    assertThrows(
+        UnsupportedOperationException.class,
+        () -> flutterRenderer.createImageTexture(/*width=*/ 1, /*height=*/ 1, /*maxImages=*/ 4));
+  }
+
+  @Test
+  public void itReusesPooledSurfaceTextureWithTheSameId() {
+    // Setup the test.
+    when(fakeFlutterJNI.isAttached()).thenReturn(true);
+    FlutterRenderer flutterRenderer = new FlutterRenderer(fakeFlutterJNI);
+    flutterRenderer.enableSurfaceTexturePool(2, 1000);
+
+    FlutterRenderer.SurfaceTextureRegistryEntry entry =
+        (FlutterRenderer.SurfaceTextureRegistryEntry) flutterRenderer.createSurfaceTexture();
+    SurfaceTexture surfaceTexture = entry.surfaceTexture();
+
+    // Execute the behavior under test.
+    entry.release();
+    FlutterRenderer.SurfaceTextureRegistryEntry reusedEntry =
+        (FlutterRenderer.SurfaceTextureRegistryEntry) flutterRenderer.createSurfaceTexture();
+
+    // Verify the behavior under test.
+    assertSame(entry, reusedEntry);
+    assertEquals(entry.id(), reusedEntry.id());
+    assertSame(surfaceTexture, reusedEntry.surfaceTexture());
+    verify(fakeFlutterJNI, times(1)).registerTexture(eq(entry.id()), eq(entry.textureWrapper()));
+    verify(fakeFlutterJNI, never()).unregisterTexture(anyLong());
+  }
+
+  @Test
+  public void itIgnoresFrameCallbacksOfThePreviousLeaseOfAPooledSurfaceTexture() {
+    // Setup the test.
+    when(fakeFlutterJNI.isAttached()).thenReturn(true);
+    FlutterRenderer flutterRenderer = new FlutterRenderer(fakeFlutterJNI);
+    flutterRenderer.enableSurfaceTexturePool(2, 1000);
+
+    FlutterRenderer.SurfaceTextureRegistryEntry entry =
+        (FlutterRenderer.SurfaceTextureRegistryEntry) flutterRenderer.createSurfaceTexture();
+    SurfaceTexture.OnFrameAvailableListener staleListener = entry.onFrameListener;
+
+    // A frame of the previous producer is pending when the entry is released.
+    staleListener.onFrameAvailable(entry.surfaceTexture());
+    entry.release();
+    flutterRenderer.flushTextureFramesAvailable();
+
+    // Execute the behavior under test.
+    FlutterRenderer.SurfaceTextureRegistryEntry reusedEntry =
+        (FlutterRenderer.SurfaceTextureRegistryEntry) flutterRenderer.createSurfaceTexture();
+    staleListener.onFrameAvailable(reusedEntry.surfaceTexture());
+    flutterRenderer.flushTextureFramesAvailable();
+
+    // Verify the behavior under test.
+    assertNotEquals(staleListener, reusedEntry.onFrameListener);
+    verify(fakeFlutterJNI, never()).markTextureFrameAvailable(anyLong());
+
+    reusedEntry.onFrameListener.onFrameAvailable(reusedEntry.surfaceTexture());
+    flutterRenderer.flushTextureFramesAvailable();
+    verify(fakeFlutterJNI, times(1)).markTextureFrameAvailable(eq(reusedEntry.id()));
+  }
+
+  @Test
+  public void itReleasesPooledSurfaceTexturesBeyondTheCapacity() {
+    // Setup the test.
+    when(fakeFlutterJNI.isAttached()).thenReturn(true);
+    FlutterRenderer flutterRenderer = new FlutterRenderer(fakeFlutterJNI);
+    flutterRenderer.enableSurfaceTexturePool(1, 1000);
+
+    SurfaceTextureEntry first = flutterRenderer.createSurfaceTexture();
+    SurfaceTextureEntry second = flutterRenderer.createSurfaceTexture();
+
+    // Execute the behavior under test.
+    first.release();
+    second.release();
+
+    // Verify the behavior under test.
+    verify(fakeFlutterJNI, times(1)).unregisterTexture(eq(first.id()));
+    verify(fakeFlutterJNI, never()).unregisterTexture(eq(second.id()));
+  }
+
+  @Test
+  public void itReleasesPooledSurfaceTexturesAfterTheIdleTimeout() {
+    // Setup the test.
+    when(fakeFlutterJNI.isAttached()).thenReturn(true);
+    FlutterRenderer flutterRenderer = new FlutterRenderer(fakeFlutterJNI);
+    flutterRenderer.enableSurfaceTexturePool(2, 1000);
+    SurfaceTextureEntry entry = flutterRenderer.createSurfaceTexture();
+
+    // Execute the behavior under test.
+    entry.release();
+    shadowOf(getMainLooper()).idleFor(Duration.ofMillis(999));
+    verify(fakeFlutterJNI, never()).unregisterTexture(anyLong());
+    shadowOf(getMainLooper()).idleFor(Duration.ofMillis(1));
+
+    // Verify the behavior under test.
+    verify(fakeFlutterJNI, times(1)).unregisterTexture(eq(entry.id()));
+    SurfaceTextureEntry newEntry = flutterRenderer.createSurfaceTexture();
+    assertNotEquals(entry.id(), newEntry.id());
+  }
 }
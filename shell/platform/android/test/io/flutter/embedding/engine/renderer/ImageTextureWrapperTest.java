@@ -0,0 +1,77 @@
+package io.flutter.embedding.engine.renderer;
+
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import android.hardware.HardwareBuffer;
+import android.media.Image;
+import android.media.ImageReader;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+@Config(manifest = Config.NONE)
+@RunWith(RobolectricTestRunner.class)
+public class ImageTextureWrapperTest {
+  @Test
+  public void acquireLatestHardwareBuffer__keepsImagesOpenUntilTheirBuffersAreReleased() {
+    ImageReader imageReader = mock(ImageReader.class);
+    Image firstImage = mockImage();
+    Image secondImage = mockImage();
+    when(imageReader.acquireLatestImage()).thenReturn(firstImage, null, secondImage);
+    ImageTextureWrapper wrapper = new ImageTextureWrapper(imageReader);
+
+    HardwareBuffer firstBuffer = wrapper.acquireLatestHardwareBuffer();
+    assertSame(firstImage.getHardwareBuffer(), firstBuffer);
+
+    // No new image, so the current image is still displayed.
+    assertNull(wrapper.acquireLatestHardwareBuffer());
+
+    // The GPU may still read the first image after the second one is acquired.
+    HardwareBuffer secondBuffer = wrapper.acquireLatestHardwareBuffer();
+    assertSame(secondImage.getHardwareBuffer(), secondBuffer);
+    verify(firstImage, never()).close();
+
+    wrapper.releaseHardwareBuffer(firstBuffer);
+    verify(firstImage, times(1)).close();
+    verify(firstBuffer, times(1)).close();
+    verify(secondImage, never()).close();
+    verify(secondBuffer, never()).close();
+  }
+
+  @Test
+  public void release__closesAcquiredImagesAndImageReader() {
+    ImageReader imageReader = mock(ImageReader.class);
+    Image firstImage = mockImage();
+    Image secondImage = mockImage();
+    when(imageReader.acquireLatestImage()).thenReturn(firstImage, secondImage);
+    ImageTextureWrapper wrapper = new ImageTextureWrapper(imageReader);
+    wrapper.acquireLatestHardwareBuffer();
+    HardwareBuffer secondBuffer = wrapper.acquireLatestHardwareBuffer();
+
+    wrapper.release();
+    wrapper.release();
+    // The engine may release a buffer after the wrapper was released.
+    wrapper.releaseHardwareBuffer(secondBuffer);
+
+    verify(firstImage, times(1)).close();
+    verify(secondImage, times(1)).close();
+    verify(secondBuffer, times(1)).close();
+    verify(imageReader, times(1)).close();
+    assertNull(wrapper.acquireLatestHardwareBuffer());
+    verify(imageReader, times(2)).acquireLatestImage();
+  }
+
+  private static Image mockImage() {
+    HardwareBuffer buffer = mock(HardwareBuffer.class);
+    Image image = mock(Image.class);
+    when(image.getHardwareBuffer()).thenReturn(buffer);
+    return image;
+  }
+}
@@ -0,0 +1,110 @@
+package io.flutter.embedding.engine.systemchannels;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import android.annotation.TargetApi;
+import io.flutter.embedding.engine.dart.DartExecutor;
+import io.flutter.plugin.common.BinaryMessenger;
+import io.flutter.plugin.common.MethodCall;
+import io.flutter.plugin.common.StandardMethodCodec;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+@Config(manifest = Config.NONE)
+@RunWith(RobolectricTestRunner.class)
+@TargetApi(24)
+public class PlatformViewsChannelTest {
+  private PlatformViewsChannel.PlatformViewsHandler handler;
+  private BinaryMessenger.BinaryMessageHandler messageHandler;
+
+  @Before
+  public void setUp() {
+    DartExecutor dartExecutor = mock(DartExecutor.class);
+    PlatformViewsChannel channel = new PlatformViewsChannel(dartExecutor);
+    handler = mock(PlatformViewsChannel.PlatformViewsHandler.class);
+    channel.setPlatformViewsHandler(handler);
+    ArgumentCaptor<BinaryMessenger.BinaryMessageHandler> handlerCaptor =
+        ArgumentCaptor.forClass(BinaryMessenger.BinaryMessageHandler.class);
+    verify(dartExecutor).setMessageHandler(eq("flutter/platform_views"), handlerCaptor.capture());
+    messageHandler = handlerCaptor.getValue();
+  }
+
+  @Test
+  public void touchPacket__forwardsAWellFormedPacket() {
+    BinaryMessenger.BinaryReply reply = sendTouchPacket(createTouchPacket(1, 1));
+
+    verify(handler).onTouchPacket(any(ByteBuffer.class));
+    // Success envelopes start with a 0.
+    assertEquals(0, captureReply(reply).get(0));
+  }
+
+  @Test
+  public void touchPacket__rejectsMissingArguments() {
+    BinaryMessenger.BinaryReply reply = sendTouchPacket(null);
+
+    verify(handler, never()).onTouchPacket(any(ByteBuffer.class));
+    assertErrorReply(reply);
+  }
+
+  @Test
+  public void touchPacket__rejectsANegativePointerCount() {
+    BinaryMessenger.BinaryReply reply = sendTouchPacket(createTouchPacket(-1, 0));
+
+    verify(handler, never()).onTouchPacket(any(ByteBuffer.class));
+    assertErrorReply(reply);
+  }
+
+  @Test
+  public void touchPacket__rejectsAPointerCountThatOverflowsTheLength() {
+    // 0x40000000 * 44 + 68 overflows to 68 in 32 bits.
+    BinaryMessenger.BinaryReply reply = sendTouchPacket(createTouchPacket(0x40000000, 0));
+
+    verify(handler, never()).onTouchPacket(any(ByteBuffer.class));
+    assertErrorReply(reply);
+  }
+
+  // Creates a packet that declares |pointerCount| pointers, and has room for |actualPointers|.
+  private static byte[] createTouchPacket(int pointerCount, int actualPointers) {
+    ByteBuffer packet =
+        ByteBuffer.allocate(
+                PlatformViewsChannel.TOUCH_PACKET_HEADER_SIZE
+                    + actualPointers * PlatformViewsChannel.TOUCH_PACKET_POINTER_SIZE)
+            .order(ByteOrder.LITTLE_ENDIAN);
+    packet.putInt(PlatformViewsChannel.TOUCH_PACKET_POINTER_COUNT_OFFSET, pointerCount);
+    return packet.array();
+  }
+
+  private BinaryMessenger.BinaryReply sendTouchPacket(Object arguments) {
+    BinaryMessenger.BinaryReply reply = mock(BinaryMessenger.BinaryReply.class);
+    ByteBuffer message =
+        StandardMethodCodec.INSTANCE.encodeMethodCall(new MethodCall("touchPacket", arguments));
+    message.rewind();
+    messageHandler.onMessage(message, reply);
+    return reply;
+  }
+
+  private static ByteBuffer captureReply(BinaryMessenger.BinaryReply reply) {
+    ArgumentCaptor<ByteBuffer> replyCaptor = ArgumentCaptor.forClass(ByteBuffer.class);
+    verify(reply).reply(replyCaptor.capture());
+    ByteBuffer envelope = replyCaptor.getValue();
+    envelope.rewind();
+    return envelope;
+  }
+
+  private static void assertErrorReply(BinaryMessenger.BinaryReply reply) {
+    ByteBuffer envelope = captureReply(reply);
+    // Error envelopes start with a 1.
+    assertEquals(1, envelope.get(0));
+  }
+}
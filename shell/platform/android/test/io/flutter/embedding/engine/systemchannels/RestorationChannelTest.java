@@ -1,6 +1,10 @@
 package io.flutter.embedding.engine.systemchannels;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.eq;
 import static org.mockito.Mockito.mock;
@@ -11,7 +15,10 @@ import static org.mockito.Mockito.verifyZeroInteractions;
 import android.annotation.TargetApi;
 import io.flutter.plugin.common.MethodCall;
 import io.flutter.plugin.common.MethodChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import org.json.JSONException;
 import org.junit.Test;
@@ -110,4 +117,98 @@ public class RestorationChannelTest {
     argumentCaptor.getValue().onMethodCall(new MethodCall("put", data), result);
     assertEquals(restorationChannel.getRestorationData(), data);
   }
+
+  @Test
+  public void itCompressesTheLatestDataInTheBackground() throws JSONException {
+    byte[] data = new byte[10000];
+    Arrays.fill(data, (byte) 'a');
+    List<Runnable> compressions = new ArrayList<>();
+
+    MethodChannel rawChannel = mock(MethodChannel.class);
+    RestorationChannel restorationChannel =
+        new RestorationChannel(rawChannel, /*waitForRestorationData=*/ false, compressions::add);
+    ArgumentCaptor<MethodChannel.MethodCallHandler> argumentCaptor =
+        ArgumentCaptor.forClass(MethodChannel.MethodCallHandler.class);
+    verify(rawChannel).setMethodCallHandler(argumentCaptor.capture());
+
+    MethodChannel.Result result = mock(MethodChannel.Result.class);
+    argumentCaptor.getValue().onMethodCall(new MethodCall("put", new byte[] {1, 2, 3}), result);
+    argumentCaptor.getValue().onMethodCall(new MethodCall("put", data), result);
+    // Both changes are compressed at once.
+    assertEquals(1, compressions.size());
+    compressions.get(0).run();
+
+    byte[] compressed = restorationChannel.getCompressedRestorationData();
+    assertTrue(compressed.length < data.length / 10);
+    assertSame(compressed, restorationChannel.getCompressedRestorationData());
+    assertArrayEquals(data, RestorationChannel.decompressRestorationData(compressed));
+  }
+
+  @Test
+  public void itCompressesDataThatIsNotCompressedYet() throws JSONException {
+    byte[] data = "Any String you want".getBytes();
+
+    MethodChannel rawChannel = mock(MethodChannel.class);
+    RestorationChannel restorationChannel =
+        new RestorationChannel(
+            rawChannel, /*waitForRestorationData=*/ false, (Runnable runnable) -> {});
+    restorationChannel.setRestorationData(data);
+
+    assertArrayEquals(
+        data,
+        RestorationChannel.decompressRestorationData(
+            restorationChannel.getCompressedRestorationData()));
+  }
+
+  @Test
+  public void itDoesNotCompressTheSameDataTwice() throws JSONException {
+    byte[] data = "Any String you want".getBytes();
+    List<Runnable> compressions = new ArrayList<>();
+
+    MethodChannel rawChannel = mock(MethodChannel.class);
+    RestorationChannel restorationChannel =
+        new RestorationChannel(rawChannel, /*waitForRestorationData=*/ false, compressions::add);
+    restorationChannel.setRestorationData(data);
+
+    // The data is needed before its compression starts, so it is compressed right away.
+    byte[] compressed = restorationChannel.getCompressedRestorationData();
+    assertEquals(1, compressions.size());
+    compressions.get(0).run();
+
+    assertSame(compressed, restorationChannel.getCompressedRestorationData());
+  }
+
+  @Test
+  public void itReportsTheSizeOfTheRestorationData() throws JSONException {
+    byte[] data = new byte[10000];
+    Arrays.fill(data, (byte) 'a');
+    RestorationChannel.RestorationDataSizeListener listener =
+        mock(RestorationChannel.RestorationDataSizeListener.class);
+
+    MethodChannel rawChannel = mock(MethodChannel.class);
+    RestorationChannel restorationChannel =
+        new RestorationChannel(rawChannel, /*waitForRestorationData=*/ false, Runnable::run);
+    restorationChannel.setRestorationDataSizeListener(listener);
+    restorationChannel.setRestorationData(data);
+    byte[] compressed = restorationChannel.getCompressedRestorationData();
+
+    verify(listener).onRestorationDataSize(compressed.length, data.length);
+  }
+
+  @Test
+  public void itDropsCompressedDataWhenCleared() throws JSONException {
+    MethodChannel rawChannel = mock(MethodChannel.class);
+    RestorationChannel restorationChannel =
+        new RestorationChannel(rawChannel, /*waitForRestorationData=*/ false, Runnable::run);
+    restorationChannel.setRestorationData("Any String you want".getBytes());
+
+    restorationChannel.clearData();
+    assertNull(restorationChannel.getCompressedRestorationData());
+  }
+
+  @Test
+  public void itDoesNotDecompressInvalidData() {
+    assertNull(RestorationChannel.decompressRestorationData(new byte[] {1, 2, 3}));
+    assertNull(RestorationChannel.decompressRestorationData(null));
+  }
 }
@@ -0,0 +1,190 @@
+package io.flutter.plugin.common;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+@Config(manifest = Config.NONE)
+@RunWith(RobolectricTestRunner.class)
+public class StandardMapCodecTest {
+  private static class ViewCreation {
+    final int id;
+    final String viewType;
+    final double width;
+    final boolean isHybrid;
+    final byte[] params;
+
+    ViewCreation(int id, String viewType, double width, boolean isHybrid, byte[] params) {
+      this.id = id;
+      this.viewType = viewType;
+      this.width = width;
+      this.isHybrid = isHybrid;
+      this.params = params;
+    }
+  }
+
+  private static class ViewCreationCodec extends StandardMapCodec<ViewCreation> {
+    ViewCreationCodec() {
+      super("id", "viewType", "width", "hybrid", "params");
+      declareOptionalFields("hybrid");
+    }
+
+    @Override
+    protected void writeFields(FieldWriter writer, ViewCreation value) {
+      writer.writeInt("id", value.id);
+      writer.writeString("viewType", value.viewType);
+      writer.writeDouble("width", value.width);
+      writer.writeBoolean("hybrid", value.isHybrid);
+      writer.writeValue("params", value.params);
+    }
+
+    @Override
+    protected ViewCreation readFields(FieldReader reader) {
+      return new ViewCreation(
+          reader.getInt("id"),
+          reader.getString("viewType"),
+          reader.getDouble("width"),
+          reader.has("hybrid") && reader.getBoolean("hybrid"),
+          (byte[]) reader.getValue("params"));
+    }
+  }
+
+  private final ViewCreationCodec codec = new ViewCreationCodec();
+
+  @Test
+  public void itDecodesWhatItEncodes() {
+    ByteBuffer message =
+        codec.encodeMessage(new ViewCreation(7, "webview", 100.5, true, new byte[] {1, 2}));
+    message.flip();
+
+    ViewCreation decoded = codec.decodeMessage(message);
+    assertEquals(7, decoded.id);
+    assertEquals("webview", decoded.viewType);
+    assertEquals(100.5, decoded.width, 0);
+    assertTrue(decoded.isHybrid);
+    assertArrayEquals(new byte[] {1, 2}, decoded.params);
+  }
+
+  @Test
+  public void itEncodesTheMapThatStandardMessageCodecEncodes() {
+    ByteBuffer message = codec.encodeMessage(new ViewCreation(7, null, 100.5, false, null));
+    message.flip();
+
+    Map<String, Object> expected = new HashMap<>();
+    expected.put("id", 7);
+    expected.put("viewType", null);
+    expected.put("width", 100.5);
+    expected.put("hybrid", false);
+    expected.put("params", null);
+    assertEquals(expected, StandardMessageCodec.INSTANCE.decodeMessage(message));
+  }
+
+  @Test
+  public void itDecodesMapsInAnyOrder() {
+    Map<String, Object> map = new HashMap<>();
+    map.put("width", 100.5);
+    map.put("params", new byte[] {3});
+    map.put("viewType", "webview");
+    map.put("id", 7);
+    ByteBuffer message = StandardMessageCodec.INSTANCE.encodeMessage(map);
+    message.flip();
+
+    ViewCreation decoded = codec.decodeMessage(message);
+    assertEquals(7, decoded.id);
+    assertEquals("webview", decoded.viewType);
+    assertEquals(100.5, decoded.width, 0);
+    assertFalse(decoded.isHybrid);
+    assertArrayEquals(new byte[] {3}, decoded.params);
+  }
+
+  @Test
+  public void itFailsOnSchemaMismatches() {
+    Map<String, Object> missingField = createMessageMap();
+    missingField.remove("id");
+    Map<String, Object> unknownField = createMessageMap();
+    unknownField.put("height", 50.0);
+    Map<String, Object> wrongType = createMessageMap();
+    wrongType.put("width", 100);
+
+    for (Map<String, Object> map : Arrays.asList(missingField, unknownField, wrongType)) {
+      ByteBuffer message = StandardMessageCodec.INSTANCE.encodeMessage(map);
+      message.flip();
+      assertThrows(IllegalArgumentException.class, () -> codec.decodeMessage(message));
+    }
+    ByteBuffer notAMap = StandardMessageCodec.INSTANCE.encodeMessage("webview");
+    notAMap.flip();
+    assertThrows(IllegalArgumentException.class, () -> codec.decodeMessage(notAMap));
+  }
+
+  @Test
+  public void itFailsOnMissingFieldsThatAreNotRead() {
+    StandardMapCodec<ViewCreation> partialCodec =
+        new ViewCreationCodec() {
+          @Override
+          protected ViewCreation readFields(FieldReader reader) {
+            return new ViewCreation(reader.getInt("id"), null, 0, false, null);
+          }
+        };
+    Map<String, Object> map = createMessageMap();
+    map.remove("viewType");
+    ByteBuffer message = StandardMessageCodec.INSTANCE.encodeMessage(map);
+    message.flip();
+
+    assertThrows(IllegalArgumentException.class, () -> partialCodec.decodeMessage(message));
+  }
+
+  @Test
+  public void itOnlyDeclaresOptionalFieldsThatExist() {
+    assertThrows(
+        IllegalArgumentException.class,
+        () ->
+            new ViewCreationCodec() {
+              {
+                declareOptionalFields("height");
+              }
+            });
+  }
+
+  @Test
+  public void itFailsOnFieldsWrittenOutOfOrder() {
+    StandardMapCodec<ViewCreation> outOfOrderCodec =
+        new ViewCreationCodec() {
+          @Override
+          protected void writeFields(FieldWriter writer, ViewCreation value) {
+            writer.writeString("viewType", value.viewType);
+            writer.writeInt("id", value.id);
+          }
+        };
+
+    assertThrows(
+        IllegalStateException.class,
+        () -> outOfOrderCodec.encodeMessage(new ViewCreation(7, "webview", 100.5, true, null)));
+  }
+
+  @Test
+  public void itEncodesNull() {
+    assertNull(codec.encodeMessage(null));
+    assertNull(codec.decodeMessage(null));
+  }
+
+  private static Map<String, Object> createMessageMap() {
+    Map<String, Object> map = new HashMap<>();
+    map.put("id", 7);
+    map.put("viewType", "webview");
+    map.put("width", 100.5);
+    map.put("params", null);
+    return map;
+  }
+}
@@ -0,0 +1,503 @@
+package io.flutter.plugin.common;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+/**
+ * Compares the two ways of extending {@link StandardMessageCodec} on deep graphs of custom objects:
+ * a subclass that overrides writeValue and readValueOfType with a chain of instanceof checks, and
+ * types registered with {@link StandardMessageCodec#registerType}. Also compares the two ways of
+ * sending data classes as maps: building a {@code Map} for the {@link StandardMessageCodec}, and a
+ * {@link StandardMapCodec}.
+ *
+ * <p>This class is not part of {@link io.flutter.FlutterTestSuite}, so it only runs when asked for:
+ *
+ * <pre>
+ * testing/run_tests.py --type=java \
+ *     --java-filter=io.flutter.plugin.common.StandardMessageCodecBenchmark
+ * </pre>
+ *
+ * <p>Each scenario prints a {@code <scenario> <metric> <value>} line per metric. Compared codecs
+ * must encode the same values, which is always checked. Time and allocations depend on the
+ * machine: save the output of a run to a file, and pass it to later runs on the same machine with
+ * {@code -Dflutter.codec.benchmark.baseline=<file>} to fail on regressions.
+ */
+@Config(manifest = Config.NONE)
+@RunWith(RobolectricTestRunner.class)
+public class StandardMessageCodecBenchmark {
+  private static final String BASELINE_PROPERTY = "flutter.codec.benchmark.baseline";
+  // How much slower or more allocating than the baseline a scenario can be.
+  private static final double TIME_TOLERANCE = 1.5;
+  private static final double ALLOCATION_TOLERANCE = 1.2;
+
+  private static final int[] NODE_COUNTS = {1000, 10000, 100000};
+  // Each scenario first runs once on a small graph, so that the measured runs are JIT compiled.
+  private static final int WARM_UP_NODE_COUNT = 1000;
+  private static final int REPETITIONS = 10;
+
+  private static final int BRANCHING = 4;
+  private static final int TYPE_COUNT = 8;
+  private static final int FIRST_TYPE = 128;
+
+  private static final int[] MESSAGE_COUNTS = {1000, 10000, 100000};
+  private static final int WARM_UP_MESSAGE_COUNT = 1000;
+
+  private Map<String, Long> baseline;
+
+  @Before
+  public void setUp() throws IOException {
+    baseline = readBaseline();
+  }
+
+  @Test
+  public void subclassOverride() {
+    runScenario("subclassOverride", new OverridingCodec());
+  }
+
+  @Test
+  public void registeredTypes() {
+    runScenario("registeredTypes", createRegisteringCodec());
+  }
+
+  @Test
+  public void mapMessages() {
+    runMessageScenario("mapMessages", new ViewCreationMapCodec());
+  }
+
+  @Test
+  public void mapCodecMessages() {
+    runMessageScenario("mapCodecMessages", new ViewCreationCodec());
+  }
+
+  private void runScenario(String name, StandardMessageCodec codec) {
+    encodeAndDecode(codec, createGraph(WARM_UP_NODE_COUNT));
+    for (int nodeCount : NODE_COUNTS) {
+      final Node graph = createGraph(nodeCount);
+      // Both ways of extending the codec produce the same messages.
+      final ByteBuffer expected = (ByteBuffer) new OverridingCodec().encodeMessage(graph).flip();
+      assertEquals(expected, encodeAndDecode(codec, graph));
+
+      final String prefix = name + "/" + nodeCount;
+      final Measurement encode = Measurement.start();
+      for (int i = 0; i < REPETITIONS; i++) {
+        codec.encodeMessage(graph);
+      }
+      encode.stop();
+      final ByteBuffer message = (ByteBuffer) codec.encodeMessage(graph).flip();
+      final Measurement decode = Measurement.start();
+      for (int i = 0; i < REPETITIONS; i++) {
+        message.rewind();
+        codec.decodeMessage(message);
+      }
+      decode.stop();
+
+      report(prefix + " encode_time_us", encode.wallTimeNanos / 1000, TIME_TOLERANCE);
+      report(prefix + " decode_time_us", decode.wallTimeNanos / 1000, TIME_TOLERANCE);
+      if (encode.allocatedBytes >= 0) {
+        report(prefix + " encode_allocated_bytes", encode.allocatedBytes, ALLOCATION_TOLERANCE);
+        report(prefix + " decode_allocated_bytes", decode.allocatedBytes, ALLOCATION_TOLERANCE);
+      }
+    }
+  }
+
+  private void runMessageScenario(String name, MessageCodec<ViewCreation> codec) {
+    encodeAndDecode(codec, createViewCreations(WARM_UP_MESSAGE_COUNT));
+    for (int messageCount : MESSAGE_COUNTS) {
+      final List<ViewCreation> values = createViewCreations(messageCount);
+      final List<ByteBuffer> messages = new ArrayList<>(messageCount);
+
+      final Measurement encode = Measurement.start();
+      for (ViewCreation value : values) {
+        messages.add(codec.encodeMessage(value));
+      }
+      encode.stop();
+      final List<ViewCreation> decodedValues = new ArrayList<>(messageCount);
+      final Measurement decode = Measurement.start();
+      for (ByteBuffer message : messages) {
+        message.flip();
+        decodedValues.add(codec.decodeMessage(message));
+      }
+      decode.stop();
+      assertEquals(values, decodedValues);
+
+      final String prefix = name + "/" + messageCount;
+      report(prefix + " encode_time_us", encode.wallTimeNanos / 1000, TIME_TOLERANCE);
+      report(prefix + " decode_time_us", decode.wallTimeNanos / 1000, TIME_TOLERANCE);
+      if (encode.allocatedBytes >= 0) {
+        report(prefix + " encode_allocated_bytes", encode.allocatedBytes, ALLOCATION_TOLERANCE);
+        report(prefix + " decode_allocated_bytes", decode.allocatedBytes, ALLOCATION_TOLERANCE);
+      }
+    }
+  }
+
+  private static void encodeAndDecode(MessageCodec<ViewCreation> codec, List<ViewCreation> values) {
+    for (ViewCreation value : values) {
+      final ByteBuffer message = codec.encodeMessage(value);
+      message.flip();
+      assertEquals(value, codec.decodeMessage(message));
+    }
+  }
+
+  // Encodes and decodes |graph| once, and returns the message.
+  private static ByteBuffer encodeAndDecode(StandardMessageCodec codec, Node graph) {
+    final ByteBuffer message = (ByteBuffer) codec.encodeMessage(graph).flip();
+    final Node decoded = (Node) codec.decodeMessage(message);
+    assertEquals(graph.type, decoded.type);
+    message.rewind();
+    return message;
+  }
+
+  private void report(String metric, long value, double tolerance) {
+    System.out.println(metric + " " + value);
+    final Long baselineValue = baseline.get(metric);
+    if (baselineValue != null) {
+      assertTrue(
+          metric + " regressed from " + baselineValue + " to " + value,
+          value <= baselineValue * tolerance);
+    }
+  }
+
+  private static Map<String, Long> readBaseline() throws IOException {
+    final Map<String, Long> values = new HashMap<>();
+    final String path = System.getProperty(BASELINE_PROPERTY);
+    if (path == null) {
+      return values;
+    }
+    try (BufferedReader reader = new BufferedReader(new FileReader(path))) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        final String[] parts = line.trim().split(" ");
+        if (parts.length == 3) {
+          values.put(parts[0] + " " + parts[1], Long.parseLong(parts[2]));
+        }
+      }
+    }
+    return values;
+  }
+
+  // A tree of |nodeCount| nodes with |BRANCHING| children each, whose types cycle through the
+  // custom types. Each node also holds a label and a standard map, as app objects usually do.
+  private static Node createGraph(int nodeCount) {
+    final List<Node> nodes = new ArrayList<>(nodeCount);
+    for (int i = 0; i < nodeCount; i++) {
+      final Node node = createNode(i % TYPE_COUNT, i);
+      nodes.add(node);
+      if (i > 0) {
+        nodes.get((i - 1) / BRANCHING).children.add(node);
+      }
+    }
+    return nodes.get(0);
+  }
+
+  private static Node createNode(int type, int id) {
+    switch (type) {
+      case 0:
+        return new Node0(id);
+      case 1:
+        return new Node1(id);
+      case 2:
+        return new Node2(id);
+      case 3:
+        return new Node3(id);
+      case 4:
+        return new Node4(id);
+      case 5:
+        return new Node5(id);
+      case 6:
+        return new Node6(id);
+      default:
+        return new Node7(id);
+    }
+  }
+
+  private abstract static class Node {
+    final int type;
+    final String label;
+    final Map<String, Object> attributes;
+    final List<Object> children;
+
+    Node(int type, int id) {
+      this(type, "node " + id, new HashMap<>(), new ArrayList<>());
+      attributes.put("id", id);
+      attributes.put("weight", id * 0.5);
+    }
+
+    Node(int type, String label, Map<String, Object> attributes, List<Object> children) {
+      this.type = type;
+      this.label = label;
+      this.attributes = attributes;
+      this.children = children;
+    }
+
+    static void write(StandardMessageCodec codec, ByteArrayOutputStream stream, Node node) {
+      codec.writeNestedValue(stream, node.label);
+      codec.writeNestedValue(stream, node.attributes);
+      codec.writeNestedValue(stream, node.children);
+    }
+
+    @SuppressWarnings("unchecked")
+    static Node read(StandardMessageCodec codec, ByteBuffer buffer, int type) {
+      final String label = (String) codec.readNestedValue(buffer);
+      final Map<String, Object> attributes = (Map<String, Object>) codec.readNestedValue(buffer);
+      final List<Object> children = (List<Object>) codec.readNestedValue(buffer);
+      return new GenericNode(type, label, attributes, children);
+    }
+  }
+
+  private static final class GenericNode extends Node {
+    GenericNode(int type, String label, Map<String, Object> attributes, List<Object> children) {
+      super(type, label, attributes, children);
+    }
+  }
+
+  private static final class Node0 extends Node {
+    Node0(int id) {
+      super(0, id);
+    }
+  }
+
+  private static final class Node1 extends Node {
+    Node1(int id) {
+      super(1, id);
+    }
+  }
+
+  private static final class Node2 extends Node {
+    Node2(int id) {
+      super(2, id);
+    }
+  }
+
+  private static final class Node3 extends Node {
+    Node3(int id) {
+      super(3, id);
+    }
+  }
+
+  private static final class Node4 extends Node {
+    Node4(int id) {
+      super(4, id);
+    }
+  }
+
+  private static final class Node5 extends Node {
+    Node5(int id) {
+      super(5, id);
+    }
+  }
+
+  private static final class Node6 extends Node {
+    Node6(int id) {
+      super(6, id);
+    }
+  }
+
+  private static final class Node7 extends Node {
+    Node7(int id) {
+      super(7, id);
+    }
+  }
+
+  // Extends the codec the way codecs did before types could be registered.
+  private static final class OverridingCodec extends StandardMessageCodec {
+    @Override
+    protected void writeValue(ByteArrayOutputStream stream, Object value) {
+      if (value instanceof Node0) {
+        writeNode(stream, 0, (Node) value);
+      } else if (value instanceof Node1) {
+        writeNode(stream, 1, (Node) value);
+      } else if (value instanceof Node2) {
+        writeNode(stream, 2, (Node) value);
+      } else if (value instanceof Node3) {
+        writeNode(stream, 3, (Node) value);
+      } else if (value instanceof Node4) {
+        writeNode(stream, 4, (Node) value);
+      } else if (value instanceof Node5) {
+        writeNode(stream, 5, (Node) value);
+      } else if (value instanceof Node6) {
+        writeNode(stream, 6, (Node) value);
+      } else if (value instanceof Node7) {
+        writeNode(stream, 7, (Node) value);
+      } else {
+        super.writeValue(stream, value);
+      }
+    }
+
+    private void writeNode(ByteArrayOutputStream stream, int type, Node node) {
+      stream.write(FIRST_TYPE + type);
+      Node.write(this, stream, node);
+    }
+
+    @Override
+    protected Object readValueOfType(byte type, ByteBuffer buffer) {
+      final int index = (type & 0xff) - FIRST_TYPE;
+      if (index >= 0 && index < TYPE_COUNT) {
+        return Node.read(this, buffer, index);
+      }
+      return super.readValueOfType(type, buffer);
+    }
+  }
+
+  private static StandardMessageCodec createRegisteringCodec() {
+    final StandardMessageCodec codec = new StandardMessageCodec();
+    for (int type = 0; type < TYPE_COUNT; type++) {
+      final int index = type;
+      @SuppressWarnings("unchecked")
+      final Class<Node> nodeClass = (Class<Node>) createNode(type, 0).getClass();
+      codec.registerType(
+          FIRST_TYPE + type,
+          nodeClass,
+          (c, stream, node) -> Node.write(c, stream, node),
+          (c, buffer) -> Node.read(c, buffer, index));
+    }
+    return codec;
+  }
+
+  private static final class Measurement {
+    private final long startNanos;
+    private final long startAllocatedBytes;
+    long wallTimeNanos;
+    // -1 if the JVM can't measure allocations.
+    long allocatedBytes;
+
+    private Measurement() {
+      startAllocatedBytes = getAllocatedBytes();
+      startNanos = System.nanoTime();
+    }
+
+    static Measurement start() {
+      return new Measurement();
+    }
+
+    void stop() {
+      wallTimeNanos = System.nanoTime() - startNanos;
+      allocatedBytes = startAllocatedBytes < 0 ? -1 : getAllocatedBytes() - startAllocatedBytes;
+    }
+
+    private static long getAllocatedBytes() {
+      final java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+      if (!(bean instanceof com.sun.management.ThreadMXBean)) {
+        return -1;
+      }
+      return ((com.sun.management.ThreadMXBean) bean)
+          .getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+  }
+
+  // The arguments of a platform view creation, a typical message of a plugin.
+  private static final class ViewCreation {
+    final int id;
+    final String viewType;
+    final double width;
+    final double height;
+    final int direction;
+    final boolean isHybrid;
+
+    ViewCreation(
+        int id, String viewType, double width, double height, int direction, boolean isHybrid) {
+      this.id = id;
+      this.viewType = viewType;
+      this.width = width;
+      this.height = height;
+      this.direction = direction;
+      this.isHybrid = isHybrid;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      if (!(other instanceof ViewCreation)) {
+        return false;
+      }
+      final ViewCreation that = (ViewCreation) other;
+      return id == that.id
+          && viewType.equals(that.viewType)
+          && width == that.width
+          && height == that.height
+          && direction == that.direction
+          && isHybrid == that.isHybrid;
+    }
+
+    @Override
+    public int hashCode() {
+      return id;
+    }
+  }
+
+  private static List<ViewCreation> createViewCreations(int count) {
+    final List<ViewCreation> values = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      values.add(new ViewCreation(i, "view type " + i % 10, i * 1.5, i * 0.5, i % 2, i % 3 == 0));
+    }
+    return values;
+  }
+
+  // Sends data classes the way channels do without a StandardMapCodec.
+  private static final class ViewCreationMapCodec implements MessageCodec<ViewCreation> {
+    @Override
+    public ByteBuffer encodeMessage(ViewCreation value) {
+      final Map<String, Object> map = new HashMap<>();
+      map.put("id", value.id);
+      map.put("viewType", value.viewType);
+      map.put("width", value.width);
+      map.put("height", value.height);
+      map.put("direction", value.direction);
+      map.put("hybrid", value.isHybrid);
+      return StandardMessageCodec.INSTANCE.encodeMessage(map);
+    }
+
+    @Override
+    public ViewCreation decodeMessage(ByteBuffer message) {
+      final Map<?, ?> map = (Map<?, ?>) StandardMessageCodec.INSTANCE.decodeMessage(message);
+      return new ViewCreation(
+          (int) map.get("id"),
+          (String) map.get("viewType"),
+          (double) map.get("width"),
+          (double) map.get("height"),
+          (int) map.get("direction"),
+          (boolean) map.get("hybrid"));
+    }
+  }
+
+  private static final class ViewCreationCodec extends StandardMapCodec<ViewCreation> {
+    ViewCreationCodec() {
+      super("id", "viewType", "width", "height", "direction", "hybrid");
+    }
+
+    @Override
+    protected void writeFields(FieldWriter writer, ViewCreation value) {
+      writer.writeInt("id", value.id);
+      writer.writeString("viewType", value.viewType);
+      writer.writeDouble("width", value.width);
+      writer.writeDouble("height", value.height);
+      writer.writeInt("direction", value.direction);
+      writer.writeBoolean("hybrid", value.isHybrid);
+    }
+
+    @Override
+    protected ViewCreation readFields(FieldReader reader) {
+      return new ViewCreation(
+          reader.getInt("id"),
+          reader.getString("viewType"),
+          reader.getDouble("width"),
+          reader.getDouble("height"),
+          reader.getInt("direction"),
+          reader.getBoolean("hybrid"));
+    }
+  }
+}
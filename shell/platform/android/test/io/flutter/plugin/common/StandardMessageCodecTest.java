@@ -6,8 +6,12 @@ import static org.junit.Assert.assertThrows;
 import static org.junit.Assert.assertTrue;
 
 import android.text.SpannableString;
+import java.io.ByteArrayOutputStream;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.robolectric.RobolectricTestRunner;
@@ -144,4 +148,185 @@ public class StandardMessageCodecTest {
             });
     assertTrue(exception.getMessage().contains("NotEncodable"));
   }
+
+  private interface Shape {}
+
+  private static class Circle implements Shape {
+    final double radius;
+
+    Circle(double radius) {
+      this.radius = radius;
+    }
+  }
+
+  private static class Group implements Shape {
+    final String name;
+    final List<Object> children;
+
+    Group(String name, List<Object> children) {
+      this.name = name;
+      this.children = children;
+    }
+  }
+
+  private static final int CIRCLE = 128;
+  private static final int GROUP = 129;
+  private static final int SHAPE = 130;
+
+  private static void registerCircle(StandardMessageCodec codec) {
+    codec.registerType(
+        CIRCLE,
+        Circle.class,
+        (c, stream, circle) -> c.writeNestedValue(stream, circle.radius),
+        (c, buffer) -> new Circle((Double) c.readNestedValue(buffer)));
+  }
+
+  @SuppressWarnings("unchecked")
+  private static void registerGroup(StandardMessageCodec codec) {
+    codec.registerType(
+        GROUP,
+        Group.class,
+        (c, stream, group) -> {
+          c.writeNestedValue(stream, group.name);
+          c.writeNestedValue(stream, group.children);
+        },
+        (c, buffer) -> {
+          String name = (String) c.readNestedValue(buffer);
+          return new Group(name, (List<Object>) c.readNestedValue(buffer));
+        });
+  }
+
+  @Test
+  public void itEncodesRegisteredTypes() {
+    StandardMessageCodec codec = new StandardMessageCodec();
+    registerCircle(codec);
+    registerGroup(codec);
+
+    Group group =
+        new Group(
+            "root",
+            Arrays.asList(
+                new Circle(1.5), new Group("inner", Arrays.asList(new Circle(2.5), "text")), 7));
+    ByteBuffer message = codec.encodeMessage(group);
+    message.flip();
+    assertEquals((byte) GROUP, message.get(0));
+
+    Group decoded = (Group) codec.decodeMessage(message);
+    assertEquals("root", decoded.name);
+    assertEquals(1.5, ((Circle) decoded.children.get(0)).radius, 0);
+    Group inner = (Group) decoded.children.get(1);
+    assertEquals("inner", inner.name);
+    assertEquals(2.5, ((Circle) inner.children.get(0)).radius, 0);
+    assertEquals("text", inner.children.get(1));
+    assertEquals(7, decoded.children.get(2));
+  }
+
+  @Test
+  public void itEncodesSubclassesWithTheRegistrationOfTheirSuperclass() {
+    StandardMessageCodec codec = new StandardMessageCodec();
+    codec.registerType(SHAPE, Shape.class, (c, stream, shape) -> {}, (c, buffer) -> new Circle(0));
+
+    ByteBuffer message = codec.encodeMessage(new Circle(1.5));
+    message.flip();
+    assertEquals((byte) SHAPE, message.get(0));
+
+    // A registration of the class itself takes over.
+    registerCircle(codec);
+    message = codec.encodeMessage(new Circle(1.5));
+    message.flip();
+    assertEquals((byte) CIRCLE, message.get(0));
+  }
+
+  @Test
+  public void itEncodesRegisteredTypesWithSubclassOverrides() {
+    StandardMessageCodec codec =
+        new StandardMessageCodec() {
+          @Override
+          protected void writeValue(ByteArrayOutputStream stream, Object value) {
+            if (value instanceof NotEncodable) {
+              stream.write(200);
+            } else {
+              super.writeValue(stream, value);
+            }
+          }
+
+          @Override
+          protected Object readValueOfType(byte type, ByteBuffer buffer) {
+            if (type == (byte) 200) {
+              return new NotEncodable();
+            }
+            return super.readValueOfType(type, buffer);
+          }
+        };
+    registerGroup(codec);
+
+    ByteBuffer message =
+        codec.encodeMessage(new Group("root", Arrays.asList(new NotEncodable(), 1)));
+    message.flip();
+
+    Group decoded = (Group) codec.decodeMessage(message);
+    assertTrue(decoded.children.get(0) instanceof NotEncodable);
+    assertEquals(1, decoded.children.get(1));
+  }
+
+  @Test
+  public void itRejectsInvalidRegistrations() {
+    StandardMessageCodec codec = new StandardMessageCodec();
+    registerCircle(codec);
+
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> codec.registerType(LIST, List.class, (c, stream, list) -> {}, (c, buffer) -> null));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> codec.registerType(CIRCLE, Group.class, (c, stream, g) -> {}, (c, buffer) -> null));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> codec.registerType(GROUP, Circle.class, (c, stream, g) -> {}, (c, buffer) -> null));
+  }
+
+  @Test
+  public void itRejectsRegistrationsThatOverlapStandardTypes() {
+    StandardMessageCodec codec = new StandardMessageCodec();
+
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> codec.registerType(CIRCLE, String.class, (c, stream, s) -> {}, (c, buffer) -> null));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> codec.registerType(CIRCLE, Object.class, (c, stream, o) -> {}, (c, buffer) -> null));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> codec.registerType(CIRCLE, Map.class, (c, stream, m) -> {}, (c, buffer) -> null));
+    assertThrows(
+        IllegalArgumentException.class,
+        () ->
+            codec.registerType(
+                CIRCLE, ArrayList.class, (c, stream, l) -> {}, (c, buffer) -> null));
+    assertThrows(
+        IllegalArgumentException.class,
+        () ->
+            codec.registerType(
+                CIRCLE, Comparable.class, (c, stream, o) -> {}, (c, buffer) -> null));
+  }
+
+  @Test
+  public void itRejectsRegistrationsOnTheSharedInstance() {
+    assertThrows(
+        IllegalStateException.class,
+        () ->
+            StandardMessageCodec.INSTANCE.registerType(
+                CIRCLE, Circle.class, (c, stream, circle) -> {}, (c, buffer) -> null));
+  }
+
+  @Test
+  public void itDoesNotDecodeUnregisteredTypes() {
+    StandardMessageCodec codec = new StandardMessageCodec();
+    registerCircle(codec);
+    ByteBuffer message = ByteBuffer.allocateDirect(1);
+    message.put((byte) GROUP);
+    message.flip();
+
+    assertThrows(IllegalArgumentException.class, () -> codec.decodeMessage(message));
+  }
 }
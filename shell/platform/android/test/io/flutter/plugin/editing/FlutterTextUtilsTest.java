@@ -0,0 +1,206 @@
+package io.flutter.plugin.editing;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import io.flutter.embedding.engine.FlutterJNI;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+@Config(manifest = Config.NONE)
+@RunWith(RobolectricTestRunner.class)
+public class FlutterTextUtilsTest {
+  // Ranges from the ICU binary properties. The Emoji and Emoji_Modifier_Base ranges only cover the
+  // code points used by these tests; the others are complete.
+  private static final int[] EMOJI_RANGES = {
+    0x23, 0x23, 0x2A, 0x2A, 0x30, 0x39, 0xA9, 0xA9, 0xAE, 0xAE, 0x2764, 0x2764, 0x1F1E6, 0x1F1FF,
+    0x1F3F3, 0x1F3F5, 0x1F3F7, 0x1F4FD,
+  };
+  private static final int[] EMOJI_MODIFIER_RANGES = {0x1F3FB, 0x1F3FF};
+  private static final int[] EMOJI_MODIFIER_BASE_RANGES = {
+    0x261D, 0x261D, 0x26F9, 0x26F9, 0x270A, 0x270D, 0x1F385, 0x1F385, 0x1F442, 0x1F443, 0x1F446,
+    0x1F450, 0x1F466, 0x1F478,
+  };
+  private static final int[] VARIATION_SELECTOR_RANGES = {0xFE00, 0xFE0F, 0xE0100, 0xE01EF};
+  private static final int[] REGIONAL_INDICATOR_RANGES = {0x1F1E6, 0x1F1FF};
+
+  private static final CodePointRangeTable EMOJI = new CodePointRangeTable(EMOJI_RANGES);
+  private static final CodePointRangeTable EMOJI_MODIFIER =
+      new CodePointRangeTable(EMOJI_MODIFIER_RANGES);
+  private static final CodePointRangeTable EMOJI_MODIFIER_BASE =
+      new CodePointRangeTable(EMOJI_MODIFIER_BASE_RANGES);
+  private static final CodePointRangeTable VARIATION_SELECTOR =
+      new CodePointRangeTable(VARIATION_SELECTOR_RANGES);
+  private static final CodePointRangeTable REGIONAL_INDICATOR =
+      new CodePointRangeTable(REGIONAL_INDICATOR_RANGES);
+
+  private static final String[] SAMPLES = {
+    "a👍🏽b", // Thumbs up with a skin tone modifier.
+    "🇺🇸🇬🇧", // Two flags.
+    "1️⃣#⃣", // Keycaps.
+    "👨‍👩‍👧", // Family sequence.
+    "❤️\r\n🏴󠁧󠁢󠁿", // Tag sequence.
+  };
+
+  @After
+  public void tearDown() {
+    FlutterTextUtils.clearPropertyTables();
+  }
+
+  @Test
+  public void codePointRangeTable_containsOnlyCodePointsInRanges() {
+    final CodePointRangeTable table = new CodePointRangeTable(new int[] {3, 5, 10, 10, 20, 30});
+
+    for (int codePoint = 0; codePoint < 40; codePoint++) {
+      final boolean expected =
+          (3 <= codePoint && codePoint <= 5)
+              || codePoint == 10
+              || (20 <= codePoint && codePoint <= 30);
+      assertEquals(expected, table.contains(codePoint));
+    }
+    assertFalse(new CodePointRangeTable(new int[0]).contains(0));
+  }
+
+  @Test
+  public void codePointRangeTable_rejectsUnsortedRanges() {
+    assertThrows(IllegalArgumentException.class, () -> new CodePointRangeTable(new int[] {1}));
+    assertThrows(
+        IllegalArgumentException.class, () -> new CodePointRangeTable(new int[] {5, 6, 1, 2}));
+    assertThrows(
+        IllegalArgumentException.class, () -> new CodePointRangeTable(new int[] {1, 5, 5, 6}));
+  }
+
+  @Test
+  public void propertyTables_answerQueriesFromTheLoadedRanges() {
+    final FlutterJNI flutterJNI = createFlutterJNI(true);
+    final FlutterTextUtils textUtils = new FlutterTextUtils(flutterJNI);
+
+    assertTrue(textUtils.isEmoji('#'));
+    assertTrue(textUtils.isEmoji(0x2764));
+    assertTrue(textUtils.isEmoji(0x1F44D));
+    assertFalse(textUtils.isEmoji('a'));
+    assertFalse(textUtils.isEmoji(0x1F3F6));
+    assertTrue(textUtils.isEmojiModifier(0x1F3FB));
+    assertTrue(textUtils.isEmojiModifier(0x1F3FF));
+    assertFalse(textUtils.isEmojiModifier(0x1F3FA));
+    assertFalse(textUtils.isEmojiModifier(0x1F400));
+    assertTrue(textUtils.isEmojiModifierBase(0x1F44D));
+    assertFalse(textUtils.isEmojiModifierBase(0x1F444));
+    assertTrue(textUtils.isVariationSelector(0xFE0F));
+    assertTrue(textUtils.isVariationSelector(0xE0100));
+    assertFalse(textUtils.isVariationSelector(0xFE10));
+    assertTrue(textUtils.isRegionalIndicatorSymbol(0x1F1E6));
+    assertTrue(textUtils.isRegionalIndicatorSymbol(0x1F1FF));
+    assertFalse(textUtils.isRegionalIndicatorSymbol(0x1F200));
+
+    verifyNoPerCodePointQueries(flutterJNI);
+  }
+
+  @Test
+  public void propertyTables_areSharedByAllInstances() {
+    final FlutterJNI flutterJNI = createFlutterJNI(true);
+    new FlutterTextUtils(flutterJNI).isEmoji(0x1F44D);
+    final FlutterJNI otherFlutterJNI = createFlutterJNI(true);
+    assertTrue(new FlutterTextUtils(otherFlutterJNI).isEmoji(0x1F44D));
+
+    verify(flutterJNI, times(1))
+        .nativeFlutterTextUtilsGetPropertyRanges(FlutterTextUtils.PROPERTY_EMOJI);
+    verify(otherFlutterJNI, never()).nativeFlutterTextUtilsGetPropertyRanges(anyInt());
+  }
+
+  @Test
+  public void propertyTables_fallBackToNativeQueriesWhenRangesAreUnavailable() {
+    final FlutterJNI flutterJNI = createFlutterJNI(false);
+    final FlutterTextUtils textUtils = new FlutterTextUtils(flutterJNI);
+    assertTrue(textUtils.isEmoji(0x1F44D));
+    assertTrue(textUtils.isEmoji(0x2764));
+
+    // The table is only requested once per instance.
+    verify(flutterJNI, times(1))
+        .nativeFlutterTextUtilsGetPropertyRanges(FlutterTextUtils.PROPERTY_EMOJI);
+    verify(flutterJNI, times(2)).nativeFlutterTextUtilsIsEmoji(anyInt());
+
+    // A later instance can still load the table.
+    final FlutterJNI tableJNI = createFlutterJNI(true);
+    assertTrue(new FlutterTextUtils(tableJNI).isEmoji(0x1F44D));
+    verifyNoPerCodePointQueries(tableJNI);
+  }
+
+  @Test
+  public void propertyTables_stepOverGraphemesLikeNativeQueries() {
+    // The tables are shared, so step with the native queries before any table is loaded.
+    final FlutterTextUtils nativeTextUtils = new FlutterTextUtils(createFlutterJNI(false));
+    final int[][] nativeOffsets = new int[SAMPLES.length][];
+    for (int i = 0; i < SAMPLES.length; i++) {
+      nativeOffsets[i] = stepOverGraphemes(nativeTextUtils, SAMPLES[i]);
+    }
+
+    final FlutterJNI tableJNI = createFlutterJNI(true);
+    final FlutterTextUtils tableTextUtils = new FlutterTextUtils(tableJNI);
+    for (int i = 0; i < SAMPLES.length; i++) {
+      assertArrayEquals(nativeOffsets[i], stepOverGraphemes(tableTextUtils, SAMPLES[i]));
+    }
+
+    // Each table is loaded once, and no code point is queried through JNI.
+    verify(tableJNI, times(1))
+        .nativeFlutterTextUtilsGetPropertyRanges(FlutterTextUtils.PROPERTY_EMOJI);
+    verifyNoPerCodePointQueries(tableJNI);
+  }
+
+  // Returns the offsets before and after each offset of |text|.
+  private static int[] stepOverGraphemes(FlutterTextUtils textUtils, String text) {
+    final int[] offsets = new int[(text.length() + 1) * 2];
+    for (int offset = 0; offset <= text.length(); offset++) {
+      offsets[offset * 2] = textUtils.getOffsetBefore(text, offset);
+      offsets[offset * 2 + 1] = textUtils.getOffsetAfter(text, offset);
+    }
+    return offsets;
+  }
+
+  private static void verifyNoPerCodePointQueries(FlutterJNI flutterJNI) {
+    verify(flutterJNI, never()).nativeFlutterTextUtilsIsEmoji(anyInt());
+    verify(flutterJNI, never()).nativeFlutterTextUtilsIsEmojiModifier(anyInt());
+    verify(flutterJNI, never()).nativeFlutterTextUtilsIsEmojiModifierBase(anyInt());
+    verify(flutterJNI, never()).nativeFlutterTextUtilsIsVariationSelector(anyInt());
+    verify(flutterJNI, never()).nativeFlutterTextUtilsIsRegionalIndicator(anyInt());
+  }
+
+  // Answers the per code point queries from the fixed ranges above, and the range queries if
+  // |withPropertyRanges| is true.
+  private static FlutterJNI createFlutterJNI(boolean withPropertyRanges) {
+    final FlutterJNI flutterJNI = mock(FlutterJNI.class);
+    when(flutterJNI.nativeFlutterTextUtilsIsEmoji(anyInt()))
+        .thenAnswer((invocation) -> EMOJI.contains((int) invocation.getArguments()[0]));
+    when(flutterJNI.nativeFlutterTextUtilsIsEmojiModifier(anyInt()))
+        .thenAnswer((invocation) -> EMOJI_MODIFIER.contains((int) invocation.getArguments()[0]));
+    when(flutterJNI.nativeFlutterTextUtilsIsEmojiModifierBase(anyInt()))
+        .thenAnswer(
+            (invocation) -> EMOJI_MODIFIER_BASE.contains((int) invocation.getArguments()[0]));
+    when(flutterJNI.nativeFlutterTextUtilsIsVariationSelector(anyInt()))
+        .thenAnswer(
+            (invocation) -> VARIATION_SELECTOR.contains((int) invocation.getArguments()[0]));
+    when(flutterJNI.nativeFlutterTextUtilsIsRegionalIndicator(anyInt()))
+        .thenAnswer(
+            (invocation) -> REGIONAL_INDICATOR.contains((int) invocation.getArguments()[0]));
+    if (withPropertyRanges) {
+      when(flutterJNI.nativeFlutterTextUtilsGetPropertyRanges(FlutterTextUtils.PROPERTY_EMOJI))
+          .thenReturn(EMOJI_RANGES);
+      when(flutterJNI.nativeFlutterTextUtilsGetPropertyRanges(
+              FlutterTextUtils.PROPERTY_EMOJI_MODIFIER))
+          .thenReturn(EMOJI_MODIFIER_RANGES);
+      when(flutterJNI.nativeFlutterTextUtilsGetPropertyRanges(
+              FlutterTextUtils.PROPERTY_EMOJI_MODIFIER_BASE))
+          .thenReturn(EMOJI_MODIFIER_BASE_RANGES);
+      when(flutterJNI.nativeFlutterTextUtilsGetPropertyRanges(
+              FlutterTextUtils.PROPERTY_VARIATION_SELECTOR))
+          .thenReturn(VARIATION_SELECTOR_RANGES);
+      when(flutterJNI.nativeFlutterTextUtilsGetPropertyRanges(
+              FlutterTextUtils.PROPERTY_REGIONAL_INDICATOR))
+          .thenReturn(REGIONAL_INDICATOR_RANGES);
+    }
+    return flutterJNI;
+  }
+}
@@ -98,6 +98,58 @@ public class ListenableEditingStateTest {
     assertFalse(listener.composingRegionChanged);
   }
 
+  @Test
+  public void testBatchEditing_restoringTheTextIsNotATextChange() {
+    final ListenableEditingState editingState =
+        new ListenableEditingState(null, new View(RuntimeEnvironment.application));
+    editingState.replace(0, 0, "hello");
+    final Listener listener = new Listener();
+    editingState.addEditingStateListener(listener);
+
+    editingState.beginBatchEdit();
+    editingState.replace(0, 5, "world");
+    editingState.replace(0, 5, "hello");
+    Selection.setSelection(editingState, 1, 1);
+    editingState.endBatchEdit();
+
+    assertTrue(listener.isCalled());
+    assertFalse(listener.textChanged);
+    assertTrue(listener.selectionChanged);
+  }
+
+  @Test
+  public void testBatchEditing_recordsTextEditingDeltas() {
+    final ListenableEditingState editingState =
+        new ListenableEditingState(null, new View(RuntimeEnvironment.application));
+    final Listener listener = new Listener();
+    editingState.addEditingStateListener(listener);
+    // Changes are only recorded when the delta model is enabled.
+    editingState.replace(0, 0, "hello");
+    assertTrue(editingState.extractBatchTextEditingDeltas().isEmpty());
+
+    editingState.setDeltaModelEnabled(true);
+    editingState.beginBatchEdit();
+    editingState.replace(5, 5, " world");
+    editingState.replace(0, 1, "H");
+    // Replacing text with identical text isn't a change.
+    editingState.replace(1, 2, "e");
+    editingState.endBatchEdit();
+
+    final ArrayList<TextInputChannel.TextEditingDelta> deltas =
+        editingState.extractBatchTextEditingDeltas();
+    assertEquals(2, deltas.size());
+    assertEquals("hello", deltas.get(0).oldText);
+    assertEquals(" world", deltas.get(0).deltaText);
+    assertEquals(5, deltas.get(0).deltaStart);
+    assertEquals(5, deltas.get(0).deltaEnd);
+    assertEquals("hello world", deltas.get(1).oldText);
+    assertEquals("H", deltas.get(1).deltaText);
+    assertEquals(0, deltas.get(1).deltaStart);
+    assertEquals(1, deltas.get(1).deltaEnd);
+    assertTrue(editingState.extractBatchTextEditingDeltas().isEmpty());
+    assertTrue(listener.textChanged);
+  }
+
   @Test
   public void testBatchingEditing_callEndBeforeBegin() {
     final ListenableEditingState editingState =
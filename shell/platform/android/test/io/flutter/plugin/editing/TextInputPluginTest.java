@@ -1,6 +1,7 @@
 package io.flutter.plugin.editing;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertThrows;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.AdditionalMatchers.aryEq;
@@ -171,6 +172,121 @@ public class TextInputPluginTest {
         .updateEditingState(anyInt(), any(), anyInt(), anyInt(), anyInt(), anyInt());
   }
 
+  @Test
+  @SuppressWarnings("unchecked")
+  public void deltaModel_sendsTextEditingDeltasInsteadOfEditingState() {
+    View testView = new View(RuntimeEnvironment.application);
+    TextInputChannel textInputChannel = spy(new TextInputChannel(mock(DartExecutor.class)));
+    TextInputPlugin textInputPlugin =
+        new TextInputPlugin(testView, textInputChannel, mock(PlatformViewsController.class));
+    textInputPlugin.setTextInputClient(0, createDeltaModelConfiguration());
+    textInputPlugin.setTextInputEditingState(
+        testView, new TextInputChannel.TextEditState("initial input", 13, 13, -1, -1));
+    // The framework already knows the state it sent.
+    verify(textInputChannel, times(0)).updateEditingStateWithDeltas(anyInt(), any());
+
+    textInputPlugin.getEditable().replace(8, 13, "text");
+
+    ArgumentCaptor<List<TextInputChannel.TextEditingDelta>> deltasCaptor =
+        ArgumentCaptor.forClass(List.class);
+    verify(textInputChannel, times(1)).updateEditingStateWithDeltas(eq(0), deltasCaptor.capture());
+    verify(textInputChannel, times(0))
+        .updateEditingState(anyInt(), any(), anyInt(), anyInt(), anyInt(), anyInt());
+    List<TextInputChannel.TextEditingDelta> deltas = deltasCaptor.getValue();
+    assertEquals(1, deltas.size());
+    assertEquals("initial input", deltas.get(0).oldText);
+    assertEquals("text", deltas.get(0).deltaText);
+    assertEquals(8, deltas.get(0).deltaStart);
+    assertEquals(13, deltas.get(0).deltaEnd);
+    assertEquals(12, deltas.get(0).selectionStart);
+    assertEquals(12, deltas.get(0).selectionEnd);
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void deltaModel_sendsNonTextDeltaForSelectionChanges() {
+    View testView = new View(RuntimeEnvironment.application);
+    TextInputChannel textInputChannel = spy(new TextInputChannel(mock(DartExecutor.class)));
+    TextInputPlugin textInputPlugin =
+        new TextInputPlugin(testView, textInputChannel, mock(PlatformViewsController.class));
+    textInputPlugin.setTextInputClient(0, createDeltaModelConfiguration());
+    textInputPlugin.setTextInputEditingState(
+        testView, new TextInputChannel.TextEditState("initial input", 13, 13, -1, -1));
+
+    ListenableEditingState editable = (ListenableEditingState) textInputPlugin.getEditable();
+    editable.beginBatchEdit();
+    editable.replace(0, 0, "an ");
+    Selection.setSelection(editable, 0, 2);
+    editable.endBatchEdit();
+
+    ArgumentCaptor<List<TextInputChannel.TextEditingDelta>> deltasCaptor =
+        ArgumentCaptor.forClass(List.class);
+    verify(textInputChannel, times(1)).updateEditingStateWithDeltas(eq(0), deltasCaptor.capture());
+    List<TextInputChannel.TextEditingDelta> deltas = deltasCaptor.getValue();
+    assertEquals(2, deltas.size());
+    assertEquals("initial input", deltas.get(0).oldText);
+    assertEquals("an ", deltas.get(0).deltaText);
+    assertEquals(0, deltas.get(0).deltaStart);
+    assertEquals(0, deltas.get(0).deltaEnd);
+    assertEquals("an initial input", deltas.get(1).oldText);
+    assertEquals("", deltas.get(1).deltaText);
+    assertEquals(-1, deltas.get(1).deltaStart);
+    assertEquals(0, deltas.get(1).selectionStart);
+    assertEquals(2, deltas.get(1).selectionEnd);
+  }
+
+  @Test
+  public void deltaModel_sendsTheFrameworkDeltaSchema() throws JSONException {
+    View testView = new View(RuntimeEnvironment.application);
+    DartExecutor dartExecutor = mock(DartExecutor.class);
+    TextInputChannel textInputChannel = new TextInputChannel(dartExecutor);
+    TextInputPlugin textInputPlugin =
+        new TextInputPlugin(testView, textInputChannel, mock(PlatformViewsController.class));
+    textInputPlugin.setTextInputClient(0, createDeltaModelConfiguration());
+    textInputPlugin.setTextInputEditingState(
+        testView, new TextInputChannel.TextEditState("hello", 5, 5, -1, -1));
+
+    textInputPlugin.getEditable().replace(5, 5, "!");
+
+    ArgumentCaptor<ByteBuffer> bufferCaptor = ArgumentCaptor.forClass(ByteBuffer.class);
+    // The first message is TextInputClient.requestExistingInputState.
+    verify(dartExecutor, times(2)).send(eq("flutter/textinput"), bufferCaptor.capture(), isNull());
+    ByteBuffer buffer = bufferCaptor.getValue();
+    buffer.rewind();
+    MethodCall methodCall = JSONMethodCodec.INSTANCE.decodeMethodCall(buffer);
+    assertEquals("TextInputClient.updateEditingStateWithDeltas", methodCall.method);
+    JSONArray args = methodCall.arguments();
+    assertEquals(0, args.getInt(0));
+    JSONArray deltas = args.getJSONObject(1).getJSONArray("deltas");
+    assertEquals(1, deltas.length());
+    JSONObject delta = deltas.getJSONObject(0);
+    assertEquals("hello", delta.getString("oldText"));
+    assertEquals("!", delta.getString("deltaText"));
+    assertEquals(5, delta.getInt("deltaStart"));
+    assertEquals(5, delta.getInt("deltaEnd"));
+    assertEquals(6, delta.getInt("selectionBase"));
+    assertEquals(6, delta.getInt("selectionExtent"));
+    assertEquals("TextAffinity.downstream", delta.getString("selectionAffinity"));
+    assertFalse(delta.getBoolean("selectionIsDirectional"));
+    assertEquals(-1, delta.getInt("composingBase"));
+    assertEquals(-1, delta.getInt("composingExtent"));
+  }
+
+  private static TextInputChannel.Configuration createDeltaModelConfiguration() {
+    return new TextInputChannel.Configuration(
+        false,
+        false,
+        true,
+        true,
+        TextInputChannel.TextCapitalization.NONE,
+        new TextInputChannel.InputType(TextInputChannel.TextInputType.TEXT, false, false),
+        null,
+        null,
+        null,
+        null,
+        true);
+  }
+
   @Test
   public void inputConnectionAdaptor_RepeatFilter() throws NullPointerException {
     // Initialize a general TextInputPlugin.
@@ -404,6 +520,39 @@ public class TextInputPluginTest {
     assertEquals(2, testImm.getRestartCount(testView));
   }
 
+  @Test
+  public void setTextInputEditingState_deltaModel_restartsWhenFrameworkChangesComposing() {
+    InputMethodSubtype inputMethodSubtype =
+        new InputMethodSubtype(0, 0, /*locale=*/ "en", "", "", false, false);
+    TestImm testImm =
+        Shadow.extract(
+            RuntimeEnvironment.application.getSystemService(Context.INPUT_METHOD_SERVICE));
+    testImm.setCurrentInputMethodSubtype(inputMethodSubtype);
+    View testView = new View(RuntimeEnvironment.application);
+    TextInputChannel textInputChannel = new TextInputChannel(mock(DartExecutor.class));
+    TextInputPlugin textInputPlugin =
+        new TextInputPlugin(testView, textInputChannel, mock(PlatformViewsController.class));
+    textInputPlugin.setTextInputClient(0, createDeltaModelConfiguration());
+    // There's a pending restart since we initialized the text input client. Flush that now.
+    textInputPlugin.setTextInputEditingState(
+        testView, new TextInputChannel.TextEditState("", 0, 0, -1, -1));
+    assertEquals(1, testImm.getRestartCount(testView));
+    InputConnection connection =
+        textInputPlugin.createInputConnection(
+            testView, mock(KeyboardManager.class), new EditorInfo());
+    connection.setComposingText("POWERRRRR", 1);
+
+    // Does not restart since the composing text is not changed.
+    textInputPlugin.setTextInputEditingState(
+        testView, new TextInputChannel.TextEditState("UNLIMITED POWERRRRR", 0, 0, 10, 19));
+    assertEquals(1, testImm.getRestartCount(testView));
+
+    // The framework tries to commit the composing region.
+    textInputPlugin.setTextInputEditingState(
+        testView, new TextInputChannel.TextEditState("UNLIMITED POWERRRRR", 19, 19, -1, -1));
+    assertEquals(2, testImm.getRestartCount(testView));
+  }
+
   @Test
   public void TextEditState_throwsOnInvalidStatesReceived() {
     // Index OOB:
@@ -1060,6 +1209,90 @@ public class TextInputPluginTest {
     assertEquals("2".hashCode(), testAfm.changeVirtualId);
     assertEquals("Unfocused fields need love like everything does", testAfm.changeString);
   }
+
+  @Test
+  public void autofill_onlyNotifiesFieldsWhoseValuesChanged() {
+    if (Build.VERSION.SDK_INT < Build.VERSION_CODES.O) {
+      return;
+    }
+
+    TestAfm testAfm =
+        Shadow.extract(RuntimeEnvironment.application.getSystemService(AutofillManager.class));
+    FlutterView testView = new FlutterView(RuntimeEnvironment.application);
+    TextInputChannel textInputChannel = spy(new TextInputChannel(mock(DartExecutor.class)));
+    TextInputPlugin textInputPlugin =
+        new TextInputPlugin(testView, textInputChannel, mock(PlatformViewsController.class));
+    ArgumentCaptor<TextInputChannel.TextInputMethodHandler> handlerCaptor =
+        ArgumentCaptor.forClass(TextInputChannel.TextInputMethodHandler.class);
+    verify(textInputChannel).setTextInputMethodHandler(handlerCaptor.capture());
+
+    final TextInputChannel.Configuration.Autofill autofill1 =
+        new TextInputChannel.Configuration.Autofill(
+            "1", new String[] {"HINT1"}, new TextInputChannel.TextEditState("", 0, 0, -1, -1));
+    final TextInputChannel.Configuration.Autofill autofill2 =
+        new TextInputChannel.Configuration.Autofill(
+            "2", new String[] {"HINT2"}, new TextInputChannel.TextEditState("a", 0, 0, -1, -1));
+    final TextInputChannel.Configuration.Autofill autofill2Changed =
+        new TextInputChannel.Configuration.Autofill(
+            "2", new String[] {"HINT2"}, new TextInputChannel.TextEditState("ab", 0, 0, -1, -1));
+
+    textInputPlugin.setTextInputClient(0, createAutofillConfiguration(autofill1, autofill2));
+    assertEquals(2, testAfm.changeCount);
+
+    // The autofill manager already knows the values of both fields.
+    testAfm.resetStates();
+    textInputPlugin.setTextInputClient(1, createAutofillConfiguration(autofill1, autofill2));
+    assertEquals(0, testAfm.changeCount);
+
+    testAfm.resetStates();
+    textInputPlugin.setTextInputClient(2, createAutofillConfiguration(autofill1, autofill2Changed));
+    assertEquals(1, testAfm.changeCount);
+    assertEquals("2".hashCode(), testAfm.changeVirtualId);
+    assertEquals("ab", testAfm.changeString);
+
+    // A new autofill session doesn't know any value.
+    testAfm.resetStates();
+    handlerCaptor.getValue().finishAutofillContext(false);
+    textInputPlugin.setTextInputClient(3, createAutofillConfiguration(autofill1, autofill2Changed));
+    assertEquals(2, testAfm.changeCount);
+
+    testAfm.resetStates();
+    handlerCaptor.getValue().finishAutofillContext(true);
+    textInputPlugin.setTextInputClient(4, createAutofillConfiguration(autofill1, autofill2Changed));
+    assertEquals(2, testAfm.changeCount);
+  }
+
+  private static TextInputChannel.Configuration createAutofillConfiguration(
+      TextInputChannel.Configuration.Autofill current,
+      TextInputChannel.Configuration.Autofill other) {
+    final TextInputChannel.Configuration[] fields = new TextInputChannel.Configuration[2];
+    final TextInputChannel.Configuration.Autofill[] autofills = {current, other};
+    for (int i = 0; i < fields.length; i++) {
+      fields[i] =
+          new TextInputChannel.Configuration(
+              false,
+              false,
+              true,
+              true,
+              TextInputChannel.TextCapitalization.NONE,
+              null,
+              null,
+              null,
+              autofills[i],
+              null);
+    }
+    return new TextInputChannel.Configuration(
+        false,
+        false,
+        true,
+        true,
+        TextInputChannel.TextCapitalization.NONE,
+        null,
+        null,
+        null,
+        current,
+        fields);
+  }
   // -------- End: Autofill Tests -------
 
   @Test
@@ -1330,6 +1563,7 @@ public class TextInputPluginTest {
     String finishState;
     int changeVirtualId = empty;
     String changeString;
+    int changeCount = 0;
 
     int enterId = empty;
     int exitId = empty;
@@ -1357,12 +1591,14 @@ public class TextInputPluginTest {
       }
       changeVirtualId = virtualId;
       changeString = value.getTextValue().toString();
+      changeCount++;
     }
 
     public void resetStates() {
       finishState = null;
       changeVirtualId = empty;
       changeString = null;
+      changeCount = 0;
       enterId = empty;
       exitId = empty;
     }
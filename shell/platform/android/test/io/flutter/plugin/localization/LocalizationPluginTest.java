@@ -2,8 +2,10 @@
 package io.flutter.embedding.engine;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -18,6 +20,8 @@ import io.flutter.embedding.engine.systemchannels.LocalizationChannel;
 import io.flutter.plugin.common.MethodCall;
 import io.flutter.plugin.common.MethodChannel;
 import io.flutter.plugin.localization.LocalizationPlugin;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Locale;
 import org.json.JSONException;
 import org.json.JSONObject;
@@ -449,4 +453,121 @@ public class LocalizationPluginTest {
 
     verify(mockResult).success(null);
   }
+
+  @Test
+  public void getStringResource_reusesLocalizedResources() throws JSONException {
+    Context context = mock(Context.class);
+    Context localContext = mock(Context.class);
+    Resources resources = mock(Resources.class);
+    Resources localResources = mock(Resources.class);
+    Configuration configuration = new Configuration();
+    DartExecutor dartExecutor = mock(DartExecutor.class);
+    LocalizationChannel localizationChannel = new LocalizationChannel(dartExecutor);
+    LocalizationPlugin plugin = new LocalizationPlugin(context, localizationChannel);
+
+    String fakePackageName = "package_name";
+
+    when(context.getPackageName()).thenReturn(fakePackageName);
+    when(context.createConfigurationContext(any())).thenReturn(localContext);
+    when(context.getResources()).thenReturn(resources);
+    when(localContext.getResources()).thenReturn(localResources);
+    when(resources.getConfiguration()).thenReturn(configuration);
+    when(localResources.getIdentifier("key_1", "string", fakePackageName)).thenReturn(1);
+    when(localResources.getIdentifier("key_2", "string", fakePackageName)).thenReturn(2);
+    when(localResources.getString(1)).thenReturn("value_1");
+    when(localResources.getString(2)).thenReturn("value_2");
+
+    MethodChannel.Result mockResult = mock(MethodChannel.Result.class);
+    getStringResource(localizationChannel, "key_1", "en-US", mockResult);
+    getStringResource(localizationChannel, "key_2", "en-US", mockResult);
+    getStringResource(localizationChannel, "key_1", "en-US", mockResult);
+    getStringResource(localizationChannel, "missing_key", "en-US", mockResult);
+    getStringResource(localizationChannel, "missing_key", "en-US", mockResult);
+
+    verify(mockResult, times(2)).success("value_1");
+    verify(mockResult).success("value_2");
+    verify(mockResult, times(2)).success(null);
+    // The localized resources are created once, and each string is looked up once.
+    verify(context, times(1)).createConfigurationContext(any());
+    verify(localResources, times(1)).getIdentifier("key_1", "string", fakePackageName);
+    verify(localResources, times(1)).getIdentifier("missing_key", "string", fakePackageName);
+  }
+
+  @Test
+  public void getStringResource_cachesAreClearedOnConfigurationChange() throws JSONException {
+    Context context = mock(Context.class);
+    Context localContext = mock(Context.class);
+    Resources resources = mock(Resources.class);
+    Resources localResources = mock(Resources.class);
+    Configuration configuration = new Configuration();
+    DartExecutor dartExecutor = mock(DartExecutor.class);
+    LocalizationChannel localizationChannel = new LocalizationChannel(dartExecutor);
+    LocalizationPlugin plugin = new LocalizationPlugin(context, localizationChannel);
+
+    String fakePackageName = "package_name";
+    String fakeKey = "test_key";
+    int fakeId = 123;
+
+    when(context.getPackageName()).thenReturn(fakePackageName);
+    when(context.createConfigurationContext(any())).thenReturn(localContext);
+    when(context.getResources()).thenReturn(resources);
+    when(localContext.getResources()).thenReturn(localResources);
+    when(resources.getConfiguration()).thenReturn(configuration);
+    when(localResources.getIdentifier(fakeKey, "string", fakePackageName)).thenReturn(fakeId);
+    when(localResources.getString(fakeId)).thenReturn("old_value");
+
+    MethodChannel.Result mockResult = mock(MethodChannel.Result.class);
+    getStringResource(localizationChannel, fakeKey, "en-US", mockResult);
+    verify(mockResult).success("old_value");
+
+    when(localResources.getString(fakeId)).thenReturn("new_value");
+    plugin.sendLocalesToFlutter(configuration);
+    getStringResource(localizationChannel, fakeKey, "en-US", mockResult);
+
+    verify(mockResult).success("new_value");
+    verify(context, times(2)).createConfigurationContext(any());
+  }
+
+  @Test
+  public void resolveNativeLocale_isReusedUntilLocalesChange() {
+    TestUtils.setApiVersion(26);
+    Context context = mock(Context.class);
+    Resources resources = mock(Resources.class);
+    Configuration config = mock(Configuration.class);
+    DartExecutor dartExecutor = mock(DartExecutor.class);
+    when(context.getResources()).thenReturn(resources);
+    when(resources.getConfiguration()).thenReturn(config);
+    when(config.getLocales()).thenReturn(new LocaleList(new Locale("fr", "CH")));
+    LocalizationPlugin plugin =
+        new LocalizationPlugin(context, new LocalizationChannel(dartExecutor));
+
+    List<Locale> supportedLocales = new ArrayList<>();
+    supportedLocales.add(new Locale("en"));
+    supportedLocales.add(new Locale("fr", "FR"));
+
+    Locale result = plugin.resolveNativeLocale(supportedLocales);
+    assertEquals(new Locale("fr", "FR"), result);
+    assertSame(result, plugin.resolveNativeLocale(new ArrayList<>(supportedLocales)));
+
+    // The preferred locales changed.
+    when(config.getLocales()).thenReturn(new LocaleList(new Locale("en", "US")));
+    assertEquals(new Locale("en"), plugin.resolveNativeLocale(supportedLocales));
+
+    // The supported locales changed.
+    supportedLocales.add(0, new Locale("en", "US"));
+    assertEquals(new Locale("en", "US"), plugin.resolveNativeLocale(supportedLocales));
+  }
+
+  private static void getStringResource(
+      LocalizationChannel localizationChannel,
+      String key,
+      String locale,
+      MethodChannel.Result result)
+      throws JSONException {
+    JSONObject param = new JSONObject();
+    param.put("key", key);
+    param.put("locale", locale);
+    localizationChannel.handler.onMethodCall(
+        new MethodCall("Localization.getStringResource", param), result);
+  }
 }
@@ -0,0 +1,135 @@
+package io.flutter.plugin.platform;
+
+import static android.content.ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW;
+import static android.content.ComponentCallbacks2.TRIM_MEMORY_RUNNING_MODERATE;
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import android.content.Context;
+import android.os.SystemClock;
+import androidx.annotation.NonNull;
+import io.flutter.embedding.android.FlutterImageView;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+
+@Config(manifest = Config.NONE)
+@RunWith(RobolectricTestRunner.class)
+public class OverlayViewPoolTest {
+  private final Context context = RuntimeEnvironment.application;
+
+  @Test
+  public void acquire__reusesReleasedViewOfTheSameSize() {
+    final OverlayViewPool pool = new FakeOverlayViewPool(4, 1000);
+
+    final FlutterImageView first = pool.acquire(context, 100, 200);
+    pool.release(first);
+    final FlutterImageView second = pool.acquire(context, 100, 200);
+
+    assertSame(first, second);
+    assertEquals(1, pool.getHitCount());
+    assertEquals(1, pool.getMissCount());
+    assertEquals(0, pool.getParkedViewCount());
+    verify(first, never()).closeImageReader();
+  }
+
+  @Test
+  public void acquire__createsNewViewWhenSizeDiffers() {
+    final OverlayViewPool pool = new FakeOverlayViewPool(4, 1000);
+
+    final FlutterImageView first = pool.acquire(context, 100, 200);
+    pool.release(first);
+    final FlutterImageView second = pool.acquire(context, 200, 100);
+
+    assertNotSame(first, second);
+    assertEquals(0, pool.getHitCount());
+    assertEquals(2, pool.getMissCount());
+    assertEquals(1, pool.getParkedViewCount());
+  }
+
+  @Test
+  public void release__ignoresViewsNotCreatedByThePool() {
+    final OverlayViewPool pool = new FakeOverlayViewPool(4, 1000);
+
+    pool.release(mock(FlutterImageView.class));
+
+    assertEquals(0, pool.getParkedViewCount());
+  }
+
+  @Test
+  public void release__closesOldestViewWhenFull() {
+    final OverlayViewPool pool = new FakeOverlayViewPool(1, 1000);
+
+    final FlutterImageView first = pool.acquire(context, 100, 200);
+    final FlutterImageView second = pool.acquire(context, 100, 200);
+    pool.release(first);
+    SystemClock.sleep(1);
+    pool.release(second);
+
+    assertEquals(1, pool.getParkedViewCount());
+    verify(first, times(1)).closeImageReader();
+    verify(second, never()).closeImageReader();
+  }
+
+  @Test
+  public void trimIdleViews__closesViewsIdleForLongerThanTimeout() {
+    final OverlayViewPool pool = new FakeOverlayViewPool(4, 1000);
+
+    final FlutterImageView view = pool.acquire(context, 100, 200);
+    pool.release(view);
+
+    SystemClock.sleep(999);
+    pool.trimIdleViews();
+    verify(view, never()).closeImageReader();
+
+    SystemClock.sleep(1);
+    pool.trimIdleViews();
+    verify(view, times(1)).closeImageReader();
+    assertEquals(0, pool.getParkedViewCount());
+  }
+
+  @Test
+  public void onTrimMemory__closesAllParkedViewsWhenRunningLow() {
+    final OverlayViewPool pool = new FakeOverlayViewPool(4, 1000);
+
+    final FlutterImageView inUse = pool.acquire(context, 100, 200);
+    final FlutterImageView parked = pool.acquire(context, 100, 200);
+    pool.release(parked);
+
+    pool.onTrimMemory(TRIM_MEMORY_RUNNING_MODERATE);
+    verify(parked, never()).closeImageReader();
+
+    pool.onTrimMemory(TRIM_MEMORY_RUNNING_LOW);
+    verify(parked, times(1)).closeImageReader();
+    verify(inUse, never()).closeImageReader();
+    assertEquals(0, pool.getParkedViewCount());
+  }
+
+  @Test
+  public void getImageReaderBytesHeld__countsViewsInUseAndParked() {
+    final OverlayViewPool pool = new FakeOverlayViewPool(4, 1000);
+
+    pool.acquire(context, 10, 20);
+    final FlutterImageView parked = pool.acquire(context, 10, 20);
+    pool.release(parked);
+    // 2 views * 3 buffers * 10 * 20 pixels * 4 bytes.
+    assertEquals(4800, pool.getImageReaderBytesHeld());
+
+    pool.clear();
+    assertEquals(2400, pool.getImageReaderBytesHeld());
+  }
+
+  private static class FakeOverlayViewPool extends OverlayViewPool {
+    FakeOverlayViewPool(int maxParkedViews, long idleTimeoutMs) {
+      super(maxParkedViews, idleTimeoutMs);
+    }
+
+    @NonNull
+    @Override
+    FlutterImageView createImageView(@NonNull Context context, int width, int height) {
+      return mock(FlutterImageView.class);
+    }
+  }
+}
@@ -0,0 +1,82 @@
+package io.flutter.plugin.platform;
+
+import static android.content.ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW;
+import static android.content.ComponentCallbacks2.TRIM_MEMORY_RUNNING_MODERATE;
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+@Config(manifest = Config.NONE)
+@RunWith(RobolectricTestRunner.class)
+public class PlatformViewPoolTest {
+  @Test
+  public void recycle__doesNotKeepViewsOfNonRecyclingFactories() {
+    final PlatformViewPool pool = new PlatformViewPool();
+    final PlatformViewFactory factory = mock(PlatformViewFactory.class);
+
+    assertFalse(pool.recycle("type", mock(PlatformView.class), factory));
+    assertEquals(0, pool.getRecycledViewCount());
+  }
+
+  @Test
+  public void recycle__keepsUpToMaxRecycledViewsPerType() {
+    final PlatformViewPool pool = new PlatformViewPool();
+    final PlatformViewFactory factory = createRecyclingFactory(1);
+
+    assertTrue(pool.recycle("type", mock(PlatformView.class), factory));
+    assertFalse(pool.recycle("type", mock(PlatformView.class), factory));
+    assertTrue(pool.recycle("otherType", mock(PlatformView.class), factory));
+    assertEquals(2, pool.getRecycledViewCount());
+  }
+
+  @Test
+  public void acquire__rebindsViewOfTheSameType() {
+    final PlatformViewPool pool = new PlatformViewPool();
+    final PlatformViewFactory factory = createRecyclingFactory(2);
+    final PlatformView view = mock(PlatformView.class);
+    final Object args = new Object();
+    when(factory.rebindView(view, 7, args)).thenReturn(true);
+    pool.recycle("type", view, factory);
+
+    assertNull(pool.acquire("otherType", 7, args));
+    assertSame(view, pool.acquire("type", 7, args));
+    assertEquals(0, pool.getRecycledViewCount());
+    assertEquals(1, pool.getReusedViewCount());
+  }
+
+  @Test
+  public void acquire__disposesViewsThatCannotBeRebound() {
+    final PlatformViewPool pool = new PlatformViewPool();
+    final PlatformViewFactory factory = createRecyclingFactory(2);
+    final PlatformView view = mock(PlatformView.class);
+    pool.recycle("type", view, factory);
+
+    assertNull(pool.acquire("type", 7, null));
+    verify(view, times(1)).dispose();
+    assertEquals(0, pool.getRecycledViewCount());
+  }
+
+  @Test
+  public void onTrimMemory__disposesRecycledViewsWhenRunningLow() {
+    final PlatformViewPool pool = new PlatformViewPool();
+    final PlatformView view = mock(PlatformView.class);
+    pool.recycle("type", view, createRecyclingFactory(2));
+
+    pool.onTrimMemory(TRIM_MEMORY_RUNNING_MODERATE);
+    verify(view, never()).dispose();
+
+    pool.onTrimMemory(TRIM_MEMORY_RUNNING_LOW);
+    verify(view, times(1)).dispose();
+    assertEquals(0, pool.getRecycledViewCount());
+  }
+
+  private static PlatformViewFactory createRecyclingFactory(int maxRecycledViews) {
+    final PlatformViewFactory factory = mock(PlatformViewFactory.class);
+    when(factory.getMaxRecycledViews()).thenReturn(maxRecycledViews);
+    return factory;
+  }
+}
@@ -1,5 +1,6 @@
 package io.flutter.plugin.platform;
 
+import static android.content.ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW;
 import static io.flutter.embedding.engine.systemchannels.PlatformViewsChannel.PlatformViewTouch;
 import static org.junit.Assert.*;
 import static org.mockito.Matchers.*;
@@ -29,6 +30,7 @@ import io.flutter.embedding.engine.renderer.FlutterRenderer;
 import io.flutter.embedding.engine.systemchannels.AccessibilityChannel;
 import io.flutter.embedding.engine.systemchannels.KeyEventChannel;
 import io.flutter.embedding.engine.systemchannels.MouseCursorChannel;
+import io.flutter.embedding.engine.systemchannels.PlatformViewsChannel;
 import io.flutter.embedding.engine.systemchannels.SettingsChannel;
 import io.flutter.embedding.engine.systemchannels.TextInputChannel;
 import io.flutter.plugin.common.MethodCall;
@@ -36,12 +38,14 @@ import io.flutter.plugin.common.StandardMethodCodec;
 import io.flutter.plugin.localization.LocalizationPlugin;
 import io.flutter.view.TextureRegistry;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 import org.junit.Ignore;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.robolectric.RobolectricTestRunner;
 import org.robolectric.RuntimeEnvironment;
 import org.robolectric.annotation.Config;
@@ -167,6 +171,114 @@ public class PlatformViewsControllerTest {
     assertNotEquals(resolvedEvent.getAction(), original.getAction());
   }
 
+  @Test
+  public void toMotionEvent__decodesTouchPacketLikeTouchMessage() {
+    PlatformViewsController platformViewsController = new PlatformViewsController();
+
+    PlatformViewTouch touch =
+        new PlatformViewTouch(
+            0, // viewId
+            100, // downTime
+            200, // eventTime
+            MotionEvent.ACTION_MOVE,
+            2, // pointerCount
+            Arrays.asList(Arrays.asList(3, 1), Arrays.asList(4, 2)), // pointer properties
+            Arrays.asList(
+                Arrays.asList(0., 1., 2., 3., 4., 5., 6., 7., 8.),
+                Arrays.asList(1., 1., 1., 1., 1., 1., 1., 10., 20.)), // pointer coords
+            0, // metaState
+            0, // buttonState
+            1.0f, // xPrecision
+            1.0f, // yPrecision
+            0, // deviceId
+            0, // edgeFlags
+            0, // source
+            0, // flags
+            0); // motionEventId
+
+    ByteBuffer packet =
+        ByteBuffer.allocate(
+                PlatformViewsChannel.TOUCH_PACKET_HEADER_SIZE
+                    + 2 * PlatformViewsChannel.TOUCH_PACKET_POINTER_SIZE)
+            .order(ByteOrder.LITTLE_ENDIAN);
+    packet.putLong(100).putLong(200).putLong(0);
+    packet.putInt(0).putInt(MotionEvent.ACTION_MOVE).putInt(2).putInt(0).putInt(0);
+    packet.putFloat(1.0f).putFloat(1.0f);
+    packet.putInt(0).putInt(0).putInt(0).putInt(0);
+    packet.putInt(3).putInt(1);
+    for (float value : new float[] {0, 1, 2, 3, 4, 5, 6, 7, 8}) {
+      packet.putFloat(value);
+    }
+    packet.putInt(4).putInt(2);
+    for (float value : new float[] {1, 1, 1, 1, 1, 1, 1, 10, 20}) {
+      packet.putFloat(value);
+    }
+
+    MotionEvent expected = platformViewsController.toMotionEvent(2, touch, true);
+    MotionEvent decoded = platformViewsController.toMotionEvent(2, packet, true);
+
+    assertEquals(expected.getDownTime(), decoded.getDownTime());
+    assertEquals(expected.getEventTime(), decoded.getEventTime());
+    assertEquals(expected.getAction(), decoded.getAction());
+    assertEquals(expected.getPointerCount(), decoded.getPointerCount());
+    for (int i = 0; i < expected.getPointerCount(); i++) {
+      assertEquals(expected.getPointerId(i), decoded.getPointerId(i));
+      assertEquals(expected.getToolType(i), decoded.getToolType(i));
+      assertEquals(expected.getX(i), decoded.getX(i), 0.0001);
+      assertEquals(expected.getY(i), decoded.getY(i), 0.0001);
+    }
+    assertEquals(20, decoded.getY(1), 0.0001);
+
+    // Decoding a packet with fewer pointers reuses the pointer arrays.
+    ByteBuffer singlePointerPacket =
+        ByteBuffer.allocate(
+                PlatformViewsChannel.TOUCH_PACKET_HEADER_SIZE
+                    + PlatformViewsChannel.TOUCH_PACKET_POINTER_SIZE)
+            .order(ByteOrder.LITTLE_ENDIAN);
+    singlePointerPacket.put(packet.array(), 0, singlePointerPacket.capacity());
+    singlePointerPacket.putInt(PlatformViewsChannel.TOUCH_PACKET_POINTER_COUNT_OFFSET, 1);
+    assertEquals(
+        1, platformViewsController.toMotionEvent(2, singlePointerPacket, true).getPointerCount());
+  }
+
+  @Test
+  public void onTouchPacket__forwardsDecodedTouchToOnTouchByDefault() {
+    PlatformViewsChannel.PlatformViewsHandler handler =
+        mock(PlatformViewsChannel.PlatformViewsHandler.class);
+    doCallRealMethod().when(handler).onTouchPacket(any(ByteBuffer.class));
+
+    ByteBuffer packet =
+        ByteBuffer.allocate(
+                PlatformViewsChannel.TOUCH_PACKET_HEADER_SIZE
+                    + PlatformViewsChannel.TOUCH_PACKET_POINTER_SIZE)
+            .order(ByteOrder.LITTLE_ENDIAN);
+    packet.putLong(100).putLong(200).putLong(5);
+    packet.putInt(7).putInt(MotionEvent.ACTION_DOWN).putInt(1).putInt(0).putInt(0);
+    packet.putFloat(1.0f).putFloat(1.0f);
+    packet.putInt(0).putInt(0).putInt(0).putInt(0);
+    packet.putInt(3).putInt(1);
+    for (float value : new float[] {0, 1, 2, 3, 4, 5, 6, 10, 20}) {
+      packet.putFloat(value);
+    }
+
+    handler.onTouchPacket(packet);
+
+    ArgumentCaptor<PlatformViewTouch> touchCaptor =
+        ArgumentCaptor.forClass(PlatformViewTouch.class);
+    verify(handler, times(1)).onTouch(touchCaptor.capture());
+    PlatformViewTouch touch = touchCaptor.getValue();
+    assertEquals(7, touch.viewId);
+    assertEquals(100L, touch.downTime.longValue());
+    assertEquals(200L, touch.eventTime.longValue());
+    assertEquals(MotionEvent.ACTION_DOWN, touch.action);
+    assertEquals(1, touch.pointerCount);
+    assertEquals(5L, touch.motionEventId);
+    assertEquals(Arrays.asList(Arrays.asList(3, 1)), touch.rawPointerPropertiesList);
+    assertEquals(
+        Arrays.asList(Arrays.asList(0., 1., 2., 3., 4., 5., 6., 10., 20.)),
+        touch.rawPointerCoords);
+  }
+
   @Ignore
   @Test
   public void itUsesActionEventTypeFromMotionEventForHybridPlatformViews() {
@@ -425,6 +537,50 @@ public class PlatformViewsControllerTest {
     verify(platformView, times(1)).dispose();
   }
 
+  @Test
+  @Config(shadows = {ShadowFlutterJNI.class})
+  public void disposeAndroidView__recyclesViewOfRecyclingFactory() {
+    PlatformViewsController platformViewsController = new PlatformViewsController();
+
+    PlatformViewFactory viewFactory = mock(PlatformViewFactory.class);
+    PlatformView platformView = mock(PlatformView.class);
+
+    Context context = RuntimeEnvironment.application.getApplicationContext();
+    View androidView = new View(context);
+
+    when(platformView.getView()).thenReturn(androidView);
+    when(viewFactory.create(any(), anyInt(), any())).thenReturn(platformView);
+    when(viewFactory.getMaxRecycledViews()).thenReturn(1);
+    when(viewFactory.rebindView(eq(platformView), anyInt(), any())).thenReturn(true);
+    platformViewsController.getRegistry().registerViewFactory("testType", viewFactory);
+
+    FlutterJNI jni = new FlutterJNI();
+    attach(jni, platformViewsController);
+
+    // Simulate create and dispose calls from the framework.
+    createPlatformView(jni, platformViewsController, 0, "testType", /* hybrid=*/ true);
+    platformViewsController.initializePlatformViewIfNeeded(0);
+    disposePlatformView(jni, platformViewsController, 0);
+
+    assertNull(androidView.getParent());
+    verify(viewFactory, times(1)).onViewRecycled(platformView);
+    verify(platformView, never()).dispose();
+
+    // The next view of the same type is the recycled view.
+    createPlatformView(jni, platformViewsController, 1, "testType", /* hybrid=*/ true);
+    platformViewsController.initializePlatformViewIfNeeded(1);
+
+    assertSame(androidView, platformViewsController.getPlatformViewById(1));
+    assertTrue(androidView.getParent() instanceof FlutterMutatorView);
+    verify(viewFactory, times(1)).create(any(), anyInt(), any());
+    verify(viewFactory, times(1)).rebindView(eq(platformView), eq(1), any());
+
+    // Recycled views are disposed on memory pressure.
+    disposePlatformView(jni, platformViewsController, 1);
+    platformViewsController.onTrimMemory(TRIM_MEMORY_RUNNING_LOW);
+    verify(platformView, times(1)).dispose();
+  }
+
   @Test
   @Config(shadows = {ShadowFlutterSurfaceView.class, ShadowFlutterJNI.class})
   public void onEndFrame__destroysOverlaySurfaceAfterFrameOnFlutterSurfaceView() {
@@ -787,6 +943,71 @@ public class PlatformViewsControllerTest {
     disposePlatformView(jni, platformViewsController, platformViewId);
   }
 
+  @Test
+  @Config(shadows = {ShadowFlutterJNI.class})
+  public void onEndFrame__skipsViewMutationsWhenFrameIsUnchanged() {
+    final PlatformViewsController platformViewsController = new PlatformViewsController();
+
+    final int platformViewId = 0;
+    assertNull(platformViewsController.getPlatformViewById(platformViewId));
+
+    final PlatformViewFactory viewFactory = mock(PlatformViewFactory.class);
+    final PlatformView platformView = mock(PlatformView.class);
+    final View androidView = new View(RuntimeEnvironment.application);
+    when(platformView.getView()).thenReturn(androidView);
+    when(viewFactory.create(any(), eq(platformViewId), any())).thenReturn(platformView);
+
+    platformViewsController.getRegistry().registerViewFactory("testType", viewFactory);
+
+    final FlutterJNI jni = new FlutterJNI();
+    jni.attachToNative(false);
+    attach(jni, platformViewsController);
+
+    jni.onFirstFrame();
+
+    synchronizeToNativeViewHierarchy(jni, platformViewsController, false);
+
+    // Simulate create call from the framework.
+    createPlatformView(jni, platformViewsController, platformViewId, "testType", /* hybrid=*/ true);
+
+    // Produce a frame that displays the platform view.
+    displayPlatformViewFrame(platformViewsController, platformViewId, /* viewWidth=*/ 10);
+    final LayoutParams firstFrameLayoutParams = (LayoutParams) androidView.getLayoutParams();
+    assertEquals(10, firstFrameLayoutParams.width);
+
+    // Produce the same frame. The visibility, layout params and z-order don't change.
+    displayPlatformViewFrame(platformViewsController, platformViewId, /* viewWidth=*/ 10);
+    assertSame(firstFrameLayoutParams, androidView.getLayoutParams());
+    // The visibility of the parent view before and after the frame, the layout params of the
+    // platform view, its z-order in the parent view and the z-order of the parent view.
+    assertEquals(5, platformViewsController.getLastFrameSkippedViewMutationCount());
+
+    // Resize the platform view.
+    displayPlatformViewFrame(platformViewsController, platformViewId, /* viewWidth=*/ 20);
+    assertEquals(20, androidView.getLayoutParams().width);
+    assertEquals(4, platformViewsController.getLastFrameSkippedViewMutationCount());
+    // The first frame only sets the layout params of the platform view.
+    assertEquals(4 + 5 + 4, platformViewsController.getTotalSkippedViewMutationCount());
+
+    // Simulate dispose call from the framework.
+    disposePlatformView(jni, platformViewsController, platformViewId);
+  }
+
+  private static void displayPlatformViewFrame(
+      PlatformViewsController platformViewsController, int platformViewId, int viewWidth) {
+    platformViewsController.onBeginFrame();
+    platformViewsController.onDisplayPlatformView(
+        platformViewId,
+        /* x=*/ 0,
+        /* y=*/ 0,
+        /* width=*/ viewWidth,
+        /* height=*/ 10,
+        /* viewWidth=*/ viewWidth,
+        /* viewHeight=*/ 10,
+        /* mutatorsStack=*/ new FlutterMutatorsStack());
+    platformViewsController.onEndFrame();
+  }
+
   private static ByteBuffer encodeMethodCall(MethodCall call) {
     final ByteBuffer buffer = StandardMethodCodec.INSTANCE.encodeMethodCall(call);
     buffer.rewind();
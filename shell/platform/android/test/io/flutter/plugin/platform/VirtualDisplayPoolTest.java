@@ -0,0 +1,88 @@
+package io.flutter.plugin.platform;
+
+import static android.content.ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW;
+import static android.content.ComponentCallbacks2.TRIM_MEMORY_RUNNING_MODERATE;
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import android.hardware.display.VirtualDisplay;
+import android.view.Surface;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+@Config(manifest = Config.NONE)
+@RunWith(RobolectricTestRunner.class)
+public class VirtualDisplayPoolTest {
+  @Test
+  public void acquire__returnsNullWhenEmpty() {
+    final VirtualDisplayPool pool = new VirtualDisplayPool(2);
+
+    assertNull(pool.acquire(320, 100, 200, mock(Surface.class)));
+  }
+
+  @Test
+  public void release__detachesSurfaceAndParksDisplay() {
+    final VirtualDisplayPool pool = new VirtualDisplayPool(2);
+    final VirtualDisplay display = mock(VirtualDisplay.class);
+
+    pool.release(display, 320);
+
+    verify(display, times(1)).setSurface(null);
+    verify(display, never()).release();
+    assertEquals(1, pool.getParkedDisplayCount());
+  }
+
+  @Test
+  public void acquire__resizesParkedDisplayAndAttachesSurface() {
+    final VirtualDisplayPool pool = new VirtualDisplayPool(2);
+    final VirtualDisplay display = mock(VirtualDisplay.class);
+    final Surface surface = mock(Surface.class);
+    pool.release(display, 320);
+
+    assertSame(display, pool.acquire(320, 100, 200, surface));
+
+    verify(display, times(1)).resize(100, 200, 320);
+    verify(display, times(1)).setSurface(surface);
+    assertEquals(0, pool.getParkedDisplayCount());
+  }
+
+  @Test
+  public void acquire__doesNotReuseDisplayOfDifferentDensity() {
+    final VirtualDisplayPool pool = new VirtualDisplayPool(2);
+    pool.release(mock(VirtualDisplay.class), 320);
+
+    assertNull(pool.acquire(480, 100, 200, mock(Surface.class)));
+    assertEquals(1, pool.getParkedDisplayCount());
+  }
+
+  @Test
+  public void release__releasesDisplayWhenFull() {
+    final VirtualDisplayPool pool = new VirtualDisplayPool(1);
+    final VirtualDisplay parked = mock(VirtualDisplay.class);
+    final VirtualDisplay overflow = mock(VirtualDisplay.class);
+
+    pool.release(parked, 320);
+    pool.release(overflow, 320);
+
+    verify(parked, never()).release();
+    verify(overflow, times(1)).release();
+    assertEquals(1, pool.getParkedDisplayCount());
+  }
+
+  @Test
+  public void onTrimMemory__releasesParkedDisplaysWhenRunningLow() {
+    final VirtualDisplayPool pool = new VirtualDisplayPool(2);
+    final VirtualDisplay display = mock(VirtualDisplay.class);
+    pool.release(display, 320);
+
+    pool.onTrimMemory(TRIM_MEMORY_RUNNING_MODERATE);
+    verify(display, never()).release();
+
+    pool.onTrimMemory(TRIM_MEMORY_RUNNING_LOW);
+    verify(display, times(1)).release();
+    assertEquals(0, pool.getParkedDisplayCount());
+    assertNull(pool.acquire(320, 100, 200, mock(Surface.class)));
+  }
+}
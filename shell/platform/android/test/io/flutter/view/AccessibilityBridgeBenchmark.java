@@ -0,0 +1,440 @@
+package io.flutter.view;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+import static org.robolectric.Shadows.shadowOf;
+
+import android.annotation.TargetApi;
+import android.content.ContentResolver;
+import android.content.Context;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.view.MotionEvent;
+import android.view.View;
+import android.view.ViewParent;
+import android.view.accessibility.AccessibilityEvent;
+import android.view.accessibility.AccessibilityManager;
+import android.view.accessibility.AccessibilityNodeInfo;
+import io.flutter.embedding.engine.systemchannels.AccessibilityChannel;
+import io.flutter.plugin.platform.PlatformViewsAccessibilityDelegate;
+import io.flutter.view.AccessibilityBridgeTest.TestSemanticsNode;
+import io.flutter.view.AccessibilityBridgeTest.TestSemanticsUpdate;
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+/**
+ * Measures {@link AccessibilityBridge} on large synthetic semantics trees.
+ *
+ * <p>The semantics updates are encoded by {@link TestSemanticsNode}, in the same binary layout as
+ * the engine's, and are sent through {@link AccessibilityBridge#scheduleSemanticsUpdate} like the
+ * engine sends them. Measured updates are decoded on the calling thread, then applied and their
+ * events sent by running the main looper. This class is not part of {@link
+ * io.flutter.FlutterTestSuite}, so it only runs when asked for:
+ *
+ * <pre>
+ * testing/run_tests.py --type=java --java-filter=io.flutter.view.AccessibilityBridgeBenchmark
+ * </pre>
+ *
+ * <p>Each scenario prints a {@code <scenario> <metric> <value>} line per metric. The number of
+ * accessibility events sent is deterministic, and is always checked. Time and allocations depend
+ * on the machine: save the output of a run to a file, and pass it to later runs on the same
+ * machine with {@code -Dflutter.accessibility.benchmark.baseline=<file>} to fail on regressions.
+ */
+@Config(manifest = Config.NONE)
+@RunWith(RobolectricTestRunner.class)
+@TargetApi(28)
+public class AccessibilityBridgeBenchmark {
+  private static final String BASELINE_PROPERTY = "flutter.accessibility.benchmark.baseline";
+  // How much slower or more allocating than the baseline a scenario can be.
+  private static final double TIME_TOLERANCE = 1.5;
+  private static final double ALLOCATION_TOLERANCE = 1.2;
+
+  private static final int[] NODE_COUNTS = {1000, 10000, 50000};
+  // Each scenario first runs once on a small tree, so that the measured runs are JIT compiled.
+  private static final int WARM_UP_NODE_COUNT = 1000;
+
+  private static final int DEPTH = 10;
+  private static final int SCREEN_WIDTH = 1000;
+  private static final int SCREEN_HEIGHT = 2000;
+  private static final int ITEM_HEIGHT = 50;
+  private static final int VISIBLE_ITEM_COUNT = SCREEN_HEIGHT / ITEM_HEIGHT;
+  private static final int LIVE_REGION_INTERVAL = 50;
+  private static final int LABEL_CHURN_INTERVAL = 10;
+  private static final int FRAME_COUNT = 30;
+  private static final int HOVER_EVENT_COUNT = 500;
+  // An upper bound of the encoded size of a node of the synthetic tree.
+  private static final int BYTES_PER_NODE = 256;
+
+  private Map<String, Long> baseline;
+  private int sentEventCount;
+
+  @Before
+  public void setUp() throws IOException {
+    baseline = readBaseline();
+  }
+
+  @Test
+  public void initialUpdate() {
+    runScenario(
+        "initialUpdate",
+        nodeCount -> {
+          final SyntheticTree tree = new SyntheticTree(nodeCount);
+          final AccessibilityBridge bridge = setUpBridge();
+          final TestSemanticsUpdate update = tree.root.toUpdate(tree.nodeCount * BYTES_PER_NODE);
+
+          final Measurement measurement = Measurement.start();
+          sendFrame(bridge, update);
+          measurement.stop();
+
+          // Only the root's content changed event.
+          assertEquals(1, sentEventCount);
+          return measurement;
+        });
+  }
+
+  @Test
+  public void scrollUpdates() {
+    runScenario(
+        "scrollUpdates",
+        nodeCount -> {
+          final SyntheticTree tree = new SyntheticTree(nodeCount);
+          final AccessibilityBridge bridge = setUpBridge();
+          sendFrame(bridge, tree.root.toUpdate(tree.nodeCount * BYTES_PER_NODE));
+          final List<TestSemanticsUpdate> updates = new ArrayList<>();
+          for (int frame = 1; frame <= FRAME_COUNT; frame++) {
+            tree.scrollTo(frame * ITEM_HEIGHT);
+            final List<TestSemanticsNode> changedNodes = new ArrayList<>();
+            changedNodes.add(tree.list);
+            changedNodes.addAll(tree.items);
+            updates.add(
+                TestSemanticsNode.toPartialUpdate(
+                    changedNodes, changedNodes.size() * BYTES_PER_NODE));
+          }
+          sentEventCount = 0;
+
+          final Measurement measurement = Measurement.start();
+          for (TestSemanticsUpdate update : updates) {
+            sendFrame(bridge, update);
+          }
+          measurement.stop();
+
+          // The root's content changed event and the list's scrolled event, for each frame.
+          assertEquals(2 * FRAME_COUNT, sentEventCount);
+          return measurement;
+        });
+  }
+
+  @Test
+  public void labelChurn() {
+    runScenario(
+        "labelChurn",
+        nodeCount -> {
+          final SyntheticTree tree = new SyntheticTree(nodeCount);
+          final AccessibilityBridge bridge = setUpBridge();
+          sendFrame(bridge, tree.root.toUpdate(tree.nodeCount * BYTES_PER_NODE));
+          final List<TestSemanticsUpdate> updates = new ArrayList<>();
+          int expectedEventCount = 0;
+          for (int frame = 1; frame <= FRAME_COUNT; frame++) {
+            final List<TestSemanticsNode> changedNodes = new ArrayList<>();
+            for (int i = frame % LABEL_CHURN_INTERVAL;
+                i < tree.leaves.size();
+                i += LABEL_CHURN_INTERVAL) {
+              final TestSemanticsNode leaf = tree.leaves.get(i);
+              leaf.label = "Item " + i + ", frame " + frame;
+              changedNodes.add(leaf);
+              if (i % LIVE_REGION_INTERVAL == 0) {
+                // Live regions are announced with their own content changed event.
+                expectedEventCount++;
+              }
+            }
+            // The root's content changed event.
+            expectedEventCount++;
+            updates.add(
+                TestSemanticsNode.toPartialUpdate(
+                    changedNodes, changedNodes.size() * BYTES_PER_NODE));
+          }
+          sentEventCount = 0;
+
+          final Measurement measurement = Measurement.start();
+          for (TestSemanticsUpdate update : updates) {
+            sendFrame(bridge, update);
+          }
+          measurement.stop();
+
+          assertEquals(expectedEventCount, sentEventCount);
+          return measurement;
+        });
+  }
+
+  @Test
+  public void createAccessibilityNodeInfo() {
+    runScenario(
+        "createAccessibilityNodeInfo",
+        nodeCount -> {
+          final SyntheticTree tree = new SyntheticTree(nodeCount);
+          final AccessibilityBridge bridge = setUpBridge();
+          sendFrame(bridge, tree.root.toUpdate(tree.nodeCount * BYTES_PER_NODE));
+          // A screen reader queries the nodes on the screen, and queries them again after each
+          // update.
+          final List<Integer> visibleIds = new ArrayList<>();
+          visibleIds.add(tree.root.id);
+          visibleIds.add(tree.list.id);
+          for (int i = 0; i < VISIBLE_ITEM_COUNT && i < tree.items.size(); i++) {
+            for (int id = tree.items.get(i).id; id <= tree.leaves.get(i).id; id++) {
+              visibleIds.add(id);
+            }
+          }
+
+          final Measurement measurement = Measurement.start();
+          createNodeInfos(bridge, visibleIds);
+          final int missCount = bridge.getNodeInfoCacheMissCount();
+          createNodeInfos(bridge, visibleIds);
+          measurement.stop();
+
+          // Nothing changed, so the second pass only reads cached values.
+          assertEquals(missCount, bridge.getNodeInfoCacheMissCount());
+          return measurement;
+        });
+  }
+
+  @Test
+  public void hitTest() {
+    runScenario(
+        "hitTest",
+        nodeCount -> {
+          final SyntheticTree tree = new SyntheticTree(nodeCount);
+          final AccessibilityBridge bridge = setUpBridge();
+          sendFrame(bridge, tree.root.toUpdate(tree.nodeCount * BYTES_PER_NODE));
+          final List<MotionEvent> hoverEvents = new ArrayList<>();
+          for (int i = 0; i < HOVER_EVENT_COUNT; i++) {
+            final long time = SystemClock.uptimeMillis();
+            hoverEvents.add(
+                MotionEvent.obtain(
+                    time,
+                    time,
+                    MotionEvent.ACTION_HOVER_MOVE,
+                    SCREEN_WIDTH / 2,
+                    (i * 37) % SCREEN_HEIGHT,
+                    0));
+          }
+
+          final Measurement measurement = Measurement.start();
+          for (MotionEvent event : hoverEvents) {
+            assertTrue(bridge.onAccessibilityHoverEvent(event));
+          }
+          measurement.stop();
+          shadowOf(Looper.getMainLooper()).idle();
+
+          for (MotionEvent event : hoverEvents) {
+            event.recycle();
+          }
+          return measurement;
+        });
+  }
+
+  private interface Scenario {
+    // Runs the scenario on a tree of about |nodeCount| nodes, and measures the part of interest.
+    Measurement run(int nodeCount);
+  }
+
+  private void runScenario(String name, Scenario scenario) {
+    sentEventCount = 0;
+    scenario.run(WARM_UP_NODE_COUNT);
+    for (int nodeCount : NODE_COUNTS) {
+      sentEventCount = 0;
+      final Measurement measurement = scenario.run(nodeCount);
+      final String prefix = name + "/" + nodeCount;
+      report(prefix + " wall_time_us", measurement.wallTimeNanos / 1000, TIME_TOLERANCE);
+      if (measurement.allocatedBytes >= 0) {
+        report(prefix + " allocated_bytes", measurement.allocatedBytes, ALLOCATION_TOLERANCE);
+      }
+      System.out.println(prefix + " sent_events " + sentEventCount);
+    }
+  }
+
+  private void report(String metric, long value, double tolerance) {
+    System.out.println(metric + " " + value);
+    final Long baselineValue = baseline.get(metric);
+    if (baselineValue != null) {
+      assertTrue(
+          metric + " regressed from " + baselineValue + " to " + value,
+          value <= baselineValue * tolerance);
+    }
+  }
+
+  private static Map<String, Long> readBaseline() throws IOException {
+    final Map<String, Long> values = new HashMap<>();
+    final String path = System.getProperty(BASELINE_PROPERTY);
+    if (path == null) {
+      return values;
+    }
+    try (BufferedReader reader = new BufferedReader(new FileReader(path))) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        final String[] parts = line.trim().split(" ");
+        if (parts.length == 3) {
+          values.put(parts[0] + " " + parts[1], Long.parseLong(parts[2]));
+        }
+      }
+    }
+    return values;
+  }
+
+  // Sends |update| the way the engine does, as the semantics update of a frame, then runs the main
+  // looper: it applies the update and runs the frame callback that sends its accessibility events.
+  private static void sendFrame(AccessibilityBridge bridge, TestSemanticsUpdate update) {
+    bridge.scheduleSemanticsUpdate(update.buffer, update.strings, update.stringAttributeArgs);
+    shadowOf(Looper.getMainLooper()).idle();
+  }
+
+  private static void createNodeInfos(AccessibilityBridge bridge, List<Integer> virtualViewIds) {
+    for (int id : virtualViewIds) {
+      final AccessibilityNodeInfo nodeInfo = bridge.createAccessibilityNodeInfo(id);
+      assertNotNull(nodeInfo);
+      nodeInfo.recycle();
+    }
+  }
+
+  // Sets up a bridge with accessibility and touch exploration enabled, that counts the events it
+  // sends in |sentEventCount|.
+  private AccessibilityBridge setUpBridge() {
+    // Stub-only mocks don't record their invocations, which would otherwise dominate the
+    // measurements.
+    final View rootAccessibilityView = mock(View.class, withSettings().stubOnly());
+    final Context context = mock(Context.class, withSettings().stubOnly());
+    when(rootAccessibilityView.getContext()).thenReturn(context);
+    when(context.getPackageName()).thenReturn("test");
+    final ViewParent parent = mock(ViewParent.class, withSettings().stubOnly());
+    when(rootAccessibilityView.getParent()).thenReturn(parent);
+    when(parent.requestSendAccessibilityEvent(
+            eq(rootAccessibilityView), any(AccessibilityEvent.class)))
+        .thenAnswer(
+            invocation -> {
+              sentEventCount++;
+              return true;
+            });
+    final AccessibilityManager accessibilityManager =
+        mock(AccessibilityManager.class, withSettings().stubOnly());
+    when(accessibilityManager.isEnabled()).thenReturn(true);
+    when(accessibilityManager.isTouchExplorationEnabled()).thenReturn(true);
+    final AccessibilityBridge bridge =
+        new AccessibilityBridge(
+            rootAccessibilityView,
+            mock(AccessibilityChannel.class, withSettings().stubOnly()),
+            accessibilityManager,
+            mock(ContentResolver.class, withSettings().stubOnly()),
+            mock(AccessibilityViewEmbedder.class, withSettings().stubOnly()),
+            mock(PlatformViewsAccessibilityDelegate.class, withSettings().stubOnly()));
+    // Decode the updates on the calling thread, so that the measurements include the decoding.
+    bridge.setSemanticsUpdateExecutor(Runnable::run);
+    return bridge;
+  }
+
+  private static final class Measurement {
+    private final long startNanos;
+    private final long startAllocatedBytes;
+    long wallTimeNanos;
+    // -1 if the JVM can't measure allocations.
+    long allocatedBytes;
+
+    private Measurement() {
+      startAllocatedBytes = getAllocatedBytes();
+      startNanos = System.nanoTime();
+    }
+
+    static Measurement start() {
+      return new Measurement();
+    }
+
+    void stop() {
+      wallTimeNanos = System.nanoTime() - startNanos;
+      allocatedBytes = startAllocatedBytes < 0 ? -1 : getAllocatedBytes() - startAllocatedBytes;
+    }
+
+    private static long getAllocatedBytes() {
+      final java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+      if (!(bean instanceof com.sun.management.ThreadMXBean)) {
+        return -1;
+      }
+      return ((com.sun.management.ThreadMXBean) bean)
+          .getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+  }
+
+  // A scrollable list under the root. Each item is a chain of |DEPTH| nodes: a container that is
+  // positioned in the list, nested groups, and a labeled button. Every |LIVE_REGION_INTERVAL|th
+  // button is a live region.
+  private static final class SyntheticTree {
+    final TestSemanticsNode root = new TestSemanticsNode();
+    final TestSemanticsNode list = new TestSemanticsNode();
+    final List<TestSemanticsNode> items = new ArrayList<>();
+    final List<TestSemanticsNode> leaves = new ArrayList<>();
+    final int nodeCount;
+
+    SyntheticTree(int approximateNodeCount) {
+      int nextId = 0;
+      root.id = nextId++;
+      root.right = SCREEN_WIDTH;
+      root.bottom = SCREEN_HEIGHT;
+      list.id = nextId++;
+      list.addFlag(AccessibilityBridge.Flag.HAS_IMPLICIT_SCROLLING);
+      list.addAction(AccessibilityBridge.Action.SCROLL_UP);
+      list.addAction(AccessibilityBridge.Action.SCROLL_DOWN);
+      list.right = SCREEN_WIDTH;
+      list.bottom = SCREEN_HEIGHT;
+      root.addChild(list);
+
+      final int itemCount = (approximateNodeCount - 2) / DEPTH;
+      list.scrollChildren = itemCount;
+      list.scrollExtentMax = itemCount * ITEM_HEIGHT;
+      for (int i = 0; i < itemCount; i++) {
+        TestSemanticsNode parent = list;
+        for (int level = 0; level < DEPTH; level++) {
+          final TestSemanticsNode node = new TestSemanticsNode();
+          node.id = nextId++;
+          node.right = SCREEN_WIDTH;
+          node.bottom = ITEM_HEIGHT;
+          parent.addChild(node);
+          if (level == 0) {
+            items.add(node);
+          }
+          parent = node;
+        }
+        parent.addFlag(AccessibilityBridge.Flag.IS_BUTTON);
+        parent.addAction(AccessibilityBridge.Action.TAP);
+        parent.label = "Item " + i;
+        if (i % LIVE_REGION_INTERVAL == 0) {
+          parent.addFlag(AccessibilityBridge.Flag.IS_LIVE_REGION);
+        }
+        leaves.add(parent);
+      }
+      nodeCount = nextId;
+      scrollTo(0);
+    }
+
+    void scrollTo(float position) {
+      list.scrollPosition = position;
+      for (int i = 0; i < items.size(); i++) {
+        // The y translation of the column-major transform.
+        items.get(i).transform[13] = i * ITEM_HEIGHT - position;
+      }
+    }
+  }
+}
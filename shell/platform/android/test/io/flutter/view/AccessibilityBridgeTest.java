@@ -7,6 +7,7 @@ package io.flutter.view;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.any;
@@ -19,6 +20,7 @@ import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.robolectric.Shadows.shadowOf;
 
 import android.annotation.TargetApi;
 import android.app.Activity;
@@ -26,6 +28,7 @@ import android.content.ContentResolver;
 import android.content.Context;
 import android.graphics.Rect;
 import android.os.Bundle;
+import android.os.Looper;
 import android.text.SpannedString;
 import android.text.style.LocaleSpan;
 import android.text.style.TtsSpan;
@@ -122,6 +125,85 @@ public class AccessibilityBridgeTest {
     assertEquals(position, outBoundsInScreen.top);
   }
 
+  @Test
+  public void itReusesCachedNodeInfoValuesUntilTheNodeChanges() {
+    AccessibilityBridge accessibilityBridge = setUpBridge();
+
+    TestSemanticsNode root = new TestSemanticsNode();
+    root.id = 0;
+    root.label = "Hello";
+    root.right = 100;
+    root.bottom = 100;
+    TestSemanticsNode child = new TestSemanticsNode();
+    child.id = 1;
+    child.label = "World";
+    child.left = 10;
+    child.top = 20;
+    child.right = 50;
+    child.bottom = 60;
+    root.addChild(child);
+    root.toUpdate().sendUpdateToBridge(accessibilityBridge);
+
+    AccessibilityNodeInfo nodeInfo = accessibilityBridge.createAccessibilityNodeInfo(1);
+    final int missCount = accessibilityBridge.getNodeInfoCacheMissCount();
+    final int hitCount = accessibilityBridge.getNodeInfoCacheHitCount();
+    assertTrue(missCount > 0);
+
+    // Nothing changed, so every derived value is reused.
+    AccessibilityNodeInfo cachedNodeInfo = accessibilityBridge.createAccessibilityNodeInfo(1);
+    assertEquals(missCount, accessibilityBridge.getNodeInfoCacheMissCount());
+    assertTrue(accessibilityBridge.getNodeInfoCacheHitCount() > hitCount);
+    assertEquals("World", cachedNodeInfo.getContentDescription().toString());
+    Rect bounds = new Rect();
+    Rect cachedBounds = new Rect();
+    nodeInfo.getBoundsInParent(bounds);
+    cachedNodeInfo.getBoundsInParent(cachedBounds);
+    assertEquals(new Rect(10, 20, 50, 60), cachedBounds);
+    assertEquals(bounds, cachedBounds);
+
+    // Updating the node invalidates its cache.
+    child.label = "Flutter";
+    child.left = 30;
+    root.toUpdate().sendUpdateToBridge(accessibilityBridge);
+    AccessibilityNodeInfo updatedNodeInfo = accessibilityBridge.createAccessibilityNodeInfo(1);
+    assertTrue(accessibilityBridge.getNodeInfoCacheMissCount() > missCount);
+    assertEquals("Flutter", updatedNodeInfo.getContentDescription().toString());
+    updatedNodeInfo.getBoundsInParent(bounds);
+    assertEquals(new Rect(30, 20, 50, 60), bounds);
+  }
+
+  @Test
+  public void itRecomputesCachedBoundsInScreenWhenTheRootViewMoves() {
+    View mockRootView = mock(View.class);
+    Context context = mock(Context.class);
+    when(mockRootView.getContext()).thenReturn(context);
+    when(context.getPackageName()).thenReturn("test");
+    final int[] position = {0};
+    doAnswer(
+            invocation -> {
+              int[] outLocation = (int[]) invocation.getArguments()[0];
+              outLocation[0] = position[0];
+              outLocation[1] = position[0];
+              return null;
+            })
+        .when(mockRootView)
+        .getLocationOnScreen(any(int[].class));
+    AccessibilityBridge accessibilityBridge = setUpBridge(mockRootView, null, null);
+
+    TestSemanticsNode root = new TestSemanticsNode();
+    root.right = 100;
+    root.bottom = 100;
+    root.toUpdate().sendUpdateToBridge(accessibilityBridge);
+
+    Rect boundsInScreen = new Rect();
+    accessibilityBridge.createAccessibilityNodeInfo(0).getBoundsInScreen(boundsInScreen);
+    assertEquals(new Rect(0, 0, 100, 100), boundsInScreen);
+
+    position[0] = 40;
+    accessibilityBridge.createAccessibilityNodeInfo(0).getBoundsInScreen(boundsInScreen);
+    assertEquals(new Rect(40, 40, 140, 140), boundsInScreen);
+  }
+
   @Test
   public void itDoesNotContainADescriptionIfScopesRoute() {
     AccessibilityBridge accessibilityBridge = setUpBridge();
@@ -960,6 +1042,7 @@ public class AccessibilityBridgeTest {
 
     TestSemanticsUpdate testSemanticsUpdate = root.toUpdate();
     testSemanticsUpdate.sendUpdateToBridge(accessibilityBridge);
+    shadowOf(Looper.getMainLooper()).idle();
 
     class Verifier {
       public Verifier(AccessibilityBridge accessibilityBridge) {
@@ -1019,6 +1102,7 @@ public class AccessibilityBridgeTest {
     accessibilityBridge.performAction(0, AccessibilityNodeInfo.ACTION_ACCESSIBILITY_FOCUS, null);
     AccessibilityNodeInfo nodeInfo = accessibilityBridge.createAccessibilityNodeInfo(0);
     assertTrue(nodeInfo.isAccessibilityFocused());
+    shadowOf(Looper.getMainLooper()).idle();
 
     class Verifier {
       public Verifier(AccessibilityBridge accessibilityBridge) {
@@ -1507,6 +1591,345 @@ public class AccessibilityBridgeTest {
     verify(mockChannel, never()).setAccessibilityFeatures(anyInt());
   }
 
+  @Test
+  public void scheduledUpdatesSendSameEventsAsSynchronousUpdates() {
+    final List<TestSemanticsUpdate> synchronousStream = recordUpdateStream();
+    final List<TestSemanticsUpdate> scheduledStream = recordUpdateStream();
+
+    final List<String> expectedEvents = new ArrayList<>();
+    final AccessibilityBridge synchronousBridge = setUpEventRecordingBridge(expectedEvents);
+    for (TestSemanticsUpdate update : synchronousStream) {
+      update.sendUpdateToBridge(synchronousBridge);
+      // The framework sends at most one semantics update per frame.
+      shadowOf(Looper.getMainLooper()).idle();
+    }
+
+    final List<String> events = new ArrayList<>();
+    final AccessibilityBridge scheduledBridge = setUpEventRecordingBridge(events);
+    scheduledBridge.setSemanticsUpdateExecutor(Runnable::run);
+    for (TestSemanticsUpdate update : scheduledStream) {
+      scheduledBridge.scheduleSemanticsUpdate(
+          update.buffer, update.strings, update.stringAttributeArgs);
+      // The update is applied on the UI thread.
+      shadowOf(Looper.getMainLooper()).idle();
+    }
+
+    assertFalse(expectedEvents.isEmpty());
+    assertEquals(expectedEvents, events);
+  }
+
+  @Test
+  public void scheduledUpdatesAreAppliedInOrder() {
+    final List<TestSemanticsUpdate> synchronousStream = recordUpdateStream();
+    final List<TestSemanticsUpdate> scheduledStream = recordUpdateStream();
+
+    final List<String> expectedEvents = new ArrayList<>();
+    final AccessibilityBridge synchronousBridge = setUpEventRecordingBridge(expectedEvents);
+    for (TestSemanticsUpdate update : synchronousStream) {
+      update.sendUpdateToBridge(synchronousBridge);
+      // The framework sends at most one semantics update per frame.
+      shadowOf(Looper.getMainLooper()).idle();
+    }
+
+    final List<String> events = new ArrayList<>();
+    final AccessibilityBridge scheduledBridge = setUpEventRecordingBridge(events);
+    final List<Runnable> pendingTasks = new ArrayList<>();
+    scheduledBridge.setSemanticsUpdateExecutor(pendingTasks::add);
+    for (TestSemanticsUpdate update : scheduledStream) {
+      scheduledBridge.scheduleSemanticsUpdate(
+          update.buffer, update.strings, update.stringAttributeArgs);
+    }
+    assertEquals(scheduledStream.size(), pendingTasks.size());
+    assertTrue(events.isEmpty());
+    for (Runnable task : pendingTasks) {
+      task.run();
+      shadowOf(Looper.getMainLooper()).idle();
+    }
+
+    assertEquals(expectedEvents, events);
+  }
+
+  @Test
+  public void scheduledUpdatesAppliedTogetherCoalesceTheirEvents() {
+    final List<TestSemanticsUpdate> synchronousStream = recordUpdateStream();
+    final List<TestSemanticsUpdate> scheduledStream = recordUpdateStream();
+
+    final List<String> expectedEvents = new ArrayList<>();
+    final AccessibilityBridge synchronousBridge = setUpEventRecordingBridge(expectedEvents);
+    for (TestSemanticsUpdate update : synchronousStream) {
+      update.sendUpdateToBridge(synchronousBridge);
+      // The framework sends at most one semantics update per frame.
+      shadowOf(Looper.getMainLooper()).idle();
+    }
+
+    final List<String> events = new ArrayList<>();
+    final AccessibilityBridge scheduledBridge = setUpEventRecordingBridge(events);
+    final List<Runnable> pendingTasks = new ArrayList<>();
+    scheduledBridge.setSemanticsUpdateExecutor(pendingTasks::add);
+    for (TestSemanticsUpdate update : scheduledStream) {
+      scheduledBridge.scheduleSemanticsUpdate(
+          update.buffer, update.strings, update.stringAttributeArgs);
+    }
+    // The UI thread only gets to the updates once all of them are decoded.
+    for (Runnable task : pendingTasks) {
+      task.run();
+    }
+    shadowOf(Looper.getMainLooper()).idle();
+
+    // The same events are generated, but more of them are dropped.
+    assertTrue(
+        scheduledBridge.getSuppressedAccessibilityEventCount()
+            > synchronousBridge.getSuppressedAccessibilityEventCount());
+    assertEquals(
+        expectedEvents.size() + synchronousBridge.getSuppressedAccessibilityEventCount(),
+        events.size() + scheduledBridge.getSuppressedAccessibilityEventCount());
+
+    // Only the latest scroll position is reported.
+    final List<String> scrollEvents = new ArrayList<>();
+    for (String event : events) {
+      if (event.startsWith(AccessibilityEvent.TYPE_VIEW_SCROLLED + " ")) {
+        scrollEvents.add(event);
+      }
+    }
+    assertEquals(1, scrollEvents.size());
+    assertTrue(scrollEvents.get(0).contains("scrollY=20 "));
+  }
+
+  @Test
+  public void itSendsTheContentEventsOfAFrameTogether() {
+    final List<String> events = new ArrayList<>();
+    final AccessibilityBridge accessibilityBridge = setUpEventRecordingBridge(events);
+    for (TestSemanticsUpdate update : recordUpdateStream()) {
+      update.sendUpdateToBridge(accessibilityBridge);
+    }
+    for (String event : events) {
+      assertFalse(event.startsWith(AccessibilityEvent.TYPE_WINDOW_CONTENT_CHANGED + " "));
+      assertFalse(event.startsWith(AccessibilityEvent.TYPE_VIEW_SCROLLED + " "));
+    }
+    // Events that do not come from a semantics update are sent right away.
+    events.clear();
+    accessibilityBridge.performAction(2, AccessibilityNodeInfo.ACTION_ACCESSIBILITY_FOCUS, null);
+    assertEquals(1, events.size());
+    assertTrue(events.get(0).startsWith(AccessibilityEvent.TYPE_VIEW_ACCESSIBILITY_FOCUSED + " "));
+
+    events.clear();
+    shadowOf(Looper.getMainLooper()).idle();
+
+    assertTrue(accessibilityBridge.getSuppressedAccessibilityEventCount() > 0);
+    final List<String> scrollEvents = new ArrayList<>();
+    for (String event : events) {
+      if (event.startsWith(AccessibilityEvent.TYPE_VIEW_SCROLLED + " ")) {
+        scrollEvents.add(event);
+      } else {
+        assertTrue(event.startsWith(AccessibilityEvent.TYPE_WINDOW_CONTENT_CHANGED + " "));
+      }
+    }
+    assertEquals(1, scrollEvents.size());
+  }
+
+  @Test
+  public void scheduledUpdateCopiesBuffersBeforeReturning() {
+    final List<String> events = new ArrayList<>();
+    final AccessibilityBridge accessibilityBridge = setUpEventRecordingBridge(events);
+    final List<Runnable> pendingTasks = new ArrayList<>();
+    accessibilityBridge.setSemanticsUpdateExecutor(pendingTasks::add);
+
+    TestSemanticsNode root = new TestSemanticsNode();
+    root.id = 0;
+    root.label = "Hello";
+    root.labelAttributes = new ArrayList<>();
+    TestStringAttributeLocale attribute = new TestStringAttributeLocale();
+    attribute.start = 0;
+    attribute.end = 5;
+    attribute.type = TestStringAttributeType.LOCALE;
+    attribute.locale = "es-MX";
+    root.labelAttributes.add(attribute);
+    TestSemanticsUpdate update = root.toUpdate();
+    accessibilityBridge.scheduleSemanticsUpdate(
+        update.buffer, update.strings, update.stringAttributeArgs);
+
+    // The native buffers are only valid during the call, so clobber them.
+    update.buffer.clear();
+    while (update.buffer.hasRemaining()) {
+      update.buffer.put((byte) 0xFF);
+    }
+    update.stringAttributeArgs[0].clear();
+    while (update.stringAttributeArgs[0].hasRemaining()) {
+      update.stringAttributeArgs[0].put((byte) 0);
+    }
+    for (Runnable task : pendingTasks) {
+      task.run();
+    }
+    shadowOf(Looper.getMainLooper()).idle();
+
+    AccessibilityNodeInfo nodeInfo = accessibilityBridge.createAccessibilityNodeInfo(0);
+    SpannedString actual = (SpannedString) nodeInfo.getContentDescription();
+    assertEquals("Hello", actual.toString());
+    LocaleSpan[] spans = actual.getSpans(0, actual.length(), LocaleSpan.class);
+    assertEquals(1, spans.length);
+    assertEquals("es-MX", spans[0].getLocale().toLanguageTag());
+  }
+
+  @Test
+  public void scheduledUpdateIsVisibleToNodeInfoAfterMainLooperRuns() {
+    final List<String> events = new ArrayList<>();
+    final AccessibilityBridge accessibilityBridge = setUpEventRecordingBridge(events);
+    accessibilityBridge.setSemanticsUpdateExecutor(Runnable::run);
+
+    TestSemanticsNode root = new TestSemanticsNode();
+    root.id = 0;
+    root.right = 100;
+    root.bottom = 100;
+    TestSemanticsNode child = new TestSemanticsNode();
+    child.id = 1;
+    child.label = "Scheduled";
+    child.right = 100;
+    child.bottom = 50;
+    root.addChild(child);
+    TestSemanticsUpdate update = root.toUpdate();
+    accessibilityBridge.scheduleSemanticsUpdate(
+        update.buffer, update.strings, update.stringAttributeArgs);
+
+    // The decoded update is only applied once the UI thread runs.
+    assertNull(accessibilityBridge.createAccessibilityNodeInfo(1));
+    shadowOf(Looper.getMainLooper()).idle();
+
+    AccessibilityNodeInfo nodeInfo = accessibilityBridge.createAccessibilityNodeInfo(1);
+    assertNotNull(nodeInfo);
+    assertEquals("Scheduled", nodeInfo.getContentDescription().toString());
+  }
+
+  @Test
+  public void actionsApplyPendingScheduledUpdatesFirst() {
+    final List<String> events = new ArrayList<>();
+    final AccessibilityBridge accessibilityBridge = setUpEventRecordingBridge(events);
+    final List<Runnable> pendingTasks = new ArrayList<>();
+    accessibilityBridge.setSemanticsUpdateExecutor(pendingTasks::add);
+
+    TestSemanticsNode root = new TestSemanticsNode();
+    root.id = 0;
+    root.right = 100;
+    root.bottom = 100;
+    TestSemanticsNode child = new TestSemanticsNode();
+    child.id = 1;
+    child.label = "Scheduled";
+    child.right = 100;
+    child.bottom = 50;
+    root.addChild(child);
+    TestSemanticsUpdate update = root.toUpdate();
+    accessibilityBridge.scheduleSemanticsUpdate(
+        update.buffer, update.strings, update.stringAttributeArgs);
+
+    // The update has not been decoded yet, but the action must see the node it was sent for.
+    assertTrue(
+        accessibilityBridge.performAction(
+            1, AccessibilityNodeInfo.ACTION_ACCESSIBILITY_FOCUS, null));
+    assertNotNull(accessibilityBridge.createAccessibilityNodeInfo(1));
+    shadowOf(Looper.getMainLooper()).idle();
+
+    // The background decode finishing later does not apply the update again.
+    events.clear();
+    for (Runnable task : pendingTasks) {
+      task.run();
+    }
+    shadowOf(Looper.getMainLooper()).idle();
+    assertTrue(events.isEmpty());
+  }
+
+  @Test
+  public void releaseDropsPendingScheduledUpdates() {
+    final List<String> events = new ArrayList<>();
+    final AccessibilityBridge accessibilityBridge = setUpEventRecordingBridge(events);
+    accessibilityBridge.setSemanticsUpdateExecutor(Runnable::run);
+
+    for (TestSemanticsUpdate update : recordUpdateStream()) {
+      accessibilityBridge.scheduleSemanticsUpdate(
+          update.buffer, update.strings, update.stringAttributeArgs);
+    }
+    accessibilityBridge.release();
+    shadowOf(Looper.getMainLooper()).idle();
+
+    assertTrue(events.isEmpty());
+  }
+
+  // Records consecutive semantics updates that scroll, change a live region, move the input focus
+  // and edit a text field.
+  private List<TestSemanticsUpdate> recordUpdateStream() {
+    final List<TestSemanticsUpdate> updates = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      TestSemanticsNode root = new TestSemanticsNode();
+      root.id = 0;
+      root.right = 100;
+      root.bottom = 100;
+      TestSemanticsNode scrollable = new TestSemanticsNode();
+      scrollable.id = 1;
+      scrollable.addFlag(AccessibilityBridge.Flag.HAS_IMPLICIT_SCROLLING);
+      scrollable.addAction(AccessibilityBridge.Action.SCROLL_UP);
+      scrollable.scrollPosition = 10.0f * i;
+      scrollable.scrollExtentMax = 100.0f;
+      scrollable.right = 100;
+      scrollable.bottom = 50;
+      root.addChild(scrollable);
+      TestSemanticsNode liveRegion = new TestSemanticsNode();
+      liveRegion.id = 2;
+      liveRegion.addFlag(AccessibilityBridge.Flag.IS_LIVE_REGION);
+      liveRegion.label = "status " + i;
+      liveRegion.top = 50;
+      liveRegion.right = 50;
+      liveRegion.bottom = 100;
+      root.addChild(liveRegion);
+      TestSemanticsNode textField = new TestSemanticsNode();
+      textField.id = 3;
+      textField.addFlag(AccessibilityBridge.Flag.IS_TEXT_FIELD);
+      if (i > 0) {
+        textField.addFlag(AccessibilityBridge.Flag.IS_FOCUSED);
+      }
+      textField.value = "abc".substring(0, i + 1);
+      textField.textSelectionBase = i + 1;
+      textField.textSelectionExtent = i + 1;
+      textField.left = 50;
+      textField.top = 50;
+      textField.right = 100;
+      textField.bottom = 100;
+      root.addChild(textField);
+      updates.add(root.toUpdate());
+    }
+    return updates;
+  }
+
+  // Sets up a bridge with accessibility enabled, that describes each event it sends into |events|.
+  private AccessibilityBridge setUpEventRecordingBridge(List<String> events) {
+    AccessibilityManager mockManager = mock(AccessibilityManager.class);
+    View mockRootView = mock(View.class);
+    Context context = mock(Context.class);
+    when(mockRootView.getContext()).thenReturn(context);
+    when(context.getPackageName()).thenReturn("test");
+    ViewParent mockParent = mock(ViewParent.class);
+    when(mockRootView.getParent()).thenReturn(mockParent);
+    when(mockManager.isEnabled()).thenReturn(true);
+    when(mockParent.requestSendAccessibilityEvent(eq(mockRootView), any(AccessibilityEvent.class)))
+        .thenAnswer(
+            invocation -> {
+              AccessibilityEvent event = (AccessibilityEvent) invocation.getArguments()[1];
+              events.add(
+                  event.getEventType()
+                      + " text="
+                      + event.getText()
+                      + " before="
+                      + event.getBeforeText()
+                      + " from="
+                      + event.getFromIndex()
+                      + " to="
+                      + event.getToIndex()
+                      + " scrollY="
+                      + event.getScrollY()
+                      + " maxScrollY="
+                      + event.getMaxScrollY());
+              return true;
+            });
+    return setUpBridge(mockRootView, mockManager, null);
+  }
+
   AccessibilityBridge setUpBridge() {
     return setUpBridge(null, null, null, null, null, null);
   }
@@ -1557,7 +1980,7 @@ public class AccessibilityBridgeTest {
   }
 
   /// The encoding for semantics is described in platform_view_android.cc
-  class TestSemanticsUpdate {
+  static class TestSemanticsUpdate {
     TestSemanticsUpdate(ByteBuffer buffer, String[] strings, ByteBuffer[] stringAttributeArgs) {
       this.buffer = buffer;
       this.strings = strings;
@@ -1588,19 +2011,19 @@ public class AccessibilityBridgeTest {
     }
   }
 
-  class TestStringAttribute {
+  static class TestStringAttribute {
     int start;
     int end;
     TestStringAttributeType type;
   }
 
-  class TestStringAttributeSpellOut extends TestStringAttribute {}
+  static class TestStringAttributeSpellOut extends TestStringAttribute {}
 
-  class TestStringAttributeLocale extends TestStringAttribute {
+  static class TestStringAttributeLocale extends TestStringAttribute {
     String locale;
   }
 
-  class TestSemanticsNode {
+  static class TestSemanticsNode {
     TestSemanticsNode() {}
 
     void addFlag(AccessibilityBridge.Flag flag) {
@@ -1657,8 +2080,13 @@ public class AccessibilityBridgeTest {
     // custom actions not supported.
 
     TestSemanticsUpdate toUpdate() {
+      return toUpdate(1000);
+    }
+
+    /// Encodes this node and its descendants into a buffer of |capacity| bytes.
+    TestSemanticsUpdate toUpdate(int capacity) {
       ArrayList<String> strings = new ArrayList<String>();
-      ByteBuffer bytes = ByteBuffer.allocate(1000);
+      ByteBuffer bytes = ByteBuffer.allocate(capacity);
       ArrayList<ByteBuffer> stringAttributeArgs = new ArrayList<ByteBuffer>();
       addToBuffer(bytes, strings, stringAttributeArgs);
       bytes.flip();
@@ -1668,8 +2096,33 @@ public class AccessibilityBridgeTest {
           stringAttributeArgs.toArray(new ByteBuffer[stringAttributeArgs.size()]));
     }
 
+    /// Encodes only the given nodes, without their descendants, like the framework does for the
+    /// nodes that changed in a frame.
+    static TestSemanticsUpdate toPartialUpdate(List<TestSemanticsNode> nodes, int capacity) {
+      ArrayList<String> strings = new ArrayList<String>();
+      ByteBuffer bytes = ByteBuffer.allocate(capacity);
+      ArrayList<ByteBuffer> stringAttributeArgs = new ArrayList<ByteBuffer>();
+      for (TestSemanticsNode node : nodes) {
+        node.addNodeToBuffer(bytes, strings, stringAttributeArgs);
+      }
+      bytes.flip();
+      return new TestSemanticsUpdate(
+          bytes,
+          strings.toArray(new String[strings.size()]),
+          stringAttributeArgs.toArray(new ByteBuffer[stringAttributeArgs.size()]));
+    }
+
     protected void addToBuffer(
         ByteBuffer bytes, ArrayList<String> strings, ArrayList<ByteBuffer> stringAttributeArgs) {
+      addNodeToBuffer(bytes, strings, stringAttributeArgs);
+      // child nodes
+      for (TestSemanticsNode node : children) {
+        node.addToBuffer(bytes, strings, stringAttributeArgs);
+      }
+    }
+
+    private void addNodeToBuffer(
+        ByteBuffer bytes, ArrayList<String> strings, ArrayList<ByteBuffer> stringAttributeArgs) {
       bytes.putInt(id);
       bytes.putInt(flags);
       bytes.putInt(actions);
@@ -1714,10 +2167,6 @@ public class AccessibilityBridgeTest {
       }
       // custom actions
       bytes.putInt(0);
-      // child nodes
-      for (TestSemanticsNode node : children) {
-        node.addToBuffer(bytes, strings, stringAttributeArgs);
-      }
     }
   }
 
@@ -0,0 +1,187 @@
+package io.flutter.view;
+
+import static org.junit.Assert.*;
+
+import android.annotation.TargetApi;
+import android.view.accessibility.AccessibilityEvent;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+
+@Config(manifest = Config.NONE)
+@RunWith(RobolectricTestRunner.class)
+@TargetApi(28)
+public class AccessibilityEventCoalescerTest {
+  // Node 1 is the parent of node 2, which is the parent of node 3. Node 4 is unrelated.
+  private static final int[] PARENTS = {-1, -1, 1, 2, -1};
+
+  private final List<AccessibilityEvent> sentEvents = new ArrayList<>();
+  private final List<Runnable> frameCallbacks = new ArrayList<>();
+  private final List<Integer> parentLookups = new ArrayList<>();
+  private AccessibilityEventCoalescer coalescer;
+
+  @Before
+  public void setUp() {
+    coalescer =
+        new AccessibilityEventCoalescer(
+            new AccessibilityEventCoalescer.Delegate() {
+              @Override
+              public void sendAccessibilityEvent(AccessibilityEvent event) {
+                sentEvents.add(event);
+              }
+
+              @Override
+              public void postFrameCallback(Runnable callback) {
+                frameCallbacks.add(callback);
+              }
+
+              @Override
+              public int getParentId(int virtualViewId) {
+                parentLookups.add(virtualViewId);
+                return PARENTS[virtualViewId];
+              }
+            });
+  }
+
+  @Test
+  public void itSendsEventsOnTheNextFrame() {
+    final AccessibilityEvent scrolled = AccessibilityEvent.obtain();
+    scrolled.setEventType(AccessibilityEvent.TYPE_VIEW_SCROLLED);
+
+    coalescer.sendViewScrolled(2, scrolled);
+    coalescer.sendWindowContentChanged(4, contentChanged(4), true);
+    assertTrue(sentEvents.isEmpty());
+    assertEquals(1, frameCallbacks.size());
+
+    runFrame();
+    assertEquals(2, sentEvents.size());
+    assertSame(scrolled, sentEvents.get(0));
+
+    // The next frame starts empty.
+    coalescer.sendWindowContentChanged(4, contentChanged(4), true);
+    runFrame();
+    assertEquals(3, sentEvents.size());
+    assertEquals(0, coalescer.getSuppressedEventCount());
+  }
+
+  @Test
+  public void itMergesContentChangesOfTheSameNode() {
+    final AccessibilityEvent first = contentChanged(2);
+    first.setContentChangeTypes(AccessibilityEvent.CONTENT_CHANGE_TYPE_TEXT);
+    final AccessibilityEvent second = contentChanged(2);
+    second.setContentChangeTypes(AccessibilityEvent.CONTENT_CHANGE_TYPE_SUBTREE);
+
+    coalescer.sendWindowContentChanged(2, first, true);
+    coalescer.sendWindowContentChanged(2, second, true);
+    runFrame();
+
+    assertEquals(1, sentEvents.size());
+    assertSame(first, sentEvents.get(0));
+    assertEquals(
+        AccessibilityEvent.CONTENT_CHANGE_TYPE_TEXT
+            | AccessibilityEvent.CONTENT_CHANGE_TYPE_SUBTREE,
+        first.getContentChangeTypes());
+    assertEquals(1, coalescer.getSuppressedEventCount());
+  }
+
+  @Test
+  public void itMergesContentChangesIntoAPendingAncestor() {
+    coalescer.sendWindowContentChanged(1, contentChanged(1), true);
+    coalescer.sendWindowContentChanged(3, contentChanged(3), true);
+    coalescer.sendWindowContentChanged(4, contentChanged(4), true);
+    runFrame();
+
+    assertEquals(2, sentEvents.size());
+    assertEquals(1, coalescer.getSuppressedEventCount());
+  }
+
+  @Test
+  public void itOnlyLooksUpTheAncestorsOfTheNode() {
+    coalescer.sendWindowContentChanged(4, contentChanged(4), true);
+    coalescer.sendWindowContentChanged(1, contentChanged(1), true);
+    parentLookups.clear();
+
+    coalescer.sendWindowContentChanged(3, contentChanged(3), true);
+
+    // Node 3 is looked up, then node 2, whose parent has a pending event.
+    assertEquals(Arrays.asList(3, 2), parentLookups);
+    assertEquals(1, coalescer.getSuppressedEventCount());
+  }
+
+  @Test
+  public void itDoesNotMergeLiveRegionsIntoAnAncestor() {
+    final AccessibilityEvent liveRegion = contentChanged(3);
+
+    coalescer.sendWindowContentChanged(1, contentChanged(1), true);
+    coalescer.sendWindowContentChanged(3, liveRegion, false);
+    runFrame();
+
+    assertEquals(2, sentEvents.size());
+    assertSame(liveRegion, sentEvents.get(1));
+    assertEquals(0, coalescer.getSuppressedEventCount());
+  }
+
+  @Test
+  public void itKeepsTheLatestScrollEventOfANode() {
+    final AccessibilityEvent contentChanged = contentChanged(1);
+    final AccessibilityEvent latestScroll = AccessibilityEvent.obtain();
+    latestScroll.setEventType(AccessibilityEvent.TYPE_VIEW_SCROLLED);
+    latestScroll.setScrollY(20);
+    final AccessibilityEvent earlierScroll = AccessibilityEvent.obtain();
+    earlierScroll.setEventType(AccessibilityEvent.TYPE_VIEW_SCROLLED);
+    earlierScroll.setScrollY(10);
+
+    coalescer.sendViewScrolled(2, earlierScroll);
+    coalescer.sendWindowContentChanged(1, contentChanged, true);
+    coalescer.sendViewScrolled(2, latestScroll);
+    runFrame();
+
+    // The scroll event keeps its place in the order.
+    assertEquals(2, sentEvents.size());
+    assertSame(latestScroll, sentEvents.get(0));
+    assertSame(contentChanged, sentEvents.get(1));
+    assertEquals(1, coalescer.getSuppressedEventCount());
+  }
+
+  @Test
+  public void itDropsPendingEventsWhenCleared() {
+    coalescer.sendWindowContentChanged(1, contentChanged(1), true);
+    coalescer.clear();
+    runFrame();
+
+    assertTrue(sentEvents.isEmpty());
+  }
+
+  @Test
+  public void itPostsANewFlushAfterBeingCleared() {
+    coalescer.sendWindowContentChanged(1, contentChanged(1), true);
+    coalescer.clear();
+    frameCallbacks.clear();
+
+    coalescer.sendWindowContentChanged(4, contentChanged(4), true);
+    assertEquals(1, frameCallbacks.size());
+    runFrame();
+
+    assertEquals(1, sentEvents.size());
+  }
+
+  private void runFrame() {
+    final List<Runnable> callbacks = new ArrayList<>(frameCallbacks);
+    frameCallbacks.clear();
+    for (Runnable callback : callbacks) {
+      callback.run();
+    }
+  }
+
+  private static AccessibilityEvent contentChanged(int virtualViewId) {
+    final AccessibilityEvent event = AccessibilityEvent.obtain();
+    event.setEventType(AccessibilityEvent.TYPE_WINDOW_CONTENT_CHANGED);
+    event.setContentDescription("node " + virtualViewId);
+    return event;
+  }
+}